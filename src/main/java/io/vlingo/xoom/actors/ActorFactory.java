@@ -98,7 +98,11 @@ public class ActorFactory {
 
   static Mailbox actorMailbox(final Stage stage, final Address address, final Definition definition, MailboxWrapper wrapper) {
     final String mailboxName = stage.world().mailboxNameFrom(definition.mailboxName());
-    final Mailbox mailbox = stage.world().assignMailbox(mailboxName, address.hashCode());
+    final String dispatcherPool = definition.dispatcherPool() != null ? definition.dispatcherPool() : stage.dispatcherPool();
+    final Mailbox mailbox =
+            dispatcherPool == null ?
+                stage.world().assignMailbox(mailboxName, address.hashCode(), definition) :
+                stage.world().assignMailbox(mailboxName, address.hashCode(), definition, dispatcherPool);
 
     return wrapper.wrap(address, mailbox);
   }
@@ -7,7 +7,15 @@
 
 package io.vlingo.xoom.actors;
 
-public final class Backoff {
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An {@code IdleStrategy} that waits for a number of milliseconds that is either
+ * fixed or doubles on each idle call up to a cap. A wait ends early when the
+ * thread is unparked or interrupted.
+ */
+public final class Backoff implements IdleStrategy {
   private static final long BACKOFF_CAP = 4096;
   private static final long BACKOFF_RESET = 0L;
   private static final long BACKOFF_START = 1L;
@@ -25,6 +33,11 @@ public final class Backoff {
     fixed = true;
   }
 
+  @Override
+  public void idle() {
+    now();
+  }
+
   public void now() {
     if (!fixed) {
       if (backoff == BACKOFF_RESET) {
@@ -36,15 +49,14 @@ public final class Backoff {
     yieldFor(backoff);
   }
 
+  @Override
   public void reset() {
     backoff = BACKOFF_RESET;
   }
 
   private void yieldFor(long aMillis) {
-    try {
-      Thread.sleep(aMillis);
-    } catch (InterruptedException e) {
-      // ignore
-    }
+    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(aMillis));
+    // as with the former sleep, an interrupt used to wake me is consumed
+    Thread.interrupted();
   }
 }
@@ -0,0 +1,26 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a protocol method whose implementation may block, such as on file I/O
+ * or a synchronous client. A mailbox that supports offloading, such as the
+ * {@code queueMailbox}, delivers the messages of such methods on a separate
+ * elastic pool of threads, such that they do not stall the dispatcher threads
+ * shared by non-blocking actors. The actor still receives one message at a time.
+ * The generated proxy bakes the marker into each message.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Blocking {
+}
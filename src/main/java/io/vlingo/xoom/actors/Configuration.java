@@ -29,19 +29,33 @@ import io.vlingo.xoom.actors.plugin.PluginProperties;
 import io.vlingo.xoom.actors.plugin.completes.PooledCompletesPlugin.PooledCompletesPluginConfiguration;
 import io.vlingo.xoom.actors.plugin.logging.slf4j.Slf4jLoggerPlugin;
 import io.vlingo.xoom.actors.plugin.mailbox.agronampscarrayqueue.ManyToOneConcurrentArrayQueuePlugin.ManyToOneConcurrentArrayQueuePluginConfiguration;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.BoundedConcurrentQueueMailboxPlugin.BoundedConcurrentQueueMailboxPluginConfiguration;
 import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.ConcurrentQueueMailboxPlugin.ConcurrentQueueMailboxPluginConfiguration;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.ConflatingQueueMailboxPlugin.ConflatingQueueMailboxPluginConfiguration;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.IntrusiveQueueMailboxPlugin.IntrusiveQueueMailboxPluginConfiguration;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.JournaledQueueMailboxPlugin.JournaledQueueMailboxPluginConfiguration;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.PriorityQueueMailboxPlugin.PriorityQueueMailboxPluginConfiguration;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.SpillingQueueMailboxPlugin.SpillingQueueMailboxPluginConfiguration;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.VirtualThreadMailboxPlugin.VirtualThreadMailboxPluginConfiguration;
 import io.vlingo.xoom.actors.plugin.mailbox.sharedringbuffer.SharedRingBufferMailboxPlugin.SharedRingBufferMailboxPluginConfiguration;
 import io.vlingo.xoom.actors.plugin.supervision.CommonSupervisorsPlugin.CommonSupervisorsPluginConfiguration;
 import io.vlingo.xoom.actors.plugin.supervision.DefaultSupervisorOverridePlugin.DefaultSupervisorOverridePluginConfiguration;
 
 public class Configuration {
+  private BoundedConcurrentQueueMailboxPluginConfiguration boundedConcurrentQueueMailboxPluginConfiguration;
   private ConcurrentQueueMailboxPluginConfiguration concurrentQueueMailboxPluginConfiguration;
   private CommonSupervisorsPluginConfiguration commonSupervisorsPluginConfiguration;
+  private ConflatingQueueMailboxPluginConfiguration conflatingQueueMailboxPluginConfiguration;
   private DefaultSupervisorOverridePluginConfiguration defaultSupervisorOverridePluginConfiguration;
+  private IntrusiveQueueMailboxPluginConfiguration intrusiveQueueMailboxPluginConfiguration;
+  private JournaledQueueMailboxPluginConfiguration journaledQueueMailboxPluginConfiguration;
   private Slf4jLoggerPlugin.Slf4jLoggerPluginConfiguration slf4jPluginConfiguration;
   private PooledCompletesPluginConfiguration pooledCompletesPluginConfiguration;
+  private PriorityQueueMailboxPluginConfiguration priorityQueueMailboxPluginConfiguration;
   private ManyToOneConcurrentArrayQueuePluginConfiguration manyToOneConcurrentArrayQueuePluginConfiguration;
   private SharedRingBufferMailboxPluginConfiguration sharedRingBufferMailboxPluginConfiguration;
+  private SpillingQueueMailboxPluginConfiguration spillingQueueMailboxPluginConfiguration;
+  private VirtualThreadMailboxPluginConfiguration virtualThreadMailboxPluginConfiguration;
   private DirectoryEvictionConfiguration directoryEvictionConfiguration;
 
   private String mainProxyGeneratedClassesPath;
@@ -95,6 +109,18 @@ public class Configuration {
         : properties.getProperty(key, defaultValue);
   }
 
+  public Configuration with(final BoundedConcurrentQueueMailboxPluginConfiguration configuration) {
+    if (this.boundedConcurrentQueueMailboxPluginConfiguration == null) {
+      this.boundedConcurrentQueueMailboxPluginConfiguration = configuration;
+    }
+    this.configurationOverrides.put(configuration.getClass().getSimpleName(), configuration);
+    return this;
+  }
+
+  public BoundedConcurrentQueueMailboxPluginConfiguration boundedConcurrentQueueMailboxPluginConfiguration() {
+    return boundedConcurrentQueueMailboxPluginConfiguration;
+  }
+
   public Configuration with(final CommonSupervisorsPluginConfiguration configuration) {
     if (this.commonSupervisorsPluginConfiguration == null) {
       this.commonSupervisorsPluginConfiguration = configuration;
@@ -131,6 +157,54 @@ public class Configuration {
     return defaultSupervisorOverridePluginConfiguration;
   }
 
+  public Configuration with(final ConflatingQueueMailboxPluginConfiguration configuration) {
+    if (this.conflatingQueueMailboxPluginConfiguration == null) {
+      this.conflatingQueueMailboxPluginConfiguration = configuration;
+    }
+    this.configurationOverrides.put(configuration.getClass().getSimpleName(), configuration);
+    return this;
+  }
+
+  public ConflatingQueueMailboxPluginConfiguration conflatingQueueMailboxPluginConfiguration() {
+    return conflatingQueueMailboxPluginConfiguration;
+  }
+
+  public Configuration with(final IntrusiveQueueMailboxPluginConfiguration configuration) {
+    if (this.intrusiveQueueMailboxPluginConfiguration == null) {
+      this.intrusiveQueueMailboxPluginConfiguration = configuration;
+    }
+    this.configurationOverrides.put(configuration.getClass().getSimpleName(), configuration);
+    return this;
+  }
+
+  public IntrusiveQueueMailboxPluginConfiguration intrusiveQueueMailboxPluginConfiguration() {
+    return intrusiveQueueMailboxPluginConfiguration;
+  }
+
+  public Configuration with(final PriorityQueueMailboxPluginConfiguration configuration) {
+    if (this.priorityQueueMailboxPluginConfiguration == null) {
+      this.priorityQueueMailboxPluginConfiguration = configuration;
+    }
+    this.configurationOverrides.put(configuration.getClass().getSimpleName(), configuration);
+    return this;
+  }
+
+  public PriorityQueueMailboxPluginConfiguration priorityQueueMailboxPluginConfiguration() {
+    return priorityQueueMailboxPluginConfiguration;
+  }
+
+  public Configuration with(final VirtualThreadMailboxPluginConfiguration configuration) {
+    if (this.virtualThreadMailboxPluginConfiguration == null) {
+      this.virtualThreadMailboxPluginConfiguration = configuration;
+    }
+    this.configurationOverrides.put(configuration.getClass().getSimpleName(), configuration);
+    return this;
+  }
+
+  public VirtualThreadMailboxPluginConfiguration virtualThreadMailboxPluginConfiguration() {
+    return virtualThreadMailboxPluginConfiguration;
+  }
+
   public Configuration with(final Slf4jLoggerPlugin.Slf4jLoggerPluginConfiguration configuration) {
     // NOTE: There may be only one registered Slf4jLoggerPluginConfiguration
     this.slf4jPluginConfiguration = configuration;
@@ -178,6 +252,30 @@ public class Configuration {
     return sharedRingBufferMailboxPluginConfiguration;
   }
 
+  public Configuration with(final SpillingQueueMailboxPluginConfiguration configuration) {
+    if (this.spillingQueueMailboxPluginConfiguration == null) {
+      this.spillingQueueMailboxPluginConfiguration = configuration;
+    }
+    this.configurationOverrides.put(configuration.getClass().getSimpleName(), configuration);
+    return this;
+  }
+
+  public SpillingQueueMailboxPluginConfiguration spillingQueueMailboxPluginConfiguration() {
+    return spillingQueueMailboxPluginConfiguration;
+  }
+
+  public Configuration with(final JournaledQueueMailboxPluginConfiguration configuration) {
+    if (this.journaledQueueMailboxPluginConfiguration == null) {
+      this.journaledQueueMailboxPluginConfiguration = configuration;
+    }
+    this.configurationOverrides.put(configuration.getClass().getSimpleName(), configuration);
+    return this;
+  }
+
+  public JournaledQueueMailboxPluginConfiguration journaledQueueMailboxPluginConfiguration() {
+    return journaledQueueMailboxPluginConfiguration;
+  }
+
   public Configuration with(final DirectoryEvictionConfiguration configuration) {
     if (this.directoryEvictionConfiguration == null) {
       this.directoryEvictionConfiguration = configuration;
@@ -300,6 +398,13 @@ public class Configuration {
             io.vlingo.xoom.actors.plugin.logging.slf4j.Slf4jLoggerPlugin::new,
             io.vlingo.xoom.actors.plugin.mailbox.agronampscarrayqueue.ManyToOneConcurrentArrayQueuePlugin::new,
             io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.ConcurrentQueueMailboxPlugin::new,
+            io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.BoundedConcurrentQueueMailboxPlugin::new,
+            io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.ConflatingQueueMailboxPlugin::new,
+            io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.IntrusiveQueueMailboxPlugin::new,
+            io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.JournaledQueueMailboxPlugin::new,
+            io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.PriorityQueueMailboxPlugin::new,
+            io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.SpillingQueueMailboxPlugin::new,
+            io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.VirtualThreadMailboxPlugin::new,
             io.vlingo.xoom.actors.plugin.mailbox.sharedringbuffer.SharedRingBufferMailboxPlugin::new,
             io.vlingo.xoom.actors.plugin.supervision.CommonSupervisorsPlugin::new,
             io.vlingo.xoom.actors.plugin.supervision.DefaultSupervisorOverridePlugin::new,
@@ -0,0 +1,28 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the protocol method parameter whose value is the conflation key of
+ * the method's messages. A mailbox that supports conflation, such as the
+ * {@code conflatingQueueMailbox}, replaces a pending message of the same
+ * method and key with the newer message rather than enqueuing it, such that
+ * only the latest message per key is delivered. The key must implement
+ * {@code equals()} and {@code hashCode()}. The generated proxy bakes the
+ * key into each message. The method must return {@code void}, because a
+ * replaced message is never delivered and so could not answer an outcome.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface ConflationKey {
+}
@@ -9,15 +9,39 @@ package io.vlingo.xoom.actors;
 
 public final class DeadLetter {
   public final Actor actor;
+  public final Reason reason;
   public final String representation;
 
   public DeadLetter(final Actor actor, final String representation) {
+    this(actor, representation, Reason.Undeliverable);
+  }
+
+  public DeadLetter(final Actor actor, final String representation, final Reason reason) {
     this.actor = actor;
+    this.reason = reason;
     this.representation = representation;
   }
 
   @Override
   public String toString() {
-    return "DeadLetter[" + actor + "." + representation + "]";
+    if (reason == Reason.Undeliverable) {
+      return "DeadLetter[" + actor + "." + representation + "]";
+    }
+    return "DeadLetter[" + actor + "." + representation + " " + reason + "]";
+  }
+
+  /**
+   * The reason that a message was not delivered.
+   */
+  public static enum Reason {
+    /**
+     * The message's deadline passed before it could be delivered.
+     */
+    Expired,
+
+    /**
+     * The message could not be delivered, such as to a stopped actor.
+     */
+    Undeliverable
   }
 }
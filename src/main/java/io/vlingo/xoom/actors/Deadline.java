@@ -0,0 +1,110 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The deadlines of messages, as {@code System.nanoTime()} values, after which
+ * they are not delivered. A deadline is set per send by {@code within()}, such
+ * that every message sent through an actor proxy by the current thread while
+ * within it carries that deadline, for example:
+ * <pre>
+ *   Deadline.within(250, () -&gt; quotes.priceOf(symbol));
+ * </pre>
+ * Nested scopes and the {@code TimeToLive} of the protocol method combine
+ * such that the earliest deadline applies.
+ */
+public final class Deadline {
+  public static final long None = 0L;
+
+  // a thread's scope is created only once it first runs within(), and so is never shared
+  private static final ThreadLocal<long[]> current = new ThreadLocal<>();
+
+  /**
+   * Answers the deadline of a message sent now by the current thread with
+   * a {@code timeToLive}, or {@code None}.
+   * @param timeToLive the long milliseconds before the message expires, or 0 for no time to live
+   * @return long
+   */
+  public static long after(final long timeToLive) {
+    final long[] scope = current.get();
+    final long scoped = scope == null ? None : scope[0];
+
+    if (timeToLive <= 0) {
+      return scoped;
+    }
+
+    return earliest(scoped, deadlineOf(timeToLive));
+  }
+
+  /**
+   * Answers whether or not the {@code deadline} has passed.
+   * @param deadline the long deadline, which must not be None
+   * @return boolean
+   */
+  public static boolean hasPassed(final long deadline) {
+    return System.nanoTime() - deadline > 0;
+  }
+
+  /**
+   * Runs {@code sends} such that the messages that it sends expire after {@code timeToLive}.
+   * @param timeToLive the long milliseconds before the messages expire
+   * @param sends the Runnable that sends the messages
+   */
+  public static void within(final long timeToLive, final Runnable sends) {
+    within(timeToLive, () -> {
+      sends.run();
+      return null;
+    });
+  }
+
+  /**
+   * Answers the outcome of {@code sends}, which is run such that the messages
+   * that it sends expire after {@code timeToLive}.
+   * @param timeToLive the long milliseconds before the messages expire
+   * @param sends the {@code Supplier<R>} that sends the messages
+   * @param <R> the type of the outcome
+   * @return R
+   */
+  public static <R> R within(final long timeToLive, final Supplier<R> sends) {
+    long[] deadline = current.get();
+
+    if (deadline == null) {
+      deadline = new long[] { None };
+      current.set(deadline);
+    }
+
+    final long enclosing = deadline[0];
+
+    deadline[0] = earliest(enclosing, deadlineOf(timeToLive));
+
+    try {
+      return sends.get();
+    } finally {
+      deadline[0] = enclosing;
+    }
+  }
+
+  private static long deadlineOf(final long timeToLive) {
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeToLive);
+    return deadline == None ? deadline + 1 : deadline;
+  }
+
+  private static long earliest(final long deadline1, final long deadline2) {
+    if (deadline1 == None) {
+      return deadline2;
+    } else if (deadline2 == None) {
+      return deadline1;
+    }
+    return deadline1 - deadline2 < 0 ? deadline1 : deadline2;
+  }
+
+  private Deadline() { }
+}
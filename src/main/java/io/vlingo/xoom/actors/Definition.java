@@ -334,6 +334,12 @@ public final class Definition {
   private final Supervisor supervisor;
   private final Class<? extends Actor> type;
   final boolean evictable;
+  private int affinity;
+  private String dispatcherPool;
+  private boolean hasAffinity;
+  private boolean inlineDelivery;
+  private long latencyTarget;
+  private int mailboxCapacity;
 
   public Definition(final Class<? extends Actor> type, final ActorInstantiator<? extends Actor> instantiator) {
     this(type, instantiator, false);
@@ -589,6 +595,129 @@ public final class Definition {
     return mailboxName;
   }
 
+  /**
+   * Answers the affinity by which my {@code Mailbox} is pinned to a dispatcher
+   * thread, which is meaningful only if {@code hasAffinity()}.
+   * @return int
+   */
+  public int affinity() {
+    return affinity;
+  }
+
+  /**
+   * Answers whether or not my {@code Mailbox} is pinned to a dispatcher thread
+   * by my {@code affinity()} rather than assigned by the hash code of its {@code Address}.
+   * @return boolean
+   */
+  public boolean hasAffinity() {
+    return hasAffinity;
+  }
+
+  /**
+   * Answers myself after pinning my {@code Mailbox} by {@code affinity}, such that
+   * all actors of the same affinity run on the same thread and are never migrated.
+   * Only {@code Dispatcher} types with thread affinity respect this value.
+   * @param affinity the int affinity, which is reduced modulo the number of threads
+   * @return Definition
+   */
+  public Definition withAffinity(final int affinity) {
+    this.affinity = affinity;
+    this.hasAffinity = true;
+    return this;
+  }
+
+  /**
+   * Answers the name of the dispatcher pool that runs my {@code Mailbox},
+   * or {@code null} if it is decided by my {@code Stage}.
+   * @return String
+   */
+  public String dispatcherPool() {
+    return dispatcherPool;
+  }
+
+  /**
+   * Answers myself after binding my {@code Mailbox} to the dispatcher pool named
+   * {@code dispatcherPool}, which takes precedence over that of my {@code Stage}.
+   * Only {@code MailboxProvider} types that declare dispatcher pools respect this value.
+   * @param dispatcherPool the String name of a declared dispatcher pool
+   * @return Definition
+   */
+  public Definition withDispatcherPool(final String dispatcherPool) {
+    this.dispatcherPool = dispatcherPool;
+    return this;
+  }
+
+  /**
+   * Answers whether or not a sender that finds my {@code Mailbox} idle may deliver
+   * to it on the sender's own thread rather than through its dispatcher.
+   * @return boolean
+   */
+  public boolean isInlineDelivery() {
+    return inlineDelivery;
+  }
+
+  /**
+   * Answers myself after opting in to delivery of my messages on the thread of
+   * their sender when my {@code Mailbox} is idle, which avoids a thread hand-off
+   * per message at the cost of running my actor on the threads of its senders.
+   * Inline delivery is bounded in its nesting and number of messages, and falls
+   * back to the dispatcher when my {@code Mailbox} is scheduled or running.
+   * Only {@code MailboxProvider} types that support inline delivery respect this value.
+   * @return Definition
+   */
+  public Definition withInlineDelivery() {
+    this.inlineDelivery = true;
+    return this;
+  }
+
+  /**
+   * Answers the milliseconds within which my messages should be delivered after
+   * they are sent, or {@code 0} if the target is decided by the {@code MailboxProvider}.
+   * @return long
+   */
+  public long latencyTarget() {
+    return latencyTarget;
+  }
+
+  /**
+   * Answers myself after setting the milliseconds within which my messages should be
+   * delivered after they are sent, such that my {@code Mailbox} is run ahead of those
+   * whose messages have waited as long but have a greater target. Only dispatchers that
+   * order mailboxes by the age of their head message respect this value.
+   * @param latencyTarget the long milliseconds, which must be greater than 0
+   * @return Definition
+   */
+  public Definition withLatencyTarget(final long latencyTarget) {
+    if (latencyTarget <= 0) {
+      throw new IllegalArgumentException("Latency target must be greater than 0.");
+    }
+    this.latencyTarget = latencyTarget;
+    return this;
+  }
+
+  /**
+   * Answers the maximum number of pending messages of my {@code Mailbox},
+   * or {@code 0} if the capacity is decided by the {@code MailboxProvider}.
+   * Only bounded {@code Mailbox} types respect this value.
+   * @return int
+   */
+  public int mailboxCapacity() {
+    return mailboxCapacity;
+  }
+
+  /**
+   * Answers myself after setting the maximum number of pending messages of my {@code Mailbox}.
+   * @param mailboxCapacity the int capacity, which must be greater than 0
+   * @return Definition
+   */
+  public Definition withMailboxCapacity(final int mailboxCapacity) {
+    if (mailboxCapacity <= 0) {
+      throw new IllegalArgumentException("Mailbox capacity must be greater than 0.");
+    }
+    this.mailboxCapacity = mailboxCapacity;
+    return this;
+  }
+
   public List<Object> parameters() {
     return new ArrayList<Object>(internalParameters());
   }
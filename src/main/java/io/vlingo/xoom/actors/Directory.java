@@ -101,7 +101,7 @@ final class Directory {
     return Arrays.stream(maps)
         .flatMap(m -> m.values().stream())
         .filter(a -> a.lifeCycle.evictable.isStale(thresholdMillis)
-            && a.lifeCycle.environment.mailbox.pendingMessages() == 0)
+            && a.lifeCycle.environment.mailbox.depth() == 0)
         .collect(Collectors.toCollection(ArrayList::new));
   }
 
@@ -36,4 +36,14 @@ public interface Dispatcher {
    * @return boolean
    */
   boolean requiresExecutionNotification();
+
+  /**
+   * Answer whether or not I order the mailboxes that I execute by the age of
+   * their head message, such that a {@code Mailbox} must record the time that
+   * each of its messages is enqueued.
+   * @return boolean
+   */
+  default boolean ordersByHeadAge() {
+    return false;
+  }
 }
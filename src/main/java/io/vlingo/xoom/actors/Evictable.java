@@ -26,7 +26,7 @@ final class Evictable {
   boolean stop(long referenceMillis, long thresholdMillis) {
     if (!actor.definition().evictable) { return false; }
 
-    final int pendingMessageCount = actor.lifeCycle.environment.mailbox.pendingMessages();
+    final int pendingMessageCount = actor.lifeCycle.environment.mailbox.depth();
     if (isStale(referenceMillis, thresholdMillis)) {
       if (pendingMessageCount == 0) {
         actor.selfAs(Stoppable.class).stop();
@@ -0,0 +1,172 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The behavior of a dispatcher thread that found no messages to deliver.
+ * The thread calls {@code idle()} each time that it finds nothing, and
+ * {@code reset()} each time that it delivers, such that a strategy may
+ * escalate from the cheapest wake-up latency to the cheapest CPU use over
+ * a run of idle calls. Each instance is used by a single thread.
+ */
+public interface IdleStrategy {
+  long DefaultMinParkNanos = 1_000L;
+  int DefaultSpins = 100;
+  int DefaultYields = 100;
+
+  /**
+   * The kinds of {@code IdleStrategy} that may be named by a plugin configuration.
+   */
+  public static enum Kind { Backoff, BusySpin, SpinThenYield, Parking, Composite }
+
+  /**
+   * Answers a new {@code IdleStrategy} of {@code kind}.
+   * @param kind the Kind of IdleStrategy
+   * @param fixedBackoff the long milliseconds of a fixed Backoff, or 0 to back off exponentially
+   * @param maxParkNanos the long maximum nanoseconds that a Parking or Composite strategy parks
+   * @return IdleStrategy
+   */
+  static IdleStrategy of(final Kind kind, final long fixedBackoff, final long maxParkNanos) {
+    switch (kind) {
+    case BusySpin:
+      return new BusySpin();
+    case SpinThenYield:
+      return new SpinThenYield(DefaultSpins);
+    case Parking:
+      return new Parking(DefaultMinParkNanos, maxParkNanos);
+    case Composite:
+      return new Composite(
+              new IdleStrategy[] { new BusySpin(), new SpinThenYield(0), new Parking(DefaultMinParkNanos, maxParkNanos) },
+              new int[] { DefaultSpins, DefaultYields });
+    default:
+      return fixedBackoff == 0L ? new io.vlingo.xoom.actors.Backoff() : new io.vlingo.xoom.actors.Backoff(fixedBackoff);
+    }
+  }
+
+  /**
+   * Waits, or not, after finding no messages to deliver.
+   */
+  void idle();
+
+  /**
+   * Resets my escalation after messages were delivered.
+   */
+  void reset();
+
+  /**
+   * Spins without yielding the processor, for the least wake-up latency at the cost of a core.
+   */
+  public static final class BusySpin implements IdleStrategy {
+    @Override
+    public void idle() { }
+
+    @Override
+    public void reset() { }
+  }
+
+  /**
+   * Spins for a number of idle calls and then yields the processor on each later call.
+   */
+  public static final class SpinThenYield implements IdleStrategy {
+    private int idles;
+    private final int spins;
+
+    public SpinThenYield(final int spins) {
+      this.spins = spins;
+    }
+
+    @Override
+    public void idle() {
+      if (idles < spins) {
+        ++idles;
+      } else {
+        Thread.yield();
+      }
+    }
+
+    @Override
+    public void reset() {
+      idles = 0;
+    }
+  }
+
+  /**
+   * Parks for a number of nanoseconds that doubles on each idle call from
+   * {@code minParkNanos} up to {@code maxParkNanos}. A park ends early when
+   * the thread is unparked or interrupted, so senders may wake the thread.
+   */
+  public static final class Parking implements IdleStrategy {
+    private final long maxParkNanos;
+    private final long minParkNanos;
+    private long parkNanos;
+
+    public Parking(final long minParkNanos, final long maxParkNanos) {
+      this.minParkNanos = Math.max(1L, minParkNanos);
+      this.maxParkNanos = Math.max(this.minParkNanos, maxParkNanos);
+      this.parkNanos = this.minParkNanos;
+    }
+
+    @Override
+    public void idle() {
+      LockSupport.parkNanos(this, parkNanos);
+      // an interrupt used to wake me must not cause every later park to return immediately
+      Thread.interrupted();
+      if (parkNanos < maxParkNanos) {
+        parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+      }
+    }
+
+    @Override
+    public void reset() {
+      parkNanos = minParkNanos;
+    }
+  }
+
+  /**
+   * Uses each of its phases for its number of idle calls in order, and its last phase thereafter.
+   */
+  public static final class Composite implements IdleStrategy {
+    private final int[] counts;
+    private int idles;
+    private int phase;
+    private final IdleStrategy[] phases;
+
+    /**
+     * Constructs my state.
+     * @param phases the IdleStrategy[] used in order
+     * @param counts the int[] number of idle calls of each phase but the last
+     */
+    public Composite(final IdleStrategy[] phases, final int[] counts) {
+      if (phases.length == 0 || counts.length != phases.length - 1) {
+        throw new IllegalArgumentException("Composite must have at least one phase and a count for each phase but the last.");
+      }
+      this.counts = counts;
+      this.phases = phases;
+    }
+
+    @Override
+    public void idle() {
+      if (phase < counts.length && idles++ == counts[phase]) {
+        idles = 1;
+        ++phase;
+      }
+      phases[phase].idle();
+    }
+
+    @Override
+    public void reset() {
+      for (int index = 0; index <= phase; ++index) {
+        phases[index].reset();
+      }
+      idles = 0;
+      phase = 0;
+    }
+  }
+}
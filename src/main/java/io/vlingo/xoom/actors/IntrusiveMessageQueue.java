@@ -0,0 +1,176 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A multiple-producer, single-consumer {@code Queue<Message>} in which each
+ * {@code LocalMessage} is its own queue node, linked through its {@code next}
+ * field. This is the intrusive queue described by Dmitry Vyukov: producers
+ * append with a single {@code getAndSet()} on the tail, and the one consumer
+ * removes without any CAS. Any other {@code Message} is wrapped in a node.
+ * <p>
+ * Only a single thread at a time may {@code poll()}, {@code peek()}, or
+ * {@code clear()}, which is guaranteed by the mailbox's delivery protocol.
+ * A {@code LocalMessage} must not be enqueued in more than one queue at a time.
+ * Note that {@code poll()} may answer {@code null} while a producer is between
+ * its tail exchange and its link, in which case {@code isEmpty()} answers
+ * {@code false} so that the consumer reschedules itself.
+ */
+public final class IntrusiveMessageQueue extends AbstractQueue<Message> {
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<LocalMessage, LocalMessage> NextUpdater =
+          AtomicReferenceFieldUpdater.newUpdater(LocalMessage.class, LocalMessage.class, "next");
+
+  private volatile LocalMessage<?> head;
+  private final LocalMessage<?> stub;
+  private final AtomicReference<LocalMessage<?>> tail;
+
+  public IntrusiveMessageQueue() {
+    this.stub = new Envelope(null);
+    this.head = stub;
+    this.tail = new AtomicReference<>(stub);
+  }
+
+  /* @see java.util.Queue#offer(java.lang.Object) */
+  @Override
+  public boolean offer(final Message message) {
+    if (message == null) {
+      throw new NullPointerException("Message must not be null.");
+    }
+
+    push(message instanceof LocalMessage ? (LocalMessage<?>) message : new Envelope(message));
+
+    return true;
+  }
+
+  /* @see java.util.Queue#poll() */
+  @Override
+  public Message poll() {
+    LocalMessage<?> head = this.head;
+    LocalMessage<?> next = head.next;
+
+    if (head == stub) {
+      if (next == null) {
+        return null;
+      }
+      this.head = next;
+      head = next;
+      next = next.next;
+    }
+
+    if (next != null) {
+      this.head = next;
+      return messageOf(head);
+    }
+
+    if (head != tail.get()) {
+      return null; // a producer has not yet linked
+    }
+
+    push(stub);
+
+    next = head.next;
+
+    if (next != null) {
+      this.head = next;
+      return messageOf(head);
+    }
+
+    return null;
+  }
+
+  /* @see java.util.Queue#peek() */
+  @Override
+  public Message peek() {
+    final LocalMessage<?> head = this.head;
+
+    if (head == stub) {
+      final LocalMessage<?> next = head.next;
+      return next == null ? null : messageOf(next);
+    }
+
+    return messageOf(head);
+  }
+
+  /* @see java.util.Collection#isEmpty() */
+  @Override
+  public boolean isEmpty() {
+    return head == stub && tail.get() == stub;
+  }
+
+  /**
+   * Answers the number of my elements by traversal, which is O(n).
+   * @see java.util.Collection#size()
+   */
+  @Override
+  public int size() {
+    int size = 0;
+    for (LocalMessage<?> node = head; node != null; node = node.next) {
+      if (node != stub) {
+        ++size;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Answers a weakly consistent {@code Iterator<Message>} that does not support {@code remove()}.
+   * @see java.util.Collection#iterator()
+   */
+  @Override
+  public Iterator<Message> iterator() {
+    return new Iterator<Message>() {
+      private LocalMessage<?> node = skipStub(head);
+
+      @Override
+      public boolean hasNext() {
+        return node != null;
+      }
+
+      @Override
+      public Message next() {
+        if (node == null) {
+          throw new NoSuchElementException();
+        }
+        final Message message = messageOf(node);
+        node = skipStub(node.next);
+        return message;
+      }
+    };
+  }
+
+  private Message messageOf(final LocalMessage<?> node) {
+    return node instanceof Envelope && node != stub ? ((Envelope) node).message : node;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void push(final LocalMessage<?> node) {
+    NextUpdater.lazySet(node, null);
+    final LocalMessage<?> previous = tail.getAndSet(node);
+    NextUpdater.lazySet(previous, node);
+  }
+
+  private LocalMessage<?> skipStub(final LocalMessage<?> node) {
+    return node == stub ? node.next : node;
+  }
+
+  private static final class Envelope extends LocalMessage<Object> {
+    private final Message message;
+
+    Envelope(final Message message) {
+      super(null, null, null, "Envelope");
+      this.message = message;
+    }
+  }
+}
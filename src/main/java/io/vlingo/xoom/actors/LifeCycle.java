@@ -109,12 +109,7 @@ final class LifeCycle {
   void sendStart(final Actor targetActor) {
     try {
       final SerializableConsumer<Startable> consumer = (actor) -> actor.start();
-      if (!environment.mailbox.isPreallocated()) {
-        final Message message = new LocalMessage<Startable>(targetActor, Startable.class, consumer, "start()");
-        environment.mailbox.send(message);
-      } else {
-        environment.mailbox.send(targetActor, Startable.class, consumer, null, "start()");
-      }
+      environment.mailbox.sendControl(new LocalMessage<Startable>(targetActor, Startable.class, consumer, "start()"));
     } catch (Throwable t) {
       environment.logger.error("XOOM: Actor start() failed: " + t.getMessage());
       environment.stage.handleFailureOf(new StageSupervisedActor(Startable.class, targetActor, t));
@@ -15,6 +15,14 @@ public class LocalMessage<T> implements Message {
   SerializableConsumer<T> consumer;
   Class<T> protocol;
   String representation;
+  int priority = Priority.Lowest;
+  Object conflationKey;
+  boolean blocking;
+  long enqueuedAt;
+  long deadline = Deadline.None;
+
+  // link used only while enqueued in an IntrusiveMessageQueue
+  volatile LocalMessage<?> next;
 
   @SuppressWarnings("unchecked")
   public LocalMessage(final Actor actor, final Class<T> protocol, final SerializableConsumer<T> consumer, final Returns<?> returns, final String representation) {
@@ -31,6 +39,10 @@ public class LocalMessage<T> implements Message {
 
   public LocalMessage(final LocalMessage<T> message) {
     this(message.actor, message.protocol, message.consumer, message.returns, message.representation);
+    this.priority = message.priority;
+    this.conflationKey = message.conflationKey;
+    this.deadline = message.deadline;
+    this.blocking = message.blocking;
   }
 
   public LocalMessage(final Mailbox mailbox) {
@@ -77,6 +89,92 @@ public class LocalMessage<T> implements Message {
     return representation;
   }
 
+  @Override
+  public int priority() {
+    return priority;
+  }
+
+  @Override
+  public Object conflationKey() {
+    return conflationKey;
+  }
+
+  @Override
+  public long deadline() {
+    return deadline;
+  }
+
+  @Override
+  public boolean isBlocking() {
+    return blocking;
+  }
+
+  @Override
+  public long enqueuedAt() {
+    return enqueuedAt;
+  }
+
+  @Override
+  public void enqueuedAt(final long enqueuedAt) {
+    this.enqueuedAt = enqueuedAt;
+  }
+
+  /**
+   * Answers myself after marking my delivery as one that may block.
+   * @return {@code LocalMessage<T>}
+   */
+  public LocalMessage<T> withBlocking() {
+    this.blocking = true;
+    return this;
+  }
+
+  /**
+   * Answers myself after setting my {@code conflationKey}. A message that
+   * {@code returns} a value may not be conflated, because its replacement
+   * would leave the sender's outcome forever unanswered.
+   * @param conflationKey the Object key by which a newer message of my protocol method may replace me
+   * @return {@code LocalMessage<T>}
+   * @throws IllegalStateException if I answer a {@code returns} value
+   */
+  public LocalMessage<T> withConflationKey(final Object conflationKey) {
+    if (conflationKey != null && returns != null) {
+      throw new IllegalStateException("A message that returns a value may not be conflated: " + representation);
+    }
+    this.conflationKey = conflationKey;
+    return this;
+  }
+
+  /**
+   * Answers myself after setting my {@code deadline}.
+   * @param deadline the long {@code System.nanoTime()} after which I must not be delivered, or {@code Deadline.None}
+   * @return {@code LocalMessage<T>}
+   */
+  public LocalMessage<T> withDeadline(final long deadline) {
+    this.deadline = deadline;
+    return this;
+  }
+
+  /**
+   * Answers myself after setting my deadline to {@code timeToLive} from now, or to
+   * that of the sender's enclosing {@code Deadline.within()} if it is earlier.
+   * @param timeToLive the long milliseconds before I expire, or 0 for only the enclosing deadline
+   * @return {@code LocalMessage<T>}
+   */
+  public LocalMessage<T> withTimeToLive(final long timeToLive) {
+    this.deadline = Deadline.after(timeToLive);
+    return this;
+  }
+
+  /**
+   * Answers myself after setting my {@code priority}.
+   * @param priority the int priority, where {@code Priority.Highest} is the most urgent
+   * @return {@code LocalMessage<T>}
+   */
+  public LocalMessage<T> withPriority(final int priority) {
+    this.priority = priority;
+    return this;
+  }
+
   @Override
   public boolean isStowed() {
     return false;
@@ -90,6 +188,15 @@ public class LocalMessage<T> implements Message {
     this.protocol = (Class<T>) protocol;
     this.representation = representation;
     this.returns = (Returns<Object>) returns;
+    this.deadline = Deadline.None;
+    this.blocking = false;
+    this.enqueuedAt = 0L;
+  }
+
+  @Override
+  public void set(final Actor actor, final Class<?> protocol, final SerializableConsumer<?> consumer, final Returns<?> returns, final String representation, final long deadline) {
+    set(actor, protocol, consumer, returns, representation);
+    this.deadline = deadline;
   }
 
   @Override
@@ -97,8 +204,8 @@ public class LocalMessage<T> implements Message {
     return "LocalMessage[" + representation() + "]";
   }
 
-  private void deadLetter() {
-    final DeadLetter deadLetter  = new DeadLetter(actor, representation);
+  private void deadLetter(final DeadLetter.Reason reason) {
+    final DeadLetter deadLetter  = new DeadLetter(actor, representation, reason);
     final DeadLetters deadLetters = actor.deadLetters();
     if (deadLetters != null) {
       deadLetters.failedDelivery(deadLetter);
@@ -110,7 +217,10 @@ public class LocalMessage<T> implements Message {
   @SuppressWarnings("unchecked")
   private void internalDeliver(final Message message) {
     if (actor.isStopped()) {
-      deadLetter();
+      deadLetter(DeadLetter.Reason.Undeliverable);
+    } else if (deadline != Deadline.None && Deadline.hasPassed(deadline)) {
+      actor.lifeCycle.environment.stage.expired();
+      deadLetter(DeadLetter.Reason.Expired);
 //    } else if (actor.lifeCycle.isSuspended()) {
 //      actor.lifeCycle.environment.suspended.stow(message);
 //    } else if (actor.isStowing() && !actor.lifeCycle.environment.isStowageOverride(protocol)) {
@@ -58,6 +58,24 @@ public interface Mailbox extends Runnable {
    */
   void send(final Message message);
 
+  /**
+   * Arrange for the control {@code message}, such as of the actor lifecycle or
+   * of supervision, to be sent ahead of all pending messages that were sent by
+   * {@code send()}. A control message is sent even to a preallocated mailbox.
+   * Unless overridden, a control message is sent as any other message, which
+   * for a preallocated mailbox means setting a preallocated element from the
+   * {@code LocalMessage}.
+   * @param message the Message to send
+   */
+  default void sendControl(final Message message) {
+    if (isPreallocated() && message instanceof LocalMessage) {
+      final LocalMessage<?> local = (LocalMessage<?>) message;
+      send(local.actor(), local.protocol(), local.consumer(), local.returns(), local.representation(), local.deadline());
+    } else {
+      send(message);
+    }
+  }
+
   /**
    * Suspend message deliver but allow any of the given {@code overrides}
    * to pass through, essentially giving these priority. Note that the
@@ -90,12 +108,81 @@ public interface Mailbox extends Runnable {
    */
   Message receive();
 
+  /**
+   * Answer the count of messages received into {@code into}, starting at index 0,
+   * which is no greater than {@code max} or the length of {@code into}. This
+   * allows a dispatcher to receive a batch of messages at once, and should be
+   * overridden when my queue can drain more cheaply than one message at a time.
+   * @param into the {@code Message[]} to receive into
+   * @param max the int maximum number of messages to receive
+   * @return int
+   */
+  default int receive(final Message[] into, final int max) {
+    final int limit = Math.min(max, into.length);
+    int count = 0;
+    while (count < limit) {
+      final Message message = receive();
+      if (message == null) {
+        break;
+      }
+      into[count++] = message;
+    }
+    return count;
+  }
+
+  /**
+   * Returns the messages of {@code batch} from index {@code from} up to but excluding
+   * {@code to}, which were received by {@code receive(into, max)} but not delivered
+   * because an earlier message of the same batch suspended me, such that they are
+   * received again in order and as if suspension applied to them. The messages are
+   * cleared from {@code batch}. A {@code Mailbox} that applies suspension as its
+   * messages are received, and whose batches are delivered by a dispatcher, must
+   * override this.
+   * @param batch the {@code Message[]} of received messages
+   * @param from the int index of the first undelivered message
+   * @param to the int index following the last undelivered message
+   */
+  default void stowUndelivered(final Message[] batch, final int from, final int to) {
+    throw new UnsupportedOperationException("Mailbox implementation does not support this operation.");
+  }
+
   /**
    * Answer the count of messages that have not yet been delivered.
    * @return int
    */
   int pendingMessages();
 
+  /**
+   * Answer the approximate count of messages that have not yet been delivered,
+   * in constant time. This is meant for frequent queries, such as by routers
+   * and eviction, where a traversal of my messages would be too costly.
+   * @return int
+   */
+  default int depth() {
+    return pendingMessages();
+  }
+
+  /**
+   * Answer the {@code System.nanoTime()} at which my next message to be delivered was
+   * enqueued, in constant time, which is meant for dispatchers that order mailboxes by
+   * the age of their head message. A {@code Mailbox} that does not record enqueue times,
+   * or that has no pending message, answers the current time.
+   * @return long
+   */
+  default long headEnqueuedAt() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Answer the nanoseconds within which my messages should be delivered after they are
+   * enqueued, which a dispatcher that orders mailboxes by the age of their head message
+   * adds to {@code headEnqueuedAt()}, such that a lesser target is run earlier.
+   * @return long
+   */
+  default long latencyTarget() {
+    return 0L;
+  }
+
   /**
    * Answer whether or not I am a {@code Mailbox} with pre-allocated and reusable {@code Message} elements.
    * @return boolean
@@ -117,4 +204,25 @@ public interface Mailbox extends Runnable {
   default void send(final Actor actor, final Class<?> protocol, final SerializableConsumer<?> consumer, final Returns<?> returns, final String representation) {
     send(new LocalMessage(actor, protocol, consumer, returns, representation));
   }
+
+  /**
+   * Arrange for {@code Message} to be sent by setting the pre-allocated
+   * and reusable element with the parameters, including the {@code deadline}
+   * after which it must not be delivered. A pre-allocated {@code Mailbox}
+   * that does not override this cannot carry a deadline, and so rejects
+   * any other than {@code Deadline.None}.
+   * @param actor the Actor being sent the message
+   * @param protocol the {@code Class<?>} type of Actor protocol
+   * @param consumer the {@code Consumer<?>} to carry out the action
+   * @param returns the {@code Returns<?>} through which return values are communicated; null if void return
+   * @param representation the String representation of this message invocation
+   * @param deadline the long {@code System.nanoTime()} deadline of the message, or {@code Deadline.None}
+   * @throws UnsupportedOperationException if the deadline is not None and cannot be carried
+   */
+  default void send(final Actor actor, final Class<?> protocol, final SerializableConsumer<?> consumer, final Returns<?> returns, final String representation, final long deadline) {
+    if (deadline != Deadline.None) {
+      throw new UnsupportedOperationException("Mailbox cannot carry the deadline of: " + representation);
+    }
+    send(actor, protocol, consumer, returns, representation);
+  }
 }
@@ -11,4 +11,27 @@ public interface MailboxProvider {
   void close();
   Mailbox provideMailboxFor(final int hashCode);
   Mailbox provideMailboxFor(final int hashCode, final Dispatcher dispatcher);
+
+  /**
+   * Answers a {@code Mailbox} for the {@code Actor} being created according to its {@code definition},
+   * which may carry mailbox-specific settings. By default the {@code definition} is ignored.
+   * @param hashCode the int hash code of the Actor's Address
+   * @param definition the Definition of the Actor being created
+   * @return Mailbox
+   */
+  default Mailbox provideMailboxFor(final int hashCode, final Definition definition) {
+    return provideMailboxFor(hashCode);
+  }
+
+  /**
+   * Answers a {@code Mailbox} for the {@code Actor} being created according to its {@code definition},
+   * which is run by the dispatcher pool named {@code dispatcherPool}. By default the pool is ignored.
+   * @param hashCode the int hash code of the Actor's Address
+   * @param definition the Definition of the Actor being created
+   * @param dispatcherPool the String name of the dispatcher pool, or null for the default dispatcher
+   * @return Mailbox
+   */
+  default Mailbox provideMailboxFor(final int hashCode, final Definition definition, final String dispatcherPool) {
+    return provideMailboxFor(hashCode, definition);
+  }
 }
@@ -9,6 +9,12 @@ package io.vlingo.xoom.actors;
 
 public interface MailboxProviderKeeper {
   Mailbox assignMailbox(final String name, final int hashCode);
+  default Mailbox assignMailbox(final String name, final int hashCode, final Definition definition) {
+    return assignMailbox(name, hashCode);
+  }
+  default Mailbox assignMailbox(final String name, final int hashCode, final Definition definition, final String dispatcherPool) {
+    return assignMailbox(name, hashCode, definition);
+  }
   void close();
   String findDefault();
   void keep(final String name, boolean isDefault, final MailboxProvider mailboxProvider);
@@ -14,6 +14,77 @@ public interface Message {
   void deliver();
   Class<?> protocol();
   String representation();
+
+  /**
+   * Answers my priority, where {@code Priority.Highest} is the most urgent.
+   * @return int
+   */
+  default int priority() {
+    return Priority.Lowest;
+  }
+
+  /**
+   * Answers my conflation key, or {@code null} if I may not be conflated.
+   * @return Object
+   */
+  default Object conflationKey() {
+    return null;
+  }
+
+  /**
+   * Answers my deadline as a {@code System.nanoTime()} value, after which I must
+   * not be delivered, or {@code Deadline.None}.
+   * @return long
+   */
+  default long deadline() {
+    return Deadline.None;
+  }
+
+  /**
+   * Answers whether or not my delivery may block, such that it should be
+   * offloaded from the shared dispatcher threads.
+   * @return boolean
+   */
+  default boolean isBlocking() {
+    return false;
+  }
+
+  /**
+   * Answers the {@code System.nanoTime()} at which I was enqueued, or 0 if it was not recorded.
+   * @return long
+   */
+  default long enqueuedAt() {
+    return 0L;
+  }
+
+  /**
+   * Records the {@code System.nanoTime()} at which I was enqueued, which is done only by
+   * mailboxes whose dispatcher orders them by the age of their head message. By default
+   * the time is not recorded.
+   * @param enqueuedAt the long {@code System.nanoTime()} of my enqueue
+   */
+  default void enqueuedAt(final long enqueuedAt) {
+  }
+
   boolean isStowed();
   void set(final Actor actor, final Class<?> protocol, final SerializableConsumer<?> consumer, final Returns<?> returns, final String representation);
+
+  /**
+   * Sets my state as a reused message, including my {@code deadline}. Unless
+   * overridden I cannot carry a deadline, and so reject any other than
+   * {@code Deadline.None}.
+   * @param actor the Actor being sent the message
+   * @param protocol the {@code Class<?>} type of Actor protocol
+   * @param consumer the {@code Consumer<?>} to carry out the action
+   * @param returns the {@code Returns<?>} through which return values are communicated; null if void return
+   * @param representation the String representation of this message invocation
+   * @param deadline the long {@code System.nanoTime()} deadline, or {@code Deadline.None}
+   * @throws UnsupportedOperationException if the deadline is not None and cannot be carried
+   */
+  default void set(final Actor actor, final Class<?> protocol, final SerializableConsumer<?> consumer, final Returns<?> returns, final String representation, final long deadline) {
+    if (deadline != Deadline.None) {
+      throw new UnsupportedOperationException("Message cannot carry the deadline of: " + representation);
+    }
+    set(actor, protocol, consumer, returns, representation);
+  }
 }
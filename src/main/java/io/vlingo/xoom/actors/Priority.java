@@ -0,0 +1,30 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a protocol method whose messages should be delivered ahead of others
+ * by a mailbox that supports priorities, such as the {@code priorityQueueMailbox}.
+ * The {@code value} is the priority lane, where {@code Highest} (0) is the most
+ * urgent. Messages of methods without this annotation have the {@code Lowest}
+ * priority, and any value beyond the mailbox's number of lanes is placed in
+ * its last lane. The generated proxy bakes the priority into each message.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Priority {
+  static final int Highest = 0;
+  static final int Lowest = Integer.MAX_VALUE;
+
+  int value() default Highest;
+}
@@ -272,8 +272,10 @@ public class ProxyGenerator implements AutoCloseable {
     final String completesStatement = isACompletes ? MessageFormat.format("      final {0} returnValue = Completes.using(actor.scheduler());\n", signatureReturnType) : "";
     final String futureStatement = isAFuture ? MessageFormat.format("      final {0} returnValue = new java.util.concurrent.CompletableFuture<>();\n", signatureReturnType) : "";
     final String representationName = MessageFormat.format("{0}Representation{1}", method.getName(), count);
-    final String preallocatedMailbox =  MessageFormat.format("      if (mailbox.isPreallocated()) '{' mailbox.send(actor, {0}.class, {1}, {2}{3}); '}'", protocolInterface.getSimpleName(), "consumer", hasResult ? "Returns.value(returnValue), ":"null, ", representationName);
-    final String mailboxSendStatement = MessageFormat.format("      else '{' mailbox.send(new LocalMessage<{0}>(actor, {0}.class, {1}, {2}{3})); '}'", protocolInterface.getSimpleName(), "consumer", hasResult ? "Returns.value(returnValue), ":"", representationName);
+    final String preallocatedMailbox =  MessageFormat.format("      if (mailbox.isPreallocated()) '{' mailbox.send(actor, {0}.class, {1}, {2}{3}, {4}); '}'", protocolInterface.getSimpleName(), "consumer", hasResult ? "Returns.value(returnValue), ":"null, ", representationName, deadlineFor(method));
+    final String mailboxSendStatement = MessageFormat.format("      else '{' mailbox.send(new LocalMessage<{0}>(actor, {0}.class, {1}, {2}{3}){4}{5}{6}{7}); '}'", protocolInterface.getSimpleName(), "consumer", hasResult ? "Returns.value(returnValue), ":"", representationName, priorityFor(method), conflationKeyFor(method), timeToLiveFor(method), blockingFor(method));
+    final String mailboxSendControlStatement = MessageFormat.format("      mailbox.sendControl(new LocalMessage<{0}>(actor, {0}.class, {1}, {2}{3}));", protocolInterface.getSimpleName(), "consumer", hasResult ? "Returns.value(returnValue), ":"", representationName);
+    final boolean isControl = isControl(method);
     final String completesReturnStatement = hasResult ? "      return returnValue;\n" : "";
     final String elseDead = MessageFormat.format("      actor.deadLetters().failedDelivery(new DeadLetter(actor, {0}));", representationName);
     final String returnValue = returnValue(method.getReturnType());
@@ -292,6 +294,14 @@ public class ProxyGenerator implements AutoCloseable {
                 ), null
         );
     }
+    if (hasResult && !conflationKeyFor(method).isEmpty()) {
+        return Tuple2.from(
+                new InvalidProtocolException.Failure(
+                        methodSignature,
+                        "method with a `@ConflationKey` parameter must return `void`, because a conflated message is replaced before it is delivered and its outcome would never be answered. The found return type is `" + signatureReturnType + "`."
+                ), null
+        );
+    }
     builder
       .append("\n")
       .append(methodSignature).append(throwsExceptions).append(" {\n")
@@ -300,8 +310,8 @@ public class ProxyGenerator implements AutoCloseable {
       .append(consumerStatement).append("\n")
       .append(completesStatement)
       .append(futureStatement)
-      .append(preallocatedMailbox).append("\n")
-      .append(mailboxSendStatement).append("\n")
+      .append(isControl ? "" : preallocatedMailbox + "\n")
+      .append(isControl ? mailboxSendControlStatement : mailboxSendStatement).append("\n")
       .append(completesReturnStatement)
       .append("    } else {\n")
       .append(elseDead).append("\n")
@@ -340,6 +350,44 @@ public class ProxyGenerator implements AutoCloseable {
     return MessageFormat.format("package {0};", protocolInterface.getPackage().getName());
   }
 
+  // lifecycle and supervision messages are sent through the control lane of the mailbox
+  private boolean isControl(final Method method) {
+    final Class<?> declaringClass = method.getDeclaringClass();
+    return (declaringClass == Startable.class && method.getName().equals("start"))
+        || (declaringClass == Stoppable.class && method.getName().equals("stop"))
+        || (declaringClass == Supervisor.class && method.getName().equals("inform"));
+  }
+
+  private String blockingFor(final Method method) {
+    return method.isAnnotationPresent(Blocking.class) ? ".withBlocking()" : "";
+  }
+
+  private String conflationKeyFor(final Method method) {
+    return Arrays.stream(method.getParameters())
+        .filter(p -> p.isAnnotationPresent(ConflationKey.class))
+        .findFirst()
+        .map(p -> ".withConflationKey(" + p.getName() + ")")
+        .orElse("");
+  }
+
+  private String priorityFor(final Method method) {
+    if (!method.isAnnotationPresent(Priority.class)) {
+      return "";
+    }
+    return MessageFormat.format(".withPriority({0,number,#})", method.getAnnotation(Priority.class).value());
+  }
+
+  private String timeToLiveFor(final Method method) {
+    final long timeToLive = method.isAnnotationPresent(TimeToLive.class) ? method.getAnnotation(TimeToLive.class).value() : 0L;
+    return MessageFormat.format(".withTimeToLive({0,number,#}L)", timeToLive);
+  }
+
+  // the preallocated send carries the same deadline as withTimeToLive()
+  private String deadlineFor(final Method method) {
+    final long timeToLive = method.isAnnotationPresent(TimeToLive.class) ? method.getAnnotation(TimeToLive.class).value() : 0L;
+    return MessageFormat.format("io.vlingo.xoom.actors.Deadline.after({0,number,#}L)", timeToLive);
+  }
+
   private String parameterNamesFor(final Method method) {
     return Arrays.stream(method.getParameters())
         .map(p -> "ActorProxyBase.thunk(self, (Actor)actor, "+p.getName()+")")
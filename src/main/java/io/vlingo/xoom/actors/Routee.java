@@ -54,7 +54,7 @@ public class Routee<P> {
   }
 
   public int pendingMessages() {
-    return delegateLifeCycle().environment.mailbox.pendingMessages();
+    return delegateLifeCycle().environment.mailbox.depth();
   }
 
   public long messageCount() {
@@ -12,6 +12,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 import io.vlingo.xoom.actors.plugin.mailbox.testkit.TestMailbox;
 import io.vlingo.xoom.actors.testkit.TestActor;
@@ -24,6 +25,8 @@ public class Stage implements Stoppable {
   private final Map<Class<?>, Supervisor> commonSupervisors;
   protected final Directory directory;
   private DirectoryScanner directoryScanner;
+  private volatile String dispatcherPool;
+  private final LongAdder expiredMessages;
   private final String name;
   private final Scheduler scheduler;
   private AtomicBoolean stopped;
@@ -58,6 +61,7 @@ public class Stage implements Stoppable {
     this.commonSupervisors = new HashMap<>();
     this.scheduler = new Scheduler();
     this.stopped = new AtomicBoolean(false);
+    this.expiredMessages = new LongAdder();
   }
 
   /**
@@ -389,6 +393,37 @@ public class Stage implements Stoppable {
     }
   }
 
+  /**
+   * Answers the total number of messages to the {@code Actor} instances of this {@code Stage}
+   * that were not delivered because their deadline passed.
+   * @return long
+   */
+  public long expiredMessages() {
+    return expiredMessages.sum();
+  }
+
+  /**
+   * Answers the name of the dispatcher pool that runs the {@code Mailbox} of each
+   * {@code Actor} of this {@code Stage} whose {@code Definition} names none,
+   * or {@code null} for the default dispatcher.
+   * @return String
+   */
+  public String dispatcherPool() {
+    return dispatcherPool;
+  }
+
+  /**
+   * Answers this {@code Stage} after binding the {@code Actor} instances that it
+   * creates thereafter to the dispatcher pool named {@code dispatcherPool}, unless
+   * their {@code Definition} names another.
+   * @param dispatcherPool the {@code String} name of a declared dispatcher pool, or {@code null} for the default dispatcher
+   * @return Stage
+   */
+  public Stage withDispatcherPool(final String dispatcherPool) {
+    this.dispatcherPool = dispatcherPool;
+    return this;
+  }
+
   /**
    * Answers the {@code name} of this {@code Stage}.
    * @return String
@@ -606,6 +641,13 @@ public class Stage implements Stoppable {
     return defaultSupervisor;
   }
 
+  /**
+   * Counts a message that was not delivered because its deadline passed. (INTERNAL ONLY)
+   */
+  void expired() {
+    expiredMessages.increment();
+  }
+
   /**
    * Handles a failure by suspending the Actor and dispatching to the Supervisor. (INTERNAL ONLY)
    * @param supervised the Supervised instance, which is an Actor
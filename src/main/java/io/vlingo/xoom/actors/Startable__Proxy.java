@@ -21,7 +21,6 @@ public class Startable__Proxy implements Startable {
   @Override
   public void start() {
     final SerializableConsumer<Startable> consumer = (actor) -> actor.start();
-    if (mailbox.isPreallocated()) { mailbox.send(actor, Startable.class, consumer, null, "start()"); }
-    else { mailbox.send(new LocalMessage<Startable>(actor, Startable.class, consumer, "start()")); }
+    mailbox.sendControl(new LocalMessage<Startable>(actor, Startable.class, consumer, "start()"));
   }
 }
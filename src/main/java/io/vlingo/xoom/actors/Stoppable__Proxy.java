@@ -38,8 +38,7 @@ public class Stoppable__Proxy implements Stoppable {
   public void stop() {
     if (!actor.isStopped()) {
       final SerializableConsumer<Stoppable> consumer = (actor) -> actor.stop();
-      if (mailbox.isPreallocated()) { mailbox.send(actor, Stoppable.class, consumer, null, "stop()"); }
-      else { mailbox.send(new LocalMessage<Stoppable>(actor, Stoppable.class, consumer, "stop()")); }
+      mailbox.sendControl(new LocalMessage<Stoppable>(actor, Stoppable.class, consumer, "stop()"));
     } else {
       actor.deadLetters().failedDelivery(new DeadLetter(actor, "stop()"));
     }
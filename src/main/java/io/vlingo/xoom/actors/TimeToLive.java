@@ -0,0 +1,27 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a protocol method whose messages expire {@code value} milliseconds
+ * after they are sent. A message that is still pending when it expires is
+ * not delivered, but is instead sent to {@code DeadLetters} with the reason
+ * {@code DeadLetter.Reason.Expired}. The generated proxy bakes the deadline
+ * into each message, where the earlier of this and any enclosing
+ * {@code Deadline.within()} applies.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface TimeToLive {
+  long value();
+}
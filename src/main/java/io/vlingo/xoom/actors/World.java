@@ -520,6 +520,32 @@ public final class World implements Registrar {
     return mailboxProviderKeeper.assignMailbox(mailboxName, hashCode);
   }
 
+  /**
+   * Answers the {@code Mailbox} instance by {@code mailboxName} and {@code hashCode} that
+   * is provided according to the {@code definition}. (INTERNAL ONLY)
+   * @param mailboxName the {@code String} name of the {@code Mailbox} type to use
+   * @param hashCode the {@code int} hash code to help determine which {@code Mailbox} instance to assign
+   * @param definition the {@code Definition} of the {@code Actor} that will own the {@code Mailbox}
+   * @return Mailbox
+   */
+  Mailbox assignMailbox(final String mailboxName, final int hashCode, final Definition definition) {
+    return mailboxProviderKeeper.assignMailbox(mailboxName, hashCode, definition);
+  }
+
+  /**
+   * Answers the {@code Mailbox} instance by {@code mailboxName} and {@code hashCode} that
+   * is provided according to the {@code definition} and run by the dispatcher pool
+   * named {@code dispatcherPool}. (INTERNAL ONLY)
+   * @param mailboxName the {@code String} name of the {@code Mailbox} type to use
+   * @param hashCode the {@code int} hash code to help determine which {@code Mailbox} instance to assign
+   * @param definition the {@code Definition} of the {@code Actor} that will own the {@code Mailbox}
+   * @param dispatcherPool the {@code String} name of the dispatcher pool, or {@code null} for the default dispatcher
+   * @return Mailbox
+   */
+  Mailbox assignMailbox(final String mailboxName, final int hashCode, final Definition definition, final String dispatcherPool) {
+    return mailboxProviderKeeper.assignMailbox(mailboxName, hashCode, definition, dispatcherPool);
+  }
+
   /**
    * Answer my {@code classLoader}.
    * @return {@code <L extends ClassLoader>}
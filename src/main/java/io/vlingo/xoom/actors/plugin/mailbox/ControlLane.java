@@ -0,0 +1,103 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vlingo.xoom.actors.Message;
+
+/**
+ * The lane of a {@code Mailbox} that holds the control messages sent by
+ * {@code sendControl()}, such as those of the actor lifecycle and of
+ * supervision, which are received ahead of all other pending messages.
+ * The lane is usually empty, so that checking it costs the consumer only
+ * a single volatile read. Any number of producers may {@code add()}, but
+ * only the consumer may {@code poll()} or {@code receive()}.
+ */
+public class ControlLane {
+  private final AtomicInteger count;
+  private final Queue<Message> messages;
+
+  /**
+   * Constructs my default state.
+   */
+  public ControlLane() {
+    this.count = new AtomicInteger(0);
+    this.messages = new ConcurrentLinkedQueue<>();
+  }
+
+  /**
+   * Adds the control {@code message}.
+   * @param message the Message to add
+   */
+  public void add(final Message message) {
+    // count before adding so that a poll() never drives count below zero
+    count.incrementAndGet();
+    messages.add(message);
+  }
+
+  /**
+   * Removes all of my messages.
+   */
+  public void clear() {
+    messages.clear();
+    count.set(0);
+  }
+
+  /**
+   * Answers whether or not I have no control messages.
+   * @return boolean
+   */
+  public boolean isEmpty() {
+    return count.get() == 0;
+  }
+
+  /**
+   * Answers my next control {@code Message}, or {@code null}.
+   * @return Message
+   */
+  public Message poll() {
+    if (count.get() == 0) {
+      return null;
+    }
+    final Message message = messages.poll();
+    if (message != null) {
+      count.decrementAndGet();
+    }
+    return message;
+  }
+
+  /**
+   * Answers the count of control messages received into {@code into}, starting
+   * at index 0, which is no greater than {@code limit}.
+   * @param into the {@code Message[]} to receive into
+   * @param limit the int maximum number of messages to receive
+   * @return int
+   */
+  public int receive(final Message[] into, final int limit) {
+    int count = 0;
+    while (count < limit) {
+      final Message message = poll();
+      if (message == null) {
+        break;
+      }
+      into[count++] = message;
+    }
+    return count;
+  }
+
+  /**
+   * Answers the number of my control messages.
+   * @return int
+   */
+  public int size() {
+    return count.get();
+  }
+}
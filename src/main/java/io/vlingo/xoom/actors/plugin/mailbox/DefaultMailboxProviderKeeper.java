@@ -7,6 +7,7 @@
 
 package io.vlingo.xoom.actors.plugin.mailbox;
 
+import io.vlingo.xoom.actors.Definition;
 import io.vlingo.xoom.actors.Mailbox;
 import io.vlingo.xoom.actors.MailboxProvider;
 import io.vlingo.xoom.actors.MailboxProviderKeeper;
@@ -33,6 +34,26 @@ public final class DefaultMailboxProviderKeeper implements MailboxProviderKeeper
     return info.mailboxProvider.provideMailboxFor(hashCode);
   }
 
+  public Mailbox assignMailbox(final String name, final int hashCode, final Definition definition) {
+    MailboxProviderInfo info = mailboxProviderInfos.get(name);
+
+    if (info == null) {
+      throw new IllegalStateException("No registered MailboxProvider named " + name);
+    }
+
+    return info.mailboxProvider.provideMailboxFor(hashCode, definition);
+  }
+
+  public Mailbox assignMailbox(final String name, final int hashCode, final Definition definition, final String dispatcherPool) {
+    MailboxProviderInfo info = mailboxProviderInfos.get(name);
+
+    if (info == null) {
+      throw new IllegalStateException("No registered MailboxProvider named " + name);
+    }
+
+    return info.mailboxProvider.provideMailboxFor(hashCode, definition, dispatcherPool);
+  }
+
   public void close() {
     mailboxProviderInfos.values().forEach(info -> info.mailboxProvider.close());
   }
@@ -0,0 +1,231 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.IdleStrategy;
+import io.vlingo.xoom.actors.Mailbox;
+import io.vlingo.xoom.actors.Message;
+
+/**
+ * A single {@code Thread} that services any number of single-consumer
+ * mailboxes, such as those of the ring buffer and array queue plugins,
+ * in round-robin order. Each pass receives and delivers up to
+ * {@code throttlingCount} messages from every registered {@code Mailbox},
+ * and uses its {@code IdleStrategy} only when a full pass delivers nothing. A {@code Mailbox}
+ * stays with the {@code EventLoop} that it was registered with for its
+ * entire lifetime, so that its messages are always delivered on the same
+ * thread.
+ */
+public class EventLoop extends Thread {
+  private static final Mailbox[] NoMailboxes = new Mailbox[0];
+
+  private final Message[] batch;
+  private final AtomicBoolean closed;
+  private final IdleStrategy idleStrategy;
+  private volatile Mailbox[] mailboxes;
+  private final boolean requiresExecutionNotification;
+  private final int throttlingCount;
+  private final boolean unparkOnSend;
+
+  /**
+   * Answers whether or not the current thread is the one that delivers
+   * the messages of mailboxes dispatched by {@code dispatcher}, which must
+   * not wait for itself to make room in one of those mailboxes.
+   * @param dispatcher the Dispatcher of a Mailbox
+   * @return boolean
+   */
+  public static boolean isDispatchingThread(final Dispatcher dispatcher) {
+    if (dispatcher instanceof Member) {
+      return Thread.currentThread() == ((Member) dispatcher).eventLoop();
+    }
+    return Thread.currentThread() == dispatcher;
+  }
+
+  /**
+   * Constructs my default state.
+   * @param name the String name of my Thread
+   * @param fixedBackoff the long milliseconds to back off when idle, or 0 to back off exponentially
+   * @param throttlingCount the int maximum number of messages delivered from each Mailbox per pass
+   */
+  public EventLoop(final String name, final long fixedBackoff, final int throttlingCount) {
+    this(name, fixedBackoff, throttlingCount, IdleStrategy.of(IdleStrategy.Kind.Backoff, fixedBackoff, 0L), false);
+  }
+
+  /**
+   * Constructs my state.
+   * @param name the String name of my Thread
+   * @param fixedBackoff the long milliseconds of a fixed Backoff, or 0 if senders must notify me
+   * @param throttlingCount the int maximum number of messages delivered from each Mailbox per pass
+   * @param idleStrategy the IdleStrategy that I use when a full pass delivers nothing
+   * @param unparkOnSend the boolean indicating whether a notification unparks rather than interrupts me
+   */
+  public EventLoop(final String name, final long fixedBackoff, final int throttlingCount, final IdleStrategy idleStrategy, final boolean unparkOnSend) {
+    super(name);
+    this.batch = new Message[throttlingCount];
+    this.closed = new AtomicBoolean(false);
+    this.idleStrategy = idleStrategy;
+    this.mailboxes = NoMailboxes;
+    this.requiresExecutionNotification = fixedBackoff == 0L;
+    this.throttlingCount = throttlingCount;
+    this.unparkOnSend = unparkOnSend;
+  }
+
+  /**
+   * Closes me and all of my registered mailboxes.
+   */
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      for (final Mailbox mailbox : mailboxes) {
+        mailbox.close();
+      }
+      interrupt();
+      LockSupport.unpark(this);
+    }
+  }
+
+  /**
+   * Answers whether or not I am closed.
+   * @return boolean
+   */
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  /**
+   * Answers the number of mailboxes that I service.
+   * @return int
+   */
+  public int mailboxCount() {
+    return mailboxes.length;
+  }
+
+  /**
+   * Answers a new {@code Mailbox} that I service, created by the {@code mailboxFactory}
+   * from the {@code Dispatcher} that the {@code Mailbox} must use. When that
+   * {@code Dispatcher} is closed, which is normally by the {@code Mailbox} itself,
+   * the {@code Mailbox} is no longer serviced.
+   * @param mailboxFactory the {@code Function<Dispatcher, Mailbox>} that creates the Mailbox
+   * @return Mailbox
+   */
+  public Mailbox register(final Function<Dispatcher, Mailbox> mailboxFactory) {
+    final Member member = new Member();
+    final Mailbox mailbox = mailboxFactory.apply(member);
+    member.mailbox = mailbox;
+
+    synchronized (this) {
+      final Mailbox[] current = mailboxes;
+      final Mailbox[] grown = Arrays.copyOf(current, current.length + 1);
+      grown[current.length] = mailbox;
+      mailboxes = grown;
+    }
+
+    if (closed.get()) {
+      mailbox.close();
+    }
+
+    return mailbox;
+  }
+
+  @Override
+  public void run() {
+    while (!closed.get()) {
+      if (deliver()) {
+        idleStrategy.reset();
+      } else {
+        idleStrategy.idle();
+      }
+    }
+  }
+
+  private synchronized void deregister(final Mailbox mailbox) {
+    final Mailbox[] current = mailboxes;
+    for (int idx = 0; idx < current.length; ++idx) {
+      if (current[idx] == mailbox) {
+        final Mailbox[] shrunk = new Mailbox[current.length - 1];
+        System.arraycopy(current, 0, shrunk, 0, idx);
+        System.arraycopy(current, idx + 1, shrunk, idx, current.length - idx - 1);
+        mailboxes = shrunk;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Delivers a batch of up to throttling count messages from each of my mailboxes.
+   *
+   * @return boolean if at least one message was delivered.
+   */
+  private boolean deliver() {
+    boolean delivered = false;
+    for (final Mailbox mailbox : mailboxes) {
+      final int count = mailbox.receive(batch, throttlingCount);
+      for (int idx = 0; idx < count; ++idx) {
+        // the first message was admitted as received, but a delivery may suspend the mailbox
+        if (idx > 0 && mailbox.isSuspended()) {
+          mailbox.stowUndelivered(batch, idx, count);
+          break;
+        }
+        final Message message = batch[idx];
+        batch[idx] = null;
+        message.deliver();
+      }
+      delivered |= count > 0;
+    }
+    return delivered;
+  }
+
+  /**
+   * The {@code Dispatcher} of a single {@code Mailbox} that I service.
+   */
+  private final class Member implements Dispatcher {
+    private volatile boolean closed;
+    private Mailbox mailbox;
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        deregister(mailbox);
+      }
+    }
+
+    @Override
+    public boolean isClosed() {
+      return closed || EventLoop.this.isClosed();
+    }
+
+    @Override
+    public int concurrencyCapacity() {
+      return 1;
+    }
+
+    @Override
+    public void execute(final Mailbox mailbox) {
+      if (unparkOnSend) {
+        LockSupport.unpark(EventLoop.this);
+      } else {
+        interrupt();
+      }
+    }
+
+    @Override
+    public boolean requiresExecutionNotification() {
+      return requiresExecutionNotification;
+    }
+
+    EventLoop eventLoop() {
+      return EventLoop.this;
+    }
+  }
+}
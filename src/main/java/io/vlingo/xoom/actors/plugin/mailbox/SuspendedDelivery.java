@@ -0,0 +1,203 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+import io.vlingo.xoom.actors.LocalMessage;
+import io.vlingo.xoom.actors.Message;
+import io.vlingo.xoom.actors.StowedLocalMessage;
+import io.vlingo.xoom.actors.plugin.mailbox.SuspendedDeliveryOverrides.Overrides;
+
+/**
+ * Suspension of a single-consumer {@code Mailbox} that is applied as messages
+ * are received rather than as they are sent, so that senders pay nothing for it.
+ * While suspended, received messages are stowed unless their protocol is one of
+ * the current overrides, and once resumed the stowed messages are received before
+ * any others. A consumer that delivers a received batch must return the rest of
+ * the batch through {@code stowUndelivered()} once a delivery suspends me. All
+ * methods other than {@code suspendExceptFor()}, {@code resume()},
+ * {@code isSuspended()}, {@code isSuspendedFor()} and {@code stowedCount()} must
+ * be used only by the consumer.
+ */
+public class SuspendedDelivery {
+  private final SuspendedDeliveryOverrides overrides;
+  private int returned;
+  private final boolean reusesMessages;
+  private final ArrayDeque<Message> stowed;
+  private volatile int stowedCount;
+  private volatile boolean suspended;
+  private Overrides unmatchedBy;
+
+  /**
+   * Constructs my default state.
+   * @param reusesMessages the boolean indicating whether received messages are preallocated and must be copied to be stowed
+   */
+  public SuspendedDelivery(final boolean reusesMessages) {
+    this.overrides = new SuspendedDeliveryOverrides();
+    this.reusesMessages = reusesMessages;
+    this.stowed = new ArrayDeque<>(0);
+    this.stowedCount = 0;
+    this.suspended = false;
+  }
+
+  /**
+   * Answers the {@code message} if it may be delivered now, or {@code null} if it was stowed.
+   * @param message the Message that was received
+   * @return Message
+   */
+  public Message admit(final Message message) {
+    if (suspended && !overrides.matchesTop(message.protocol())) {
+      stow(message);
+      return null;
+    }
+    if (!suspended && !stowed.isEmpty()) {
+      stow(message);
+      return unstow();
+    }
+    return message;
+  }
+
+  /**
+   * Answers whether or not I must {@code admit()} received messages, which
+   * is the case while I am suspended or have stowed messages. When this
+   * answers {@code false} the consumer may deliver messages as received.
+   * @return boolean
+   */
+  public boolean isEngaged() {
+    return suspended || stowedCount > 0;
+  }
+
+  /**
+   * Answers whether or not I am suspended.
+   * @return boolean
+   */
+  public boolean isSuspended() {
+    return suspended;
+  }
+
+  /**
+   * Answers whether or not I am suspended by the overrides named {@code name}.
+   * @param name the String name of the overrides
+   * @return boolean
+   */
+  public boolean isSuspendedFor(final String name) {
+    return !overrides.find(name).isEmpty();
+  }
+
+  /**
+   * Answers the next stowed {@code Message} if I am not suspended, or {@code null}.
+   * @return Message
+   */
+  public Message next() {
+    if (stowed.isEmpty()) {
+      return null;
+    }
+    if (!suspended) {
+      return unstow();
+    }
+    return returned > 0 ? nextReturnedOverride() : null;
+  }
+
+  /**
+   * Answers whether or not I am no longer suspended after popping the overrides named {@code name}.
+   * @param name the String name of the overrides
+   * @return boolean
+   */
+  public synchronized boolean resume(final String name) {
+    if (overrides.pop(name)) {
+      suspended = !overrides.isEmpty();
+      return !suspended;
+    }
+    return false;
+  }
+
+  /**
+   * Answers the number of messages that I have stowed.
+   * @return int
+   */
+  public int stowedCount() {
+    return stowedCount;
+  }
+
+  /**
+   * Stows the messages of {@code batch} from index {@code from} up to but excluding
+   * {@code to}, which were received but not delivered because an earlier message
+   * of the same batch suspended me, and clears them from {@code batch}. They are
+   * stowed ahead of all others so that they are received again in order once I am
+   * resumed, although any of them that my current overrides admit is received
+   * while I am still suspended, as it would have been had it not been received yet.
+   * @param batch the Message[] of received messages
+   * @param from the int index of the first undelivered message
+   * @param to the int index following the last undelivered message
+   */
+  public void stowUndelivered(final Message[] batch, final int from, final int to) {
+    for (int index = to - 1; index >= from; --index) {
+      stowed.addFirst(stowable(batch[index]));
+      batch[index] = null;
+    }
+    returned += to - from;
+    unmatchedBy = null;
+    stowedCount = stowed.size();
+  }
+
+  /**
+   * Suspends delivery of all but the protocols {@code types}.
+   * @param name the String name of the overrides
+   * @param types the {@code Class<?>[]} protocols that may be delivered while suspended
+   */
+  public synchronized void suspendExceptFor(final String name, final Class<?>... types) {
+    overrides.push(new Overrides(name, types));
+    suspended = true;
+  }
+
+  // the returned messages are only those at the head of my stowed messages, which
+  // are scanned again only once my overrides change or more messages are returned
+  private Message nextReturnedOverride() {
+    final Overrides top = overrides.peek();
+    if (top == null || top == unmatchedBy) {
+      return null;
+    }
+    final Iterator<Message> iterator = stowed.iterator();
+    for (int index = 0; index < returned; ++index) {
+      final Message message = iterator.next();
+      if (top.matches(message.protocol())) {
+        iterator.remove();
+        --returned;
+        stowedCount = stowed.size();
+        return message;
+      }
+    }
+    unmatchedBy = top;
+    return null;
+  }
+
+  private void stow(final Message message) {
+    stowed.add(stowable(message));
+    stowedCount = stowed.size();
+  }
+
+  // a preallocated message is reused once released, so a copy of it is stowed instead
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private Message stowable(final Message message) {
+    if (reusesMessages && !message.isStowed() && message instanceof LocalMessage) {
+      return new StowedLocalMessage((LocalMessage) message);
+    }
+    return message;
+  }
+
+  private Message unstow() {
+    final Message message = stowed.poll();
+    if (returned > 0) {
+      --returned;
+    }
+    stowedCount = stowed.size();
+    return message;
+  }
+}
@@ -1,22 +1,35 @@
 package io.vlingo.xoom.actors.plugin.mailbox;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
+/**
+ * The stack of named suspensions of a {@code Mailbox}, each with the protocols
+ * that may still be delivered. My size and top are published through volatile
+ * fields whenever they change, so that {@code isEmpty()}, {@code matchesTop()}
+ * and {@code peek()} are single reads that never contend with changes.
+ */
 public class SuspendedDeliveryOverrides {
   private final AtomicBoolean accessible;
   private final List<Overrides> overrides;
+  private volatile int size;
+  private volatile Overrides top;
 
   public SuspendedDeliveryOverrides() {
     this.accessible = new AtomicBoolean(false);
     this.overrides = new ArrayList<>(0);
+    this.size = 0;
+    this.top = null;
   }
 
   public boolean isEmpty() {
-    return overrides.isEmpty();
+    return size == 0;
   }
 
   public List<Overrides> find(final String name) {
@@ -39,34 +52,12 @@ public class SuspendedDeliveryOverrides {
   }
 
   public boolean matchesTop(final Class<?> messageType) {
-    final Overrides overrides = peek();
-    if (overrides != null) {
-      for (final Class<?> type : overrides.types) {
-        if (messageType == type) {
-          return true;
-        }
-      }
-    }
-    return false;
+    final Overrides overrides = top;
+    return overrides != null && overrides.matches(messageType);
   }
 
   public Overrides peek() {
-    int retries = 0;
-    while (true) {
-      if (accessible.compareAndSet(false, true)) {
-        Overrides temp = null;
-        if (!isEmpty()) {
-          temp = overrides.get(0);
-        }
-        accessible.set(false);
-        return temp;
-      } else {
-        if (++retries > 100_000_000) {
-          (new Exception()).printStackTrace();
-          return null;
-        }
-      }
-    }
+    return top;
   }
 
   public boolean pop(final String name) {
@@ -92,10 +83,11 @@ public class SuspendedDeliveryOverrides {
             } else {
               overrides.get(index).obsolete = true;
             }
-            accessible.set(false);
             break;
           }
         }
+        publish();
+        accessible.set(false);
         break;
       } else {
         if (++retries > 100_000_000) {
@@ -113,6 +105,7 @@ public class SuspendedDeliveryOverrides {
     while (true) {
       if (accessible.compareAndSet(false, true)) {
         this.overrides.add(overrides);
+        publish();
         accessible.set(false);
         break;
       } else {
@@ -124,15 +117,30 @@ public class SuspendedDeliveryOverrides {
     }
   }
 
+  // must be called while accessible
+  private void publish() {
+    top = overrides.isEmpty() ? null : overrides.get(0);
+    size = overrides.size();
+  }
+
   public static class Overrides {
     final String name;
     boolean obsolete;
     final Class<?>[] types;
+    private final Set<Class<?>> typeSet;
 
     public Overrides(final String name, final Class<?>[] types) {
       this.name = name;
       this.types = types;
       this.obsolete = false;
+      this.typeSet = types.length > 1 ? new HashSet<>(Arrays.asList(types)) : null;
+    }
+
+    boolean matches(final Class<?> messageType) {
+      if (typeSet != null) {
+        return typeSet.contains(messageType);
+      }
+      return types.length == 1 && types[0] == messageType;
     }
   }
 }
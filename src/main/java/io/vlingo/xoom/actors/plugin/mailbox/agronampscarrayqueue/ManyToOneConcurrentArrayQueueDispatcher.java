@@ -8,24 +8,52 @@
 package io.vlingo.xoom.actors.plugin.mailbox.agronampscarrayqueue;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
-import io.vlingo.xoom.actors.Backoff;
 import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.IdleStrategy;
 import io.vlingo.xoom.actors.Mailbox;
 import io.vlingo.xoom.actors.Message;
 
 public class ManyToOneConcurrentArrayQueueDispatcher extends Thread implements Dispatcher {
-  private final Backoff backoff;
+  private final Message[] batch;
+  private final IdleStrategy idleStrategy;
   private final Mailbox mailbox;
   private final boolean requiresExecutionNotification;
   private final int throttlingCount;
+  private final boolean unparkOnSend;
   private final AtomicBoolean closed = new AtomicBoolean(false);
 
   protected ManyToOneConcurrentArrayQueueDispatcher(final int mailboxSize, final long fixedBackoff, final boolean notifyOnSend, final int throttlingCount, final int totalSendRetries) {
-    this.backoff = fixedBackoff == 0L ? null : new Backoff(fixedBackoff);
+    this(mailboxSize, fixedBackoff, notifyOnSend, throttlingCount, totalSendRetries,
+            fixedBackoff == 0L ? new IdleStrategy.BusySpin() : IdleStrategy.of(IdleStrategy.Kind.Backoff, fixedBackoff, 0L),
+            false);
+  }
+
+  /**
+   * Constructs my state.
+   * @param mailboxSize the int capacity of my mailbox
+   * @param fixedBackoff the long milliseconds of a fixed Backoff, or 0 if senders must notify me
+   * @param notifyOnSend the boolean indicating whether each send notifies me
+   * @param throttlingCount the int maximum number of messages delivered per pass
+   * @param totalSendRetries the int number of times a send retries a full mailbox
+   * @param idleStrategy the IdleStrategy that I use when no messages were delivered
+   * @param unparkOnSend the boolean indicating whether a notification unparks rather than interrupts me
+   */
+  protected ManyToOneConcurrentArrayQueueDispatcher(
+          final int mailboxSize,
+          final long fixedBackoff,
+          final boolean notifyOnSend,
+          final int throttlingCount,
+          final int totalSendRetries,
+          final IdleStrategy idleStrategy,
+          final boolean unparkOnSend) {
+    this.idleStrategy = idleStrategy;
     this.requiresExecutionNotification = fixedBackoff == 0L;
+    this.unparkOnSend = unparkOnSend;
     this.mailbox = new ManyToOneConcurrentArrayQueueMailbox(this, mailboxSize, totalSendRetries, notifyOnSend);
     this.throttlingCount = throttlingCount;
+    this.batch = new Message[throttlingCount];
   }
 
   @Override
@@ -45,7 +73,11 @@ public class ManyToOneConcurrentArrayQueueDispatcher extends Thread implements D
 
   @Override
   public void execute(final Mailbox mailbox) {
-    interrupt();
+    if (unparkOnSend) {
+      LockSupport.unpark(this);
+    } else {
+      interrupt();
+    }
   }
 
   @Override
@@ -56,8 +88,10 @@ public class ManyToOneConcurrentArrayQueueDispatcher extends Thread implements D
   @Override
   public void run() {
     while (!closed.get()) {
-      if (!deliver()) {
-        if (backoff != null) backoff.now();
+      if (deliver()) {
+        idleStrategy.reset();
+      } else {
+        idleStrategy.idle();
       }
     }
   }
@@ -67,19 +101,22 @@ public class ManyToOneConcurrentArrayQueueDispatcher extends Thread implements D
   }
 
   /**
-   * Delivers messages in the mailbox, up to throttling count, as long as no null messages found.
+   * Delivers a batch of messages received from the mailbox, up to throttling count.
    *
    * @return boolean if at least one message was delivered.
    */
   private boolean deliver() {
-    for (int idx = 0; idx < throttlingCount; ++idx) {
-      final Message message = mailbox.receive();
-      if (message == null) {
-        return idx > 0; // we delivered at least one message
-      } else {
-        message.deliver();
+    final int count = mailbox.receive(batch, throttlingCount);
+    for (int idx = 0; idx < count; ++idx) {
+      // the first message was admitted as received, but a delivery may suspend the mailbox
+      if (idx > 0 && mailbox.isSuspended()) {
+        mailbox.stowUndelivered(batch, idx, count);
+        break;
       }
+      final Message message = batch[idx];
+      batch[idx] = null;
+      message.deliver();
     }
-    return true;
+    return count > 0;
   }
 }
@@ -7,21 +7,31 @@
 
 package io.vlingo.xoom.actors.plugin.mailbox.agronampscarrayqueue;
 
+import java.util.function.Consumer;
+
 import org.agrona.concurrent.ManyToOneConcurrentArrayQueue;
 
 import io.vlingo.xoom.actors.Dispatcher;
 import io.vlingo.xoom.actors.Mailbox;
 import io.vlingo.xoom.actors.Message;
+import io.vlingo.xoom.actors.plugin.mailbox.ControlLane;
+import io.vlingo.xoom.actors.plugin.mailbox.SuspendedDelivery;
 
 public class ManyToOneConcurrentArrayQueueMailbox implements Mailbox {
+  private final ControlLane controlLane;
   private final Dispatcher dispatcher;
+  private final Consumer<Message> drainer;
+  private Message[] drainInto;
+  private int drainCount;
   private final boolean notifyOnSend;
   private final ManyToOneConcurrentArrayQueue<Message> queue;
+  private final SuspendedDelivery suspendedDelivery;
   private final int totalSendRetries;
 
   @Override
   public void close() {
     dispatcher.close();
+    controlLane.clear();
     queue.clear();
   }
 
@@ -47,8 +57,9 @@ public class ManyToOneConcurrentArrayQueueMailbox implements Mailbox {
 
   @Override
   public void resume(final String name) {
-    // TODO: Consider supporting Stowage here
-    System.out.println("WARNING: ManyToOneConcurrentArrayQueueMailbox does not support resume(): " + name);
+    if (suspendedDelivery.resume(name) && notifyOnSend) {
+      dispatcher.execute(this);
+    }
   }
 
   @Override
@@ -66,33 +77,115 @@ public class ManyToOneConcurrentArrayQueueMailbox implements Mailbox {
   }
 
   @Override
-  public void suspendExceptFor(final String name, final Class<?>... overrides) {
-    // TODO: Consider supporting Stowage here
-    if (!name.equals(Mailbox.Stopping)) {
-      System.out.println("WARNING: ManyToOneConcurrentArrayQueueMailbox does not support suspendExceptFor(): " + name + " overrides: " + overrides);
+  public void sendControl(final Message message) {
+    controlLane.add(message);
+
+    if (notifyOnSend) {
+      dispatcher.execute(this);
     }
   }
 
+  @Override
+  public void suspendExceptFor(final String name, final Class<?>... overrides) {
+    suspendedDelivery.suspendExceptFor(name, overrides);
+  }
+
   @Override
   public boolean isSuspended() {
-    return false;
+    return suspendedDelivery.isSuspended();
+  }
+
+  @Override
+  public boolean isSuspendedFor(final String name) {
+    return suspendedDelivery.isSuspendedFor(name);
   }
 
   @Override
   public final Message receive() {
-    return queue.poll();
+    if (suspendedDelivery.isEngaged()) {
+      return nextAdmitted();
+    }
+
+    final Message control = controlLane.poll();
+
+    return control != null ? control : queue.poll();
+  }
+
+  @Override
+  public final int receive(final Message[] into, final int max) {
+    if (suspendedDelivery.isEngaged()) {
+      // one at a time while suspended, so that a batch never spans a change of overrides
+      final int limit = suspendedDelivery.isSuspended() ? 1 : Math.min(max, into.length);
+      int count = 0;
+      while (count < limit) {
+        final Message message = nextAdmitted();
+        if (message == null) {
+          break;
+        }
+        into[count++] = message;
+      }
+      return count;
+    }
+
+    final int limit = Math.min(max, into.length);
+
+    drainInto = into;
+    drainCount = controlLane.isEmpty() ? 0 : controlLane.receive(into, limit);
+    queue.drain(drainer, limit - drainCount);
+    drainInto = null;
+    return drainCount;
+  }
+
+  /* @see io.vlingo.xoom.actors.Mailbox#stowUndelivered(io.vlingo.xoom.actors.Message[], int, int) */
+  @Override
+  public void stowUndelivered(final Message[] batch, final int from, final int to) {
+    suspendedDelivery.stowUndelivered(batch, from, to);
   }
 
   /* @see io.vlingo.xoom.actors.Mailbox#pendingMessages() */
   @Override
   public int pendingMessages() {
-    return queue.size();
+    return queue.size() + controlLane.size();
+  }
+
+  /* @see io.vlingo.xoom.actors.Mailbox#depth() */
+  @Override
+  public int depth() {
+    // the queue size is computed from its head and tail indexes
+    return queue.size() + controlLane.size() + suspendedDelivery.stowedCount();
   }
 
   protected ManyToOneConcurrentArrayQueueMailbox(final Dispatcher dispatcher, final int mailboxSize, final int totalSendRetries, final boolean notifyOnSend) {
+    this.controlLane = new ControlLane();
     this.dispatcher = dispatcher;
+    this.drainer = message -> drainInto[drainCount++] = message;
     this.queue = new ManyToOneConcurrentArrayQueue<>(mailboxSize);
+    this.suspendedDelivery = new SuspendedDelivery(false);
     this.totalSendRetries = totalSendRetries;
     this.notifyOnSend = notifyOnSend;
   }
+
+  private Message nextAdmitted() {
+    final Message stowed = suspendedDelivery.next();
+
+    if (stowed != null) {
+      return stowed;
+    }
+
+    for (Message message = controlLane.poll(); message != null; message = controlLane.poll()) {
+      final Message admitted = suspendedDelivery.admit(message);
+      if (admitted != null) {
+        return admitted;
+      }
+    }
+
+    for (Message message = queue.poll(); message != null; message = queue.poll()) {
+      final Message admitted = suspendedDelivery.admit(message);
+      if (admitted != null) {
+        return admitted;
+      }
+    }
+
+    return null;
+  }
 }
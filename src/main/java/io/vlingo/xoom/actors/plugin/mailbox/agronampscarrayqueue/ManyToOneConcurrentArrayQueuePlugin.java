@@ -7,12 +7,17 @@
 
 package io.vlingo.xoom.actors.plugin.mailbox.agronampscarrayqueue;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.vlingo.xoom.actors.Configuration;
+import io.vlingo.xoom.actors.Definition;
 import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.IdleStrategy;
+import io.vlingo.xoom.actors.IdleStrategy.Kind;
 import io.vlingo.xoom.actors.Mailbox;
 import io.vlingo.xoom.actors.MailboxProvider;
 import io.vlingo.xoom.actors.Registrar;
@@ -20,19 +25,26 @@ import io.vlingo.xoom.actors.plugin.AbstractPlugin;
 import io.vlingo.xoom.actors.plugin.Plugin;
 import io.vlingo.xoom.actors.plugin.PluginConfiguration;
 import io.vlingo.xoom.actors.plugin.PluginProperties;
+import io.vlingo.xoom.actors.plugin.mailbox.EventLoop;
 
 public class ManyToOneConcurrentArrayQueuePlugin extends AbstractPlugin implements Plugin, MailboxProvider {
   private final ManyToOneConcurrentArrayQueuePluginConfiguration configuration;
   private final Map<Integer, ManyToOneConcurrentArrayQueueDispatcher> dispatchers;
+  private EventLoop[] eventLoops;
+  private final AtomicInteger nextEventLoop;
 
   public ManyToOneConcurrentArrayQueuePlugin() {
     this.configuration = new ManyToOneConcurrentArrayQueuePluginConfiguration();
     this.dispatchers = new ConcurrentHashMap<>(1);
+    this.nextEventLoop = new AtomicInteger(0);
   }
 
   @Override
   public void close() {
     dispatchers.values().stream().forEach(dispatcher -> dispatcher.close());
+    if (eventLoops != null) {
+      Arrays.stream(eventLoops).forEach(eventLoop -> eventLoop.close());
+    }
   }
 
   @Override
@@ -52,6 +64,19 @@ public class ManyToOneConcurrentArrayQueuePlugin extends AbstractPlugin implemen
 
   @Override
   public void start(final Registrar registrar) {
+    if (configuration.eventLoops() > 0) {
+      eventLoops = new EventLoop[configuration.eventLoops()];
+      for (int idx = 0; idx < eventLoops.length; ++idx) {
+        eventLoops[idx] =
+                new EventLoop(
+                        configuration.name() + "-eventLoop-" + idx,
+                        configuration.fixedBackoff(),
+                        configuration.dispatcherThrottlingCount(),
+                        IdleStrategy.of(configuration.idleStrategy(), configuration.fixedBackoff(), configuration.maxParkNanos()),
+                        configuration.unparkOnSend());
+        eventLoops[idx].start();
+      }
+    }
     registrar.register(configuration.name(), configuration.isDefaultMailbox(), this);
   }
 
@@ -66,28 +91,53 @@ public class ManyToOneConcurrentArrayQueuePlugin extends AbstractPlugin implemen
   private ManyToOneConcurrentArrayQueuePlugin(final PluginConfiguration configuration) {
     this.configuration = (ManyToOneConcurrentArrayQueuePluginConfiguration) configuration;
     this.dispatchers = new ConcurrentHashMap<>(1);
+    this.nextEventLoop = new AtomicInteger(0);
   }
 
   @Override
   public Mailbox provideMailboxFor(final int hashCode) {
-    return provideMailboxFor(hashCode, null);
+    if (eventLoops != null) {
+      return eventLoopMailbox(configuration.ringSize());
+    }
+    return dedicatedMailbox(hashCode, configuration.ringSize());
   }
 
   @Override
   public Mailbox provideMailboxFor(final int hashCode, final Dispatcher dispatcher) {
-    final ManyToOneConcurrentArrayQueueDispatcher maybeDispatcher =
-            dispatcher != null ?
-                    (ManyToOneConcurrentArrayQueueDispatcher) dispatcher :
-                    dispatchers.get(hashCode);
+    if (dispatcher != null) {
+      return ((ManyToOneConcurrentArrayQueueDispatcher) dispatcher).mailbox();
+    }
+    return provideMailboxFor(hashCode);
+  }
+
+  @Override
+  public Mailbox provideMailboxFor(final int hashCode, final Definition definition) {
+    final int ringSize = definition.mailboxCapacity() > 0 ? definition.mailboxCapacity() : configuration.ringSize();
+
+    if (eventLoops != null) {
+      return eventLoopMailbox(ringSize);
+    }
+    return dedicatedMailbox(hashCode, ringSize);
+  }
+
+  @Override
+  public void __internal_Only_Init(final String name, final Configuration configuration, final Properties properties) {
+    this.configuration.name = name;
+  }
+
+  private Mailbox dedicatedMailbox(final int hashCode, final int ringSize) {
+    final ManyToOneConcurrentArrayQueueDispatcher maybeDispatcher = dispatchers.get(hashCode);
 
     if (maybeDispatcher == null) {
       final ManyToOneConcurrentArrayQueueDispatcher newDispatcher =
               new ManyToOneConcurrentArrayQueueDispatcher(
-                      configuration.ringSize(),
+                      ringSize,
                       configuration.fixedBackoff(),
                       configuration.notifyOnSend(),
                       configuration.dispatcherThrottlingCount(),
-                      configuration.sendRetires());
+                      configuration.sendRetires(),
+                      dedicatedIdleStrategy(),
+                      configuration.unparkOnSend());
 
       final ManyToOneConcurrentArrayQueueDispatcher otherDispatcher =
               dispatchers.putIfAbsent(hashCode, newDispatcher);
@@ -104,18 +154,31 @@ public class ManyToOneConcurrentArrayQueuePlugin extends AbstractPlugin implemen
     return maybeDispatcher.mailbox();
   }
 
-  @Override
-  public void __internal_Only_Init(final String name, final Configuration configuration, final Properties properties) {
-    this.configuration.name = name;
+  // without a fixed backoff the Backoff kind of a dedicated dispatcher spins, as it always has
+  private IdleStrategy dedicatedIdleStrategy() {
+    if (configuration.idleStrategy() == Kind.Backoff && configuration.fixedBackoff() == 0) {
+      return new IdleStrategy.BusySpin();
+    }
+    return IdleStrategy.of(configuration.idleStrategy(), configuration.fixedBackoff(), configuration.maxParkNanos());
+  }
+
+  private Mailbox eventLoopMailbox(final int ringSize) {
+    final EventLoop eventLoop = eventLoops[Math.floorMod(nextEventLoop.getAndIncrement(), eventLoops.length)];
+
+    return eventLoop.register(dispatcher -> new ManyToOneConcurrentArrayQueueMailbox(dispatcher, ringSize, configuration.sendRetires(), configuration.notifyOnSend()));
   }
 
   public static class ManyToOneConcurrentArrayQueuePluginConfiguration implements PluginConfiguration {
     private boolean defaultMailbox;
     private int dispatcherThrottlingCount;
+    private int eventLoops;
     private int fixedBackoff;
+    private Kind idleStrategy = Kind.Backoff;
+    private long maxParkNanos = 1_000_000L;
     private String name = "arrayQueueMailbox";
     private boolean notifyOnSend;
     private int ringSize;
+    private boolean unparkOnSend;
     private int sendRetires;
 
     public static ManyToOneConcurrentArrayQueuePluginConfiguration define() {
@@ -140,6 +203,21 @@ public class ManyToOneConcurrentArrayQueuePlugin extends AbstractPlugin implemen
       return dispatcherThrottlingCount;
     }
 
+    /**
+     * Answers myself after setting the number of {@code EventLoop} threads that
+     * service all of my mailboxes, or 0 for one dispatcher thread per mailbox.
+     * @param eventLoops the int number of event loop threads
+     * @return ManyToOneConcurrentArrayQueuePluginConfiguration
+     */
+    public ManyToOneConcurrentArrayQueuePluginConfiguration eventLoops(final int eventLoops) {
+      this.eventLoops = eventLoops;
+      return this;
+    }
+
+    public int eventLoops() {
+      return eventLoops;
+    }
+
     public ManyToOneConcurrentArrayQueuePluginConfiguration fixedBackoff(final int fixedBackoff) {
       this.fixedBackoff = fixedBackoff;
       return this;
@@ -149,6 +227,38 @@ public class ManyToOneConcurrentArrayQueuePlugin extends AbstractPlugin implemen
       return fixedBackoff;
     }
 
+    /**
+     * Answers myself after setting the kind of {@code IdleStrategy} used by my
+     * dispatcher threads when they find no messages. {@code Backoff} sleeps for
+     * milliseconds, as given by my {@code fixedBackoff}, and the other kinds spin,
+     * yield or park for nanoseconds.
+     * @param idleStrategy the Kind of IdleStrategy
+     * @return ManyToOneConcurrentArrayQueuePluginConfiguration
+     */
+    public ManyToOneConcurrentArrayQueuePluginConfiguration idleStrategy(final Kind idleStrategy) {
+      this.idleStrategy = idleStrategy;
+      return this;
+    }
+
+    public Kind idleStrategy() {
+      return idleStrategy;
+    }
+
+    /**
+     * Answers myself after setting the maximum nanoseconds that a {@code Parking}
+     * or {@code Composite} idle strategy parks before checking for messages again.
+     * @param maxParkNanos the long maximum nanoseconds
+     * @return ManyToOneConcurrentArrayQueuePluginConfiguration
+     */
+    public ManyToOneConcurrentArrayQueuePluginConfiguration maxParkNanos(final long maxParkNanos) {
+      this.maxParkNanos = maxParkNanos;
+      return this;
+    }
+
+    public long maxParkNanos() {
+      return maxParkNanos;
+    }
+
     public ManyToOneConcurrentArrayQueuePluginConfiguration notifyOnSend(final boolean notifyOnSend) {
       this.notifyOnSend = notifyOnSend;
       return this;
@@ -167,6 +277,22 @@ public class ManyToOneConcurrentArrayQueuePlugin extends AbstractPlugin implemen
       return ringSize;
     }
 
+    /**
+     * Answers myself after setting whether a send that notifies a dispatcher
+     * thread unparks it rather than interrupts it, which wakes a parked idle
+     * strategy without leaving the thread interrupted.
+     * @param unparkOnSend the boolean indicating whether to unpark
+     * @return ManyToOneConcurrentArrayQueuePluginConfiguration
+     */
+    public ManyToOneConcurrentArrayQueuePluginConfiguration unparkOnSend(final boolean unparkOnSend) {
+      this.unparkOnSend = unparkOnSend;
+      return this;
+    }
+
+    public boolean unparkOnSend() {
+      return unparkOnSend;
+    }
+
     public ManyToOneConcurrentArrayQueuePluginConfiguration sendRetires(final int sendRetires) {
       this.sendRetires = sendRetires;
       return this;
@@ -186,9 +312,13 @@ public class ManyToOneConcurrentArrayQueuePlugin extends AbstractPlugin implemen
       this.name = properties.name;
       this.defaultMailbox = properties.getBoolean("defaultMailbox", false);
       this.dispatcherThrottlingCount = properties.getInteger("dispatcherThrottlingCount", 1);
+      this.eventLoops = properties.getInteger("eventLoops", 0);
       this.fixedBackoff = properties.getInteger("fixedBackoff", 2);
+      this.idleStrategy = Kind.valueOf(properties.getString("idleStrategy", Kind.Backoff.name()));
+      this.maxParkNanos = properties.getLong("maxParkNanos", 1_000_000L);
       this.notifyOnSend = properties.getBoolean("notifyOnSend", false);
       this.ringSize = properties.getInteger("size", 65535);
+      this.unparkOnSend = properties.getBoolean("unparkOnSend", false);
       this.sendRetires = properties.getInteger("sendRetires", 10);
       configuration.with(this);
     }
@@ -0,0 +1,549 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import io.vlingo.xoom.actors.Configuration;
+import io.vlingo.xoom.actors.Definition;
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.Mailbox;
+import io.vlingo.xoom.actors.MailboxProvider;
+import io.vlingo.xoom.actors.Registrar;
+import io.vlingo.xoom.actors.plugin.AbstractPlugin;
+import io.vlingo.xoom.actors.plugin.Plugin;
+import io.vlingo.xoom.actors.plugin.PluginConfiguration;
+import io.vlingo.xoom.actors.plugin.PluginProperties;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.ConcurrentQueueMailboxPlugin.DispatcherPool;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.ConcurrentQueueMailboxPlugin.DispatcherType;
+
+/**
+ * The base of the plugins that provide a kind of {@code ConcurrentQueueMailbox}.
+ * I start and close the dispatchers, dispatcher pools, and blocking dispatcher
+ * of my {@code configuration}, and answer the {@code DeliverySettings} of each
+ * mailbox, including inline delivery and latency targets, such that each kind
+ * of plugin only creates its kind of mailbox with {@code newMailbox()}.
+ * @param <C> the type of my configuration
+ */
+public abstract class AbstractConcurrentQueueMailboxPlugin<C extends AbstractConcurrentQueueMailboxPlugin.AbstractConcurrentQueueMailboxPluginConfiguration<C>>
+    extends AbstractPlugin implements Plugin, MailboxProvider {
+
+  protected final C configuration;
+
+  private BlockingDispatcher blockingDispatcher;
+  private final Map<String, Dispatcher> dispatcherPools;
+  private Dispatcher executorDispatcher;
+
+  @Override
+  public void close() {
+    executorDispatcher.close();
+    dispatcherPools.values().forEach(dispatcher -> dispatcher.close());
+    if (blockingDispatcher != null) {
+      blockingDispatcher.close();
+    }
+  }
+
+  /**
+   * Answers the {@code BlockingDispatcher} that delivers the {@code @Blocking}
+   * messages of my mailboxes, or {@code null} if they are not offloaded.
+   * @return BlockingDispatcher
+   */
+  public BlockingDispatcher blockingDispatcher() {
+    return blockingDispatcher;
+  }
+
+  @Override
+  public PluginConfiguration configuration() {
+    return configuration;
+  }
+
+  @Override
+  public String name() {
+    return configuration.name();
+  }
+
+  @Override
+  public int pass() {
+    return 1;
+  }
+
+  @Override
+  public void start(final Registrar registrar) {
+    for (final DispatcherPool pool : configuration.dispatcherPools()) {
+      if (pool.numberOfDispatchers() <= 0 && pool.numberOfDispatchersFactor() <= 0) {
+        throw new IllegalStateException("Dispatcher pool " + pool.name() + " requires numberOfDispatchers or numberOfDispatchersFactor.");
+      }
+    }
+
+    executorDispatcher = defaultDispatcher(registrar);
+
+    for (final DispatcherPool pool : configuration.dispatcherPools()) {
+      dispatcherPools.put(
+              pool.name(),
+              newDispatcher(
+                  pool.dispatcherType(),
+                  pool.numberOfDispatchers(),
+                  pool.numberOfDispatchersFactor(),
+                  pool.queueCapacity(),
+                  pool.idleTimeout()));
+    }
+
+    if (configuration.blockingMaxThreads() > 0) {
+      blockingDispatcher =
+              new BlockingDispatcher(
+                  configuration.blockingMaxThreads(),
+                  configuration.blockingQueueCapacity(),
+                  configuration.blockingIdleTimeout());
+    }
+
+    registrar.register(configuration.name(), configuration.isDefaultMailbox(), this);
+  }
+
+  @Override
+  public Mailbox provideMailboxFor(final int hashCode) {
+    return provideMailboxFor(hashCode, null, null);
+  }
+
+  @Override
+  public Mailbox provideMailboxFor(final int hashCode, final Definition definition) {
+    return provideMailboxFor(hashCode, definition, null);
+  }
+
+  @Override
+  public Mailbox provideMailboxFor(final int hashCode, final Definition definition, final String dispatcherPool) {
+    final Dispatcher pooled = dispatcherPool == null ? executorDispatcher : dispatcherPools.get(dispatcherPool);
+
+    if (pooled == null) {
+      throw new IllegalStateException("No dispatcher pool named " + dispatcherPool + " in " + configuration.name());
+    }
+
+    final Dispatcher dispatcher =
+            definition != null && definition.hasAffinity() ?
+                dispatcherFor(pooled, definition.affinity(), true) :
+                dispatcherFor(pooled, hashCode, false);
+
+    final boolean inlineDelivery = definition != null && definition.isInlineDelivery();
+    final long latencyTarget = definition != null && definition.latencyTarget() > 0 ? definition.latencyTarget() : configuration.latencyTarget();
+
+    final DeliverySettings settings =
+            new DeliverySettings(
+                dispatcher,
+                configuration.dispatcherThrottlingCount(),
+                configuration.dispatcherTimeSlice(),
+                inlineDelivery ? configuration.inlineDeliveryDepth() : 0,
+                configuration.inlineDeliveryBudget(),
+                blockingDispatcher,
+                TimeUnit.MILLISECONDS.toNanos(latencyTarget));
+
+    return newMailbox(settings, definition);
+  }
+
+  @Override
+  public Mailbox provideMailboxFor(final int hashCode, final Dispatcher dispatcher) {
+    if (dispatcher == null) {
+      throw new IllegalArgumentException("Dispatcher must not be null.");
+    }
+
+    final DeliverySettings settings =
+            new DeliverySettings(
+                dispatcher,
+                configuration.dispatcherThrottlingCount(),
+                configuration.dispatcherTimeSlice(),
+                0,
+                0,
+                null,
+                0L);
+
+    return newMailbox(settings, null);
+  }
+
+  @Override
+  public void __internal_Only_Init(final String name, final Configuration configuration, final Properties properties) {
+    ((AbstractConcurrentQueueMailboxPluginConfiguration<?>) this.configuration).name = name;
+  }
+
+  /**
+   * Constructs my state.
+   * @param configuration the C configuration of my mailboxes and dispatchers
+   */
+  protected AbstractConcurrentQueueMailboxPlugin(final C configuration) {
+    this.configuration = configuration;
+    this.dispatcherPools = new HashMap<>();
+  }
+
+  /**
+   * Answers the {@code Dispatcher} of my mailboxes that are not bound to a dispatcher
+   * pool, which by default is of my configured {@code DispatcherType}.
+   * @param registrar the Registrar that is starting me
+   * @return Dispatcher
+   */
+  protected Dispatcher defaultDispatcher(final Registrar registrar) {
+    return newDispatcher(
+            configuration.dispatcherType(),
+            configuration.numberOfDispatchers(),
+            configuration.numberOfDispatchersFactor(),
+            0,
+            0L);
+  }
+
+  /**
+   * Answers a new mailbox of my kind that is run and delivers according to {@code settings}.
+   * @param settings the DeliverySettings of the new mailbox
+   * @param definition the Definition of the Actor of the new mailbox, or null if it is not known
+   * @return Mailbox
+   */
+  protected abstract Mailbox newMailbox(final DeliverySettings settings, final Definition definition);
+
+  private Dispatcher dispatcherFor(final Dispatcher dispatcher, final int hashCode, final boolean pinned) {
+    if (dispatcher instanceof EventLoopDispatcher) {
+      return ((EventLoopDispatcher) dispatcher).affinityFor(hashCode, pinned);
+    }
+    return dispatcher;
+  }
+
+  private Dispatcher newDispatcher(
+          final DispatcherType dispatcherType,
+          final int numberOfDispatchers,
+          final float numberOfDispatchersFactor,
+          final int queueCapacity,
+          final long idleTimeout) {
+
+    final int availableThreads = Runtime.getRuntime().availableProcessors();
+
+    switch (dispatcherType) {
+    case EventLoop:
+      return new EventLoopDispatcher(
+                  availableThreads,
+                  numberOfDispatchers,
+                  numberOfDispatchersFactor,
+                  configuration.migrationColdAfter(),
+                  configuration.migrationImbalance());
+    case EarliestDeadline:
+      return new EarliestDeadlineDispatcher(
+                  availableThreads,
+                  numberOfDispatchers,
+                  numberOfDispatchersFactor);
+    case ForkJoin:
+      return new ForkJoinDispatcher(
+                  availableThreads,
+                  numberOfDispatchers,
+                  numberOfDispatchersFactor);
+    default:
+      return new ExecutorDispatcher(
+                  availableThreads,
+                  numberOfDispatchers,
+                  numberOfDispatchersFactor,
+                  queueCapacity,
+                  idleTimeout,
+                  configuration.nextSlot());
+    }
+  }
+
+  /**
+   * The configuration of the dispatchers and runs that every kind of
+   * {@code ConcurrentQueueMailbox} shares, to which each kind of plugin adds
+   * the settings of its kind of mailbox.
+   * @param <C> the type of the concrete configuration, which my setters answer
+   */
+  public static abstract class AbstractConcurrentQueueMailboxPluginConfiguration<C extends AbstractConcurrentQueueMailboxPluginConfiguration<C>> implements PluginConfiguration {
+    private long blockingIdleTimeout = 60_000L;
+    private int blockingMaxThreads = 64;
+    private int blockingQueueCapacity = 10_000;
+    private boolean defaultMailbox;
+    private final List<DispatcherPool> dispatcherPools = new ArrayList<>();
+    private DispatcherType dispatcherType = DispatcherType.Executor;
+    private int dispatcherThrottlingCount;
+    private long dispatcherTimeSlice;
+    private int inlineDeliveryBudget = 16;
+    private int inlineDeliveryDepth = 8;
+    private long latencyTarget = 100L;
+    private long migrationColdAfter = 1_000L;
+    private float migrationImbalance = 2.0f;
+    private String name;
+    private boolean nextSlot;
+    private int numberOfDispatchers;
+    private float numberOfDispatchersFactor;
+
+    /**
+     * Answers myself after setting the milliseconds after which an idle thread
+     * of the blocking pool ends.
+     * @param blockingIdleTimeout the long milliseconds
+     * @return C
+     */
+    public C blockingIdleTimeout(final long blockingIdleTimeout) {
+      this.blockingIdleTimeout = blockingIdleTimeout;
+      return self();
+    }
+
+    public long blockingIdleTimeout() {
+      return blockingIdleTimeout;
+    }
+
+    /**
+     * Answers myself after setting the maximum number of threads of the pool that
+     * delivers {@code @Blocking} messages, where 0 delivers them on the dispatcher
+     * threads with all other messages.
+     * @param blockingMaxThreads the int maximum number of threads, or 0 to not offload
+     * @return C
+     */
+    public C blockingMaxThreads(final int blockingMaxThreads) {
+      this.blockingMaxThreads = blockingMaxThreads;
+      return self();
+    }
+
+    public int blockingMaxThreads() {
+      return blockingMaxThreads;
+    }
+
+    /**
+     * Answers myself after setting the maximum number of mailboxes waiting for a
+     * thread of the blocking pool, beyond which a mailbox is held and handed off
+     * again once a thread of the pool completes a drain.
+     * @param blockingQueueCapacity the int capacity, or 0 for no limit
+     * @return C
+     */
+    public C blockingQueueCapacity(final int blockingQueueCapacity) {
+      this.blockingQueueCapacity = blockingQueueCapacity;
+      return self();
+    }
+
+    public int blockingQueueCapacity() {
+      return blockingQueueCapacity;
+    }
+
+    public C defaultMailbox() {
+      this.defaultMailbox = true;
+      return self();
+    }
+
+    public boolean isDefaultMailbox() {
+      return defaultMailbox;
+    }
+
+    public C dispatcherThrottlingCount(final int dispatcherThrottlingCount) {
+      this.dispatcherThrottlingCount = dispatcherThrottlingCount;
+      return self();
+    }
+
+    public int dispatcherThrottlingCount() {
+      return dispatcherThrottlingCount;
+    }
+
+    /**
+     * Answers myself after setting the maximum number of messages that a sender
+     * delivers on its own thread when it claims an idle mailbox of an actor whose
+     * {@code Definition} opts in to inline delivery.
+     * @param inlineDeliveryBudget the int maximum number of messages per inline run
+     * @return C
+     */
+    public C inlineDeliveryBudget(final int inlineDeliveryBudget) {
+      this.inlineDeliveryBudget = inlineDeliveryBudget;
+      return self();
+    }
+
+    public int inlineDeliveryBudget() {
+      return inlineDeliveryBudget;
+    }
+
+    /**
+     * Answers myself after setting the maximum number of inline runs that may be
+     * nested on one thread, such as along a pipeline of actors, beyond which
+     * mailboxes are submitted to their dispatcher as usual.
+     * @param inlineDeliveryDepth the int maximum nested inline runs, or 0 to never deliver inline
+     * @return C
+     */
+    public C inlineDeliveryDepth(final int inlineDeliveryDepth) {
+      this.inlineDeliveryDepth = inlineDeliveryDepth;
+      return self();
+    }
+
+    public int inlineDeliveryDepth() {
+      return inlineDeliveryDepth;
+    }
+
+    /**
+     * Answers myself after setting the nanoseconds that each mailbox run should
+     * approximate by adapting its number of delivered messages, which remains
+     * bounded by the {@code dispatcherThrottlingCount}. A value of 0 disables
+     * adaptation such that each run delivers up to {@code dispatcherThrottlingCount}.
+     * @param dispatcherTimeSlice the long nanoseconds of each mailbox run
+     * @return C
+     */
+    public C dispatcherTimeSlice(final long dispatcherTimeSlice) {
+      this.dispatcherTimeSlice = dispatcherTimeSlice;
+      return self();
+    }
+
+    public long dispatcherTimeSlice() {
+      return dispatcherTimeSlice;
+    }
+
+    /**
+     * Answers myself after declaring the named dispatcher {@code pool}, which replaces
+     * any pool of the same name.
+     * @param pool the DispatcherPool
+     * @return C
+     */
+    public C dispatcherPool(final DispatcherPool pool) {
+      dispatcherPools.removeIf(existing -> existing.name().equals(pool.name()));
+      dispatcherPools.add(pool);
+      return self();
+    }
+
+    public List<DispatcherPool> dispatcherPools() {
+      return dispatcherPools;
+    }
+
+    public C dispatcherType(final DispatcherType dispatcherType) {
+      this.dispatcherType = dispatcherType;
+      return self();
+    }
+
+    public DispatcherType dispatcherType() {
+      return dispatcherType;
+    }
+
+    /**
+     * Answers myself after setting the milliseconds within which messages should be
+     * delivered after they are sent, for actors whose {@code Definition} sets none.
+     * Only an {@code EarliestDeadline} dispatcher respects this value, which it adds
+     * to the enqueue time of the head message of each mailbox to order them.
+     * @param latencyTarget the long milliseconds
+     * @return C
+     */
+    public C latencyTarget(final long latencyTarget) {
+      this.latencyTarget = latencyTarget;
+      return self();
+    }
+
+    public long latencyTarget() {
+      return latencyTarget;
+    }
+
+    /**
+     * Answers myself after setting the milliseconds after its last run that an
+     * {@code EventLoop} mailbox is cold and may be migrated to a less loaded loop.
+     * @param migrationColdAfter the long milliseconds
+     * @return C
+     */
+    public C migrationColdAfter(final long migrationColdAfter) {
+      this.migrationColdAfter = migrationColdAfter;
+      return self();
+    }
+
+    public long migrationColdAfter() {
+      return migrationColdAfter;
+    }
+
+    /**
+     * Answers myself after setting the factor by which the load of an {@code EventLoop}
+     * must exceed that of the least loaded loop before it migrates its cold mailboxes.
+     * A value of 0 disables migration.
+     * @param migrationImbalance the float factor
+     * @return C
+     */
+    public C migrationImbalance(final float migrationImbalance) {
+      this.migrationImbalance = migrationImbalance;
+      return self();
+    }
+
+    public float migrationImbalance() {
+      return migrationImbalance;
+    }
+
+    /**
+     * Answers myself after setting whether an {@code Executor} dispatcher runs a mailbox
+     * that is scheduled by one of its threads next on that same thread, rather than
+     * at the tail of its shared queue, which favors request/reply chains of actors.
+     * @param nextSlot the boolean indicating whether each thread has a next slot
+     * @return C
+     */
+    public C nextSlot(final boolean nextSlot) {
+      this.nextSlot = nextSlot;
+      return self();
+    }
+
+    public boolean nextSlot() {
+      return nextSlot;
+    }
+
+    public C numberOfDispatchersFactor(final float numberOfDispatchersFactor) {
+      this.numberOfDispatchersFactor = numberOfDispatchersFactor;
+      return self();
+    }
+
+    public C numberOfDispatchers(final int numberOfDispatchers) {
+      this.numberOfDispatchers = numberOfDispatchers;
+      return self();
+    }
+
+    public int numberOfDispatchers() {
+      return numberOfDispatchers;
+    }
+
+    public float numberOfDispatchersFactor() {
+      return numberOfDispatchersFactor;
+    }
+
+    @Override
+    public void buildWith(final Configuration configuration, final PluginProperties properties) {
+      this.name = properties.name;
+      this.blockingIdleTimeout = properties.getLong("blockingIdleTimeout", 60_000L);
+      this.blockingMaxThreads = properties.getInteger("blockingMaxThreads", 64);
+      this.blockingQueueCapacity = properties.getInteger("blockingQueueCapacity", 10_000);
+      this.defaultMailbox = properties.getBoolean("defaultMailbox", false);
+      this.dispatcherThrottlingCount = properties.getInteger("dispatcherThrottlingCount", 1);
+      this.dispatcherTimeSlice = properties.getLong("dispatcherTimeSlice", 0L);
+      this.dispatcherType = DispatcherType.valueOf(properties.getString("dispatcherType", DispatcherType.Executor.name()));
+      this.inlineDeliveryBudget = properties.getInteger("inlineDeliveryBudget", 16);
+      this.inlineDeliveryDepth = properties.getInteger("inlineDeliveryDepth", 8);
+      this.latencyTarget = properties.getLong("latencyTarget", 100L);
+      this.migrationColdAfter = properties.getLong("migrationColdAfter", 1_000L);
+      this.migrationImbalance = properties.getFloat("migrationImbalance", 2.0f);
+      this.numberOfDispatchersFactor = properties.getFloat("numberOfDispatchersFactor", 1.5f);
+      this.numberOfDispatchers = properties.getInteger("numberOfDispatchers", 0);
+      this.nextSlot = properties.getBoolean("nextSlot", false);
+
+      for (final String poolName : properties.getString("dispatcherPools", "").split(",")) {
+        final String trimmed = poolName.trim();
+        if (!trimmed.isEmpty()) {
+          final String prefix = "dispatcherPool." + trimmed + ".";
+          dispatcherPool(DispatcherPool.named(trimmed)
+                  .dispatcherType(DispatcherType.valueOf(properties.getString(prefix + "dispatcherType", DispatcherType.Executor.name())))
+                  .numberOfDispatchers(properties.getInteger(prefix + "numberOfDispatchers", 0))
+                  .numberOfDispatchersFactor(properties.getFloat(prefix + "numberOfDispatchersFactor", 0f))
+                  .queueCapacity(properties.getInteger(prefix + "queueCapacity", 0))
+                  .idleTimeout(properties.getLong(prefix + "idleTimeout", 0L)));
+        }
+      }
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    /**
+     * Constructs my state.
+     * @param name the String name of my plugin unless it is configured by properties
+     */
+    protected AbstractConcurrentQueueMailboxPluginConfiguration(final String name) {
+      this.name = name;
+    }
+
+    @SuppressWarnings("unchecked")
+    private C self() {
+      return (C) this;
+    }
+  }
+}
@@ -0,0 +1,204 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.Mailbox;
+
+/**
+ * A {@code Dispatcher} of an elastic pool of threads that run the mailbox drains
+ * of {@code @Blocking} messages, apart from the threads shared by non-blocking
+ * actors. Threads are started on demand up to {@code maxThreads} and end after
+ * {@code idleTimeout} without work. A drain submitted while all threads are busy
+ * waits in a queue of up to {@code queueCapacity}. One submitted while the queue
+ * is full is counted as rejected and held for retry, and is handed off again
+ * each time one of my threads completes a drain. A rejected drain never runs on
+ * the submitting thread, which is usually one shared by non-blocking actors, and
+ * its mailbox remains scheduled meanwhile, so it is held at most once.
+ */
+public class BlockingDispatcher implements Dispatcher {
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final ThreadPoolExecutor executor;
+  private final int maxThreads;
+  private final LongAdder rejected;
+  private final ConcurrentLinkedDeque<Mailbox> retries;
+  private final LongAdder submitted;
+
+  /**
+   * Constructs my state.
+   * @param maxThreads the int maximum number of threads
+   * @param queueCapacity the int maximum number of mailboxes waiting for a thread, or 0 for no limit
+   * @param idleTimeout the long milliseconds after which an idle thread ends
+   */
+  protected BlockingDispatcher(final int maxThreads, final int queueCapacity, final long idleTimeout) {
+    this.maxThreads = Math.max(1, maxThreads);
+    this.rejected = new LongAdder();
+    this.retries = new ConcurrentLinkedDeque<>();
+    this.submitted = new LongAdder();
+
+    this.executor = new BlockingExecutor(this.maxThreads, Math.max(1L, idleTimeout),
+        queueCapacity > 0 ? new LinkedBlockingQueue<>(queueCapacity) : new LinkedBlockingQueue<>(),
+        new RejectionHandler());
+
+    // threads are started only while there are blocking drains
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Answers the number of my threads that are running a drain.
+   * @return int
+   */
+  public int activeThreads() {
+    return executor.getActiveCount();
+  }
+
+  /**
+   * Answers the number of drains that I completed.
+   * @return long
+   */
+  public long completedDrains() {
+    return executor.getCompletedTaskCount();
+  }
+
+  @Override
+  public int concurrencyCapacity() {
+    return maxThreads;
+  }
+
+  @Override
+  public void close() {
+    closed.set(true);
+    executor.shutdown();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  @Override
+  public void execute(final Mailbox mailbox) {
+    if (!closed.get()) {
+      submitted.increment();
+      executor.execute(mailbox);
+    }
+  }
+
+  /**
+   * Answers the largest number of my threads that were started at once.
+   * @return int
+   */
+  public int largestPoolSize() {
+    return executor.getLargestPoolSize();
+  }
+
+  /**
+   * Answers the number of my threads, whether or not they are running a drain.
+   * @return int
+   */
+  public int poolSize() {
+    return executor.getPoolSize();
+  }
+
+  /**
+   * Answers the number of drains waiting for a thread.
+   * @return int
+   */
+  public int queuedDrains() {
+    return executor.getQueue().size();
+  }
+
+  /**
+   * Answers the number of drains that were rejected and held for retry because my queue was full.
+   * @return long
+   */
+  public long rejectedDrains() {
+    return rejected.sum();
+  }
+
+  /**
+   * Answers the number of rejected drains that are waiting to be handed off again.
+   * @return int
+   */
+  public int retryingDrains() {
+    return retries.size();
+  }
+
+  @Override
+  public boolean requiresExecutionNotification() {
+    return false;
+  }
+
+  /**
+   * Answers the number of drains submitted to me.
+   * @return long
+   */
+  public long submittedDrains() {
+    return submitted.sum();
+  }
+
+  private void retryRejected() {
+    final BlockingQueue<Runnable> queue = executor.getQueue();
+    Mailbox mailbox;
+    while ((mailbox = retries.poll()) != null) {
+      if (!queue.offer(mailbox)) {
+        retries.offerFirst(mailbox);
+        break;
+      }
+      // the drain may have been queued after all of my threads timed out
+      executor.prestartCoreThread();
+    }
+  }
+
+  private final class BlockingExecutor extends ThreadPoolExecutor {
+    BlockingExecutor(final int threads, final long idleTimeout, final BlockingQueue<Runnable> queue, final RejectedExecutionHandler handler) {
+      super(threads, threads, idleTimeout, TimeUnit.MILLISECONDS, queue, new BlockingThreadFactory(), handler);
+    }
+
+    @Override
+    protected void afterExecute(final Runnable runnable, final Throwable throwable) {
+      if (!retries.isEmpty() && !isShutdown()) {
+        retryRejected();
+      }
+    }
+  }
+
+  private static final class BlockingThreadFactory implements ThreadFactory {
+    private final AtomicLong count = new AtomicLong(0);
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      final Thread thread = new Thread(runnable, "xoom-blocking-" + count.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  private class RejectionHandler implements RejectedExecutionHandler {
+    @Override
+    public void rejectedExecution(final Runnable runnable, final ThreadPoolExecutor executor) {
+      if (!executor.isShutdown()) {
+        rejected.increment();
+        retries.offer((Mailbox) runnable);
+        // the queue may have had room again since the rejection, with no drain left to complete
+        retryRejected();
+      }
+    }
+  }
+}
@@ -0,0 +1,240 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import io.vlingo.xoom.actors.Actor;
+import io.vlingo.xoom.actors.DeadLetter;
+import io.vlingo.xoom.actors.DeadLetters;
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.Message;
+
+/**
+ * A {@code ConcurrentQueueMailbox} that holds at most {@code capacity} pending
+ * messages. A {@code send()} to a full mailbox is handled according to the
+ * {@code OverflowPolicy}, and every message that is not delivered because
+ * of overflow is counted in {@code rejectedMessages()} and sent to
+ * {@code DeadLetters}, so that no sender waits on it. A message is pending
+ * from its {@code send()} until the run that delivers it ends, including
+ * while it waits in the batch of a run.
+ */
+public class BoundedConcurrentQueueMailbox extends ConcurrentQueueMailbox {
+  private static final long BlockedSendParkNanos = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private final int capacity;
+  private final OverflowPolicy overflowPolicy;
+  private final LongAdder rejected;
+  private final long sendTimeoutNanos;
+  private final AtomicInteger size;
+
+  @Override
+  public void close() {
+    super.close();
+    size.set(0);
+  }
+
+  @Override
+  public Message receive() {
+    final Message message = super.receive();
+    if (message != null) {
+      size.decrementAndGet();
+    }
+    return message;
+  }
+
+  @Override
+  public int receive(final Message[] into, final int max) {
+    final int count = super.receive(into, max);
+    if (count > 0) {
+      size.addAndGet(-count);
+    }
+    return count;
+  }
+
+  /* @see io.vlingo.xoom.actors.Mailbox#pendingMessages() */
+  @Override
+  public int pendingMessages() {
+    return size.get();
+  }
+
+  /* @see io.vlingo.xoom.actors.Mailbox#depth() */
+  @Override
+  public int depth() {
+    return size.get();
+  }
+
+  /**
+   * Answers the maximum number of my pending messages.
+   * @return int
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Answers my {@code OverflowPolicy}.
+   * @return OverflowPolicy
+   */
+  public OverflowPolicy overflowPolicy() {
+    return overflowPolicy;
+  }
+
+  /**
+   * Answers the total number of messages that were dropped or dead-lettered due to overflow.
+   * @return long
+   */
+  public long rejectedMessages() {
+    return rejected.sum();
+  }
+
+  @Override
+  protected void delivered(final int count) {
+    size.addAndGet(-count);
+  }
+
+  @Override
+  protected boolean enqueue(final Message message) {
+    if (reserve()) {
+      return super.enqueue(message);
+    }
+
+    switch (overflowPolicy) {
+    case Block:
+      return enqueueBlocking(message);
+    case DropOldest:
+      return enqueueDisplacingOldest(message);
+    case DropNewest:
+    case RouteToDeadLetters:
+    default:
+      reject(message);
+      return false;
+    }
+  }
+
+  @Override
+  protected int receiveBatch(final Message[] into, final int max) {
+    // batched messages remain counted against my capacity until delivered()
+    return super.receive(into, max);
+  }
+
+  BoundedConcurrentQueueMailbox(
+          final Dispatcher dispatcher,
+          final int throttlingCount,
+          final int capacity,
+          final OverflowPolicy overflowPolicy,
+          final long sendTimeout) {
+
+    this(new DeliverySettings(dispatcher, throttlingCount, 0L, 0, 0, null, 0L), capacity, overflowPolicy, sendTimeout);
+  }
+
+  BoundedConcurrentQueueMailbox(
+          final DeliverySettings settings,
+          final int capacity,
+          final OverflowPolicy overflowPolicy,
+          final long sendTimeout) {
+
+    super(settings, new ConcurrentLinkedQueue<>());
+
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Mailbox capacity must be greater than 0.");
+    }
+
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+    this.rejected = new LongAdder();
+    this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeout);
+    this.size = new AtomicInteger(0);
+  }
+
+  private boolean enqueueBlocking(final Message message) {
+    final long deadline = System.nanoTime() + sendTimeoutNanos;
+
+    while (!reserve()) {
+      if (System.nanoTime() - deadline >= 0 || isClosed()) {
+        reject(message);
+        return false;
+      }
+      LockSupport.parkNanos(BlockedSendParkNanos);
+    }
+
+    return super.enqueue(message);
+  }
+
+  private boolean enqueueDisplacingOldest(final Message message) {
+    while (!reserve()) {
+      final Message displaced = receive();
+      if (displaced == null) {
+        // all pending messages are in the batch of a run, which cannot be displaced
+        reject(message);
+        return false;
+      }
+      reject(displaced);
+    }
+
+    return super.enqueue(message);
+  }
+
+  private void reject(final Message message) {
+    rejected.increment();
+
+    final Actor actor = message.actor();
+
+    if (actor == null) {
+      return;
+    }
+
+    final DeadLetters deadLetters = actor.deadLetters();
+
+    if (deadLetters != null) {
+      deadLetters.failedDelivery(new DeadLetter(actor, message.representation()));
+    }
+  }
+
+  private boolean reserve() {
+    while (true) {
+      final int current = size.get();
+      if (current >= capacity) {
+        return false;
+      }
+      if (size.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * The handling of a {@code send()} to a full {@code BoundedConcurrentQueueMailbox}.
+   */
+  public static enum OverflowPolicy {
+    /**
+     * Park the sender until space is available, or reject to {@code DeadLetters} after the send timeout.
+     */
+    Block,
+
+    /**
+     * Reject the message being sent to {@code DeadLetters}, keeping the pending messages.
+     */
+    DropNewest,
+
+    /**
+     * Reject the oldest pending message to {@code DeadLetters} to make room for the message
+     * being sent, or the message being sent when all pending messages are in the batch of a run.
+     */
+    DropOldest,
+
+    /**
+     * Deliver the message being sent to {@code DeadLetters}; the same as {@code DropNewest}.
+     */
+    RouteToDeadLetters
+  }
+}
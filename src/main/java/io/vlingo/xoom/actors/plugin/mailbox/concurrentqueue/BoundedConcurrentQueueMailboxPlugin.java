@@ -0,0 +1,108 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import io.vlingo.xoom.actors.Configuration;
+import io.vlingo.xoom.actors.Definition;
+import io.vlingo.xoom.actors.Mailbox;
+import io.vlingo.xoom.actors.plugin.Plugin;
+import io.vlingo.xoom.actors.plugin.PluginConfiguration;
+import io.vlingo.xoom.actors.plugin.PluginProperties;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.BoundedConcurrentQueueMailbox.OverflowPolicy;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.BoundedConcurrentQueueMailboxPlugin.BoundedConcurrentQueueMailboxPluginConfiguration;
+
+public class BoundedConcurrentQueueMailboxPlugin extends AbstractConcurrentQueueMailboxPlugin<BoundedConcurrentQueueMailboxPluginConfiguration> {
+
+  public BoundedConcurrentQueueMailboxPlugin() {
+    super(new BoundedConcurrentQueueMailboxPluginConfiguration());
+  }
+
+  @Override
+  public Plugin with(final PluginConfiguration overrideConfiguration) {
+    if (overrideConfiguration == null) {
+      return this;
+    }
+    return new BoundedConcurrentQueueMailboxPlugin(overrideConfiguration);
+  }
+
+  private BoundedConcurrentQueueMailboxPlugin(final PluginConfiguration configuration) {
+    super((BoundedConcurrentQueueMailboxPluginConfiguration) configuration);
+  }
+
+  @Override
+  protected Mailbox newMailbox(final DeliverySettings settings, final Definition definition) {
+    final int capacity = definition != null && definition.mailboxCapacity() > 0 ? definition.mailboxCapacity() : configuration.capacity();
+
+    return new BoundedConcurrentQueueMailbox(
+            settings,
+            capacity,
+            configuration.overflowPolicy(),
+            configuration.sendTimeout());
+  }
+
+  public static class BoundedConcurrentQueueMailboxPluginConfiguration extends AbstractConcurrentQueueMailboxPluginConfiguration<BoundedConcurrentQueueMailboxPluginConfiguration> {
+    private int capacity;
+    private OverflowPolicy overflowPolicy;
+    private long sendTimeout;
+
+    public static BoundedConcurrentQueueMailboxPluginConfiguration define() {
+      return new BoundedConcurrentQueueMailboxPluginConfiguration();
+    }
+
+    public BoundedConcurrentQueueMailboxPluginConfiguration() {
+      super("boundedQueueMailbox");
+    }
+
+    public BoundedConcurrentQueueMailboxPluginConfiguration capacity(final int capacity) {
+      this.capacity = capacity;
+      return this;
+    }
+
+    public int capacity() {
+      return capacity;
+    }
+
+    public BoundedConcurrentQueueMailboxPluginConfiguration overflowPolicy(final OverflowPolicy overflowPolicy) {
+      this.overflowPolicy = overflowPolicy;
+      return this;
+    }
+
+    public OverflowPolicy overflowPolicy() {
+      return overflowPolicy;
+    }
+
+    /**
+     * Answers myself after setting the milliseconds that a sender
+     * may be blocked when the {@code OverflowPolicy} is {@code Block}.
+     * @param sendTimeout the long milliseconds to block
+     * @return BoundedConcurrentQueueMailboxPluginConfiguration
+     */
+    public BoundedConcurrentQueueMailboxPluginConfiguration sendTimeout(final long sendTimeout) {
+      this.sendTimeout = sendTimeout;
+      return this;
+    }
+
+    public long sendTimeout() {
+      return sendTimeout;
+    }
+
+    @Override
+    public void build(final Configuration configuration) {
+      configuration.with(capacity(10_000).overflowPolicy(OverflowPolicy.RouteToDeadLetters).sendTimeout(100).numberOfDispatchersFactor(1.5f).dispatcherThrottlingCount(1));
+    }
+
+    @Override
+    public void buildWith(final Configuration configuration, final PluginProperties properties) {
+      super.buildWith(configuration, properties);
+
+      this.capacity = properties.getInteger("capacity", 10_000);
+      this.overflowPolicy = OverflowPolicy.valueOf(properties.getString("overflowPolicy", OverflowPolicy.RouteToDeadLetters.name()));
+      this.sendTimeout = properties.getLong("sendTimeout", 100L);
+    }
+  }
+}
@@ -7,28 +7,57 @@
 
 package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
 
+import java.util.Arrays;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import io.vlingo.xoom.actors.Dispatcher;
 import io.vlingo.xoom.actors.Mailbox;
 import io.vlingo.xoom.actors.Message;
 import io.vlingo.xoom.actors.ResumingMailbox;
+import io.vlingo.xoom.actors.plugin.mailbox.ControlLane;
 import io.vlingo.xoom.actors.plugin.mailbox.SuspendedDeliveryOverrides;
 import io.vlingo.xoom.actors.plugin.mailbox.SuspendedDeliveryOverrides.Overrides;
 
 public class ConcurrentQueueMailbox implements Mailbox, Runnable {
-  private AtomicBoolean delivering;
+  private static final int Idle = 0;
+  private static final int Scheduled = 1;
+  private static final int Running = 2;
+
+  // a batch longer than this is released when a run leaves me empty
+  private static final int RetainedBatchLength = 16;
+
+  // the number of inline deliveries nested on the current thread
+  private static final ThreadLocal<int[]> InlineDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+  private final LongAdder avoidedSubmissions;
+  private Message[] batch;
+  private int batchCount;
+  private int batchIndex;
+  private final Dispatcher blockingDispatcher;
+  private volatile boolean blockingTurn;
+  private final ControlLane controlLane;
+  private final LongAdder depth;
   private final Dispatcher dispatcher;
-  private AtomicReference<SuspendedDeliveryOverrides> suspendedDeliveryOverrides;
+  private final int inlineBudget;
+  private final int inlineDepth;
+  private final long latencyTarget;
+  private long nanosPerMessage;
+  private final SuspendedDeliveryOverrides suspendedDeliveryOverrides;
   private final Queue<Message> queue;
-  private final byte throttlingCount;
+  private final boolean recordsEnqueueTime;
+  private final AtomicInteger state;
+  private final int throttlingCount;
+  private final long timeSlice;
 
   @Override
   public void close() {
     queue.clear();
+    controlLane.clear();
+    depth.reset();
+    clearBatch();
   }
 
   @Override
@@ -43,88 +72,494 @@ public class ConcurrentQueueMailbox implements Mailbox, Runnable {
 
   @Override
   public void resume(final String name) {
-    if (suspendedDeliveryOverrides.get().pop(name)) {
-      dispatcher.execute(this);
+    if (suspendedDeliveryOverrides.pop(name)) {
+      schedule();
     }
   }
 
   @Override
   public void send(final Message message) {
-    if (isSuspended()) {
-      if (suspendedDeliveryOverrides.get().matchesTop(message.protocol())) {
-        dispatcher.execute(new ResumingMailbox(message));
-        if (!queue.isEmpty()) {
-          dispatcher.execute(this);
-        }
-        return;
+    // isSuspended() is a single volatile read, so the common case does no other work
+    if (recordsEnqueueTime) {
+      message.enqueuedAt(System.nanoTime());
+    }
+    if (!isSuspended()) {
+      if (enqueue(message) && !deliveredInline()) {
+        schedule();
+      }
+    } else if (suspendedDeliveryOverrides.matchesTop(message.protocol())) {
+      dispatcher.execute(new ResumingMailbox(message));
+      if (!queue.isEmpty()) {
+        schedule();
       }
-      queue.add(message);
     } else {
-      queue.add(message);
-      if (!isDelivering()) {
-        dispatcher.execute(this);
+      enqueue(message);
+    }
+  }
+
+  /**
+   * Sends the control {@code message} through my {@code ControlLane}, which I
+   * deliver ahead of my queue, even in the midst of a batch.
+   * @see io.vlingo.xoom.actors.Mailbox#sendControl(io.vlingo.xoom.actors.Message)
+   */
+  @Override
+  public void sendControl(final Message message) {
+    if (recordsEnqueueTime) {
+      message.enqueuedAt(System.nanoTime());
+    }
+    if (!isSuspended()) {
+      controlLane.add(message);
+      schedule();
+    } else if (suspendedDeliveryOverrides.matchesTop(message.protocol())) {
+      dispatcher.execute(new ResumingMailbox(message));
+      if (!queue.isEmpty() || !controlLane.isEmpty()) {
+        schedule();
       }
+    } else {
+      controlLane.add(message);
     }
   }
 
   @Override
   public void suspendExceptFor(final String name, final Class<?>... overrides) {
-    suspendedDeliveryOverrides.get().push(new Overrides(name, overrides));
+    suspendedDeliveryOverrides.push(new Overrides(name, overrides));
   }
 
   @Override
   public boolean isSuspended() {
-    return !suspendedDeliveryOverrides.get().isEmpty();
+    return !suspendedDeliveryOverrides.isEmpty();
   }
 
   @Override
   public boolean isSuspendedFor(String name) {
-    return !suspendedDeliveryOverrides.get().find(name).isEmpty();
+    return !suspendedDeliveryOverrides.find(name).isEmpty();
   }
 
   @Override
   public Message receive() {
-    return queue.poll();
+    final Message message = queue.poll();
+    if (message != null) {
+      depth.decrement();
+    }
+    return message;
+  }
+
+  @Override
+  public int receive(final Message[] into, final int max) {
+    final int limit = Math.min(max, into.length);
+    int count = 0;
+    while (count < limit) {
+      final Message message = queue.poll();
+      if (message == null) {
+        break;
+      }
+      into[count++] = message;
+    }
+    if (count > 0) {
+      depth.add(-count);
+    }
+    return count;
   }
 
   @Override
   public boolean isDelivering() {
-    return delivering.get();
+    return state.get() == Running;
   }
 
   @Override
   public void run() {
-    if (delivering.compareAndSet(false, true)) {
-      final int total = throttlingCount;
-      for (int count = 0; count < total; ++count) {
-        if (isSuspended()) {
-          break;
-        }
-        final Message message = receive();
-        if (message != null) {
-          message.deliver();
-        } else {
-          break;
-        }
-      }
-      delivering.set(false);
-      if (!queue.isEmpty()) {
-        dispatcher.execute(this);
-      }
+    if (state.compareAndSet(Scheduled, Running) || state.compareAndSet(Idle, Running)) {
+      // only the run submitted by offload() is on my blocking dispatcher
+      final boolean onBlocking = blockingTurn;
+      blockingTurn = false;
+      deliver(nextBatchSize(), onBlocking);
     }
   }
 
+  /**
+   * Answers the number of times that I was not submitted to my dispatcher
+   * because I was already scheduled or running.
+   * @return long
+   */
+  public long avoidedSubmissions() {
+    return avoidedSubmissions.sum();
+  }
+
+  /**
+   * Answers the enqueue time of my next message, which is read only by my dispatcher
+   * while I am scheduled, when my batch is not changed by any other thread.
+   * @see io.vlingo.xoom.actors.Mailbox#headEnqueuedAt()
+   */
+  @Override
+  public long headEnqueuedAt() {
+    final Message head = batchIndex < batchCount ? batch[batchIndex] : queue.peek();
+    final long enqueuedAt = head == null ? 0L : head.enqueuedAt();
+    return enqueuedAt == 0L ? System.nanoTime() : enqueuedAt;
+  }
+
+  /* @see io.vlingo.xoom.actors.Mailbox#latencyTarget() */
+  @Override
+  public long latencyTarget() {
+    return latencyTarget;
+  }
+
+  /**
+   * Answers whether or not my messages may be delivered on the thread of their sender.
+   * @return boolean
+   */
+  public boolean isInlineDelivery() {
+    return inlineDepth > 0;
+  }
+
   /* @see io.vlingo.xoom.actors.Mailbox#pendingMessages() */
   @Override
   public int pendingMessages() {
-    return queue.size();
+    return depth();
+  }
+
+  /* @see io.vlingo.xoom.actors.Mailbox#depth() */
+  @Override
+  public int depth() {
+    return (int) Math.max(0, depth.sum() + batchCount - batchIndex) + controlLane.size();
   }
 
   ConcurrentQueueMailbox(final Dispatcher dispatcher, final int throttlingCount) {
+    this(dispatcher, throttlingCount, 0L, new ConcurrentLinkedQueue<Message>());
+  }
+
+  ConcurrentQueueMailbox(final Dispatcher dispatcher, final int throttlingCount, final long timeSlice) {
+    this(dispatcher, throttlingCount, timeSlice, new ConcurrentLinkedQueue<Message>());
+  }
+
+  /**
+   * Constructs my state such that, when {@code inlineDepth} is greater than zero, a
+   * sender that finds me idle claims me and delivers up to {@code inlineBudget} of my
+   * messages on its own thread rather than submitting me to my {@code dispatcher}. A
+   * sender whose thread is already delivering {@code inlineDepth} nested inline runs,
+   * or that finds me scheduled or running, submits me as usual.
+   * @param dispatcher the Dispatcher that runs me
+   * @param throttlingCount the int maximum number of messages delivered per run
+   * @param timeSlice the long nanoseconds that a run should take, or 0 for a fixed throttlingCount
+   * @param inlineDepth the int maximum number of inline runs nested on a thread, or 0 to never deliver inline
+   * @param inlineBudget the int maximum number of messages delivered per inline run
+   */
+  ConcurrentQueueMailbox(final Dispatcher dispatcher, final int throttlingCount, final long timeSlice, final int inlineDepth, final int inlineBudget) {
+    this(dispatcher, throttlingCount, timeSlice, inlineDepth, inlineBudget, null, 0L, new ConcurrentLinkedQueue<Message>());
+  }
+
+  /**
+   * Constructs my state such that, in addition to any inline delivery, my runs hand
+   * me to {@code blockingDispatcher} to deliver consecutive {@code isBlocking()}
+   * messages, and back to {@code dispatcher} to deliver the others. I am never
+   * run by both at once.
+   * @param dispatcher the Dispatcher that runs me
+   * @param throttlingCount the int maximum number of messages delivered per run
+   * @param timeSlice the long nanoseconds that a run should take, or 0 for a fixed throttlingCount
+   * @param inlineDepth the int maximum number of inline runs nested on a thread, or 0 to never deliver inline
+   * @param inlineBudget the int maximum number of messages delivered per inline run
+   * @param blockingDispatcher the Dispatcher that runs me to deliver blocking messages, or null to deliver them with dispatcher
+   */
+  ConcurrentQueueMailbox(
+          final Dispatcher dispatcher,
+          final int throttlingCount,
+          final long timeSlice,
+          final int inlineDepth,
+          final int inlineBudget,
+          final Dispatcher blockingDispatcher) {
+    this(dispatcher, throttlingCount, timeSlice, inlineDepth, inlineBudget, blockingDispatcher, 0L, new ConcurrentLinkedQueue<Message>());
+  }
+
+  /**
+   * Constructs my state such that, in addition to any inline delivery and offloading
+   * of blocking messages, I record the enqueue time of each message when my
+   * {@code dispatcher} orders mailboxes by the age of their head message.
+   * @param dispatcher the Dispatcher that runs me
+   * @param throttlingCount the int maximum number of messages delivered per run
+   * @param timeSlice the long nanoseconds that a run should take, or 0 for a fixed throttlingCount
+   * @param inlineDepth the int maximum number of inline runs nested on a thread, or 0 to never deliver inline
+   * @param inlineBudget the int maximum number of messages delivered per inline run
+   * @param blockingDispatcher the Dispatcher that runs me to deliver blocking messages, or null to deliver them with dispatcher
+   * @param latencyTarget the long nanoseconds within which my messages should be delivered after they are enqueued
+   */
+  ConcurrentQueueMailbox(
+          final Dispatcher dispatcher,
+          final int throttlingCount,
+          final long timeSlice,
+          final int inlineDepth,
+          final int inlineBudget,
+          final Dispatcher blockingDispatcher,
+          final long latencyTarget) {
+    this(dispatcher, throttlingCount, timeSlice, inlineDepth, inlineBudget, blockingDispatcher, latencyTarget, new ConcurrentLinkedQueue<Message>());
+  }
+
+  ConcurrentQueueMailbox(final DeliverySettings settings) {
+    this(settings, new ConcurrentLinkedQueue<Message>());
+  }
+
+  protected ConcurrentQueueMailbox(final Dispatcher dispatcher, final int throttlingCount, final Queue<Message> queue) {
+    this(dispatcher, throttlingCount, 0L, queue);
+  }
+
+  /**
+   * Constructs my state such that I am run and deliver my messages according to
+   * {@code settings}, as a mailbox of any kind that a plugin provides.
+   * @param settings the DeliverySettings of my dispatchers and runs
+   * @param queue the {@code Queue<Message>} that holds my messages
+   */
+  protected ConcurrentQueueMailbox(final DeliverySettings settings, final Queue<Message> queue) {
+    this(
+        settings.dispatcher(),
+        settings.throttlingCount(),
+        settings.timeSlice(),
+        settings.inlineDepth(),
+        settings.inlineBudget(),
+        settings.blockingDispatcher(),
+        settings.latencyTarget(),
+        queue);
+  }
+
+  /**
+   * Constructs my state. When {@code timeSlice} is greater than zero I adapt the number
+   * of messages that I deliver per run to my depth and to my observed nanoseconds per
+   * message, such that a run approximates {@code timeSlice} but never exceeds
+   * {@code throttlingCount} messages. Otherwise I deliver up to {@code throttlingCount}
+   * messages per run.
+   * @param dispatcher the Dispatcher that runs me
+   * @param throttlingCount the int maximum number of messages delivered per run
+   * @param timeSlice the long nanoseconds that a run should take, or 0 for a fixed throttlingCount
+   * @param queue the {@code Queue<Message>} that holds my messages
+   */
+  protected ConcurrentQueueMailbox(final Dispatcher dispatcher, final int throttlingCount, final long timeSlice, final Queue<Message> queue) {
+    this(dispatcher, throttlingCount, timeSlice, 0, 0, null, 0L, queue);
+  }
+
+  private ConcurrentQueueMailbox(
+          final Dispatcher dispatcher,
+          final int throttlingCount,
+          final long timeSlice,
+          final int inlineDepth,
+          final int inlineBudget,
+          final Dispatcher blockingDispatcher,
+          final long latencyTarget,
+          final Queue<Message> queue) {
     this.dispatcher = dispatcher;
-    this.delivering = new AtomicBoolean(false);
-    this.suspendedDeliveryOverrides = new AtomicReference<>(new SuspendedDeliveryOverrides());
-    this.queue = new ConcurrentLinkedQueue<Message>();
-    this.throttlingCount = (byte) throttlingCount;
+    this.blockingDispatcher = blockingDispatcher;
+    this.avoidedSubmissions = new LongAdder();
+    this.controlLane = new ControlLane();
+    this.state = new AtomicInteger(Idle);
+    this.depth = new LongAdder();
+    this.inlineBudget = Math.max(1, inlineBudget);
+    this.inlineDepth = inlineDepth;
+    this.latencyTarget = latencyTarget;
+    this.recordsEnqueueTime = dispatcher.ordersByHeadAge();
+    this.suspendedDeliveryOverrides = new SuspendedDeliveryOverrides();
+    this.queue = queue;
+    this.throttlingCount = throttlingCount;
+    this.timeSlice = timeSlice;
+    this.nanosPerMessage = 0L;
+  }
+
+  /**
+   * Records that {@code count} of the messages answered by {@code receiveBatch()}
+   * were delivered, which is once at the end of each run that delivered any.
+   * Override to count batched messages as pending until they are delivered.
+   * @param count the int number of messages delivered
+   */
+  protected void delivered(final int count) {
+  }
+
+  /**
+   * Records that {@code count} of my queued messages were dropped by my queue
+   * rather than answered by it, such that they are no longer in my {@code depth()}.
+   * @param count the int number of dropped messages
+   */
+  protected void discarded(final int count) {
+    depth.add(-count);
+  }
+
+  /**
+   * Answers whether or not the {@code message} was appended to my queue.
+   * Override to constrain or reorder what is appended.
+   * @param message the Message to append
+   * @return boolean
+   */
+  protected boolean enqueue(final Message message) {
+    // count before adding so that a receive() never drives depth below zero
+    depth.increment();
+    if (queue.add(message)) {
+      return true;
+    }
+    depth.decrement();
+    return false;
+  }
+
+  /**
+   * Answers the number of my queued messages moved into {@code into}, up to {@code max},
+   * to be delivered by my own runs. Unlike {@code receive()}, the messages remain mine
+   * until they are {@code delivered()}.
+   * @param into the Message[] that receives the messages
+   * @param max the int maximum number of messages to receive
+   * @return int
+   */
+  protected int receiveBatch(final Message[] into, final int max) {
+    return receive(into, max);
+  }
+
+  /**
+   * Answers my underlying queue. Note that elements appended or removed
+   * other than by {@code enqueue()} and {@code receive()} are not counted
+   * in my {@code depth()}.
+   * @return {@code Queue<Message>}
+   */
+  protected Queue<Message> queue() {
+    return queue;
+  }
+
+  private Message[] batch(final int size) {
+    // sized to my pending messages rather than to size, so that a lightly used mailbox holds a short batch
+    final int wanted = (int) Math.min(size, Math.max(1L, depth.sum()));
+    if (batch == null || batch.length < wanted) {
+      // all elements are already null, so nothing is copied
+      final int rounded = wanted <= 1 ? 1 : Integer.highestOneBit(wanted - 1) << 1;
+      batch = new Message[Math.max(1, Math.min(rounded, throttlingCount))];
+    }
+    return batch;
+  }
+
+  /**
+   * Delivers my control messages and up to {@code size} of my queued messages,
+   * which must be called only after my state was set to {@code Running}. A run
+   * ends early at the first message whose {@code isBlocking()} differs from
+   * {@code onBlocking}, which is handed to the dispatcher that delivers it.
+   * @param size the int maximum number of queued messages to deliver
+   * @param onBlocking the boolean indicating whether I run on my blocking dispatcher
+   */
+  private void deliver(final int size, final boolean onBlocking) {
+    deliverControl();
+    if (batchIndex == batchCount && !isSuspended()) {
+      batchIndex = 0;
+      batchCount = receiveBatch(batch(size), size);
+    }
+    final long start = timeSlice > 0 ? System.nanoTime() : 0;
+    final int first = batchIndex;
+    boolean offloading = false;
+    // a delivery may suspend me, which leaves the rest of the batch for a later run
+    while (batchIndex < batchCount) {
+      if (isSuspended()) {
+        break;
+      }
+      if (!controlLane.isEmpty()) {
+        deliverControl();
+        continue;
+      }
+      final Message message = batch[batchIndex];
+      if (blockingDispatcher != null && message.isBlocking() != onBlocking) {
+        offloading = !onBlocking;
+        break;
+      }
+      batch[batchIndex++] = null;
+      message.deliver();
+    }
+    if (batchIndex > first) {
+      delivered(batchIndex - first);
+      if (timeSlice > 0) {
+        observe(System.nanoTime() - start, batchIndex - first);
+      }
+    }
+    if (offloading) {
+      offload();
+      return;
+    }
+    final boolean unfinished = batchIndex < batchCount;
+    if (!unfinished && batch != null && batch.length > RetainedBatchLength && queue.isEmpty()) {
+      // only a run touches my batch, so it is released before I become idle
+      batch = null;
+    }
+    state.set(Idle);
+    // a send() that found me running relies on this check; resume() schedules when suspended
+    if (!isSuspended() && (unfinished || !queue.isEmpty() || !controlLane.isEmpty())) {
+      schedule();
+    }
+  }
+
+  /**
+   * Answers whether or not I claimed myself from idle and delivered my messages
+   * on the current thread, within its remaining inline depth and my budget.
+   * @return boolean
+   */
+  private boolean deliveredInline() {
+    if (inlineDepth == 0) {
+      return false;
+    }
+    final int[] nested = InlineDepth.get();
+    if (nested[0] >= inlineDepth || dispatcher.isClosed() || !state.compareAndSet(Idle, Running)) {
+      return false;
+    }
+    ++nested[0];
+    try {
+      deliver(Math.min(nextBatchSize(), inlineBudget), false);
+    } finally {
+      --nested[0];
+    }
+    return true;
+  }
+
+  private void deliverControl() {
+    Message message;
+    while (!isSuspended() && (message = controlLane.poll()) != null) {
+      message.deliver();
+    }
+  }
+
+  private void offload() {
+    // remaining Scheduled rather than Idle prevents a send() from submitting me elsewhere meanwhile
+    blockingTurn = true;
+    state.set(Scheduled);
+    try {
+      blockingDispatcher.execute(this);
+    } catch (RuntimeException e) {
+      blockingTurn = false;
+      state.set(Idle);
+      throw e;
+    }
+  }
+
+  private void schedule() {
+    if (state.compareAndSet(Idle, Scheduled)) {
+      try {
+        dispatcher.execute(this);
+      } catch (RuntimeException e) {
+        state.set(Idle);
+        throw e;
+      }
+    } else {
+      avoidedSubmissions.increment();
+    }
+  }
+
+  private int nextBatchSize() {
+    if (timeSlice <= 0 || nanosPerMessage == 0) {
+      return timeSlice <= 0 ? throttlingCount : 1;
+    }
+    final long affordable = Math.max(1L, timeSlice / nanosPerMessage);
+    final long wanted = Math.max(1L, Math.min(affordable, depth()));
+    return (int) Math.min(wanted, throttlingCount);
+  }
+
+  private void observe(final long elapsed, final int delivered) {
+    final long sample = Math.max(1L, elapsed / delivered);
+    // exponentially weighted moving average, 1/8 weight to the newest sample
+    nanosPerMessage = nanosPerMessage == 0 ? sample : nanosPerMessage + ((sample - nanosPerMessage) >> 3);
+    if (nanosPerMessage == 0) {
+      nanosPerMessage = 1;
+    }
+  }
+
+  private void clearBatch() {
+    if (batch != null) {
+      Arrays.fill(batch, null);
+    }
+    batchCount = 0;
+    batchIndex = 0;
   }
 }
@@ -7,60 +7,18 @@
 
 package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
 
-import java.util.Properties;
-
 import io.vlingo.xoom.actors.Configuration;
-import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.Definition;
 import io.vlingo.xoom.actors.Mailbox;
-import io.vlingo.xoom.actors.MailboxProvider;
-import io.vlingo.xoom.actors.Registrar;
-import io.vlingo.xoom.actors.plugin.AbstractPlugin;
 import io.vlingo.xoom.actors.plugin.Plugin;
 import io.vlingo.xoom.actors.plugin.PluginConfiguration;
 import io.vlingo.xoom.actors.plugin.PluginProperties;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.ConcurrentQueueMailboxPlugin.ConcurrentQueueMailboxPluginConfiguration;
 
-public class ConcurrentQueueMailboxPlugin extends AbstractPlugin implements Plugin, MailboxProvider {
-  private final ConcurrentQueueMailboxPluginConfiguration configuration;
-  private Dispatcher executorDispatcher;
+public class ConcurrentQueueMailboxPlugin extends AbstractConcurrentQueueMailboxPlugin<ConcurrentQueueMailboxPluginConfiguration> {
 
   public ConcurrentQueueMailboxPlugin() {
-    this.configuration = new ConcurrentQueueMailboxPluginConfiguration();
-  }
-
-  @Override
-  public void close() {
-    executorDispatcher.close();
-  }
-
-  @Override
-  public PluginConfiguration configuration() {
-    return configuration;
-  }
-
-  @Override
-  public String name() {
-    return configuration.name();
-  }
-
-  @Override
-  public int pass() {
-    return 1;
-  }
-
-  @Override
-  public void start(final Registrar registrar) {
-    executorDispatcher =
-            new ExecutorDispatcher(
-                Runtime.getRuntime().availableProcessors(),
-                configuration.numberOfDispatchers,
-                configuration.numberOfDispatchersFactor);
-
-    registrar.register(configuration.name(), configuration.isDefaultMailbox(), this);
-  }
-
-  @Override
-  public Mailbox provideMailboxFor(final int hashCode) {
-    return new ConcurrentQueueMailbox(executorDispatcher, configuration.dispatcherThrottlingCount());
+    super(new ConcurrentQueueMailboxPluginConfiguration());
   }
 
   @Override
@@ -72,58 +30,72 @@ public class ConcurrentQueueMailboxPlugin extends AbstractPlugin implements Plug
   }
 
   private ConcurrentQueueMailboxPlugin(final PluginConfiguration configuration) {
-    this.configuration = (ConcurrentQueueMailboxPluginConfiguration) configuration;
+    super((ConcurrentQueueMailboxPluginConfiguration) configuration);
   }
 
   @Override
-  public Mailbox provideMailboxFor(final int hashCode, final Dispatcher dispatcher) {
-    if (dispatcher == null) {
-      throw new IllegalArgumentException("Dispatcher must not be null.");
-    }
-
-    return new ConcurrentQueueMailbox(dispatcher, configuration.dispatcherThrottlingCount());
-  }
-
-  @Override
-  public void __internal_Only_Init(final String name, final Configuration configuration, final Properties properties) {
-    this.configuration.name = name;
+  protected Mailbox newMailbox(final DeliverySettings settings, final Definition definition) {
+    return new ConcurrentQueueMailbox(settings);
   }
 
-  public static class ConcurrentQueueMailboxPluginConfiguration implements PluginConfiguration {
-    private boolean defaultMailbox;
-    private int dispatcherThrottlingCount;
-    private String name = "queueMailbox";
+  /**
+   * The kind of {@code Dispatcher} that runs my mailboxes. An {@code Executor}
+   * shares a single queue among a fixed number of threads, a {@code ForkJoin}
+   * gives each thread its own deque from which idle threads steal, and an
+   * {@code EventLoop} runs each mailbox on the single thread of its affinity.
+   */
+  public static enum DispatcherType { Executor, ForkJoin, EventLoop, EarliestDeadline }
+
+  /**
+   * A named pool of dispatcher threads that is separate from the default
+   * dispatcher of my mailboxes, such that the actors bound to it by their
+   * {@code Definition} or {@code Stage} neither delay nor are delayed by others.
+   * The {@code queueCapacity} and {@code idleTimeout} apply only to an
+   * {@code Executor} pool. A full queue rejects further sends. A pool is sized
+   * by its own {@code numberOfDispatchers} or {@code numberOfDispatchersFactor},
+   * one of which is required, and never by those of the plugin.
+   */
+  public static class DispatcherPool {
+    private DispatcherType dispatcherType = DispatcherType.Executor;
+    private long idleTimeout;
+    private final String name;
     private int numberOfDispatchers;
     private float numberOfDispatchersFactor;
+    private int queueCapacity;
 
-    public static ConcurrentQueueMailboxPluginConfiguration define() {
-      return new ConcurrentQueueMailboxPluginConfiguration();
+    public static DispatcherPool named(final String name) {
+      return new DispatcherPool(name);
     }
 
-    public ConcurrentQueueMailboxPluginConfiguration defaultMailbox() {
-      this.defaultMailbox = true;
+    public DispatcherPool dispatcherType(final DispatcherType dispatcherType) {
+      this.dispatcherType = dispatcherType;
       return this;
     }
 
-    public boolean isDefaultMailbox() {
-      return defaultMailbox;
+    public DispatcherType dispatcherType() {
+      return dispatcherType;
     }
 
-    public ConcurrentQueueMailboxPluginConfiguration dispatcherThrottlingCount(final int dispatcherThrottlingCount) {
-      this.dispatcherThrottlingCount = dispatcherThrottlingCount;
+    /**
+     * Answers myself after setting the milliseconds after which an idle thread
+     * of my pool ends, to be started again when needed, or 0 to keep all threads.
+     * @param idleTimeout the long milliseconds
+     * @return DispatcherPool
+     */
+    public DispatcherPool idleTimeout(final long idleTimeout) {
+      this.idleTimeout = idleTimeout;
       return this;
     }
 
-    public int dispatcherThrottlingCount() {
-      return dispatcherThrottlingCount;
+    public long idleTimeout() {
+      return idleTimeout;
     }
 
-    public ConcurrentQueueMailboxPluginConfiguration numberOfDispatchersFactor(final float numberOfDispatchersFactor) {
-      this.numberOfDispatchersFactor = numberOfDispatchersFactor;
-      return this;
+    public String name() {
+      return name;
     }
 
-    public ConcurrentQueueMailboxPluginConfiguration numberOfDispatchers(final int numberOfDispatchers) {
+    public DispatcherPool numberOfDispatchers(final int numberOfDispatchers) {
       this.numberOfDispatchers = numberOfDispatchers;
       return this;
     }
@@ -132,10 +104,51 @@ public class ConcurrentQueueMailboxPlugin extends AbstractPlugin implements Plug
       return numberOfDispatchers;
     }
 
+    /**
+     * Answers myself after setting the factor of available processors of the
+     * number of threads of my pool, which is used when {@code numberOfDispatchers}
+     * is not set.
+     * @param numberOfDispatchersFactor the float factor
+     * @return DispatcherPool
+     */
+    public DispatcherPool numberOfDispatchersFactor(final float numberOfDispatchersFactor) {
+      this.numberOfDispatchersFactor = numberOfDispatchersFactor;
+      return this;
+    }
+
     public float numberOfDispatchersFactor() {
       return numberOfDispatchersFactor;
     }
 
+    /**
+     * Answers myself after setting the maximum number of mailboxes waiting for
+     * a thread of my pool, or 0 for no limit.
+     * @param queueCapacity the int capacity
+     * @return DispatcherPool
+     */
+    public DispatcherPool queueCapacity(final int queueCapacity) {
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    public int queueCapacity() {
+      return queueCapacity;
+    }
+
+    private DispatcherPool(final String name) {
+      if (name == null || name.isEmpty()) {
+        throw new IllegalArgumentException("Dispatcher pool name must not be empty.");
+      }
+      this.name = name;
+    }
+  }
+
+  public static class ConcurrentQueueMailboxPluginConfiguration extends AbstractConcurrentQueueMailboxPluginConfiguration<ConcurrentQueueMailboxPluginConfiguration> {
+
+    public static ConcurrentQueueMailboxPluginConfiguration define() {
+      return new ConcurrentQueueMailboxPluginConfiguration();
+    }
+
     @Override
     public void build(final Configuration configuration) {
       configuration.with(defaultMailbox().numberOfDispatchersFactor(1.5f).dispatcherThrottlingCount(1));
@@ -143,16 +156,16 @@ public class ConcurrentQueueMailboxPlugin extends AbstractPlugin implements Plug
 
     @Override
     public void buildWith(final Configuration configuration, final PluginProperties properties) {
-      this.name = properties.name;
-      this.defaultMailbox = properties.getBoolean("defaultMailbox", true);
-      this.dispatcherThrottlingCount = properties.getInteger("dispatcherThrottlingCount", 1);
-      this.numberOfDispatchersFactor = properties.getFloat("numberOfDispatchersFactor", 1.5f);
-      this.numberOfDispatchers = properties.getInteger("numberOfDispatchers", 0);
+      super.buildWith(configuration, properties);
+
+      // unlike the other kinds, I am the default mailbox unless configured otherwise
+      if (properties.getBoolean("defaultMailbox", true)) {
+        defaultMailbox();
+      }
     }
 
-    @Override
-    public String name() {
-      return name;
+    public ConcurrentQueueMailboxPluginConfiguration() {
+      super("queueMailbox");
     }
   }
 }
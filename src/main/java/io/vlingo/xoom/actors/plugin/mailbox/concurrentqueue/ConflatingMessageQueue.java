@@ -0,0 +1,186 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import io.vlingo.xoom.actors.Message;
+
+/**
+ * A multiple-producer, single-consumer {@code Queue<Message>} in which each
+ * {@code Message} that has a {@code conflationKey()} is held in a slot that
+ * a newer {@code Message} of the same protocol method and key may replace by
+ * way of {@code conflate()}, as long as the slot has not yet been polled.
+ * Thus the number of such pending messages is bounded by the number of
+ * distinct keys, and each of them is the latest for its key. Messages
+ * without a key are queued as usual.
+ * <p>
+ * Only a single thread at a time may {@code poll()}, which is guaranteed
+ * by the mailbox's delivery protocol.
+ */
+public class ConflatingMessageQueue extends AbstractQueue<Message> {
+  private final Queue<Object> elements;
+  private final Map<Key, Slot> pending;
+
+  public ConflatingMessageQueue() {
+    this.elements = new ConcurrentLinkedQueue<>();
+    this.pending = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Answers whether or not the {@code message} replaced a pending message of
+   * the same protocol method and conflation key, in which case it must not be
+   * offered. Answers {@code false} if the {@code message} has no conflation key.
+   * @param message the Message that may replace a pending message
+   * @return boolean
+   */
+  public boolean conflate(final Message message) {
+    final Object conflationKey = message.conflationKey();
+
+    if (conflationKey == null) {
+      return false;
+    }
+
+    final Slot slot = pending.get(new Key(message, conflationKey));
+
+    if (slot == null) {
+      return false;
+    }
+
+    // a polled slot holds null and can no longer be replaced
+    for (Message current = slot.message.get(); current != null; current = slot.message.get()) {
+      if (slot.message.compareAndSet(current, message)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /* @see java.util.Queue#offer(java.lang.Object) */
+  @Override
+  public boolean offer(final Message message) {
+    final Object conflationKey = message.conflationKey();
+
+    if (conflationKey == null) {
+      return elements.offer(message);
+    }
+
+    final Slot slot = new Slot(new Key(message, conflationKey), message);
+
+    // the newest slot of a key is always the one replaced, which keeps the key's messages in order
+    pending.put(slot.key, slot);
+
+    return elements.offer(slot);
+  }
+
+  /* @see java.util.Queue#poll() */
+  @Override
+  public Message poll() {
+    final Object element = elements.poll();
+
+    if (element instanceof Slot) {
+      final Slot slot = (Slot) element;
+      final Message message = slot.message.getAndSet(null);
+      pending.remove(slot.key, slot);
+      return message;
+    }
+
+    return (Message) element;
+  }
+
+  /* @see java.util.Queue#peek() */
+  @Override
+  public Message peek() {
+    return messageOf(elements.peek());
+  }
+
+  /* @see java.util.Collection#clear() */
+  @Override
+  public void clear() {
+    elements.clear();
+    pending.clear();
+  }
+
+  /* @see java.util.Collection#isEmpty() */
+  @Override
+  public boolean isEmpty() {
+    return elements.isEmpty();
+  }
+
+  /* @see java.util.Collection#size() */
+  @Override
+  public int size() {
+    return elements.size();
+  }
+
+  /**
+   * Answers a weakly consistent {@code Iterator<Message>} that does not support {@code remove()}.
+   * @see java.util.Collection#iterator()
+   */
+  @Override
+  public Iterator<Message> iterator() {
+    final Stream<Message> messages = elements.stream().map(this::messageOf).filter(Objects::nonNull);
+    return messages.iterator();
+  }
+
+  private Message messageOf(final Object element) {
+    return element instanceof Slot ? ((Slot) element).message.get() : (Message) element;
+  }
+
+  private static final class Key {
+    private final Object conflationKey;
+    private final int hashCode;
+    private final Class<?> protocol;
+    private final String representation;
+
+    Key(final Message message, final Object conflationKey) {
+      this.conflationKey = conflationKey;
+      this.protocol = message.protocol();
+      this.representation = message.representation();
+      this.hashCode = Objects.hash(protocol, representation, conflationKey);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (other == this) {
+        return true;
+      }
+      if (other == null || other.getClass() != Key.class) {
+        return false;
+      }
+      final Key otherKey = (Key) other;
+      return protocol == otherKey.protocol &&
+              Objects.equals(representation, otherKey.representation) &&
+              conflationKey.equals(otherKey.conflationKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private static final class Slot {
+    final Key key;
+    final AtomicReference<Message> message;
+
+    Slot(final Key key, final Message message) {
+      this.key = key;
+      this.message = new AtomicReference<>(message);
+    }
+  }
+}
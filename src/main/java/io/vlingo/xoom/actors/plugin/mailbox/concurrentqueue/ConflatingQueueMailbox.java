@@ -0,0 +1,62 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.Message;
+
+/**
+ * A {@code ConcurrentQueueMailbox} backed by a {@code ConflatingMessageQueue},
+ * such that a message of a protocol method with a {@code ConflationKey}
+ * parameter replaces the pending message of the same method and key, if
+ * any, rather than being enqueued. Each replaced message is counted in
+ * {@code conflatedMessages()} and is never delivered.
+ */
+public class ConflatingQueueMailbox extends ConcurrentQueueMailbox {
+  private final LongAdder conflated;
+  private final ConflatingMessageQueue conflatingQueue;
+
+  /**
+   * Answers the total number of pending messages that were replaced by newer messages.
+   * @return long
+   */
+  public long conflatedMessages() {
+    return conflated.sum();
+  }
+
+  @Override
+  protected boolean enqueue(final Message message) {
+    // a replaced message is already enqueued, and so I am already scheduled
+    if (conflatingQueue.conflate(message)) {
+      conflated.increment();
+      return false;
+    }
+    return super.enqueue(message);
+  }
+
+  ConflatingQueueMailbox(final Dispatcher dispatcher, final int throttlingCount) {
+    this(dispatcher, throttlingCount, 0L);
+  }
+
+  ConflatingQueueMailbox(final Dispatcher dispatcher, final int throttlingCount, final long timeSlice) {
+    this(new DeliverySettings(dispatcher, throttlingCount, timeSlice, 0, 0, null, 0L));
+  }
+
+  ConflatingQueueMailbox(final DeliverySettings settings) {
+    this(settings, new ConflatingMessageQueue());
+  }
+
+  private ConflatingQueueMailbox(final DeliverySettings settings, final ConflatingMessageQueue conflatingQueue) {
+    super(settings, conflatingQueue);
+
+    this.conflated = new LongAdder();
+    this.conflatingQueue = conflatingQueue;
+  }
+}
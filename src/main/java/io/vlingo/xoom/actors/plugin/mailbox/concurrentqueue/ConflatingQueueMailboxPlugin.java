@@ -0,0 +1,55 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import io.vlingo.xoom.actors.Configuration;
+import io.vlingo.xoom.actors.Definition;
+import io.vlingo.xoom.actors.Mailbox;
+import io.vlingo.xoom.actors.plugin.Plugin;
+import io.vlingo.xoom.actors.plugin.PluginConfiguration;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.ConflatingQueueMailboxPlugin.ConflatingQueueMailboxPluginConfiguration;
+
+public class ConflatingQueueMailboxPlugin extends AbstractConcurrentQueueMailboxPlugin<ConflatingQueueMailboxPluginConfiguration> {
+
+  public ConflatingQueueMailboxPlugin() {
+    super(new ConflatingQueueMailboxPluginConfiguration());
+  }
+
+  @Override
+  public Plugin with(final PluginConfiguration overrideConfiguration) {
+    if (overrideConfiguration == null) {
+      return this;
+    }
+    return new ConflatingQueueMailboxPlugin(overrideConfiguration);
+  }
+
+  private ConflatingQueueMailboxPlugin(final PluginConfiguration configuration) {
+    super((ConflatingQueueMailboxPluginConfiguration) configuration);
+  }
+
+  @Override
+  protected Mailbox newMailbox(final DeliverySettings settings, final Definition definition) {
+    return new ConflatingQueueMailbox(settings);
+  }
+
+  public static class ConflatingQueueMailboxPluginConfiguration extends AbstractConcurrentQueueMailboxPluginConfiguration<ConflatingQueueMailboxPluginConfiguration> {
+
+    public static ConflatingQueueMailboxPluginConfiguration define() {
+      return new ConflatingQueueMailboxPluginConfiguration();
+    }
+
+    public ConflatingQueueMailboxPluginConfiguration() {
+      super("conflatingQueueMailbox");
+    }
+
+    @Override
+    public void build(final Configuration configuration) {
+      configuration.with(numberOfDispatchersFactor(1.5f).dispatcherThrottlingCount(1));
+    }
+  }
+}
@@ -0,0 +1,80 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import io.vlingo.xoom.actors.Dispatcher;
+
+/**
+ * The settings of how a {@code ConcurrentQueueMailbox} is run and delivers its
+ * messages, which every kind of {@code ConcurrentQueueMailbox} shares, as
+ * answered by its plugin for each mailbox that it provides.
+ */
+public final class DeliverySettings {
+  private final Dispatcher blockingDispatcher;
+  private final Dispatcher dispatcher;
+  private final int inlineBudget;
+  private final int inlineDepth;
+  private final long latencyTarget;
+  private final int throttlingCount;
+  private final long timeSlice;
+
+  /**
+   * Constructs my state.
+   * @param dispatcher the Dispatcher that runs the mailbox
+   * @param throttlingCount the int maximum number of messages delivered per run
+   * @param timeSlice the long nanoseconds that a run should take, or 0 for a fixed throttlingCount
+   * @param inlineDepth the int maximum number of inline runs nested on a thread, or 0 to never deliver inline
+   * @param inlineBudget the int maximum number of messages delivered per inline run
+   * @param blockingDispatcher the Dispatcher that runs the mailbox to deliver blocking messages, or null to deliver them with dispatcher
+   * @param latencyTarget the long nanoseconds within which messages should be delivered after they are enqueued
+   */
+  DeliverySettings(
+          final Dispatcher dispatcher,
+          final int throttlingCount,
+          final long timeSlice,
+          final int inlineDepth,
+          final int inlineBudget,
+          final Dispatcher blockingDispatcher,
+          final long latencyTarget) {
+    this.blockingDispatcher = blockingDispatcher;
+    this.dispatcher = dispatcher;
+    this.inlineBudget = inlineBudget;
+    this.inlineDepth = inlineDepth;
+    this.latencyTarget = latencyTarget;
+    this.throttlingCount = throttlingCount;
+    this.timeSlice = timeSlice;
+  }
+
+  public Dispatcher blockingDispatcher() {
+    return blockingDispatcher;
+  }
+
+  public Dispatcher dispatcher() {
+    return dispatcher;
+  }
+
+  public int inlineBudget() {
+    return inlineBudget;
+  }
+
+  public int inlineDepth() {
+    return inlineDepth;
+  }
+
+  public long latencyTarget() {
+    return latencyTarget;
+  }
+
+  public int throttlingCount() {
+    return throttlingCount;
+  }
+
+  public long timeSlice() {
+    return timeSlice;
+  }
+}
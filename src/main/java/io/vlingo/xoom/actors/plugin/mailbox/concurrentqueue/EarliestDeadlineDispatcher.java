@@ -0,0 +1,139 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.Mailbox;
+
+/**
+ * A {@code Dispatcher} that runs the scheduled mailbox whose head message is due
+ * the earliest, rather than the mailbox that was scheduled the earliest. The due
+ * time of a mailbox is the {@code headEnqueuedAt()} of its head message plus its
+ * {@code latencyTarget()}, such that a mailbox whose head message has waited the
+ * longest relative to its target runs next, and mailboxes with equal due times
+ * run in the order that they were scheduled. This favors the tail latency of
+ * many actors over throughput, because all of my threads share one priority queue.
+ */
+public class EarliestDeadlineDispatcher implements Dispatcher {
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final ThreadPoolExecutor executor;
+  private final int numberOfThreads;
+  private final AtomicLong sequence = new AtomicLong(0);
+
+  /**
+   * Constructs my state and starts my threads.
+   * @param availableThreads the int number of available processors
+   * @param numberOfDispatchers the int number of threads, or 0 to use numberOfDispatchersFactor
+   * @param numberOfDispatchersFactor the float factor of availableThreads of the number of threads
+   */
+  protected EarliestDeadlineDispatcher(final int availableThreads, final int numberOfDispatchers, final float numberOfDispatchersFactor) {
+    this.numberOfThreads =
+            Math.max(1, numberOfDispatchers > 0 ?
+                    numberOfDispatchers :
+                    (int) (availableThreads * numberOfDispatchersFactor));
+
+    this.executor = new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
+        0L, TimeUnit.MILLISECONDS,
+        new PriorityBlockingQueue<>(),
+        new DeadlineThreadFactory());
+
+    // a submission that starts a thread would bypass the queue and its ordering
+    this.executor.prestartAllCoreThreads();
+  }
+
+  @Override
+  public int concurrencyCapacity() {
+    return numberOfThreads;
+  }
+
+  @Override
+  public void close() {
+    closed.set(true);
+    executor.shutdown();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  /**
+   * Executes the {@code mailbox} when it is the earliest due of my scheduled mailboxes.
+   * Its due time is taken now, which is stable because the head message of a scheduled
+   * mailbox is not received until it runs.
+   * @see io.vlingo.xoom.actors.Dispatcher#execute(io.vlingo.xoom.actors.Mailbox)
+   */
+  @Override
+  public void execute(final Mailbox mailbox) {
+    if (!closed.get()) {
+      try {
+        executor.execute(new Scheduled(mailbox, mailbox.headEnqueuedAt() + mailbox.latencyTarget(), sequence.getAndIncrement()));
+      } catch (RejectedExecutionException e) {
+        if (!executor.isShutdown()) {
+          throw new IllegalStateException("Message cannot be sent due to current system resource limitations.", e);
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean ordersByHeadAge() {
+    return true;
+  }
+
+  @Override
+  public boolean requiresExecutionNotification() {
+    return false;
+  }
+
+  private static final class Scheduled implements Comparable<Scheduled>, Runnable {
+    private final long due;
+    private final Mailbox mailbox;
+    private final long sequence;
+
+    Scheduled(final Mailbox mailbox, final long due, final long sequence) {
+      this.due = due;
+      this.mailbox = mailbox;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(final Scheduled other) {
+      // System.nanoTime() values are compared by their difference, which is safe from overflow
+      final long difference = due - other.due;
+      if (difference != 0) {
+        return difference < 0 ? -1 : 1;
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+
+    @Override
+    public void run() {
+      mailbox.run();
+    }
+  }
+
+  private static final class DeadlineThreadFactory implements ThreadFactory {
+    private final AtomicLong count = new AtomicLong(0);
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      final Thread thread = new Thread(runnable, "xoom-earliest-deadline-" + count.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
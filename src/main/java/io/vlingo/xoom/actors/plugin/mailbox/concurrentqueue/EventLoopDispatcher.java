@@ -0,0 +1,331 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.Mailbox;
+
+/**
+ * A {@code Dispatcher} of one event-loop thread per core, each with its own
+ * run queue, such that a mailbox always runs on the same thread and no run
+ * queue is shared. A mailbox is bound to a loop through its {@code Affinity},
+ * which is chosen by the hash code of its actor's {@code Address}, or by the
+ * affinity of its {@code Definition} when the actor is pinned. A mailbox that
+ * is scheduled by its own loop is appended to the loop's local run queue, and
+ * one scheduled by any other thread is appended to the loop's inbox, which is
+ * a multiple-producer single-consumer queue.
+ * <p>
+ * Each loop measures its load as its mailbox runs per interval, and a loop whose
+ * load exceeds that of the least loaded loop by the {@code imbalance} factor
+ * migrates the affinities that it has not run within {@code coldAfter} to that
+ * loop, where they are cheapest to move. Pinned affinities are never migrated.
+ * A migrated mailbox that is still queued on its former loop runs there once
+ * more, which is safe because a mailbox never runs on two threads at once.
+ */
+public class EventLoopDispatcher implements Dispatcher {
+  private static final int InboxDrainLimit = 256;
+  private static final int MinimumLoad = 64;
+  private static final long ParkNanos = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long RebalanceNanos = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final int SweepRebalances = 100;
+
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final long coldAfter;
+  private final float imbalance;
+  private final EventLoop[] loops;
+
+  /**
+   * Constructs my state and starts my loops.
+   * @param availableThreads the int number of available processors
+   * @param numberOfDispatchers the int number of loops, or 0 to use numberOfDispatchersFactor
+   * @param numberOfDispatchersFactor the float factor of availableThreads of the number of loops
+   * @param coldAfter the long milliseconds after its last run that an affinity may be migrated
+   * @param imbalance the float factor by which a loop's load must exceed the least loaded loop's to migrate, or 0 to never migrate
+   */
+  protected EventLoopDispatcher(
+          final int availableThreads,
+          final int numberOfDispatchers,
+          final float numberOfDispatchersFactor,
+          final long coldAfter,
+          final float imbalance) {
+
+    final int numberOfLoops =
+            Math.max(1, numberOfDispatchers > 0 ?
+                    numberOfDispatchers :
+                    (int) (availableThreads * numberOfDispatchersFactor));
+
+    this.coldAfter = TimeUnit.MILLISECONDS.toNanos(coldAfter);
+    this.imbalance = imbalance;
+    this.loops = new EventLoop[numberOfLoops];
+
+    for (int index = 0; index < numberOfLoops; ++index) {
+      loops[index] = new EventLoop(index);
+    }
+    for (final EventLoop loop : loops) {
+      loop.thread.start();
+    }
+  }
+
+  /**
+   * Answers the {@code Affinity} through which a mailbox is dispatched by the
+   * loop chosen by {@code hashCode}.
+   * @param hashCode the int hash code of the Address or the affinity of the Definition
+   * @param pinned the boolean indicating whether the Affinity must never be migrated
+   * @return Affinity
+   */
+  public Affinity affinityFor(final int hashCode, final boolean pinned) {
+    return new Affinity(loops[Math.floorMod(hashCode, loops.length)], pinned);
+  }
+
+  @Override
+  public int concurrencyCapacity() {
+    return loops.length;
+  }
+
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      for (final EventLoop loop : loops) {
+        LockSupport.unpark(loop.thread);
+      }
+    }
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  /**
+   * Executes the {@code mailbox} on the loop chosen by its identity, which is
+   * used only for mailboxes that were not provided with an {@code Affinity}.
+   * @see io.vlingo.xoom.actors.Dispatcher#execute(io.vlingo.xoom.actors.Mailbox)
+   */
+  @Override
+  public void execute(final Mailbox mailbox) {
+    if (!closed.get()) {
+      loops[Math.floorMod(System.identityHashCode(mailbox), loops.length)].schedule(mailbox);
+    }
+  }
+
+  /**
+   * Answers the index of the loop that is bound to {@code affinity}.
+   * @param affinity the Affinity
+   * @return int
+   */
+  public int loopOf(final Affinity affinity) {
+    return affinity.loop.index;
+  }
+
+  @Override
+  public boolean requiresExecutionNotification() {
+    return false;
+  }
+
+  private EventLoop leastLoaded() {
+    EventLoop least = loops[0];
+    for (final EventLoop loop : loops) {
+      if (loop.load < least.load) {
+        least = loop;
+      }
+    }
+    return least;
+  }
+
+  /**
+   * The binding of a single mailbox to the loop that runs it, which I present to
+   * the mailbox as its {@code Dispatcher}.
+   */
+  public final class Affinity implements Dispatcher, Runnable {
+    private long lastRun;
+    private volatile EventLoop loop;
+    private volatile Mailbox mailbox;
+    private final boolean pinned;
+
+    Affinity(final EventLoop loop, final boolean pinned) {
+      this.loop = loop;
+      this.pinned = pinned;
+      this.lastRun = System.nanoTime();
+      if (!pinned) {
+        loop.adopted.add(this);
+      }
+    }
+
+    @Override
+    public int concurrencyCapacity() {
+      return 1;
+    }
+
+    @Override
+    public void close() {
+      EventLoopDispatcher.this.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+      return closed.get();
+    }
+
+    @Override
+    public void execute(final Mailbox mailbox) {
+      if (!closed.get()) {
+        this.mailbox = mailbox;
+        loop.schedule(this);
+      }
+    }
+
+    /**
+     * Answers whether or not I am never migrated.
+     * @return boolean
+     */
+    public boolean isPinned() {
+      return pinned;
+    }
+
+    @Override
+    public boolean requiresExecutionNotification() {
+      return false;
+    }
+
+    @Override
+    public void run() {
+      lastRun = loop.now;
+      mailbox.run();
+    }
+  }
+
+  private final class EventLoop implements Runnable {
+    final Queue<Affinity> adopted;
+    final int index;
+    final Queue<Runnable> inbox;
+    volatile long load;
+    final ArrayDeque<Runnable> local;
+    long now;
+    final List<WeakReference<Affinity>> owned;
+    final AtomicBoolean parked;
+    long ran;
+    long rebalanced;
+    long rebalances;
+    final Thread thread;
+
+    EventLoop(final int index) {
+      this.adopted = new ConcurrentLinkedQueue<>();
+      this.index = index;
+      this.inbox = new ConcurrentLinkedQueue<>();
+      this.local = new ArrayDeque<>();
+      this.owned = new ArrayList<>();
+      this.parked = new AtomicBoolean(false);
+      this.thread = new Thread(this, "xoom-event-loop-" + index);
+      this.thread.setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      now = System.nanoTime();
+      rebalanced = now;
+      while (!closed.get()) {
+        Runnable task = local.poll();
+        if (task == null) {
+          if (drainInbox() == 0) {
+            park();
+          }
+          // the clock is read once per batch rather than once per run
+          now = System.nanoTime();
+          if (now - rebalanced >= RebalanceNanos) {
+            rebalance();
+          }
+          continue;
+        }
+        task.run();
+        if ((++ran & 63) == 0) {
+          // interleave the inbox with a long local queue so that other senders are not starved
+          drainInbox();
+          now = System.nanoTime();
+          if (now - rebalanced >= RebalanceNanos) {
+            rebalance();
+          }
+        }
+      }
+    }
+
+    void schedule(final Runnable task) {
+      if (Thread.currentThread() == thread) {
+        local.add(task);
+      } else {
+        inbox.add(task);
+        if (parked.get() && parked.compareAndSet(true, false)) {
+          LockSupport.unpark(thread);
+        }
+      }
+    }
+
+    private int drainInbox() {
+      int drained = 0;
+      Runnable task;
+      while (drained < InboxDrainLimit && (task = inbox.poll()) != null) {
+        local.add(task);
+        ++drained;
+      }
+      return drained;
+    }
+
+    private void park() {
+      parked.set(true);
+      if (inbox.isEmpty() && !closed.get()) {
+        LockSupport.parkNanos(this, ParkNanos);
+      }
+      parked.set(false);
+    }
+
+    private void rebalance() {
+      rebalanced = now;
+
+      Affinity affinity;
+      while ((affinity = adopted.poll()) != null) {
+        // weakly held so that the affinity of a stopped actor is collected with its mailbox
+        owned.add(new WeakReference<>(affinity));
+      }
+
+      // exponentially weighted moving average, 1/4 weight to the newest sample
+      load = load + ((ran - load) >> 2);
+      ran = 0;
+
+      final EventLoop least = imbalance > 0 ? leastLoaded() : this;
+      final boolean migrating = least != this && load >= MinimumLoad && load > least.load * imbalance;
+
+      // collected affinities are swept only occasionally unless migrating
+      if (!migrating && ++rebalances % SweepRebalances != 0) {
+        return;
+      }
+
+      final Iterator<WeakReference<Affinity>> iterator = owned.iterator();
+      while (iterator.hasNext()) {
+        final Affinity candidate = iterator.next().get();
+        if (candidate == null || candidate.loop != this) {
+          iterator.remove();
+        } else if (migrating && now - candidate.lastRun > coldAfter) {
+          iterator.remove();
+          candidate.lastRun = now;
+          candidate.loop = least;
+          least.adopted.add(candidate);
+        }
+      }
+    }
+  }
+}
@@ -7,31 +7,83 @@
 
 package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.vlingo.xoom.actors.Dispatcher;
 import io.vlingo.xoom.actors.Mailbox;
 
 public class ExecutorDispatcher implements Dispatcher {
+  // consecutive next slot runs per task, beyond which the slot is yielded to the shared queue
+  private static final int MaxNextRuns = 8;
+  // nanoseconds of a turn beyond which an idle thread may steal that thread's next slot
+  private static final long StealAfter = TimeUnit.MILLISECONDS.toNanos(1);
+
   private final AtomicBoolean closed = new AtomicBoolean(false);
   private final ExecutorService executor;
+  // the number of my threads whose next slot is filled, without which there is nothing to steal
+  private final AtomicInteger filledSlots = new AtomicInteger(0);
+  private final boolean nextSlot;
   private final int numberOfThreads;
+  private final List<Worker> workers = new CopyOnWriteArrayList<>();
 
   protected ExecutorDispatcher(final int availableThreads, final int numberOfDispatchers, final float numberOfDispatchersFactor) {
+    this(availableThreads, numberOfDispatchers, numberOfDispatchersFactor, 0, 0L);
+  }
+
+  protected ExecutorDispatcher(
+          final int availableThreads,
+          final int numberOfDispatchers,
+          final float numberOfDispatchersFactor,
+          final int queueCapacity,
+          final long idleTimeout) {
+    this(availableThreads, numberOfDispatchers, numberOfDispatchersFactor, queueCapacity, idleTimeout, false);
+  }
+
+  /**
+   * Constructs my state.
+   * @param availableThreads the int number of available processors
+   * @param numberOfDispatchers the int number of threads, or 0 to use numberOfDispatchersFactor
+   * @param numberOfDispatchersFactor the float factor of availableThreads of the number of threads
+   * @param queueCapacity the int maximum number of mailboxes waiting for a thread, or 0 for no limit
+   * @param idleTimeout the long milliseconds after which an idle thread ends, or 0 to keep all threads
+   * @param nextSlot the boolean indicating whether a mailbox executed by one of my threads runs next on that thread
+   */
+  protected ExecutorDispatcher(
+          final int availableThreads,
+          final int numberOfDispatchers,
+          final float numberOfDispatchersFactor,
+          final int queueCapacity,
+          final long idleTimeout,
+          final boolean nextSlot) {
+    this.nextSlot = nextSlot;
     this.numberOfThreads =
             numberOfDispatchers > 0 ?
                     numberOfDispatchers :
                     (int) (availableThreads * numberOfDispatchersFactor);
 
-    this.executor = new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
-        0L, TimeUnit.MILLISECONDS,
-        new LinkedBlockingQueue<>(),
-        new RejectionHandler());
+    final ThreadPoolExecutor threadPoolExecutor = nextSlot ?
+        new NextSlotExecutor(numberOfThreads, idleTimeout, queueCapacity) :
+        new ThreadPoolExecutor(numberOfThreads, numberOfThreads,
+            idleTimeout, TimeUnit.MILLISECONDS,
+            queueCapacity > 0 ? new LinkedBlockingQueue<>(queueCapacity) : new LinkedBlockingQueue<>(),
+            new RejectionHandler());
+
+    if (idleTimeout > 0) {
+      threadPoolExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    this.executor = threadPoolExecutor;
   }
 
   @Override
@@ -50,9 +102,32 @@ public class ExecutorDispatcher implements Dispatcher {
     return closed.get();
   }
 
+  /**
+   * Executes the {@code mailbox} on my shared queue, unless I have a next slot and
+   * the {@code mailbox} is executed by one of my threads, such as by a message sent
+   * from an actor to another. In that case the {@code mailbox} is placed in the next
+   * slot of the current thread, to run on it as soon as its current task ends while
+   * its caches are still warm, and any mailbox that it displaces is placed on my
+   * shared queue. Should the current task run longer than {@code StealAfter},
+   * the {@code mailbox} may instead be stolen from the slot by an idle thread.
+   * @see io.vlingo.xoom.actors.Dispatcher#execute(io.vlingo.xoom.actors.Mailbox)
+   */
   @Override
   public void execute(final Mailbox mailbox) {
     if (!closed.get()) {
+      if (nextSlot) {
+        final Thread current = Thread.currentThread();
+        if (current instanceof Worker && ((Worker) current).owner() == this) {
+          final Mailbox displaced = ((Worker) current).swapNext(mailbox);
+          if (displaced != null) {
+            executor.execute(displaced);
+          } else {
+            // a thread that could steal the slot is started as by a shared queue execution
+            ((ThreadPoolExecutor) executor).prestartCoreThread();
+          }
+          return;
+        }
+      }
       executor.execute(mailbox);
     }
   }
@@ -62,6 +137,162 @@ public class ExecutorDispatcher implements Dispatcher {
     return false;
   }
 
+  private final class NextSlotExecutor extends ThreadPoolExecutor {
+    NextSlotExecutor(final int numberOfThreads, final long idleTimeout, final int queueCapacity) {
+      super(numberOfThreads, numberOfThreads,
+          idleTimeout, TimeUnit.MILLISECONDS,
+          new StealingQueue(queueCapacity),
+          new WorkerFactory(),
+          new RejectionHandler());
+    }
+
+    @Override
+    protected void beforeExecute(final Thread thread, final Runnable runnable) {
+      ((Worker) thread).turnStarted();
+    }
+
+    @Override
+    protected void afterExecute(final Runnable runnable, final Throwable throwable) {
+      ((Worker) Thread.currentThread()).runNext();
+    }
+  }
+
+  /**
+   * The shared queue of a {@code NextSlotExecutor}, from which a waiting thread
+   * wakes every {@code StealAfter} to steal a next slot that is held up behind a
+   * long turn of another thread. While no next slot is filled a waiting thread
+   * blocks until a mailbox is queued instead, so an idle dispatcher does not
+   * wake at all. A slot filled while a thread so blocks is not stolen by it,
+   * but is still run by its own thread when that turn ends.
+   */
+  private final class StealingQueue extends LinkedBlockingQueue<Runnable> {
+    private static final long serialVersionUID = 1L;
+
+    StealingQueue(final int queueCapacity) {
+      super(queueCapacity > 0 ? queueCapacity : Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Runnable poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+      final long deadline = System.nanoTime() + unit.toNanos(timeout);
+      for (long remaining = unit.toNanos(timeout); remaining > 0; remaining = deadline - System.nanoTime()) {
+        if (filledSlots.get() == 0) {
+          return super.poll(remaining, TimeUnit.NANOSECONDS);
+        }
+        final Runnable runnable = pollOrSteal(remaining);
+        if (runnable != null) {
+          return runnable;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+      while (true) {
+        if (filledSlots.get() == 0) {
+          return super.take();
+        }
+        final Runnable runnable = pollOrSteal(StealAfter);
+        if (runnable != null) {
+          return runnable;
+        }
+      }
+    }
+
+    private Runnable pollOrSteal(final long remaining) throws InterruptedException {
+      final Runnable runnable = super.poll(Math.min(remaining, StealAfter), TimeUnit.NANOSECONDS);
+      return runnable != null ? runnable : steal();
+    }
+
+    private Mailbox steal() {
+      final long now = System.nanoTime();
+      for (final Worker worker : workers) {
+        final Mailbox stolen = worker.stealNext(now);
+        if (stolen != null) {
+          return stolen;
+        }
+      }
+      return null;
+    }
+  }
+
+  private final class Worker extends Thread {
+    private final AtomicReference<Mailbox> next = new AtomicReference<>();
+    private volatile long turnStart;
+
+    Worker(final Runnable runnable, final String name) {
+      super(runnable, name);
+    }
+
+    @Override
+    public void run() {
+      workers.add(this);
+      try {
+        super.run();
+      } finally {
+        workers.remove(this);
+      }
+    }
+
+    ExecutorDispatcher owner() {
+      return ExecutorDispatcher.this;
+    }
+
+    void runNext() {
+      for (int runs = 0; next.get() != null; ++runs) {
+        // an idle thread may have stolen the slot meanwhile
+        final Mailbox mailbox = next.getAndSet(null);
+        if (mailbox == null) {
+          return;
+        }
+        filledSlots.decrementAndGet();
+        if (closed.get()) {
+          return;
+        }
+        if (runs == MaxNextRuns) {
+          // a pair of actors that message each other must not starve the shared queue
+          executor.execute(mailbox);
+          return;
+        }
+        turnStarted();
+        mailbox.run();
+      }
+    }
+
+    Mailbox stealNext(final long now) {
+      if (next.get() == null || now - turnStart < StealAfter) {
+        return null;
+      }
+      final Mailbox stolen = next.getAndSet(null);
+      if (stolen != null) {
+        filledSlots.decrementAndGet();
+      }
+      return stolen;
+    }
+
+    Mailbox swapNext(final Mailbox mailbox) {
+      final Mailbox displaced = next.getAndSet(mailbox);
+      if (displaced == null) {
+        filledSlots.incrementAndGet();
+      }
+      return displaced;
+    }
+
+    void turnStarted() {
+      turnStart = System.nanoTime();
+    }
+  }
+
+  private final class WorkerFactory implements ThreadFactory {
+    private final AtomicLong count = new AtomicLong(0);
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      return new Worker(runnable, "xoom-executor-" + count.getAndIncrement());
+    }
+  }
+
   private class RejectionHandler implements RejectedExecutionHandler {
 
     @Override
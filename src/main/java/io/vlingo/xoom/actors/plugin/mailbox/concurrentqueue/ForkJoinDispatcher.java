@@ -0,0 +1,88 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.Mailbox;
+
+/**
+ * A {@code Dispatcher} backed by a {@code ForkJoinPool} in asynchronous mode.
+ * A mailbox that is scheduled by one of my own threads, such as by a message
+ * sent from an actor to another, is pushed onto that thread's local deque,
+ * and my idle threads steal from the deques of busy ones. Only mailboxes that
+ * are scheduled by other threads share a submission queue, which avoids the
+ * single contended queue of the {@code ExecutorDispatcher}.
+ */
+public class ForkJoinDispatcher implements Dispatcher {
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final ForkJoinPool pool;
+  private final int numberOfThreads;
+
+  protected ForkJoinDispatcher(final int availableThreads, final int numberOfDispatchers, final float numberOfDispatchersFactor) {
+    this.numberOfThreads =
+            Math.max(1, numberOfDispatchers > 0 ?
+                    numberOfDispatchers :
+                    (int) (availableThreads * numberOfDispatchersFactor));
+
+    this.pool = new ForkJoinPool(numberOfThreads, new WorkerThreadFactory(), null, true);
+  }
+
+  @Override
+  public int concurrencyCapacity() {
+    return numberOfThreads;
+  }
+
+  @Override
+  public void close() {
+    closed.set(true);
+    pool.shutdown();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  @Override
+  public void execute(final Mailbox mailbox) {
+    if (!closed.get()) {
+      final Thread current = Thread.currentThread();
+      if (current instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) current).getPool() == pool) {
+        ForkJoinTask.adapt(mailbox).fork();
+      } else {
+        try {
+          pool.execute(mailbox);
+        } catch (RejectedExecutionException e) {
+          if (!pool.isShutdown()) {
+            throw new IllegalStateException("Message cannot be sent due to current system resource limitations.", e);
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean requiresExecutionNotification() {
+    return false;
+  }
+
+  private static final class WorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+    @Override
+    public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+      final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName("xoom-fork-join-" + thread.getPoolIndex());
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,31 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.IntrusiveMessageQueue;
+
+/**
+ * A {@code ConcurrentQueueMailbox} backed by an {@code IntrusiveMessageQueue},
+ * which links each {@code LocalMessage} directly rather than allocating a
+ * separate queue node per {@code send()}, and which never uses CAS to receive.
+ */
+public class IntrusiveQueueMailbox extends ConcurrentQueueMailbox {
+
+  IntrusiveQueueMailbox(final Dispatcher dispatcher, final int throttlingCount) {
+    this(dispatcher, throttlingCount, 0L);
+  }
+
+  IntrusiveQueueMailbox(final Dispatcher dispatcher, final int throttlingCount, final long timeSlice) {
+    super(dispatcher, throttlingCount, timeSlice, new IntrusiveMessageQueue());
+  }
+
+  IntrusiveQueueMailbox(final DeliverySettings settings) {
+    super(settings, new IntrusiveMessageQueue());
+  }
+}
@@ -0,0 +1,356 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import io.vlingo.xoom.actors.Actor;
+import io.vlingo.xoom.actors.ActorProxy;
+import io.vlingo.xoom.actors.ActorProxyBase;
+import io.vlingo.xoom.actors.Address;
+import io.vlingo.xoom.actors.DeadLetter;
+import io.vlingo.xoom.actors.DeadLetters;
+import io.vlingo.xoom.actors.Deadline;
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.LocalMessage;
+import io.vlingo.xoom.actors.Message;
+import io.vlingo.xoom.actors.Stage;
+import io.vlingo.xoom.actors.Startable;
+import io.vlingo.xoom.actors.Stoppable;
+import io.vlingo.xoom.common.SerializableConsumer;
+
+/**
+ * A {@code ConcurrentQueueMailbox} that appends each enqueued message to a
+ * {@code MessageJournal} of the {@code Address} of my {@code Actor}, which is
+ * opened when the first message to my {@code Actor} arrives, and acknowledges
+ * the messages delivered by each run at the end of that run, so that a message
+ * is acknowledged only after it was delivered. When my {@code Actor} is created
+ * again with the same {@code Address} after a crash, the messages that were
+ * journaled but not acknowledged are replayed to it following its {@code start()}.
+ * <p>
+ * When I am closed, such as when my {@code Actor} is stopped or its {@code World}
+ * is terminated, my journal is flushed and deleted only if all of its messages
+ * were acknowledged. Otherwise the messages that were not delivered are kept, to
+ * be replayed to my {@code Actor} when it is created again, just as after a crash.
+ * <p>
+ * With {@code groupCommit} my journal is flushed periodically by my plugin,
+ * such that a crash loses at most the messages sent within one flush interval.
+ * Otherwise each {@code send()} flushes my journal before answering. In either
+ * case acknowledgments are written by the periodic flush, so a crash may replay
+ * the messages delivered within one flush interval.
+ * <p>
+ * A message is journaled by serializing its {@code SerializableConsumer}, with my
+ * {@code Actor} and its own proxies written as references to itself, and with
+ * other actor proxies written by {@code Address} and resolved on replay through
+ * the {@code Stage}. The answer
+ * of a replayed message is discarded because its sender no longer exists. The
+ * lifecycle messages {@code start()} and {@code stop()} are never journaled, and
+ * neither is any message that cannot be serialized, which is counted in
+ * {@code unjournaledMessages()}. A message's deadline is journaled as wall-clock
+ * time, and a journaled message that cannot be replayed is sent to the
+ * {@code DeadLetters}. Replay may deliver a message more than once if its
+ * acknowledgment was not yet flushed when the process crashed.
+ */
+public class JournaledQueueMailbox extends ConcurrentQueueMailbox {
+  private final boolean groupCommit;
+  private volatile MessageJournal journal;
+  private final Function<Address, MessageJournal> journalOpener;
+  private volatile Actor owner;
+  private final Stage stage;
+  private final LongAdder unjournaled;
+
+  @Override
+  public void close() {
+    super.close();
+    final MessageJournal journal = this.journal;
+    if (journal != null) {
+      // a graceful stop keeps the messages that were not delivered, as a crash does
+      journal.close(!journal.hasUnacknowledged());
+    }
+  }
+
+  @Override
+  public void sendControl(final Message message) {
+    if (owner == null) {
+      recover(message.actor());
+    }
+    super.sendControl(message);
+  }
+
+  /**
+   * Answers my {@code MessageJournal}, or {@code null} until it is opened.
+   * @return MessageJournal
+   */
+  public MessageJournal journal() {
+    return journal;
+  }
+
+  /**
+   * Answers the total number of messages that were enqueued without being journaled.
+   * @return long
+   */
+  public long unjournaledMessages() {
+    return unjournaled.sum();
+  }
+
+  @Override
+  protected void delivered(final int count) {
+    final MessageJournal journal = this.journal;
+    if (journal != null) {
+      journal.acknowledge(count);
+    }
+  }
+
+  @Override
+  protected boolean enqueue(final Message message) {
+    if (owner == null) {
+      recover(message.actor());
+    }
+    return enqueueJournaled(message, serialize(owner, message));
+  }
+
+  JournaledQueueMailbox(
+          final Dispatcher dispatcher,
+          final int throttlingCount,
+          final long timeSlice,
+          final Function<Address, MessageJournal> journalOpener,
+          final boolean groupCommit,
+          final Stage stage) {
+
+    this(new DeliverySettings(dispatcher, throttlingCount, timeSlice, 0, 0, null, 0L), journalOpener, groupCommit, stage);
+  }
+
+  JournaledQueueMailbox(
+          final DeliverySettings settings,
+          final Function<Address, MessageJournal> journalOpener,
+          final boolean groupCommit,
+          final Stage stage) {
+
+    super(settings, new ConcurrentLinkedQueue<>());
+
+    this.groupCommit = groupCommit;
+    this.journalOpener = journalOpener;
+    this.stage = stage;
+    this.unjournaled = new LongAdder();
+  }
+
+  // the first message is normally the start() of my Actor, which the recovered messages follow
+  private synchronized void recover(final Actor actor) {
+    if (owner != null || actor == null) {
+      return;
+    }
+
+    journal = journalOpener.apply(actor.address());
+
+    if (!journal.recovered().isEmpty()) {
+      for (final byte[] payload : journal.recovered()) {
+        final Message message = deserialize(actor, payload);
+        if (message != null) {
+          enqueueJournaled(message, payload);
+        }
+      }
+      journal.recoveryCompleted();
+    }
+
+    owner = actor;
+  }
+
+  private boolean enqueueJournaled(final Message message, final byte[] payload) {
+    final MessageJournal journal = this.journal;
+
+    if (journal == null) {
+      // no Actor is known by which to open the journal
+      unjournaled.increment();
+      return super.enqueue(message);
+    }
+
+    final boolean enqueued;
+
+    // the journal and queue orders must match so that acknowledgment by count is correct
+    synchronized (journal) {
+      journal.append(payload);
+      enqueued = super.enqueue(message);
+    }
+
+    if (payload == null) {
+      unjournaled.increment();
+    } else if (!groupCommit) {
+      journal.flush();
+    }
+
+    return enqueued;
+  }
+
+  private byte[] serialize(final Actor actor, final Message message) {
+    if (!(message instanceof LocalMessage) || actor == null) {
+      return null;
+    }
+
+    final Class<?> protocol = message.protocol();
+
+    if (protocol == Startable.class || protocol == Stoppable.class) {
+      return null;
+    }
+
+    final LocalMessage<?> localMessage = (LocalMessage<?>) message;
+
+    try {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+      try (final JournalOutputStream output = new JournalOutputStream(bytes, actor)) {
+        output.writeObject(localMessage.actor());
+        output.writeObject(protocol);
+        output.writeObject(localMessage.representation());
+        output.writeInt(localMessage.priority());
+        output.writeLong(wallClockOf(localMessage.deadline()));
+        output.writeBoolean(localMessage.isBlocking());
+        output.writeObject(localMessage.consumer());
+      }
+      return bytes.toByteArray();
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  // answers null after dead-lettering the message if the payload cannot be read
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private Message deserialize(final Actor actor, final byte[] payload) {
+    String representation = null;
+
+    try (final JournalInputStream input = new JournalInputStream(new ByteArrayInputStream(payload), actor, stage)) {
+      final Actor target = (Actor) input.readObject();
+      final Class<?> protocol = (Class<?>) input.readObject();
+      // the consumer was defined by the proxy class, which a new process may not yet have generated
+      input.classLoader = ActorProxy.createFor(protocol, actor, this).getClass().getClassLoader();
+      representation = (String) input.readObject();
+      final int priority = input.readInt();
+      final long deadline = deadlineOf(input.readLong());
+      final boolean blocking = input.readBoolean();
+      final SerializableConsumer consumer = (SerializableConsumer) input.readObject();
+      final LocalMessage message = new LocalMessage(target, protocol, consumer, representation).withPriority(priority).withDeadline(deadline);
+      return blocking ? message.withBlocking() : message;
+    } catch (IOException | ClassNotFoundException | RuntimeException e) {
+      final DeadLetters deadLetters = actor.deadLetters();
+      if (deadLetters != null) {
+        deadLetters.failedDelivery(new DeadLetter(actor, representation != null ? representation : "(unreadable journaled message)"));
+      }
+      return null;
+    }
+  }
+
+  // a deadline is journaled as wall-clock milliseconds because System.nanoTime() differs between processes
+  private static long wallClockOf(final long deadline) {
+    if (deadline == Deadline.None) {
+      return 0L;
+    }
+    return System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+  }
+
+  private static long deadlineOf(final long wallClock) {
+    if (wallClock == 0L) {
+      return Deadline.None;
+    }
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(wallClock - System.currentTimeMillis());
+    return deadline == Deadline.None ? deadline + 1 : deadline;
+  }
+
+  private static final class SelfReference implements Serializable {
+    private static final long serialVersionUID = 1L;
+  }
+
+  private static final class SelfProxyReference implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final Class<?> protocol;
+
+    SelfProxyReference(final Class<?> protocol) {
+      this.protocol = protocol;
+    }
+  }
+
+  /**
+   * The replayed proxy of my {@code Actor}, which a generated consumer only
+   * captures to thunk its arguments by the {@code Address}.
+   */
+  private static final class SelfProxy<T> extends ActorProxyBase<T> {
+    private static final long serialVersionUID = 1L;
+
+    SelfProxy(final Class<T> protocol, final Address address) {
+      super(protocol, null, address);
+    }
+  }
+
+  private static final class JournalOutputStream extends ObjectOutputStream {
+    private final Actor self;
+
+    JournalOutputStream(final OutputStream output, final Actor self) throws IOException {
+      super(output);
+      this.self = self;
+      enableReplaceObject(true);
+    }
+
+    @Override
+    protected Object replaceObject(final Object object) throws IOException {
+      if (object == self) {
+        return new SelfReference();
+      } else if (object instanceof ActorProxyBase && self.address().equals(((ActorProxyBase<?>) object).address)) {
+        // the Definition of my own proxy need not be serializable
+        return new SelfProxyReference(((ActorProxyBase<?>) object).protocol);
+      } else if (object instanceof Actor) {
+        throw new NotSerializableException(object.getClass().getName());
+      }
+      return object;
+    }
+  }
+
+  private static final class JournalInputStream extends ObjectInputStream {
+    private ClassLoader classLoader;
+    private final Actor self;
+    private final Stage stage;
+
+    JournalInputStream(final InputStream input, final Actor self, final Stage stage) throws IOException {
+      super(input);
+      this.self = self;
+      this.stage = stage;
+      enableResolveObject(true);
+    }
+
+    @Override
+    protected Class<?> resolveClass(final ObjectStreamClass description) throws IOException, ClassNotFoundException {
+      try {
+        return Class.forName(description.getName(), false, classLoader != null ? classLoader : self.getClass().getClassLoader());
+      } catch (ClassNotFoundException e) {
+        return super.resolveClass(description);
+      }
+    }
+
+    @Override
+    protected Object resolveObject(final Object object) throws IOException {
+      if (object instanceof SelfReference) {
+        return self;
+      } else if (object instanceof SelfProxyReference) {
+        return new SelfProxy<>(((SelfProxyReference) object).protocol, self.address());
+      } else if (object instanceof ActorProxyBase && stage != null) {
+        return ActorProxyBase.thunk(stage, object);
+      }
+      return object;
+    }
+  }
+}
@@ -0,0 +1,245 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import io.vlingo.xoom.actors.Address;
+import io.vlingo.xoom.actors.Configuration;
+import io.vlingo.xoom.actors.Definition;
+import io.vlingo.xoom.actors.Mailbox;
+import io.vlingo.xoom.actors.Registrar;
+import io.vlingo.xoom.actors.Stage;
+import io.vlingo.xoom.actors.plugin.Plugin;
+import io.vlingo.xoom.actors.plugin.PluginConfiguration;
+import io.vlingo.xoom.actors.plugin.PluginProperties;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.JournaledQueueMailboxPlugin.JournaledQueueMailboxPluginConfiguration;
+
+public class JournaledQueueMailboxPlugin extends AbstractConcurrentQueueMailboxPlugin<JournaledQueueMailboxPluginConfiguration> {
+  private Flusher flusher;
+  private Stage stage;
+
+  public JournaledQueueMailboxPlugin() {
+    super(new JournaledQueueMailboxPluginConfiguration());
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    flusher.close();
+  }
+
+  @Override
+  public void start(final Registrar registrar) {
+    stage = registrar.world().stage();
+
+    // even without groupCommit the acknowledgments of delivered messages are flushed periodically
+    flusher = new Flusher(configuration.name() + "-journalFlusher", configuration.flushInterval());
+    flusher.start();
+
+    super.start(registrar);
+  }
+
+  @Override
+  public Plugin with(final PluginConfiguration overrideConfiguration) {
+    if (overrideConfiguration == null) {
+      return this;
+    }
+    return new JournaledQueueMailboxPlugin(overrideConfiguration);
+  }
+
+  private JournaledQueueMailboxPlugin(final PluginConfiguration configuration) {
+    super((JournaledQueueMailboxPluginConfiguration) configuration);
+  }
+
+  @Override
+  protected Mailbox newMailbox(final DeliverySettings settings, final Definition definition) {
+    final String journalDirectory = configuration.journalDirectory();
+
+    // a default such as the temporary directory would not survive the restart that the journal is for
+    if (journalDirectory == null || journalDirectory.isEmpty()) {
+      throw new IllegalStateException("The " + configuration.name() + " requires a journalDirectory.");
+    }
+
+    return new JournaledQueueMailbox(
+            settings,
+            address -> openJournal(new File(journalDirectory), address),
+            configuration.groupCommit(),
+            stage);
+  }
+
+  // the directory is named by the full address id because its hash code may be shared
+  private MessageJournal openJournal(final File journalDirectory, final Address address) {
+    final String name;
+    try {
+      name = "mailbox-" + URLEncoder.encode(address.idString(), "UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+
+    final MessageJournal journal = new MessageJournal(new File(journalDirectory, name), configuration.segmentSize());
+
+    flusher.register(journal);
+
+    return journal;
+  }
+
+  public static class JournaledQueueMailboxPluginConfiguration extends AbstractConcurrentQueueMailboxPluginConfiguration<JournaledQueueMailboxPluginConfiguration> {
+    private static final long DefaultFlushInterval = 5L;
+    private static final int DefaultSegmentSize = 16 * 1024 * 1024;
+
+    private long flushInterval;
+    private boolean groupCommit;
+    private String journalDirectory;
+    private int segmentSize;
+
+    public static JournaledQueueMailboxPluginConfiguration define() {
+      return new JournaledQueueMailboxPluginConfiguration();
+    }
+
+    public JournaledQueueMailboxPluginConfiguration() {
+      super("journaledQueueMailbox");
+    }
+
+    /**
+     * Answers myself after setting the milliseconds between flushes of each journal,
+     * which bounds the messages lost by a crash when {@code groupCommit} is enabled,
+     * and in either case bounds the delivered messages that a crash replays.
+     * @param flushInterval the long milliseconds between flushes
+     * @return JournaledQueueMailboxPluginConfiguration
+     */
+    public JournaledQueueMailboxPluginConfiguration flushInterval(final long flushInterval) {
+      this.flushInterval = flushInterval;
+      return this;
+    }
+
+    public long flushInterval() {
+      return flushInterval;
+    }
+
+    /**
+     * Answers myself after setting whether each journal is flushed with a single
+     * {@code force()} for all messages sent within a {@code flushInterval}, or
+     * otherwise by each {@code send()}.
+     * @param groupCommit the boolean indicating whether flushes are grouped
+     * @return JournaledQueueMailboxPluginConfiguration
+     */
+    public JournaledQueueMailboxPluginConfiguration groupCommit(final boolean groupCommit) {
+      this.groupCommit = groupCommit;
+      return this;
+    }
+
+    public boolean groupCommit() {
+      return groupCommit;
+    }
+
+    /**
+     * Answers myself after setting the directory under which each mailbox has its
+     * own journal directory, named by the {@code Address} of its {@code Actor}. It
+     * has no default and must be set before a mailbox is provided, because the
+     * journals must survive the restart of the host. A journal is deleted when its
+     * mailbox is closed only if all of its messages were delivered, so that the
+     * messages pending at a graceful stop, such as of {@code World.terminate()},
+     * are replayed to the {@code Actor} created again with the same {@code Address}.
+     * @param journalDirectory the String path of the journal directory
+     * @return JournaledQueueMailboxPluginConfiguration
+     */
+    public JournaledQueueMailboxPluginConfiguration journalDirectory(final String journalDirectory) {
+      this.journalDirectory = journalDirectory;
+      return this;
+    }
+
+    public String journalDirectory() {
+      return journalDirectory;
+    }
+
+    public JournaledQueueMailboxPluginConfiguration segmentSize(final int segmentSize) {
+      this.segmentSize = segmentSize;
+      return this;
+    }
+
+    public int segmentSize() {
+      return segmentSize;
+    }
+
+    @Override
+    public void build(final Configuration configuration) {
+      configuration.with(numberOfDispatchersFactor(1.5f)
+              .dispatcherThrottlingCount(1)
+              .flushInterval(DefaultFlushInterval)
+              .groupCommit(true)
+              .segmentSize(DefaultSegmentSize));
+    }
+
+    @Override
+    public void buildWith(final Configuration configuration, final PluginProperties properties) {
+      super.buildWith(configuration, properties);
+
+      this.flushInterval = properties.getLong("flushInterval", DefaultFlushInterval);
+      this.groupCommit = properties.getBoolean("groupCommit", true);
+      this.journalDirectory = properties.getString("journalDirectory", null);
+      this.segmentSize = properties.getInteger("segmentSize", DefaultSegmentSize);
+    }
+  }
+
+  /**
+   * The {@code Thread} that flushes all open journals every flush interval.
+   */
+  private static final class Flusher extends Thread {
+    private volatile boolean closed;
+    private final Queue<MessageJournal> journals;
+    private final long intervalNanos;
+
+    Flusher(final String name, final long flushInterval) {
+      super(name);
+      this.journals = new ConcurrentLinkedQueue<>();
+      this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, flushInterval));
+      setDaemon(true);
+    }
+
+    void close() {
+      closed = true;
+      interrupt();
+    }
+
+    void register(final MessageJournal journal) {
+      journals.add(journal);
+    }
+
+    @Override
+    public void run() {
+      while (!closed) {
+        LockSupport.parkNanos(intervalNanos);
+        flushAll();
+      }
+      flushAll();
+    }
+
+    private void flushAll() {
+      for (final Iterator<MessageJournal> iterator = journals.iterator(); iterator.hasNext(); ) {
+        final MessageJournal journal = iterator.next();
+        if (journal.isClosed()) {
+          iterator.remove();
+          continue;
+        }
+        try {
+          journal.flush();
+        } catch (RuntimeException e) {
+          // retried with the next flush; the journal remains open
+        }
+      }
+    }
+  }
+}
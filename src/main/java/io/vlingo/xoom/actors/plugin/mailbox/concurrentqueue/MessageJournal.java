@@ -0,0 +1,395 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A write-ahead log of the messages enqueued in a single mailbox, held in
+ * segment files of about {@code segmentSize} bytes in its own directory.
+ * Each entry is assigned the next sequence, and is acknowledged by count in
+ * the order that entries were appended, once delivered. Entries are buffered
+ * in memory until {@code flush()}, which writes the buffer and the latest
+ * acknowledgment with a single {@code force()}, and so commits all entries
+ * appended since the previous flush as a group. A segment file is deleted
+ * once all of its entries are acknowledged.
+ * <p>
+ * The entries that were not acknowledged when the log was last open are
+ * {@code recovered()} when it is opened again, and remain in their segment
+ * files until {@code recoveryCompleted()}, after which they are expected to
+ * have been appended again.
+ */
+public class MessageJournal {
+  private static final byte Acknowledgment = 2;
+  private static final byte Entry = 1;
+  private static final String Suffix = ".wal";
+
+  private long acknowledged;
+  private long acknowledgedBuffered;
+  private long acknowledgedWritten;
+  private ByteArrayOutputStream buffer;
+  private DataOutputStream bufferWriter;
+  private boolean closed;
+  private final CRC32 crc;
+  private final File directory;
+  private final long firstSequence;
+  private long nextSequence;
+  private final List<byte[]> recovered;
+  private final List<File> recoveredFiles;
+  private long segmentIndex;
+  private final int segmentSize;
+  private final ArrayDeque<Segment> segments;
+  private long unflushedLastSequence;
+  private final Object writeLock;
+
+  /**
+   * Constructs my state by opening the log in {@code directory}, which is
+   * created if necessary, and reading the entries that it holds that were
+   * not acknowledged.
+   * @param directory the File directory of my segment files, which must not be used by any other MessageJournal
+   * @param segmentSize the int bytes after which a new segment file is started
+   */
+  public MessageJournal(final File directory, final int segmentSize) {
+    if (segmentSize <= 0) {
+      throw new IllegalArgumentException("Segment size must be greater than 0.");
+    }
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IllegalStateException("Cannot create mailbox journal directory: " + directory);
+    }
+
+    this.crc = new CRC32();
+    this.directory = directory;
+    this.recovered = new ArrayList<>();
+    this.recoveredFiles = new ArrayList<>();
+    this.segmentSize = segmentSize;
+    this.segments = new ArrayDeque<>();
+    this.writeLock = new Object();
+
+    this.firstSequence = recover() + 1;
+    this.nextSequence = firstSequence;
+    // recovered entries are acknowledged only by deleting their files in recoveryCompleted()
+    this.acknowledgedBuffered = firstSequence - 1;
+    this.acknowledgedWritten = firstSequence - 1;
+    this.unflushedLastSequence = firstSequence - 1;
+
+    resetBuffer();
+  }
+
+  /**
+   * Acknowledges my next {@code count} entries in the order that they were
+   * appended, including those appended with a {@code null} payload.
+   * @param count the int number of delivered entries
+   */
+  public synchronized void acknowledge(final int count) {
+    acknowledged += count;
+  }
+
+  /**
+   * Answers the sequence of the appended entry, which is only written if its
+   * {@code payload} is not {@code null}.
+   * @param payload the byte[] serialized message, or null if the message cannot be journaled
+   * @return long
+   */
+  public synchronized long append(final byte[] payload) {
+    final long sequence = nextSequence++;
+    if (payload != null && !closed) {
+      writeRecord(sequence, Entry, payload);
+      unflushedLastSequence = sequence;
+    }
+    return sequence;
+  }
+
+  /**
+   * Answers the number of bytes appended but not yet flushed.
+   * @return int
+   */
+  public synchronized int bufferedBytes() {
+    return buffer.size();
+  }
+
+  /**
+   * Closes me after a final {@code flush()}, and if {@code delete} also
+   * deletes all of my segment files and my directory.
+   * @param delete the boolean indicating whether my entries are discarded
+   */
+  public void close(final boolean delete) {
+    synchronized (writeLock) {
+      flush();
+      synchronized (this) {
+        closed = true;
+      }
+      for (final Segment segment : segments) {
+        segment.close(delete);
+      }
+      segments.clear();
+      if (delete) {
+        for (final File file : recoveredFiles) {
+          file.delete();
+        }
+        recoveredFiles.clear();
+        directory.delete();
+      }
+    }
+  }
+
+  /**
+   * Answers my directory.
+   * @return File
+   */
+  public File directory() {
+    return directory;
+  }
+
+  /**
+   * Answers whether or not any of my entries, including my {@code recovered()}
+   * entries, are not yet acknowledged.
+   * @return boolean
+   */
+  public synchronized boolean hasUnacknowledged() {
+    return acknowledged < nextSequence - firstSequence || !recovered.isEmpty();
+  }
+
+  /**
+   * Answers whether or not I am closed.
+   * @return boolean
+   */
+  public synchronized boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Writes all buffered entries and the latest acknowledgment to my current
+   * segment file and forces them to storage, and then deletes any segment
+   * files whose entries are all acknowledged. If the write fails the entries
+   * remain buffered, such that they are written by the next {@code flush()}.
+   * @throws IllegalStateException if the entries cannot be written
+   */
+  public void flush() {
+    synchronized (writeLock) {
+      final byte[] bytes;
+      final long lastSequence;
+      final long acknowledgedSequence;
+
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        acknowledgedSequence = firstSequence - 1 + acknowledged;
+        if (acknowledgedSequence > acknowledgedBuffered) {
+          writeRecord(acknowledgedSequence, Acknowledgment, new byte[0]);
+          acknowledgedBuffered = acknowledgedSequence;
+        }
+        if (buffer.size() == 0) {
+          return;
+        }
+        bytes = buffer.toByteArray();
+        lastSequence = unflushedLastSequence;
+      }
+
+      try {
+        Segment segment = segments.peekLast();
+        if (segment == null || (segment.size > 0 && segment.size + bytes.length > segmentSize)) {
+          segment = new Segment(new File(directory, String.format("%020d%s", ++segmentIndex, Suffix)));
+          segments.add(segment);
+        }
+        segment.write(bytes, lastSequence);
+      } catch (IOException e) {
+        throw new IllegalStateException("Cannot write mailbox journal because: " + e.getMessage(), e);
+      }
+
+      // only now are the written entries removed, retaining any appended during the write
+      synchronized (this) {
+        final byte[] buffered = buffer.toByteArray();
+        resetBuffer();
+        buffer.write(buffered, bytes.length, buffered.length - bytes.length);
+        acknowledgedWritten = Math.max(acknowledgedWritten, acknowledgedSequence);
+      }
+
+      while (segments.size() > 1 && segments.peek().lastSequence <= acknowledgedWritten) {
+        segments.poll().close(true);
+      }
+    }
+  }
+
+  /**
+   * Answers the payloads of the entries that were not acknowledged when I was last open, in order.
+   * @return {@code List<byte[]>}
+   */
+  public List<byte[]> recovered() {
+    return Collections.unmodifiableList(recovered);
+  }
+
+  /**
+   * Flushes my entries and deletes the segment files from which my
+   * {@code recovered()} entries were read, which must have been appended
+   * again or otherwise handled.
+   */
+  public void recoveryCompleted() {
+    synchronized (writeLock) {
+      flush();
+      for (final File file : recoveredFiles) {
+        file.delete();
+      }
+      recoveredFiles.clear();
+      recovered.clear();
+    }
+  }
+
+  private long recover() {
+    final File[] files = directory.listFiles((dir, name) -> name.endsWith(Suffix));
+
+    if (files == null || files.length == 0) {
+      return 0L;
+    }
+
+    Arrays.sort(files);
+
+    final String lastName = files[files.length - 1].getName();
+    try {
+      segmentIndex = Long.parseLong(lastName.substring(0, lastName.length() - Suffix.length()));
+    } catch (NumberFormatException e) {
+      throw new IllegalStateException("Unexpected mailbox journal file: " + lastName, e);
+    }
+
+    final Map<Long, byte[]> entries = new LinkedHashMap<>();
+    long lastAcknowledged = 0L;
+    long lastSequence = 0L;
+
+    for (final File file : files) {
+      recoveredFiles.add(file);
+      try (final DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+        while (true) {
+          final int length = input.readInt();
+          final int checksum = input.readInt();
+          final long sequence = input.readLong();
+          final byte type = input.readByte();
+          if (length < 0 || length > file.length()) {
+            break; // torn write
+          }
+          final byte[] payload = new byte[length];
+          input.readFully(payload);
+          if (checksum != checksumOf(sequence, type, payload)) {
+            break; // torn write
+          }
+          if (type == Entry) {
+            entries.put(sequence, payload);
+            lastSequence = Math.max(lastSequence, sequence);
+          } else if (type == Acknowledgment) {
+            lastAcknowledged = Math.max(lastAcknowledged, sequence);
+            lastSequence = Math.max(lastSequence, sequence);
+          }
+        }
+      } catch (EOFException e) {
+        // the end of the segment, possibly with a torn write
+      } catch (IOException e) {
+        throw new IllegalStateException("Cannot read mailbox journal because: " + e.getMessage(), e);
+      }
+    }
+
+    for (final Map.Entry<Long, byte[]> entry : entries.entrySet()) {
+      if (entry.getKey() > lastAcknowledged) {
+        recovered.add(entry.getValue());
+      }
+    }
+
+    return lastSequence;
+  }
+
+  private int checksumOf(final long sequence, final byte type, final byte[] payload) {
+    crc.reset();
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      crc.update((int) (sequence >>> shift));
+    }
+    crc.update(type);
+    crc.update(payload, 0, payload.length);
+    return (int) crc.getValue();
+  }
+
+  private void resetBuffer() {
+    buffer = new ByteArrayOutputStream(4_096);
+    bufferWriter = new DataOutputStream(buffer);
+  }
+
+  private void writeRecord(final long sequence, final byte type, final byte[] payload) {
+    try {
+      bufferWriter.writeInt(payload.length);
+      bufferWriter.writeInt(checksumOf(sequence, type, payload));
+      bufferWriter.writeLong(sequence);
+      bufferWriter.writeByte(type);
+      bufferWriter.write(payload);
+    } catch (IOException e) {
+      // a ByteArrayOutputStream never throws
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * A segment file that is appended to and forced by the flushing thread.
+   */
+  private static final class Segment {
+    private final FileChannel channel;
+    private final File file;
+    private long lastSequence;
+    private long size;
+
+    Segment(final File file) throws IOException {
+      this.file = file;
+      this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+      this.size = channel.size();
+    }
+
+    void close(final boolean delete) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // ignore
+      }
+      if (delete) {
+        file.delete();
+      }
+    }
+
+    void write(final byte[] bytes, final long lastSequence) throws IOException {
+      final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      try {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        channel.force(false);
+      } catch (IOException e) {
+        // a partial write would read as a torn record that hides the rewritten entries
+        try {
+          channel.truncate(size);
+        } catch (IOException truncateException) {
+          e.addSuppressed(truncateException);
+        }
+        throw e;
+      }
+      this.lastSequence = Math.max(this.lastSequence, lastSequence);
+      this.size += bytes.length;
+    }
+  }
+}
@@ -0,0 +1,181 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import io.vlingo.xoom.actors.Message;
+
+/**
+ * A multiple-producer, single-consumer {@code Queue<Message>} with a fixed
+ * number of lanes, where each {@code Message} is appended to the lane of its
+ * {@code priority()}, lane 0 being the most urgent. Messages within a lane
+ * remain in order. Lanes are polled either strictly, such that a lane is
+ * polled only when all more urgent lanes are empty, or by weight, such that
+ * each non-empty lane in turn yields up to its weight in messages, which
+ * prevents starving the less urgent lanes.
+ * <p>
+ * Only a single thread at a time may {@code poll()}, which is guaranteed
+ * by the mailbox's delivery protocol.
+ */
+public class PriorityLanesQueue extends AbstractQueue<Message> {
+  private int credit;
+  private int lane;
+  private final Queue<Message>[] lanes;
+  private final int[] weights;
+
+  /**
+   * Constructs my state with {@code lanes} that are polled strictly.
+   * @param lanes the int number of lanes, which must be greater than 0
+   */
+  public PriorityLanesQueue(final int lanes) {
+    this(lanes, null);
+  }
+
+  /**
+   * Constructs my state with one lane per element of {@code weights}
+   * that are polled by weight.
+   * @param weights the int[] number of messages polled from each lane per turn, each of which must be greater than 0
+   */
+  public PriorityLanesQueue(final int[] weights) {
+    this(weights.length, weights.clone());
+
+    for (final int weight : weights) {
+      if (weight <= 0) {
+        throw new IllegalArgumentException("Lane weights must be greater than 0.");
+      }
+    }
+  }
+
+  /**
+   * Answers the lane of the {@code message}.
+   * @param message the Message
+   * @return int
+   */
+  public int laneOf(final Message message) {
+    return Math.max(0, Math.min(message.priority(), lanes.length - 1));
+  }
+
+  /**
+   * Answers the number of my lanes.
+   * @return int
+   */
+  public int lanes() {
+    return lanes.length;
+  }
+
+  /* @see java.util.Queue#offer(java.lang.Object) */
+  @Override
+  public boolean offer(final Message message) {
+    return lanes[laneOf(message)].offer(message);
+  }
+
+  /* @see java.util.Queue#poll() */
+  @Override
+  public Message poll() {
+    return weights == null ? pollStrictly() : pollByWeight();
+  }
+
+  /**
+   * Answers the head of my most urgent non-empty lane, regardless of weights.
+   * @see java.util.Queue#peek()
+   */
+  @Override
+  public Message peek() {
+    for (final Queue<Message> queue : lanes) {
+      final Message message = queue.peek();
+      if (message != null) {
+        return message;
+      }
+    }
+    return null;
+  }
+
+  /* @see java.util.Collection#clear() */
+  @Override
+  public void clear() {
+    for (final Queue<Message> queue : lanes) {
+      queue.clear();
+    }
+  }
+
+  /* @see java.util.Collection#isEmpty() */
+  @Override
+  public boolean isEmpty() {
+    for (final Queue<Message> queue : lanes) {
+      if (!queue.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /* @see java.util.Collection#size() */
+  @Override
+  public int size() {
+    int size = 0;
+    for (final Queue<Message> queue : lanes) {
+      size += queue.size();
+    }
+    return size;
+  }
+
+  /**
+   * Answers a weakly consistent {@code Iterator<Message>} over my lanes from the most urgent.
+   * @see java.util.Collection#iterator()
+   */
+  @Override
+  public Iterator<Message> iterator() {
+    return Arrays.stream(lanes).flatMap(Queue::stream).iterator();
+  }
+
+  @SuppressWarnings("unchecked")
+  private PriorityLanesQueue(final int lanes, final int[] weights) {
+    if (lanes <= 0) {
+      throw new IllegalArgumentException("Number of lanes must be greater than 0.");
+    }
+
+    this.lanes = new Queue[lanes];
+    for (int idx = 0; idx < lanes; ++idx) {
+      this.lanes[idx] = new ConcurrentLinkedQueue<>();
+    }
+    this.weights = weights;
+    this.lane = 0;
+    this.credit = weights == null ? 0 : weights[0];
+  }
+
+  private Message pollByWeight() {
+    // visits every lane once more than needed to return to an emptied current lane
+    for (int visited = 0; visited <= lanes.length; ++visited) {
+      if (credit > 0) {
+        final Message message = lanes[lane].poll();
+        if (message != null) {
+          --credit;
+          return message;
+        }
+      }
+      lane = (lane + 1) % lanes.length;
+      credit = weights[lane];
+    }
+    return null;
+  }
+
+  private Message pollStrictly() {
+    for (final Queue<Message> queue : lanes) {
+      final Message message = queue.poll();
+      if (message != null) {
+        return message;
+      }
+    }
+    return null;
+  }
+}
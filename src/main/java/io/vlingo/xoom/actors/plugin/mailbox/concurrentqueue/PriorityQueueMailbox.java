@@ -0,0 +1,70 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import io.vlingo.xoom.actors.Dispatcher;
+
+/**
+ * A {@code ConcurrentQueueMailbox} backed by a {@code PriorityLanesQueue},
+ * such that messages of protocol methods annotated with {@code Priority}
+ * are delivered ahead of the messages already queued in less urgent lanes.
+ * Note that messages already received into a batch are delivered first,
+ * so a {@code dispatcherThrottlingCount} of 1 gives the lowest latency to
+ * urgent messages.
+ */
+public class PriorityQueueMailbox extends ConcurrentQueueMailbox {
+
+  PriorityQueueMailbox(final Dispatcher dispatcher, final int throttlingCount, final int lanes, final DrainPolicy drainPolicy, final int[] laneWeights) {
+    super(dispatcher, throttlingCount, laneQueue(lanes, drainPolicy, laneWeights));
+  }
+
+  PriorityQueueMailbox(final DeliverySettings settings, final int lanes, final DrainPolicy drainPolicy, final int[] laneWeights) {
+    super(settings, laneQueue(lanes, drainPolicy, laneWeights));
+  }
+
+  /**
+   * Answers the lane weights that give each lane twice the weight of the next, ending with 1.
+   * @param lanes the int number of lanes
+   * @return int[]
+   */
+  static int[] halvingWeights(final int lanes) {
+    final int[] weights = new int[lanes];
+    for (int idx = 0; idx < lanes; ++idx) {
+      weights[idx] = 1 << Math.min(30, lanes - 1 - idx);
+    }
+    return weights;
+  }
+
+  private static PriorityLanesQueue laneQueue(final int lanes, final DrainPolicy drainPolicy, final int[] laneWeights) {
+    if (drainPolicy == DrainPolicy.Strict) {
+      return new PriorityLanesQueue(lanes);
+    }
+    if (laneWeights == null || laneWeights.length == 0) {
+      return new PriorityLanesQueue(halvingWeights(lanes));
+    }
+    if (laneWeights.length != lanes) {
+      throw new IllegalArgumentException("There must be one lane weight per lane.");
+    }
+    return new PriorityLanesQueue(laneWeights);
+  }
+
+  /**
+   * The order in which the lanes of a {@code PriorityQueueMailbox} are drained.
+   */
+  public static enum DrainPolicy {
+    /**
+     * Drain a lane only when all more urgent lanes are empty.
+     */
+    Strict,
+
+    /**
+     * Drain each non-empty lane in turn up to its weight in messages.
+     */
+    Weighted
+  }
+}
@@ -0,0 +1,116 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.util.Arrays;
+
+import io.vlingo.xoom.actors.Configuration;
+import io.vlingo.xoom.actors.Definition;
+import io.vlingo.xoom.actors.Mailbox;
+import io.vlingo.xoom.actors.plugin.Plugin;
+import io.vlingo.xoom.actors.plugin.PluginConfiguration;
+import io.vlingo.xoom.actors.plugin.PluginProperties;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.PriorityQueueMailbox.DrainPolicy;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.PriorityQueueMailboxPlugin.PriorityQueueMailboxPluginConfiguration;
+
+public class PriorityQueueMailboxPlugin extends AbstractConcurrentQueueMailboxPlugin<PriorityQueueMailboxPluginConfiguration> {
+
+  public PriorityQueueMailboxPlugin() {
+    super(new PriorityQueueMailboxPluginConfiguration());
+  }
+
+  @Override
+  public Plugin with(final PluginConfiguration overrideConfiguration) {
+    if (overrideConfiguration == null) {
+      return this;
+    }
+    return new PriorityQueueMailboxPlugin(overrideConfiguration);
+  }
+
+  private PriorityQueueMailboxPlugin(final PluginConfiguration configuration) {
+    super((PriorityQueueMailboxPluginConfiguration) configuration);
+  }
+
+  @Override
+  protected Mailbox newMailbox(final DeliverySettings settings, final Definition definition) {
+    return new PriorityQueueMailbox(
+            settings,
+            configuration.lanes(),
+            configuration.drainPolicy(),
+            configuration.laneWeights());
+  }
+
+  public static class PriorityQueueMailboxPluginConfiguration extends AbstractConcurrentQueueMailboxPluginConfiguration<PriorityQueueMailboxPluginConfiguration> {
+    private DrainPolicy drainPolicy;
+    private int lanes;
+    private int[] laneWeights;
+
+    public static PriorityQueueMailboxPluginConfiguration define() {
+      return new PriorityQueueMailboxPluginConfiguration();
+    }
+
+    public PriorityQueueMailboxPluginConfiguration() {
+      super("priorityQueueMailbox");
+    }
+
+    public PriorityQueueMailboxPluginConfiguration drainPolicy(final DrainPolicy drainPolicy) {
+      this.drainPolicy = drainPolicy;
+      return this;
+    }
+
+    public DrainPolicy drainPolicy() {
+      return drainPolicy;
+    }
+
+    public PriorityQueueMailboxPluginConfiguration lanes(final int lanes) {
+      this.lanes = lanes;
+      return this;
+    }
+
+    public int lanes() {
+      return lanes;
+    }
+
+    /**
+     * Answers myself after setting the number of messages drained from each lane
+     * per turn when the {@code DrainPolicy} is {@code Weighted}. When not set, each
+     * lane has twice the weight of the next and the last lane has a weight of 1.
+     * @param laneWeights the int[] weights, one per lane
+     * @return PriorityQueueMailboxPluginConfiguration
+     */
+    public PriorityQueueMailboxPluginConfiguration laneWeights(final int... laneWeights) {
+      this.laneWeights = laneWeights;
+      return this;
+    }
+
+    public int[] laneWeights() {
+      return laneWeights;
+    }
+
+    @Override
+    public void build(final Configuration configuration) {
+      configuration.with(lanes(3).drainPolicy(DrainPolicy.Strict).numberOfDispatchersFactor(1.5f).dispatcherThrottlingCount(1));
+    }
+
+    @Override
+    public void buildWith(final Configuration configuration, final PluginProperties properties) {
+      super.buildWith(configuration, properties);
+
+      this.lanes = properties.getInteger("lanes", 3);
+      this.drainPolicy = DrainPolicy.valueOf(properties.getString("drainPolicy", DrainPolicy.Strict.name()));
+      this.laneWeights = weightsOf(properties.getString("laneWeights", ""));
+    }
+
+    private static int[] weightsOf(final String laneWeights) {
+      if (laneWeights.trim().isEmpty()) {
+        return null;
+      }
+      return Arrays.stream(laneWeights.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+  }
+}
@@ -0,0 +1,593 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+import io.vlingo.xoom.actors.Actor;
+import io.vlingo.xoom.actors.ActorProxyBase;
+import io.vlingo.xoom.actors.DeadLetter;
+import io.vlingo.xoom.actors.DeadLetters;
+import io.vlingo.xoom.actors.LocalMessage;
+import io.vlingo.xoom.actors.Message;
+import io.vlingo.xoom.common.SerializableConsumer;
+
+/**
+ * A multiple-producer, single-consumer {@code Queue<Message>} that holds up to
+ * {@code highWaterMark} messages in memory, and beyond that spills messages to
+ * append-only segment files that are memory-mapped, each of {@code segmentSize}
+ * bytes. Once any message is spilled all following messages are spilled as well,
+ * until the consumer has paged all of them back in, which keeps the messages in
+ * order. A segment file is unmapped and deleted as soon as it has been read,
+ * and when I am cleared.
+ * <p>
+ * A {@code LocalMessage} is spilled by serializing its {@code SerializableConsumer}
+ * along with its protocol and representation, such that its {@code Actor} and any
+ * actor proxies that the consumer captured are written as references to the live
+ * instances, which are held in memory only until the spilled messages are read.
+ * A message that cannot be serialized, such as one that answers a result through
+ * {@code Returns} or that captures a non-serializable argument, is held in memory
+ * and only its position is spilled. A spilled message that cannot be read back
+ * is not delivered, but is sent to the {@code DeadLetters} of its {@code Actor},
+ * and is reported to my {@code dropped} consumer so that its mailbox no longer
+ * counts it.
+ * <p>
+ * Segment files are created readable only by their owner. A record is read back
+ * only if every class that it names is one that I wrote, so that a segment that
+ * was altered on disk cannot instantiate any other class.
+ * <p>
+ * Only a single thread at a time may {@code poll()}, which is guaranteed
+ * by the mailbox's delivery protocol.
+ */
+public class SpillingMessageQueue extends AbstractQueue<Message> {
+  private static final int Retained = -1;
+
+  private IntConsumer dropped;
+  private final Queue<Message> head;
+  private final AtomicInteger headCount;
+  private final int highWaterMark;
+  private final ArrayDeque<Message> paged;
+  private volatile int pagedCount;
+  private final int pageSize;
+  private final References references;
+  private final ArrayDeque<Message> retained;
+  private final ArrayDeque<Segment> segments;
+  private final int segmentSize;
+  private final Set<String> spilledClasses;
+  private final File spillDirectory;
+  private final AtomicInteger spilled;
+  private long totalSpilled;
+
+  /**
+   * Constructs my state.
+   * @param highWaterMark the int maximum number of messages held in memory before spilling
+   * @param segmentSize the int bytes of each memory-mapped segment file
+   * @param spillDirectory the File directory in which segment files are created
+   */
+  public SpillingMessageQueue(final int highWaterMark, final int segmentSize, final File spillDirectory) {
+    if (highWaterMark <= 0) {
+      throw new IllegalArgumentException("High-water mark must be greater than 0.");
+    }
+    if (segmentSize <= 0) {
+      throw new IllegalArgumentException("Segment size must be greater than 0.");
+    }
+
+    this.head = new ConcurrentLinkedQueue<>();
+    this.headCount = new AtomicInteger(0);
+    this.highWaterMark = highWaterMark;
+    this.paged = new ArrayDeque<>();
+    this.pageSize = Math.min(highWaterMark, 1_024);
+    this.dropped = count -> { };
+    this.references = new References();
+    this.retained = new ArrayDeque<>();
+    this.segments = new ArrayDeque<>();
+    this.segmentSize = segmentSize;
+    this.spilledClasses = ConcurrentHashMap.newKeySet();
+    this.spillDirectory = spillDirectory;
+    this.spilled = new AtomicInteger(0);
+  }
+
+  /**
+   * Sets the {@code dropped} consumer of the number of spilled messages that could
+   * not be read back, which I answer from neither {@code poll()} nor {@code size()}.
+   * @param dropped the IntConsumer of the number of dropped messages
+   */
+  public void droppedTo(final IntConsumer dropped) {
+    this.dropped = dropped;
+  }
+
+  /**
+   * Answers the number of my messages that are currently spilled.
+   * @return int
+   */
+  public int spilledCount() {
+    return spilled.get();
+  }
+
+  /**
+   * Answers the total number of messages that I have spilled.
+   * @return long
+   */
+  public long totalSpilled() {
+    synchronized (segments) {
+      return totalSpilled;
+    }
+  }
+
+  /* @see java.util.Queue#offer(java.lang.Object) */
+  @Override
+  public boolean offer(final Message message) {
+    if (spilled.get() == 0) {
+      if (headCount.incrementAndGet() <= highWaterMark) {
+        head.offer(message);
+        return true;
+      }
+      headCount.decrementAndGet();
+    }
+
+    spill(message);
+
+    return true;
+  }
+
+  /* @see java.util.Queue#poll() */
+  @Override
+  public Message poll() {
+    // paged messages precede those that entered the head after the spill was read
+    Message message = pollPaged();
+
+    if (message != null) {
+      return message;
+    }
+
+    message = head.poll();
+
+    if (message != null) {
+      headCount.decrementAndGet();
+      return message;
+    }
+
+    // a page may hold only records that could not be read
+    while (spilled.get() > 0) {
+      pageIn();
+      message = pollPaged();
+      if (message != null) {
+        return message;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Answers the next in-memory message, which is {@code null} while the next is spilled.
+   * @see java.util.Queue#peek()
+   */
+  @Override
+  public Message peek() {
+    final Message message = paged.peek();
+    return message != null ? message : head.peek();
+  }
+
+  /* @see java.util.Collection#clear() */
+  @Override
+  public void clear() {
+    head.clear();
+    headCount.set(0);
+    paged.clear();
+    pagedCount = 0;
+
+    synchronized (segments) {
+      for (final Segment segment : segments) {
+        segment.close();
+      }
+      segments.clear();
+      retained.clear();
+      references.clear();
+      spilled.set(0);
+    }
+  }
+
+  /* @see java.util.Collection#isEmpty() */
+  @Override
+  public boolean isEmpty() {
+    return pagedCount == 0 && spilled.get() == 0 && head.isEmpty();
+  }
+
+  /* @see java.util.Collection#size() */
+  @Override
+  public int size() {
+    return pagedCount + headCount.get() + spilled.get();
+  }
+
+  /**
+   * Answers a weakly consistent {@code Iterator<Message>} over only my in-memory
+   * messages, which does not support {@code remove()}.
+   * @see java.util.Collection#iterator()
+   */
+  @Override
+  public Iterator<Message> iterator() {
+    return Stream.concat(new ArrayList<>(paged).stream(), head.stream()).iterator();
+  }
+
+  private void pageIn() {
+    final List<byte[]> records = new ArrayList<>(pageSize);
+    final List<DeadLetter> unreadable = new ArrayList<>(0);
+
+    synchronized (segments) {
+      while (records.size() < pageSize) {
+        final Segment segment = segments.peek();
+        if (segment == null) {
+          break;
+        }
+        final byte[] record = segment.read();
+        if (record != null) {
+          records.add(record);
+        } else if (segment.isFull() || segments.size() > 1) {
+          segments.poll().close();
+        } else {
+          break;
+        }
+      }
+
+      for (final byte[] record : records) {
+        final Message message = record.length == 0 ? retained.poll() : deserialize(record, unreadable);
+        if (message != null) {
+          paged.add(message);
+        }
+      }
+
+      pagedCount = paged.size();
+
+      if (spilled.addAndGet(-records.size()) == 0) {
+        for (final Segment segment : segments) {
+          segment.close();
+        }
+        segments.clear();
+        references.clear();
+      }
+    }
+
+    if (!unreadable.isEmpty()) {
+      dropped.accept(unreadable.size());
+    }
+
+    // dead letters are sent outside of the lock because they are themselves sent to a mailbox
+    for (final DeadLetter deadLetter : unreadable) {
+      if (deadLetter == null) {
+        continue;
+      }
+      final DeadLetters deadLetters = deadLetter.actor.deadLetters();
+      if (deadLetters != null) {
+        deadLetters.failedDelivery(deadLetter);
+      }
+    }
+  }
+
+  private Message pollPaged() {
+    final Message message = paged.poll();
+    if (message != null) {
+      pagedCount = paged.size();
+    }
+    return message;
+  }
+
+  private void spill(final Message message) {
+    synchronized (segments) {
+      final byte[] record = serialize(message);
+
+      if (record.length == 0) {
+        retained.add(message);
+      }
+
+      Segment segment = segments.peekLast();
+
+      if (segment == null || !segment.append(record)) {
+        segment = new Segment(spillDirectory, Math.max(segmentSize, record.length + Integer.BYTES));
+        segments.add(segment);
+        segment.append(record);
+      }
+
+      ++totalSpilled;
+      spilled.incrementAndGet();
+    }
+  }
+
+  // answers an empty record if the message must be retained in memory
+  private byte[] serialize(final Message message) {
+    if (!(message instanceof LocalMessage) || ((LocalMessage<?>) message).returns() != null) {
+      return new byte[0];
+    }
+
+    final LocalMessage<?> localMessage = (LocalMessage<?>) message;
+    final int mark = references.size();
+
+    try {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+      try (final ReferencingOutputStream output = new ReferencingOutputStream(bytes, references, spilledClasses)) {
+        output.writeObject(references.of(localMessage.consumer().getClass().getClassLoader()));
+        output.writeObject(localMessage.actor());
+        output.writeObject(localMessage.protocol());
+        output.writeObject(localMessage.representation());
+        output.writeInt(localMessage.priority());
+        output.writeLong(localMessage.deadline());
+        output.writeBoolean(localMessage.isBlocking());
+        output.writeObject(localMessage.consumer());
+      }
+      return bytes.toByteArray();
+    } catch (IOException | RuntimeException e) {
+      references.truncate(mark);
+      return new byte[0];
+    }
+  }
+
+  // answers null after collecting a dead letter if the record cannot be read
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private Message deserialize(final byte[] record, final List<DeadLetter> unreadable) {
+    Actor actor = null;
+    String representation = null;
+
+    try (final ReferencingInputStream input = new ReferencingInputStream(new ByteArrayInputStream(record), references, spilledClasses)) {
+      input.classLoader = (ClassLoader) input.readObject();
+      actor = (Actor) input.readObject();
+      final Class<?> protocol = (Class<?>) input.readObject();
+      representation = (String) input.readObject();
+      final int priority = input.readInt();
+      final long deadline = input.readLong();
+      final boolean blocking = input.readBoolean();
+      final SerializableConsumer consumer = (SerializableConsumer) input.readObject();
+      final LocalMessage message = new LocalMessage(actor, protocol, consumer, representation).withPriority(priority).withDeadline(deadline);
+      return blocking ? message.withBlocking() : message;
+    } catch (IOException | ClassNotFoundException | RuntimeException e) {
+      // a record is counted as dropped even if its Actor cannot be read to dead-letter it
+      unreadable.add(actor != null ? new DeadLetter(actor, representation != null ? representation : "(unreadable spilled message)") : null);
+      return null;
+    }
+  }
+
+  /**
+   * The live instances that spilled messages refer to by index.
+   */
+  private static final class References {
+    private final Map<Object, Integer> indexes = new IdentityHashMap<>();
+    private final List<Object> instances = new ArrayList<>();
+
+    void clear() {
+      indexes.clear();
+      instances.clear();
+    }
+
+    Object get(final int index) {
+      return instances.get(index);
+    }
+
+    Reference of(final Object instance) {
+      final Integer index = indexes.get(instance);
+      if (index != null) {
+        return new Reference(index);
+      }
+      instances.add(instance);
+      indexes.put(instance, instances.size() - 1);
+      return new Reference(instances.size() - 1);
+    }
+
+    int size() {
+      return instances.size();
+    }
+
+    void truncate(final int size) {
+      while (instances.size() > size) {
+        indexes.remove(instances.remove(instances.size() - 1));
+      }
+    }
+  }
+
+  private static final class Reference implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final int index;
+
+    Reference(final int index) {
+      this.index = index;
+    }
+  }
+
+  private static final class ReferencingOutputStream extends ObjectOutputStream {
+    private final References references;
+    private final Set<String> spilledClasses;
+
+    ReferencingOutputStream(final OutputStream output, final References references, final Set<String> spilledClasses) throws IOException {
+      super(output);
+      this.references = references;
+      this.spilledClasses = spilledClasses;
+      enableReplaceObject(true);
+    }
+
+    @Override
+    protected void annotateClass(final Class<?> type) {
+      spilledClasses.add(type.getName());
+    }
+
+    @Override
+    protected Object replaceObject(final Object object) throws IOException {
+      if (object instanceof Actor || object instanceof ActorProxyBase || object instanceof ClassLoader) {
+        return references.of(object);
+      }
+      return object;
+    }
+  }
+
+  /**
+   * Reads only the classes that were written by a {@code ReferencingOutputStream},
+   * which on Java 8 serves as the {@code ObjectInputFilter} of later releases.
+   */
+  private static final class ReferencingInputStream extends ObjectInputStream {
+    private ClassLoader classLoader;
+    private final References references;
+    private final Set<String> spilledClasses;
+
+    ReferencingInputStream(final InputStream input, final References references, final Set<String> spilledClasses) throws IOException {
+      super(input);
+      this.references = references;
+      this.spilledClasses = spilledClasses;
+      enableResolveObject(true);
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(final String[] interfaces) throws IOException {
+      throw new InvalidClassException("Proxy classes are never spilled.");
+    }
+
+    @Override
+    protected Class<?> resolveClass(final ObjectStreamClass description) throws IOException, ClassNotFoundException {
+      if (!spilledClasses.contains(description.getName())) {
+        throw new InvalidClassException(description.getName(), "Class was never spilled.");
+      }
+      if (classLoader != null) {
+        try {
+          return Class.forName(description.getName(), false, classLoader);
+        } catch (ClassNotFoundException e) {
+          // fall through to the default resolution
+        }
+      }
+      return super.resolveClass(description);
+    }
+
+    @Override
+    protected Object resolveObject(final Object object) throws IOException {
+      if (object instanceof Reference) {
+        return references.get(((Reference) object).index);
+      }
+      return object;
+    }
+  }
+
+  /**
+   * An append-only file of length-prefixed records that is memory-mapped
+   * for writing and reading, and that is unmapped and deleted when closed.
+   */
+  private static final class Segment {
+    private static final Consumer<ByteBuffer> Unmapper = unmapper();
+
+    private boolean closed;
+    private final File file;
+    private final MappedByteBuffer mapped;
+    private final ByteBuffer reader;
+    private final ByteBuffer writer;
+
+    Segment(final File directory, final int size) {
+      try {
+        // unlike File.createTempFile(), readable only by the owner on POSIX file systems
+        this.file = Files.createTempFile(directory.toPath(), "xoom-mailbox-", ".spill").toFile();
+        try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+          this.mapped = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("Cannot create mailbox spill segment because: " + e.getMessage(), e);
+      }
+      this.reader = mapped.duplicate();
+      this.writer = mapped.duplicate();
+    }
+
+    boolean append(final byte[] record) {
+      if (writer.remaining() < Integer.BYTES + record.length) {
+        writer.limit(writer.position()); // no further appends
+        return false;
+      }
+      writer.putInt(record.length == 0 ? Retained : record.length);
+      writer.put(record);
+      return true;
+    }
+
+    void close() {
+      if (!closed) {
+        closed = true;
+        Unmapper.accept(mapped);
+        file.delete();
+      }
+    }
+
+    boolean isFull() {
+      return writer.limit() < writer.capacity() || writer.remaining() < Integer.BYTES;
+    }
+
+    byte[] read() {
+      if (reader.position() >= writer.position()) {
+        return null;
+      }
+      final int length = reader.getInt();
+      if (length == Retained) {
+        return new byte[0];
+      }
+      final byte[] record = new byte[length];
+      reader.get(record);
+      return record;
+    }
+
+    // answers the means to release a mapping before it is garbage collected, or else a no-op
+    private static Consumer<ByteBuffer> unmapper() {
+      try {
+        final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        final Object unsafe = theUnsafe.get(null);
+        return buffer -> invoke(invokeCleaner, unsafe, buffer);
+      } catch (Exception e) {
+        // prior to Java 9
+      }
+      try {
+        final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+        final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+        return buffer -> invoke(clean, invoke(cleaner, buffer));
+      } catch (Exception e) {
+        return buffer -> { };
+      }
+    }
+
+    private static Object invoke(final Method method, final Object target, final Object... arguments) {
+      try {
+        return method.invoke(target, arguments);
+      } catch (Exception e) {
+        return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,62 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.io.File;
+
+import io.vlingo.xoom.actors.Dispatcher;
+
+/**
+ * A {@code ConcurrentQueueMailbox} backed by a {@code SpillingMessageQueue},
+ * such that a burst of messages beyond the {@code highWaterMark} is held in
+ * memory-mapped segment files rather than on the heap, and is never rejected.
+ * The segment files are deleted once read, and when I am closed. A spilled
+ * message that cannot be read back is sent to the {@code DeadLetters} and is
+ * no longer counted in my {@code depth()}.
+ */
+public class SpillingQueueMailbox extends ConcurrentQueueMailbox {
+  private final SpillingMessageQueue spillingQueue;
+
+  /**
+   * Answers the number of my pending messages that are currently spilled.
+   * @return int
+   */
+  public int spilledCount() {
+    return spillingQueue.spilledCount();
+  }
+
+  /**
+   * Answers the total number of messages that were spilled.
+   * @return long
+   */
+  public long spilledMessages() {
+    return spillingQueue.totalSpilled();
+  }
+
+  SpillingQueueMailbox(
+          final Dispatcher dispatcher,
+          final int throttlingCount,
+          final long timeSlice,
+          final int highWaterMark,
+          final int segmentSize,
+          final File spillDirectory) {
+
+    this(new DeliverySettings(dispatcher, throttlingCount, timeSlice, 0, 0, null, 0L), highWaterMark, segmentSize, spillDirectory);
+  }
+
+  SpillingQueueMailbox(final DeliverySettings settings, final int highWaterMark, final int segmentSize, final File spillDirectory) {
+    this(settings, new SpillingMessageQueue(highWaterMark, segmentSize, spillDirectory));
+  }
+
+  private SpillingQueueMailbox(final DeliverySettings settings, final SpillingMessageQueue spillingQueue) {
+    super(settings, spillingQueue);
+
+    this.spillingQueue = spillingQueue;
+    this.spillingQueue.droppedTo(this::discarded);
+  }
+}
@@ -0,0 +1,155 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import io.vlingo.xoom.actors.Configuration;
+import io.vlingo.xoom.actors.Definition;
+import io.vlingo.xoom.actors.Mailbox;
+import io.vlingo.xoom.actors.Registrar;
+import io.vlingo.xoom.actors.plugin.Plugin;
+import io.vlingo.xoom.actors.plugin.PluginConfiguration;
+import io.vlingo.xoom.actors.plugin.PluginProperties;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.SpillingQueueMailboxPlugin.SpillingQueueMailboxPluginConfiguration;
+
+public class SpillingQueueMailboxPlugin extends AbstractConcurrentQueueMailboxPlugin<SpillingQueueMailboxPluginConfiguration> {
+  private File spillDirectory;
+
+  public SpillingQueueMailboxPlugin() {
+    super(new SpillingQueueMailboxPluginConfiguration());
+  }
+
+  @Override
+  public void close() {
+    super.close();
+
+    // the segment files of mailboxes that were not closed are deleted with the directory
+    final File[] files = spillDirectory.listFiles();
+    if (files != null) {
+      for (final File file : files) {
+        file.delete();
+      }
+    }
+    spillDirectory.delete();
+  }
+
+  @Override
+  public void start(final Registrar registrar) {
+    spillDirectory = privateSpillDirectory(configuration.spillDirectory());
+
+    super.start(registrar);
+  }
+
+  @Override
+  public Plugin with(final PluginConfiguration overrideConfiguration) {
+    if (overrideConfiguration == null) {
+      return this;
+    }
+    return new SpillingQueueMailboxPlugin(overrideConfiguration);
+  }
+
+  private SpillingQueueMailboxPlugin(final PluginConfiguration configuration) {
+    super((SpillingQueueMailboxPluginConfiguration) configuration);
+  }
+
+  @Override
+  protected Mailbox newMailbox(final DeliverySettings settings, final Definition definition) {
+    return new SpillingQueueMailbox(settings, configuration.highWaterMark(), configuration.segmentSize(), spillDirectory);
+  }
+
+  // a directory of this process alone, which on POSIX file systems only its owner can access
+  private File privateSpillDirectory(final String spillDirectory) {
+    try {
+      final Path parent = Files.createDirectories(Paths.get(spillDirectory));
+      return Files.createTempDirectory(parent, "xoom-spill-").toFile();
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot create mailbox spill directory in " + spillDirectory + " because: " + e.getMessage(), e);
+    }
+  }
+
+  public static class SpillingQueueMailboxPluginConfiguration extends AbstractConcurrentQueueMailboxPluginConfiguration<SpillingQueueMailboxPluginConfiguration> {
+    private static final int DefaultHighWaterMark = 10_000;
+    private static final int DefaultSegmentSize = 64 * 1024 * 1024;
+    private static final String DefaultSpillDirectory = System.getProperty("java.io.tmpdir");
+
+    private int highWaterMark;
+    private int segmentSize;
+    private String spillDirectory;
+
+    public static SpillingQueueMailboxPluginConfiguration define() {
+      return new SpillingQueueMailboxPluginConfiguration();
+    }
+
+    public SpillingQueueMailboxPluginConfiguration() {
+      super("spillingQueueMailbox");
+    }
+
+    /**
+     * Answers myself after setting the number of pending messages that each mailbox
+     * holds in memory, beyond which further messages are spilled to segment files.
+     * @param highWaterMark the int maximum number of pending messages held in memory
+     * @return SpillingQueueMailboxPluginConfiguration
+     */
+    public SpillingQueueMailboxPluginConfiguration highWaterMark(final int highWaterMark) {
+      this.highWaterMark = highWaterMark;
+      return this;
+    }
+
+    public int highWaterMark() {
+      return highWaterMark;
+    }
+
+    public SpillingQueueMailboxPluginConfiguration segmentSize(final int segmentSize) {
+      this.segmentSize = segmentSize;
+      return this;
+    }
+
+    public int segmentSize() {
+      return segmentSize;
+    }
+
+    /**
+     * Answers myself after setting the directory within which my plugin creates
+     * its own directory of segment files when started, which only the owner of
+     * the process can access, and which is deleted when my plugin is closed.
+     * @param spillDirectory the String path of the spill directory
+     * @return SpillingQueueMailboxPluginConfiguration
+     */
+    public SpillingQueueMailboxPluginConfiguration spillDirectory(final String spillDirectory) {
+      this.spillDirectory = spillDirectory;
+      return this;
+    }
+
+    public String spillDirectory() {
+      return spillDirectory;
+    }
+
+    @Override
+    public void build(final Configuration configuration) {
+      configuration.with(numberOfDispatchersFactor(1.5f)
+              .dispatcherThrottlingCount(1)
+              .highWaterMark(DefaultHighWaterMark)
+              .segmentSize(DefaultSegmentSize)
+              .spillDirectory(DefaultSpillDirectory));
+    }
+
+    @Override
+    public void buildWith(final Configuration configuration, final PluginProperties properties) {
+      super.buildWith(configuration, properties);
+
+      this.highWaterMark = properties.getInteger("highWaterMark", DefaultHighWaterMark);
+      this.segmentSize = properties.getInteger("segmentSize", DefaultSegmentSize);
+      this.spillDirectory = properties.getString("spillDirectory", DefaultSpillDirectory);
+    }
+  }
+}
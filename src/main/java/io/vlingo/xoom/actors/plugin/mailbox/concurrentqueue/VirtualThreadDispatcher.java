@@ -0,0 +1,162 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.Logger;
+import io.vlingo.xoom.actors.Mailbox;
+
+/**
+ * A {@code Dispatcher} that runs each mailbox drain on its own virtual thread,
+ * such that a handler that blocks on I/O parks only its virtual thread rather
+ * than a thread of a fixed-size pool. Virtual threads are obtained reflectively
+ * from the running JDK, which must be 21 or later, so that this class remains
+ * compatible with earlier JDKs. When virtual threads are not available I log a
+ * warning and fall back to a pool of at most {@code fallbackThreads} platform
+ * threads, in which case a drain waits for a thread while that many drains are
+ * blocked.
+ */
+public class VirtualThreadDispatcher implements Dispatcher {
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final int concurrencyCapacity;
+  private final ExecutorService executor;
+  private final boolean virtual;
+
+  /**
+   * Answers whether or not the running JDK supports virtual threads.
+   * @return boolean
+   */
+  public static boolean isVirtualThreadSupported() {
+    return virtualThreadFactory("xoom-probe-") != null;
+  }
+
+  /**
+   * Constructs my state.
+   * @param concurrencyCapacity the int that I answer from {@code concurrencyCapacity()}, which is normally the number of carrier threads
+   * @param fallbackThreads the int maximum number of platform threads used when virtual threads are not supported
+   * @param threadNamePrefix the String prefix of the name of each of my threads
+   * @param logger the Logger that is warned when I fall back to platform threads
+   */
+  protected VirtualThreadDispatcher(final int concurrencyCapacity, final int fallbackThreads, final String threadNamePrefix, final Logger logger) {
+    if (fallbackThreads <= 0) {
+      throw new IllegalArgumentException("Fallback threads must be greater than 0.");
+    }
+
+    this.concurrencyCapacity = concurrencyCapacity;
+
+    final ThreadFactory virtualThreadFactory = virtualThreadFactory(threadNamePrefix);
+
+    if (virtualThreadFactory != null) {
+      this.executor = threadPerTaskExecutor(virtualThreadFactory);
+      this.virtual = true;
+    } else {
+      logger.warn("Virtual threads are not supported by JDK " + System.getProperty("java.version") +
+              "; " + threadNamePrefix + " falls back to a pool of at most " + fallbackThreads + " platform threads.");
+      this.executor = platformThreadExecutor(fallbackThreads, new PlatformThreadFactory(threadNamePrefix));
+      this.virtual = false;
+    }
+  }
+
+  @Override
+  public int concurrencyCapacity() {
+    return concurrencyCapacity;
+  }
+
+  @Override
+  public void close() {
+    closed.set(true);
+    executor.shutdown();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  @Override
+  public void execute(final Mailbox mailbox) {
+    if (!closed.get()) {
+      try {
+        executor.execute(mailbox);
+      } catch (RejectedExecutionException e) {
+        if (!executor.isShutdown()) {
+          throw new IllegalStateException("Message cannot be sent due to current system resource limitations.", e);
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean requiresExecutionNotification() {
+    return false;
+  }
+
+  /**
+   * Answers whether or not my drains run on virtual threads.
+   * @return boolean
+   */
+  public boolean usesVirtualThreads() {
+    return virtual;
+  }
+
+  private static ExecutorService platformThreadExecutor(final int maximumThreads, final ThreadFactory threadFactory) {
+    final ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(maximumThreads, maximumThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private static ExecutorService threadPerTaskExecutor(final ThreadFactory threadFactory) {
+    try {
+      final Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+      return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+    } catch (Exception e) {
+      throw new IllegalStateException("Cannot create virtual thread executor because: " + e.getMessage(), e);
+    }
+  }
+
+  // uses the public Thread.Builder interface so that no JDK internal class is accessed
+  private static ThreadFactory virtualThreadFactory(final String threadNamePrefix) {
+    try {
+      final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+      final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      final Object named = builderType.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+      return (ThreadFactory) builderType.getMethod("factory").invoke(named);
+    } catch (Exception | LinkageError e) {
+      // earlier than JDK 21, or JDK 19 and 20 without preview features enabled
+      return null;
+    }
+  }
+
+  private static final class PlatformThreadFactory implements ThreadFactory {
+    private final AtomicLong count = new AtomicLong(0);
+    private final String threadNamePrefix;
+
+    PlatformThreadFactory(final String threadNamePrefix) {
+      this.threadNamePrefix = threadNamePrefix;
+    }
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      final Thread thread = new Thread(runnable, threadNamePrefix + count.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import io.vlingo.xoom.actors.Configuration;
+import io.vlingo.xoom.actors.Definition;
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.Logger;
+import io.vlingo.xoom.actors.Mailbox;
+import io.vlingo.xoom.actors.Registrar;
+import io.vlingo.xoom.actors.plugin.Plugin;
+import io.vlingo.xoom.actors.plugin.PluginConfiguration;
+import io.vlingo.xoom.actors.plugin.PluginProperties;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.VirtualThreadMailboxPlugin.VirtualThreadMailboxPluginConfiguration;
+
+/**
+ * Provides {@code ConcurrentQueueMailbox} instances that are dispatched by a
+ * {@code VirtualThreadDispatcher}, for actors whose handlers block on I/O.
+ * On a JDK earlier than 21 the dispatcher logs a warning and uses a pool of at
+ * most {@code fallbackThreads} platform threads instead. Because a blocked drain
+ * parks only its own thread, {@code @Blocking} messages are not offloaded unless
+ * {@code blockingMaxThreads} is set.
+ */
+public class VirtualThreadMailboxPlugin extends AbstractConcurrentQueueMailboxPlugin<VirtualThreadMailboxPluginConfiguration> {
+
+  public VirtualThreadMailboxPlugin() {
+    super(new VirtualThreadMailboxPluginConfiguration());
+  }
+
+  @Override
+  public Plugin with(final PluginConfiguration overrideConfiguration) {
+    if (overrideConfiguration == null) {
+      return this;
+    }
+    return new VirtualThreadMailboxPlugin(overrideConfiguration);
+  }
+
+  private VirtualThreadMailboxPlugin(final PluginConfiguration configuration) {
+    super((VirtualThreadMailboxPluginConfiguration) configuration);
+  }
+
+  @Override
+  protected Dispatcher defaultDispatcher(final Registrar registrar) {
+    final Logger logger = registrar.world() != null ? registrar.world().defaultLogger() : Logger.basicLogger();
+
+    return new VirtualThreadDispatcher(
+            Runtime.getRuntime().availableProcessors(),
+            configuration.fallbackThreads(),
+            "xoom-" + configuration.name() + "-",
+            logger);
+  }
+
+  @Override
+  protected Mailbox newMailbox(final DeliverySettings settings, final Definition definition) {
+    return new ConcurrentQueueMailbox(settings);
+  }
+
+  public static class VirtualThreadMailboxPluginConfiguration extends AbstractConcurrentQueueMailboxPluginConfiguration<VirtualThreadMailboxPluginConfiguration> {
+    private static final int DefaultFallbackThreads = 64;
+
+    private int fallbackThreads = DefaultFallbackThreads;
+
+    public static VirtualThreadMailboxPluginConfiguration define() {
+      return new VirtualThreadMailboxPluginConfiguration();
+    }
+
+    public VirtualThreadMailboxPluginConfiguration() {
+      super("virtualThreadMailbox");
+
+      blockingMaxThreads(0);
+    }
+
+    /**
+     * Answers myself after setting the maximum number of platform threads used
+     * when the running JDK does not support virtual threads. While that many
+     * drains are blocked, further drains wait for one of them to end.
+     * @param fallbackThreads the int maximum number of platform threads
+     * @return VirtualThreadMailboxPluginConfiguration
+     */
+    public VirtualThreadMailboxPluginConfiguration fallbackThreads(final int fallbackThreads) {
+      this.fallbackThreads = fallbackThreads;
+      return this;
+    }
+
+    public int fallbackThreads() {
+      return fallbackThreads;
+    }
+
+    @Override
+    public void build(final Configuration configuration) {
+      configuration.with(dispatcherThrottlingCount(1));
+    }
+
+    @Override
+    public void buildWith(final Configuration configuration, final PluginProperties properties) {
+      super.buildWith(configuration, properties);
+
+      blockingMaxThreads(properties.getInteger("blockingMaxThreads", 0));
+      this.fallbackThreads = properties.getInteger("fallbackThreads", DefaultFallbackThreads);
+    }
+  }
+}
@@ -8,18 +8,21 @@
 package io.vlingo.xoom.actors.plugin.mailbox.sharedringbuffer;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
-import io.vlingo.xoom.actors.Backoff;
 import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.IdleStrategy;
 import io.vlingo.xoom.actors.Mailbox;
 import io.vlingo.xoom.actors.Message;
 
 public class RingBufferDispatcher extends Thread implements Dispatcher {
-  private final Backoff backoff;
+  private final Message[] batch;
   private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final IdleStrategy idleStrategy;
   private final Mailbox mailbox;
   private final boolean requiresExecutionNotification;
   private final int throttlingCount;
+  private final boolean unparkOnSend;
 
   @Override
   public void close() {
@@ -39,7 +42,11 @@ public class RingBufferDispatcher extends Thread implements Dispatcher {
 
   @Override
   public void execute(final Mailbox mailbox) {
-    interrupt();
+    if (unparkOnSend) {
+      LockSupport.unpark(this);
+    } else {
+      interrupt();
+    }
   }
 
   @Override
@@ -50,8 +57,10 @@ public class RingBufferDispatcher extends Thread implements Dispatcher {
   @Override
   public void run() {
     while (!closed.get()) {
-      if (!deliver()) {
-        backoff.now();
+      if (deliver()) {
+        idleStrategy.reset();
+      } else {
+        idleStrategy.idle();
       }
     }
   }
@@ -62,10 +71,25 @@ public class RingBufferDispatcher extends Thread implements Dispatcher {
   }
 
   RingBufferDispatcher(final int mailboxSize, final long fixedBackoff, final boolean notifyOnSend, final int throttlingCount) {
-    this.backoff = fixedBackoff == 0L ? new Backoff() : new Backoff(fixedBackoff);
+    this(mailboxSize, fixedBackoff, notifyOnSend, throttlingCount, IdleStrategy.of(IdleStrategy.Kind.Backoff, fixedBackoff, 0L), false);
+  }
+
+  /**
+   * Constructs my state.
+   * @param mailboxSize the int size of my ring buffer
+   * @param fixedBackoff the long milliseconds of a fixed Backoff, or 0 if senders must notify me
+   * @param notifyOnSend the boolean indicating whether each send notifies me
+   * @param throttlingCount the int maximum number of messages delivered per pass
+   * @param idleStrategy the IdleStrategy that I use when no messages were delivered
+   * @param unparkOnSend the boolean indicating whether a notification unparks rather than interrupts me
+   */
+  RingBufferDispatcher(final int mailboxSize, final long fixedBackoff, final boolean notifyOnSend, final int throttlingCount, final IdleStrategy idleStrategy, final boolean unparkOnSend) {
+    this.idleStrategy = idleStrategy;
     this.requiresExecutionNotification = fixedBackoff == 0L;
+    this.unparkOnSend = unparkOnSend;
     this.mailbox = new SharedRingBufferMailbox(this, mailboxSize, notifyOnSend);
     this.throttlingCount = throttlingCount;
+    this.batch = new Message[throttlingCount];
   }
 
   protected Mailbox mailbox() {
@@ -73,14 +97,17 @@ public class RingBufferDispatcher extends Thread implements Dispatcher {
   }
 
   private boolean deliver() {
-    for (int idx = 0; idx < throttlingCount; ++idx) {
-      final Message message = mailbox.receive();
-      if (message == null) {
-        return idx > 0; // we delivered at least one message
-      } else {
-        message.deliver();
+    final int count = mailbox.receive(batch, throttlingCount);
+    for (int idx = 0; idx < count; ++idx) {
+      // the first message was admitted as received, but a delivery may suspend the mailbox
+      if (idx > 0 && mailbox.isSuspended()) {
+        mailbox.stowUndelivered(batch, idx, count);
+        break;
       }
+      final Message message = batch[idx];
+      batch[idx] = null;
+      message.deliver();
     }
-    return true;
+    return count > 0;
   }
 }
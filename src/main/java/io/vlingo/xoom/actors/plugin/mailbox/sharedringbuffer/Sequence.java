@@ -0,0 +1,51 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.sharedringbuffer;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A volatile {@code long} sequence that is padded on both sides so that
+ * it occupies its own cache line, preventing false sharing between the
+ * sequences of producers and the consumer of a {@code SharedRingBufferMailbox}.
+ */
+final class Sequence extends SequenceValue {
+  private static final AtomicLongFieldUpdater<SequenceValue> ValueUpdater =
+          AtomicLongFieldUpdater.newUpdater(SequenceValue.class, "value");
+
+  protected long p9, p10, p11, p12, p13, p14, p15;
+
+  Sequence(final long initialValue) {
+    ValueUpdater.set(this, initialValue);
+  }
+
+  long get() {
+    return value;
+  }
+
+  boolean compareAndSet(final long expectedValue, final long newValue) {
+    return ValueUpdater.compareAndSet(this, expectedValue, newValue);
+  }
+
+  void set(final long value) {
+    ValueUpdater.lazySet(this, value);
+  }
+
+  @Override
+  public String toString() {
+    return Long.toString(value);
+  }
+}
+
+abstract class SequenceLeftPadding {
+  protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class SequenceValue extends SequenceLeftPadding {
+  protected volatile long value;
+}
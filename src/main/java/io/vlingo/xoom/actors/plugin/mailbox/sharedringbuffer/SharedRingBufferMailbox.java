@@ -8,25 +8,50 @@
 package io.vlingo.xoom.actors.plugin.mailbox.sharedringbuffer;
 
 import io.vlingo.xoom.actors.*;
+import io.vlingo.xoom.actors.plugin.mailbox.ControlLane;
+import io.vlingo.xoom.actors.plugin.mailbox.EventLoop;
+import io.vlingo.xoom.actors.plugin.mailbox.SuspendedDelivery;
 import io.vlingo.xoom.common.SerializableConsumer;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * A preallocated ring buffer {@code Mailbox} shared by many actors and
+ * serviced by a single {@code RingBufferDispatcher}. Producers claim
+ * sequences independently and publish each slot through an availability
+ * flag that holds the number of times the ring has wrapped, so no producer
+ * waits on another. Delivered slots are cleared and released for reuse
+ * the next time that the dispatcher receives. A producer that finds the
+ * ring full yields and then parks with a growing timeout until released.
+ * Suspension is applied by the dispatcher as it receives, which stows
+ * copies of the suspended messages, including the rest of a received batch
+ * when one of its messages suspends me. Control messages are not preallocated,
+ * but are held in a {@code ControlLane} that is received ahead of the ring.
+ */
 public class SharedRingBufferMailbox implements Mailbox {
+  private static final long MaximumParkNanos = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final int SpinTries = 100;
+
+  private final AtomicIntegerArray available;
   private final AtomicBoolean closed;
+  private final ControlLane controlLane;
   private final Dispatcher dispatcher;
   private final int mailboxSize;
   private final Message[] messages;
   private final boolean notifyOnSend;
-  private final AtomicLong sendIndex;
-  private final AtomicLong readyIndex;
-  private final AtomicLong receiveIndex;
+  private final Sequence receiveIndex;
+  private final Sequence releaseIndex;
+  private final Sequence sendIndex;
+  private final SuspendedDelivery suspendedDelivery;
 
   @Override
   public void close() {
     if (!closed.get()) {
       closed.set(true);
+      controlLane.clear();
       dispatcher.close();
     }
   }
@@ -53,8 +78,9 @@ public class SharedRingBufferMailbox implements Mailbox {
 
   @Override
   public void resume(final String name) {
-    // TODO: Consider supporting Stowage here
-    throw new UnsupportedOperationException("SharedRingBufferMailbox does not support this operation.");
+    if (suspendedDelivery.resume(name) && notifyOnSend) {
+      dispatcher.execute(this);
+    }
   }
 
   @Override
@@ -62,37 +88,48 @@ public class SharedRingBufferMailbox implements Mailbox {
     throw new UnsupportedOperationException("Use preallocated mailbox send(Actor, ...).");
   }
 
+  @Override
+  public void sendControl(final Message message) {
+    controlLane.add(message);
+
+    if (notifyOnSend) {
+      dispatcher.execute(this);
+    }
+  }
+
   @Override
   public void suspendExceptFor(final String name, final Class<?>... overrides) {
-    // TODO: Consider supporting Stowage here
-    throw new UnsupportedOperationException("SharedRingBufferMailbox does not support this operation.");
+    suspendedDelivery.suspendExceptFor(name, overrides);
   }
 
   @Override
   public boolean isSuspended() {
-    return false;
+    return suspendedDelivery.isSuspended();
+  }
+
+  @Override
+  public boolean isSuspendedFor(final String name) {
+    return suspendedDelivery.isSuspendedFor(name);
   }
 
   @Override
   public void send(final Actor actor, final Class<?> protocol, final SerializableConsumer<?> consumer, final Returns<?> returns, final String representation) {
-    final long messageIndex = sendIndex.incrementAndGet();
-    final int ringSendIndex = (int) (messageIndex % mailboxSize);
+    send(actor, protocol, consumer, returns, representation, Deadline.None);
+  }
 
-    int retries = 0;
-    while (ringSendIndex == (int) (receiveIndex.get() % mailboxSize)) {
-      if (++retries >= mailboxSize) {
-        if (closed.get()) {
-          return;
-        } else {
-          retries = 0;
-        }
-      }
+  @Override
+  public void send(final Actor actor, final Class<?> protocol, final SerializableConsumer<?> consumer, final Returns<?> returns, final String representation, final long deadline) {
+    final long messageIndex = claim();
+
+    if (messageIndex < 0) {
+      return;
     }
 
-    messages[ringSendIndex].set(actor, protocol, consumer, returns, representation);
+    final int ringSendIndex = (int) (messageIndex % mailboxSize);
+
+    messages[ringSendIndex].set(actor, protocol, consumer, returns, representation, deadline);
 
-    while (!readyIndex.compareAndSet(messageIndex - 1, messageIndex))
-      ;
+    available.lazySet(ringSendIndex, roundOf(messageIndex));
 
     if (notifyOnSend) {
       dispatcher.execute(this);
@@ -101,15 +138,60 @@ public class SharedRingBufferMailbox implements Mailbox {
 
   @Override
   public Message receive() {
-    final long messageIndex = receiveIndex.get();
+    release();
+
+    if (suspendedDelivery.isEngaged()) {
+      return nextAdmitted();
+    }
+
+    final Message control = controlLane.poll();
+
+    return control != null ? control : next();
+  }
+
+  @Override
+  public int receive(final Message[] into, final int max) {
+    release();
+
+    final int limit = Math.min(max, into.length);
 
-    if (messageIndex < readyIndex.get()) {
-      final int index = (int) (receiveIndex.incrementAndGet() % mailboxSize);
+    int count = 0;
 
-      return messages[index];
+    if (suspendedDelivery.isEngaged()) {
+      // one at a time while suspended, so that a batch never spans a change of overrides
+      final int engagedLimit = suspendedDelivery.isSuspended() ? 1 : limit;
+      while (count < engagedLimit) {
+        final Message message = nextAdmitted();
+        if (message == null) {
+          break;
+        }
+        into[count++] = message;
+      }
+      return count;
     }
 
-    return null;
+    if (!controlLane.isEmpty()) {
+      count = controlLane.receive(into, limit);
+    }
+
+    final long firstIndex = receiveIndex.get() + 1;
+    int received = 0;
+
+    while (count < limit) {
+      final long messageIndex = firstIndex + received;
+      final int index = (int) (messageIndex % mailboxSize);
+      if (available.get(index) != roundOf(messageIndex)) {
+        break;
+      }
+      into[count++] = messages[index];
+      ++received;
+    }
+
+    if (received > 0) {
+      receiveIndex.set(firstIndex + received - 1);
+    }
+
+    return count;
   }
 
   @Override
@@ -117,28 +199,135 @@ public class SharedRingBufferMailbox implements Mailbox {
     throw new UnsupportedOperationException("SharedRingBufferMailbox does not support this operation.");
   }
 
+  /**
+   * Stows copies of the undelivered messages, because their slots are
+   * released for reuse the next time that my dispatcher receives.
+   * @see io.vlingo.xoom.actors.Mailbox#stowUndelivered(io.vlingo.xoom.actors.Message[], int, int)
+   */
+  @Override
+  public void stowUndelivered(final Message[] batch, final int from, final int to) {
+    suspendedDelivery.stowUndelivered(batch, from, to);
+  }
+
   /* @see io.vlingo.xoom.actors.Mailbox#pendingMessages() */
   @Override
   public int pendingMessages() {
-    throw new UnsupportedOperationException("SharedRingBufferMailbox does not support this operation");
+    return depth();
+  }
+
+  /* @see io.vlingo.xoom.actors.Mailbox#depth() */
+  @Override
+  public int depth() {
+    return (int) Math.max(0, sendIndex.get() - 1 - receiveIndex.get()) + controlLane.size() + suspendedDelivery.stowedCount();
   }
 
   protected SharedRingBufferMailbox(final Dispatcher dispatcher, final int mailboxSize, final boolean notifyOnSend) {
     this.dispatcher = dispatcher;
     this.mailboxSize = mailboxSize;
     this.closed = new AtomicBoolean(false);
+    this.controlLane = new ControlLane();
     this.messages = new Message[mailboxSize];
-    this.readyIndex = new AtomicLong(-1);
-    this.receiveIndex = new AtomicLong(-1);
-    this.sendIndex = new AtomicLong(-1);
+    this.available = new AtomicIntegerArray(mailboxSize);
+    this.receiveIndex = new Sequence(-1);
+    this.releaseIndex = new Sequence(-1);
+    this.sendIndex = new Sequence(0);
     this.notifyOnSend = notifyOnSend;
+    this.suspendedDelivery = new SuspendedDelivery(true);
 
     initPreallocated();
   }
 
+  // a sequence is claimed only when its slot is free, so that a waiting
+  // producer never holds a sequence that the dispatcher must wait for
+  private long claim() {
+    int tries = 0;
+    long parkNanos = 1;
+    while (true) {
+      final long messageIndex = sendIndex.get();
+      if (messageIndex - mailboxSize > releaseIndex.get()) {
+        if (closed.get()) {
+          return -1;
+        }
+        if (EventLoop.isDispatchingThread(dispatcher)) {
+          // the dispatcher cannot release slots while it waits on itself
+          throw new IllegalStateException("Could not send message due to full mailbox.");
+        }
+        if (tries < SpinTries) {
+          ++tries;
+          Thread.yield();
+        } else {
+          LockSupport.parkNanos(parkNanos);
+          parkNanos = Math.min(parkNanos << 1, MaximumParkNanos);
+        }
+      } else if (sendIndex.compareAndSet(messageIndex, messageIndex + 1)) {
+        return messageIndex;
+      }
+    }
+  }
+
   private void initPreallocated() {
     for (int idx = 0; idx < mailboxSize; ++idx) {
       messages[idx] = new LocalMessage<>(this);
+      available.set(idx, -1);
     }
   }
+
+  private Message next() {
+    final long messageIndex = receiveIndex.get() + 1;
+    final int index = (int) (messageIndex % mailboxSize);
+
+    if (available.get(index) != roundOf(messageIndex)) {
+      return null;
+    }
+
+    receiveIndex.set(messageIndex);
+
+    return messages[index];
+  }
+
+  private Message nextAdmitted() {
+    final Message stowed = suspendedDelivery.next();
+
+    if (stowed != null) {
+      return stowed;
+    }
+
+    for (Message message = controlLane.poll(); message != null; message = controlLane.poll()) {
+      final Message admitted = suspendedDelivery.admit(message);
+      if (admitted != null) {
+        return admitted;
+      }
+    }
+
+    for (Message message = next(); message != null; message = next()) {
+      final Message admitted = suspendedDelivery.admit(message);
+      if (admitted != null) {
+        return admitted;
+      }
+    }
+
+    return null;
+  }
+
+  // the dispatcher receives again only after delivering all previously received
+  // messages, so their slots may then be cleared and reused by producers
+  private void release() {
+    final long received = receiveIndex.get();
+    long released = releaseIndex.get();
+
+    if (released == received) {
+      return;
+    }
+
+    while (released < received) {
+      ++released;
+      messages[(int) (released % mailboxSize)].set(null, null, null, null, null);
+    }
+
+    releaseIndex.set(received);
+  }
+
+  private int roundOf(final long messageIndex) {
+    return (int) (messageIndex / mailboxSize);
+  }
 }
@@ -7,12 +7,17 @@
 
 package io.vlingo.xoom.actors.plugin.mailbox.sharedringbuffer;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.vlingo.xoom.actors.Configuration;
+import io.vlingo.xoom.actors.Definition;
 import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.IdleStrategy;
+import io.vlingo.xoom.actors.IdleStrategy.Kind;
 import io.vlingo.xoom.actors.Mailbox;
 import io.vlingo.xoom.actors.MailboxProvider;
 import io.vlingo.xoom.actors.Registrar;
@@ -20,19 +25,26 @@ import io.vlingo.xoom.actors.plugin.AbstractPlugin;
 import io.vlingo.xoom.actors.plugin.Plugin;
 import io.vlingo.xoom.actors.plugin.PluginConfiguration;
 import io.vlingo.xoom.actors.plugin.PluginProperties;
+import io.vlingo.xoom.actors.plugin.mailbox.EventLoop;
 
 public class SharedRingBufferMailboxPlugin extends AbstractPlugin implements Plugin, MailboxProvider {
   private final SharedRingBufferMailboxPluginConfiguration configuration;
   private final Map<Integer, RingBufferDispatcher> dispatchers;
+  private EventLoop[] eventLoops;
+  private final AtomicInteger nextEventLoop;
 
   public SharedRingBufferMailboxPlugin() {
     this.configuration = new SharedRingBufferMailboxPluginConfiguration();
     this.dispatchers = new ConcurrentHashMap<>(1);
+    this.nextEventLoop = new AtomicInteger(0);
   }
 
   @Override
   public void close() {
     dispatchers.values().stream().forEach(dispatcher -> dispatcher.close());
+    if (eventLoops != null) {
+      Arrays.stream(eventLoops).forEach(eventLoop -> eventLoop.close());
+    }
   }
 
   @Override
@@ -52,6 +64,19 @@ public class SharedRingBufferMailboxPlugin extends AbstractPlugin implements Plu
 
   @Override
   public void start(final Registrar registrar) {
+    if (configuration.eventLoops() > 0) {
+      eventLoops = new EventLoop[configuration.eventLoops()];
+      for (int idx = 0; idx < eventLoops.length; ++idx) {
+        eventLoops[idx] =
+                new EventLoop(
+                        configuration.name() + "-eventLoop-" + idx,
+                        configuration.fixedBackoff(),
+                        configuration.dispatcherThrottlingCount(),
+                        IdleStrategy.of(configuration.idleStrategy(), configuration.fixedBackoff(), configuration.maxParkNanos()),
+                        configuration.unparkOnSend());
+        eventLoops[idx].start();
+      }
+    }
     registrar.register(configuration.name(), configuration.isDefaultMailbox(), this);
   }
 
@@ -66,27 +91,52 @@ public class SharedRingBufferMailboxPlugin extends AbstractPlugin implements Plu
   private SharedRingBufferMailboxPlugin(final PluginConfiguration configuration) {
     this.configuration = (SharedRingBufferMailboxPluginConfiguration) configuration;
     this.dispatchers = new ConcurrentHashMap<>(1);
+    this.nextEventLoop = new AtomicInteger(0);
   }
 
   @Override
   public Mailbox provideMailboxFor(final int hashCode) {
-    return provideMailboxFor(hashCode, null);
+    if (eventLoops != null) {
+      return eventLoopMailbox(configuration.ringSize());
+    }
+    return dedicatedMailbox(hashCode, configuration.ringSize());
   }
 
   @Override
   public Mailbox provideMailboxFor(final int hashCode, final Dispatcher dispatcher) {
-    final RingBufferDispatcher maybeDispatcher =
-            dispatcher != null ?
-                    (RingBufferDispatcher) dispatcher :
-                    dispatchers.get(hashCode);
+    if (dispatcher != null) {
+      return ((RingBufferDispatcher) dispatcher).mailbox();
+    }
+    return provideMailboxFor(hashCode);
+  }
+
+  @Override
+  public Mailbox provideMailboxFor(final int hashCode, final Definition definition) {
+    final int ringSize = definition.mailboxCapacity() > 0 ? definition.mailboxCapacity() : configuration.ringSize();
+
+    if (eventLoops != null) {
+      return eventLoopMailbox(ringSize);
+    }
+    return dedicatedMailbox(hashCode, ringSize);
+  }
+
+  @Override
+  public void __internal_Only_Init(final String name, final Configuration configuration, final Properties properties) {
+    // no-op
+  }
+
+  private Mailbox dedicatedMailbox(final int hashCode, final int ringSize) {
+    final RingBufferDispatcher maybeDispatcher = dispatchers.get(hashCode);
 
     if (maybeDispatcher == null) {
       final RingBufferDispatcher newDispatcher =
               new RingBufferDispatcher(
-                      configuration.ringSize(),
+                      ringSize,
                       configuration.fixedBackoff(),
                       configuration.notifyOnSend(),
-                      configuration.dispatcherThrottlingCount());
+                      configuration.dispatcherThrottlingCount(),
+                      IdleStrategy.of(configuration.idleStrategy(), configuration.fixedBackoff(), configuration.maxParkNanos()),
+                      configuration.unparkOnSend());
 
       final RingBufferDispatcher otherDispatcher =
               dispatchers.putIfAbsent(hashCode, newDispatcher);
@@ -103,18 +153,23 @@ public class SharedRingBufferMailboxPlugin extends AbstractPlugin implements Plu
     return maybeDispatcher.mailbox();
   }
 
-  @Override
-  public void __internal_Only_Init(final String name, final Configuration configuration, final Properties properties) {
-    // no-op
+  private Mailbox eventLoopMailbox(final int ringSize) {
+    final EventLoop eventLoop = eventLoops[Math.floorMod(nextEventLoop.getAndIncrement(), eventLoops.length)];
+
+    return eventLoop.register(dispatcher -> new SharedRingBufferMailbox(dispatcher, ringSize, configuration.notifyOnSend()));
   }
 
   public static class SharedRingBufferMailboxPluginConfiguration implements PluginConfiguration {
     private boolean defaultMailbox;
     private int dispatcherThrottlingCount;
+    private int eventLoops;
     private int fixedBackoff;
+    private Kind idleStrategy = Kind.Backoff;
+    private long maxParkNanos = 1_000_000L;
     private String name = "ringMailbox";
     private boolean notifyOnSend;
     private int ringSize;
+    private boolean unparkOnSend;
 
     public static SharedRingBufferMailboxPluginConfiguration define() {
       return new SharedRingBufferMailboxPluginConfiguration();
@@ -138,6 +193,21 @@ public class SharedRingBufferMailboxPlugin extends AbstractPlugin implements Plu
       return dispatcherThrottlingCount;
     }
 
+    /**
+     * Answers myself after setting the number of {@code EventLoop} threads that
+     * service all of my mailboxes, or 0 for one dispatcher thread per mailbox.
+     * @param eventLoops the int number of event loop threads
+     * @return SharedRingBufferMailboxPluginConfiguration
+     */
+    public SharedRingBufferMailboxPluginConfiguration eventLoops(final int eventLoops) {
+      this.eventLoops = eventLoops;
+      return this;
+    }
+
+    public int eventLoops() {
+      return eventLoops;
+    }
+
     public SharedRingBufferMailboxPluginConfiguration fixedBackoff(final int fixedBackoff) {
       this.fixedBackoff = fixedBackoff;
       return this;
@@ -147,6 +217,38 @@ public class SharedRingBufferMailboxPlugin extends AbstractPlugin implements Plu
       return fixedBackoff;
     }
 
+    /**
+     * Answers myself after setting the kind of {@code IdleStrategy} used by my
+     * dispatcher threads when they find no messages. {@code Backoff} sleeps for
+     * milliseconds, as given by my {@code fixedBackoff}, and the other kinds spin,
+     * yield or park for nanoseconds.
+     * @param idleStrategy the Kind of IdleStrategy
+     * @return SharedRingBufferMailboxPluginConfiguration
+     */
+    public SharedRingBufferMailboxPluginConfiguration idleStrategy(final Kind idleStrategy) {
+      this.idleStrategy = idleStrategy;
+      return this;
+    }
+
+    public Kind idleStrategy() {
+      return idleStrategy;
+    }
+
+    /**
+     * Answers myself after setting the maximum nanoseconds that a {@code Parking}
+     * or {@code Composite} idle strategy parks before checking for messages again.
+     * @param maxParkNanos the long maximum nanoseconds
+     * @return SharedRingBufferMailboxPluginConfiguration
+     */
+    public SharedRingBufferMailboxPluginConfiguration maxParkNanos(final long maxParkNanos) {
+      this.maxParkNanos = maxParkNanos;
+      return this;
+    }
+
+    public long maxParkNanos() {
+      return maxParkNanos;
+    }
+
     public SharedRingBufferMailboxPluginConfiguration notifyOnSend(final boolean notifyOnSend) {
       this.notifyOnSend = notifyOnSend;
       return this;
@@ -165,6 +267,22 @@ public class SharedRingBufferMailboxPlugin extends AbstractPlugin implements Plu
       return ringSize;
     }
 
+    /**
+     * Answers myself after setting whether a send that notifies a dispatcher
+     * thread unparks it rather than interrupts it, which wakes a parked idle
+     * strategy without leaving the thread interrupted.
+     * @param unparkOnSend the boolean indicating whether to unpark
+     * @return SharedRingBufferMailboxPluginConfiguration
+     */
+    public SharedRingBufferMailboxPluginConfiguration unparkOnSend(final boolean unparkOnSend) {
+      this.unparkOnSend = unparkOnSend;
+      return this;
+    }
+
+    public boolean unparkOnSend() {
+      return unparkOnSend;
+    }
+
     @Override
     public void build(final Configuration configuration) {
       configuration.with(ringSize(65535).fixedBackoff(2).notifyOnSend(false).dispatcherThrottlingCount(10));
@@ -175,9 +293,13 @@ public class SharedRingBufferMailboxPlugin extends AbstractPlugin implements Plu
       this.name = properties.name;
       this.defaultMailbox = properties.getBoolean("defaultMailbox", false);
       this.dispatcherThrottlingCount = properties.getInteger("dispatcherThrottlingCount", 1);
+      this.eventLoops = properties.getInteger("eventLoops", 0);
       this.fixedBackoff = properties.getInteger("fixedBackoff", 2);
+      this.idleStrategy = Kind.valueOf(properties.getString("idleStrategy", Kind.Backoff.name()));
+      this.maxParkNanos = properties.getLong("maxParkNanos", 1_000_000L);
       this.notifyOnSend = properties.getBoolean("notifyOnSend", false);
       this.ringSize = properties.getInteger("size", 65535);
+      this.unparkOnSend = properties.getBoolean("unparkOnSend", false);
       configuration.with(this);
     }
 
@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Queue;
 import java.util.Stack;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class TestMailbox implements Mailbox {
@@ -24,6 +25,7 @@ public class TestMailbox implements Mailbox {
 
   private final List<String> lifecycleMessages = Arrays.asList("start", "afterStop", "beforeRestart", "afterRestart");
   private boolean closed;
+  private final AtomicInteger depth;
   private final Queue<Message> queue;
   private AtomicReference<Stack<List<Class<?>>>> suspendedOverrides;
   private final TestWorld world;
@@ -31,6 +33,7 @@ public class TestMailbox implements Mailbox {
   public TestMailbox() {
     this.world = TestWorld.Instance.get();
     this.queue = new ConcurrentLinkedQueue<>();
+    this.depth = new AtomicInteger(0);
     this.suspendedOverrides = new AtomicReference<>(new Stack<>());
   }
 
@@ -77,6 +80,7 @@ public class TestMailbox implements Mailbox {
       }
 
       if (isSuspended()) {
+        depth.incrementAndGet();
         queue.add(message);
         return;
       } else {
@@ -113,13 +117,20 @@ public class TestMailbox implements Mailbox {
   /* @see io.vlingo.xoom.actors.Mailbox#pendingMessages() */
   @Override
   public int pendingMessages() {
-    throw new UnsupportedOperationException("TestMailbox does not support this operation");
+    return depth();
+  }
+
+  /* @see io.vlingo.xoom.actors.Mailbox#depth() */
+  @Override
+  public int depth() {
+    return depth.get();
   }
 
   private void resumeAll() {
     while (!queue.isEmpty()) {
       final Message queued = queue.poll();
       if (queued != null) {
+        depth.decrementAndGet();
         final Actor actor = queued.actor();
         if (actor != null) {
           actor.viewTestStateInitialization(null);
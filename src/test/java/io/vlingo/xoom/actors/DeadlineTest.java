@@ -0,0 +1,52 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DeadlineTest {
+  @Test
+  public void testThatNoDeadlineIsNone() {
+    assertEquals(Deadline.None, Deadline.after(0));
+    assertEquals(Deadline.None, new LocalMessage<Object>(null, Object.class, null, "none()").withTimeToLive(0).deadline());
+  }
+
+  @Test
+  public void testThatTimeToLiveSetsDeadline() {
+    final long deadline = Deadline.after(60_000);
+
+    assertNotEquals(Deadline.None, deadline);
+    assertFalse(Deadline.hasPassed(deadline));
+    assertTrue(Deadline.hasPassed(System.nanoTime() - 1));
+  }
+
+  @Test
+  public void testThatEarliestScopedDeadlineApplies() {
+    final long outer = Deadline.within(60_000, () -> Deadline.after(0));
+    final long inner = Deadline.within(60_000, () -> Deadline.within(10, () -> Deadline.after(0)));
+    final long annotated = Deadline.within(60_000, () -> Deadline.after(10));
+
+    assertTrue(inner - outer < 0);
+    assertTrue(annotated - outer < 0);
+    assertEquals(Deadline.None, Deadline.after(0));
+  }
+
+  @Test
+  public void testThatPassedDeadlineIsExpired() throws Exception {
+    final LocalMessage<Object> message = Deadline.within(1, () -> new LocalMessage<Object>(null, Object.class, null, "late()").withTimeToLive(0));
+
+    Thread.sleep(5);
+
+    assertTrue(Deadline.hasPassed(message.deadline()));
+  }
+}
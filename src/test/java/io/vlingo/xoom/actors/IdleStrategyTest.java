@@ -0,0 +1,124 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.IdleStrategy.Kind;
+
+public class IdleStrategyTest {
+  @Test
+  public void testThatKindsAreCreated() {
+    assertTrue(IdleStrategy.of(Kind.Backoff, 0L, 0L) instanceof Backoff);
+    assertTrue(IdleStrategy.of(Kind.BusySpin, 0L, 0L) instanceof IdleStrategy.BusySpin);
+    assertTrue(IdleStrategy.of(Kind.SpinThenYield, 0L, 0L) instanceof IdleStrategy.SpinThenYield);
+    assertTrue(IdleStrategy.of(Kind.Parking, 0L, 1_000L) instanceof IdleStrategy.Parking);
+    assertTrue(IdleStrategy.of(Kind.Composite, 0L, 1_000L) instanceof IdleStrategy.Composite);
+  }
+
+  @Test
+  public void testThatCompositeEscalatesThroughPhasesAndResets() {
+    final List<String> calls = new ArrayList<>();
+    final IdleStrategy composite =
+            new IdleStrategy.Composite(
+                    new IdleStrategy[] { new Recording("spin", calls), new Recording("yield", calls), new Recording("park", calls) },
+                    new int[] { 2, 1 });
+
+    for (int count = 0; count < 5; ++count) {
+      composite.idle();
+    }
+
+    assertEquals("[spin, spin, yield, park, park]", calls.toString());
+
+    calls.clear();
+    composite.reset();
+    composite.idle();
+
+    assertEquals("[reset-spin, reset-yield, reset-park, spin]", calls.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatCompositeRequiresCountPerPhase() {
+    new IdleStrategy.Composite(new IdleStrategy[] { new IdleStrategy.BusySpin() }, new int[] { 1 });
+  }
+
+  @Test
+  public void testThatParkingIsWokenByUnpark() throws Exception {
+    final CountDownLatch parking = new CountDownLatch(1);
+    final CountDownLatch woken = new CountDownLatch(1);
+
+    final Thread thread = new Thread(() -> {
+      final IdleStrategy parkingStrategy = new IdleStrategy.Parking(TimeUnit.SECONDS.toNanos(30), TimeUnit.SECONDS.toNanos(30));
+      parking.countDown();
+      parkingStrategy.idle();
+      woken.countDown();
+    });
+
+    thread.start();
+
+    assertTrue(parking.await(5, TimeUnit.SECONDS));
+
+    while (woken.getCount() > 0) {
+      LockSupport.unpark(thread);
+      woken.await(10, TimeUnit.MILLISECONDS);
+    }
+
+    thread.join(5_000);
+
+    assertFalse(thread.isAlive());
+  }
+
+  @Test
+  public void testThatBackoffIsWokenByUnpark() throws Exception {
+    final CountDownLatch woken = new CountDownLatch(1);
+
+    final Thread thread = new Thread(() -> {
+      new Backoff(30_000L).idle();
+      woken.countDown();
+    });
+
+    thread.start();
+
+    while (woken.getCount() > 0) {
+      LockSupport.unpark(thread);
+      woken.await(10, TimeUnit.MILLISECONDS);
+    }
+
+    assertEquals(0, woken.getCount());
+  }
+
+  private static class Recording implements IdleStrategy {
+    private final List<String> calls;
+    private final String name;
+
+    Recording(final String name, final List<String> calls) {
+      this.calls = calls;
+      this.name = name;
+    }
+
+    @Override
+    public void idle() {
+      calls.add(name);
+    }
+
+    @Override
+    public void reset() {
+      calls.add("reset-" + name);
+    }
+  }
+}
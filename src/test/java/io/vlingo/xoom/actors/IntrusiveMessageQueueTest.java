@@ -0,0 +1,102 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+public class IntrusiveMessageQueueTest {
+
+  @Test
+  public void testThatMessagesPollInOrder() {
+    final IntrusiveMessageQueue queue = new IntrusiveMessageQueue();
+
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+
+    final List<Message> messages = new ArrayList<>();
+    for (int count = 0; count < 10; ++count) {
+      final Message message = messageOf(count);
+      messages.add(message);
+      queue.add(message);
+    }
+
+    assertFalse(queue.isEmpty());
+    assertEquals(10, queue.size());
+    assertSame(messages.get(0), queue.peek());
+
+    for (final Message message : messages) {
+      assertSame(message, queue.poll());
+    }
+
+    assertTrue(queue.isEmpty());
+    assertEquals(0, queue.size());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void testThatQueueIsReusableAfterDraining() {
+    final IntrusiveMessageQueue queue = new IntrusiveMessageQueue();
+
+    for (int round = 0; round < 3; ++round) {
+      final Message message = messageOf(round);
+      queue.add(message);
+      assertSame(message, queue.poll());
+      assertTrue(queue.isEmpty());
+    }
+  }
+
+  @Test
+  public void testThatManyProducersOneConsumerLosesNothing() throws Exception {
+    final int producers = 4;
+    final int total = 25_000;
+    final IntrusiveMessageQueue queue = new IntrusiveMessageQueue();
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Thread> threads = new ArrayList<>();
+
+    for (int producer = 0; producer < producers; ++producer) {
+      final Thread thread = new Thread(() -> {
+        try { start.await(); } catch (InterruptedException e) { }
+        for (int count = 0; count < total; ++count) {
+          queue.add(messageOf(count));
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+
+    start.countDown();
+
+    int received = 0;
+    while (received < producers * total) {
+      if (queue.poll() != null) {
+        ++received;
+      }
+    }
+
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(producers * total, received);
+    assertTrue(queue.isEmpty());
+  }
+
+  private Message messageOf(final int count) {
+    return new LocalMessage<Object>(null, Object.class, null, "message-" + count);
+  }
+}
@@ -0,0 +1,115 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import io.vlingo.xoom.common.SerializableConsumer;
+
+public class MailboxTest {
+  @Test
+  public void testThatControlMessageIsSetIntoPreallocatedElement() {
+    final PreallocatedMailbox mailbox = new PreallocatedMailbox();
+    final SerializableConsumer<Stoppable> consumer = (actor) -> actor.stop();
+    final long deadline = Deadline.after(1_000L);
+
+    mailbox.sendControl(new LocalMessage<Stoppable>(null, Stoppable.class, consumer, "stop()").withDeadline(deadline));
+
+    assertNull(mailbox.sent);
+    assertSame(Stoppable.class, mailbox.element.protocol());
+    assertSame(consumer, mailbox.element.consumer());
+    assertEquals("stop()", mailbox.element.representation());
+    assertEquals(deadline, mailbox.element.deadline());
+  }
+
+  @Test
+  public void testThatControlMessageIsSentWhenNotPreallocated() {
+    final PreallocatedMailbox mailbox = new PreallocatedMailbox(false);
+    final LocalMessage<Stoppable> message = new LocalMessage<Stoppable>(null, Stoppable.class, (actor) -> actor.stop(), "stop()");
+
+    mailbox.sendControl(message);
+
+    assertSame(message, mailbox.sent);
+  }
+
+  private static class PreallocatedMailbox implements Mailbox {
+    private final LocalMessage<?> element;
+    private final boolean preallocated;
+    private Message sent;
+
+    PreallocatedMailbox(final boolean preallocated) {
+      this.preallocated = preallocated;
+      this.element = preallocated ? new LocalMessage<>(this) : null;
+    }
+
+    PreallocatedMailbox() {
+      this(true);
+    }
+
+    @Override
+    public boolean isPreallocated() {
+      return preallocated;
+    }
+
+    @Override
+    public void send(final Actor actor, final Class<?> protocol, final SerializableConsumer<?> consumer, final Returns<?> returns, final String representation, final long deadline) {
+      element.set(actor, protocol, consumer, returns, representation, deadline);
+    }
+
+    @Override
+    public void send(final Message message) {
+      sent = message;
+    }
+
+    @Override
+    public void run() { }
+
+    @Override
+    public void close() { }
+
+    @Override
+    public boolean isClosed() {
+      return false;
+    }
+
+    @Override
+    public boolean isDelivering() {
+      return false;
+    }
+
+    @Override
+    public int concurrencyCapacity() {
+      return 1;
+    }
+
+    @Override
+    public void resume(final String name) { }
+
+    @Override
+    public void suspendExceptFor(final String name, final Class<?>... overrides) { }
+
+    @Override
+    public boolean isSuspended() {
+      return false;
+    }
+
+    @Override
+    public Message receive() {
+      return null;
+    }
+
+    @Override
+    public int pendingMessages() {
+      return 0;
+    }
+  }
+}
@@ -16,6 +16,7 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -114,6 +115,52 @@ public class ProxyGeneratorTest {
         proxyGenerator.generateFor(ProtocolUsingAnnotationDirectly.class.getCanonicalName());
     }
 
+    @Test
+    public void testThatPriorityIsBakedIntoSend() {
+        ProxyGenerator.Result result = proxyGenerator.generateFor(ProtocolWithPriority.class.getCanonicalName());
+
+        assertTrue("Priority is not baked into send", Pattern.compile("consumer, cancelRepresentation\\d+\\)\\.withPriority\\(0\\)\\.withTimeToLive\\(0L\\)\\);").matcher(result.source).find());
+        assertTrue("Priority is not baked into send", Pattern.compile("consumer, probeRepresentation\\d+\\)\\.withPriority\\(1\\)\\.withTimeToLive\\(0L\\)\\);").matcher(result.source).find());
+        assertTrue("Unannotated method has a priority", Pattern.compile("consumer, processRepresentation\\d+\\)\\.withTimeToLive\\(0L\\)\\);").matcher(result.source).find());
+    }
+
+    @Test
+    public void testThatConflationKeyIsBakedIntoSend() {
+        ProxyGenerator.Result result = proxyGenerator.generateFor(ProtocolWithConflationKey.class.getCanonicalName());
+
+        assertTrue("Conflation key is not baked into send", Pattern.compile("consumer, priceRepresentation\\d+\\)\\.withConflationKey\\((symbol|arg0)\\)\\.withTimeToLive\\(0L\\)\\);").matcher(result.source).find());
+        assertTrue("Unannotated method has a conflation key", Pattern.compile("consumer, haltRepresentation\\d+\\)\\.withTimeToLive\\(0L\\)\\);").matcher(result.source).find());
+    }
+
+    @Test(expected = InvalidProtocolException.class)
+    public void testThatConflationKeyOnMethodWithResultFails() {
+        proxyGenerator.generateFor(ProtocolWithConflationKeyAndResult.class.getCanonicalName());
+    }
+
+    @Test
+    public void testThatTimeToLiveIsBakedIntoSend() {
+        ProxyGenerator.Result result = proxyGenerator.generateFor(ProtocolWithTimeToLive.class.getCanonicalName());
+
+        assertTrue("Time to live is not baked into send", Pattern.compile("consumer, quoteRepresentation\\d+\\)\\.withTimeToLive\\(250L\\)\\);").matcher(result.source).find());
+        assertTrue("Unannotated method has a time to live", Pattern.compile("consumer, resetRepresentation\\d+\\)\\.withTimeToLive\\(0L\\)\\);").matcher(result.source).find());
+    }
+
+    @Test
+    public void testThatBlockingIsBakedIntoSend() {
+        ProxyGenerator.Result result = proxyGenerator.generateFor(ProtocolWithBlocking.class.getCanonicalName());
+
+        assertTrue("Blocking is not baked into send", Pattern.compile("consumer, readRepresentation\\d+\\)\\.withTimeToLive\\(0L\\)\\.withBlocking\\(\\)\\);").matcher(result.source).find());
+        assertTrue("Unannotated method is blocking", Pattern.compile("consumer, cachedRepresentation\\d+\\)\\.withTimeToLive\\(0L\\)\\);").matcher(result.source).find());
+    }
+
+    @Test
+    public void testThatStopIsSentThroughControlLane() {
+        ProxyGenerator.Result result = proxyGenerator.generateFor(ProtocolExtendsStoppable.class.getCanonicalName());
+
+        assertTrue("Stop is not sent through control lane", Pattern.compile("mailbox\\.sendControl\\(new LocalMessage<ProtocolExtendsStoppable>\\(actor, ProtocolExtendsStoppable\\.class, consumer, stopRepresentation\\d+\\)\\);").matcher(result.source).find());
+        assertFalse("Conclude is sent through control lane", Pattern.compile("sendControl\\([^;]*concludeRepresentation").matcher(result.source).find());
+    }
+
     @Test
     public void testThatProxyImplementsProxy() {
       ProxyGenerator.Result result = proxyGenerator.generateFor(ProtocolWithGenerics.class.getCanonicalName());
@@ -154,6 +201,35 @@ interface ProtocolWithPrimitive {
     List<Boolean> shouldNotCompileEither();
 }
 
+interface ProtocolWithPriority {
+    @Priority
+    void cancel();
+    @Priority(1)
+    void probe();
+    void process(final int data);
+}
+
+interface ProtocolWithConflationKey {
+    void price(@ConflationKey final String symbol, final double price);
+    void halt();
+}
+
+interface ProtocolWithConflationKeyAndResult {
+    Completes<Double> price(@ConflationKey final String symbol);
+}
+
+interface ProtocolWithTimeToLive {
+    @TimeToLive(250)
+    void quote(final String symbol);
+    void reset();
+}
+
+interface ProtocolWithBlocking {
+    @Blocking
+    void read(final String path);
+    void cached(final String path);
+}
+
 interface ProtocolExtendsStoppable extends Stoppable {}
 @SafeProxyGenerable
 interface ProtocolUsingAnnotationDirectly {
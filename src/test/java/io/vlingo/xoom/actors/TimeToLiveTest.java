@@ -0,0 +1,150 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.testkit.AccessSafely;
+
+public class TimeToLiveTest extends ActorsTest {
+  @Test
+  public void testThatExpiredMessagesAreDeadLettered() throws Exception {
+    assertExpiredMessagesAreDeadLettered("queueMailbox");
+  }
+
+  @Test
+  public void testThatExpiredMessagesAreDeadLetteredByPreallocatedMailbox() throws Exception {
+    assertExpiredMessagesAreDeadLettered("ringMailbox");
+  }
+
+  private void assertExpiredMessagesAreDeadLettered(final String mailboxName) throws Exception {
+    final CountDownLatch holding = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final Results results = new Results(2, 1);
+
+    world.deadLetters().registerListener(results);
+
+    final Quoter quoter = world.actorFor(Quoter.class, Definition.has(QuoterActor.class, Definition.parameters(results, holding, release), mailboxName, "quoter"));
+
+    final long expiredBefore = world.stage().expiredMessages();
+
+    quoter.hold();
+    assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+    quoter.quote("annotated");
+    Deadline.within(1, () -> quoter.price("scoped"));
+    quoter.price("unexpired");
+
+    Thread.sleep(10);
+    release.countDown();
+
+    assertEquals("unexpired", results.quoteAt(0));
+    assertEquals(2, (int) results.deadLetterCount());
+    assertEquals(DeadLetter.Reason.Expired, results.deadLetterFor("quote(").reason);
+    assertEquals(DeadLetter.Reason.Expired, results.deadLetterFor("price(").reason);
+    assertEquals(1, (int) results.quoteCount());
+    assertEquals(expiredBefore + 2, world.stage().expiredMessages());
+  }
+
+  public static interface Quoter {
+    void hold();
+    @TimeToLive(1)
+    void quote(final String symbol);
+    void price(final String symbol);
+  }
+
+  public static class QuoterActor extends Actor implements Quoter {
+    private final CountDownLatch holding;
+    private final CountDownLatch release;
+    private final Results results;
+
+    public QuoterActor(final Results results, final CountDownLatch holding, final CountDownLatch release) {
+      this.holding = holding;
+      this.release = release;
+      this.results = results;
+    }
+
+    @Override
+    public void hold() {
+      holding.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        // released by the end of the test
+      }
+    }
+
+    @Override
+    public void quote(final String symbol) {
+      results.quoted(symbol);
+    }
+
+    @Override
+    public void price(final String symbol) {
+      results.quoted(symbol);
+    }
+  }
+
+  private static class Results implements DeadLettersListener {
+    private final AccessSafely deadLetters;
+    private final AccessSafely quotes;
+
+    private Results(final int deadLetters, final int quotes) {
+      final List<DeadLetter> expired = new ArrayList<>();
+      this.deadLetters = AccessSafely
+              .afterCompleting(deadLetters)
+              .writingWith("deadLetters", (Consumer<DeadLetter>) expired::add)
+              .readingWith("deadLetterCount", expired::size)
+              .readingWith("deadLetter", (String representation) ->
+                      expired.stream().filter(deadLetter -> deadLetter.representation.startsWith(representation)).findFirst().orElse(null));
+
+      final List<String> quoted = new ArrayList<>();
+      this.quotes = AccessSafely
+              .afterCompleting(quotes)
+              .writingWith("quotes", (Consumer<String>) quoted::add)
+              .readingWith("quoteCount", quoted::size)
+              .readingWith("quote", (Integer index) -> quoted.get(index));
+    }
+
+    @Override
+    public void handle(final DeadLetter deadLetter) {
+      if (deadLetter.reason == DeadLetter.Reason.Expired) {
+        deadLetters.writeUsing("deadLetters", deadLetter);
+      }
+    }
+
+    void quoted(final String symbol) {
+      quotes.writeUsing("quotes", symbol);
+    }
+
+    Integer deadLetterCount() {
+      return deadLetters.readFrom("deadLetterCount");
+    }
+
+    DeadLetter deadLetterFor(final String representation) {
+      return deadLetters.readFrom("deadLetter", representation);
+    }
+
+    Integer quoteCount() {
+      return quotes.readFrom("quoteCount");
+    }
+
+    String quoteAt(final int index) {
+      return quotes.readFrom("quote", index);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.Startable;
+import io.vlingo.xoom.actors.Stoppable;
+import io.vlingo.xoom.actors.plugin.mailbox.SuspendedDeliveryOverrides.Overrides;
+
+public class SuspendedDeliveryOverridesTest {
+  @Test
+  public void testThatTopOverridesMatch() {
+    final SuspendedDeliveryOverrides overrides = new SuspendedDeliveryOverrides();
+
+    assertTrue(overrides.isEmpty());
+    assertNull(overrides.peek());
+    assertFalse(overrides.matchesTop(Stoppable.class));
+
+    overrides.push(new Overrides("first", new Class<?>[] { Stoppable.class, Startable.class }));
+    overrides.push(new Overrides("second", new Class<?>[] { Object.class }));
+
+    assertFalse(overrides.isEmpty());
+    assertEquals("first", overrides.peek().name);
+    assertTrue(overrides.matchesTop(Stoppable.class));
+    assertTrue(overrides.matchesTop(Startable.class));
+    assertFalse(overrides.matchesTop(Object.class));
+
+    assertTrue(overrides.pop("first"));
+    assertTrue(overrides.matchesTop(Object.class));
+    assertTrue(overrides.pop("second"));
+    assertTrue(overrides.isEmpty());
+  }
+
+  @Test
+  public void testThatPopOfUnknownNameDoesNotBlock() {
+    final SuspendedDeliveryOverrides overrides = new SuspendedDeliveryOverrides();
+
+    overrides.push(new Overrides("known", new Class<?>[] { Stoppable.class }));
+
+    assertFalse(overrides.pop("unknown"));
+    assertFalse(overrides.pop("unknown"));
+    assertEquals(1, overrides.find("known").size());
+    assertTrue(overrides.pop("known"));
+    assertTrue(overrides.isEmpty());
+  }
+}
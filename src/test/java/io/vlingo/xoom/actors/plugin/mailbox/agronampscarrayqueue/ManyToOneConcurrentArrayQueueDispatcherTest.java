@@ -8,8 +8,15 @@
 package io.vlingo.xoom.actors.plugin.mailbox.agronampscarrayqueue;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import org.junit.Test;
 
@@ -17,10 +24,13 @@ import io.vlingo.xoom.actors.Actor;
 import io.vlingo.xoom.actors.ActorsTest;
 import io.vlingo.xoom.actors.LocalMessage;
 import io.vlingo.xoom.actors.Mailbox;
+import io.vlingo.xoom.actors.Stoppable;
+import io.vlingo.xoom.actors.plugin.mailbox.EventLoop;
 import io.vlingo.xoom.actors.testkit.AccessSafely;
 import io.vlingo.xoom.common.SerializableConsumer;
 
 public class ManyToOneConcurrentArrayQueueDispatcherTest extends ActorsTest {
+  private static final String Paused = "paused#";
   private static final int MailboxSize = 64;
 
   @Test
@@ -117,6 +127,139 @@ public class ManyToOneConcurrentArrayQueueDispatcherTest extends ActorsTest {
     assertEquals(mailboxSize, testResults.getHighest());
   }
 
+  @Test
+  public void testEventLoopDispatch() {
+    final int mailboxes = 10;
+    final int total = mailboxes * 10;
+    final TestResults testResults = new TestResults(total);
+
+    final EventLoop eventLoop = new EventLoop("arrayQueueMailbox-eventLoop-test", 2, 1);
+
+    final Mailbox[] all = new Mailbox[mailboxes];
+
+    for (int idx = 0; idx < mailboxes; ++idx) {
+      all[idx] = eventLoop.register(dispatcher -> new ManyToOneConcurrentArrayQueueMailbox(dispatcher, 16, 10, false));
+    }
+
+    assertEquals(mailboxes, eventLoop.mailboxCount());
+
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    // delivered in round-robin order, one message per mailbox per pass
+    for (int count = 1; count <= total; ++count) {
+      final int countParam = count;
+      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(countParam);
+      all[(count - 1) % mailboxes].send(new LocalMessage<>(actor, CountTaker.class, consumer, "take(int)"));
+    }
+
+    eventLoop.start();
+
+    assertEquals(total, testResults.getHighest());
+
+    all[0].close();
+
+    assertTrue(all[0].isClosed());
+    assertEquals(mailboxes - 1, eventLoop.mailboxCount());
+
+    eventLoop.close();
+
+    assertTrue(all[1].isClosed());
+  }
+
+  @Test
+  public void testSuspendedDeliveryStowsUntilResumed() {
+    final int mailboxSize = 64;
+    final int stowed = 10;
+
+    final ManyToOneConcurrentArrayQueueDispatcher dispatcher =
+            new ManyToOneConcurrentArrayQueueDispatcher(mailboxSize, 2, false, 4, 10);
+
+    final Mailbox mailbox = dispatcher.mailbox();
+
+    final CountTakerActor actor = new CountTakerActor(new TestResults(0));
+
+    mailbox.suspendExceptFor(Paused, Stoppable.class);
+
+    for (int count = 1; count <= stowed; ++count) {
+      mailbox.send(new LocalMessage<>(actor, CountTaker.class, null, "take(" + count + ")"));
+    }
+
+    mailbox.send(new LocalMessage<>(actor, Stoppable.class, null, "stop()"));
+
+    assertTrue(mailbox.isSuspended());
+    assertEquals("stop()", mailbox.receive().representation());
+    assertNull(mailbox.receive());
+    assertEquals(stowed, mailbox.depth());
+
+    mailbox.resume(Paused);
+
+    assertFalse(mailbox.isSuspended());
+
+    mailbox.send(new LocalMessage<>(actor, CountTaker.class, null, "take(" + (stowed + 1) + ")"));
+
+    for (int count = 1; count <= stowed + 1; ++count) {
+      assertEquals("take(" + count + ")", mailbox.receive().representation());
+    }
+
+    assertNull(mailbox.receive());
+  }
+
+  @Test
+  public void testThatSuspensionWithinBatchStowsTheRest() {
+    final ManyToOneConcurrentArrayQueueDispatcher dispatcher =
+            new ManyToOneConcurrentArrayQueueDispatcher(MailboxSize, 2, false, 8, 10);
+
+    assertSuspensionWithinBatchStowsTheRest(dispatcher.mailbox(), dispatcher::start);
+
+    dispatcher.close();
+  }
+
+  @Test
+  public void testThatSuspensionWithinEventLoopBatchStowsTheRest() {
+    final EventLoop eventLoop = new EventLoop("arrayQueueMailbox-eventLoop-suspension-test", 2, 8);
+
+    final Mailbox mailbox = eventLoop.register(dispatcher -> new ManyToOneConcurrentArrayQueueMailbox(dispatcher, MailboxSize, 10, false));
+
+    assertSuspensionWithinBatchStowsTheRest(mailbox, eventLoop::start);
+
+    eventLoop.close();
+  }
+
+  // the four messages are received as one batch, of which the first suspends the mailbox
+  private void assertSuspensionWithinBatchStowsTheRest(final Mailbox mailbox, final Runnable dispatching) {
+    final List<String> delivered = new ArrayList<>();
+    final AccessSafely access = AccessSafely
+            .afterCompleting(2)
+            .writingWith("delivered", (Consumer<String>) delivered::add)
+            .readingWith("delivered", () -> new ArrayList<>(delivered));
+
+    final CountTakerActor actor = new CountTakerActor(new TestResults(0));
+
+    final SerializableConsumer<CountTaker> suspending = (consumerActor) -> {
+      access.writeUsing("delivered", "take(1)");
+      mailbox.suspendExceptFor(Paused, Stoppable.class);
+    };
+    final SerializableConsumer<CountTaker> second = (consumerActor) -> access.writeUsing("delivered", "take(2)");
+    final SerializableConsumer<Stoppable> stopping = (consumerActor) -> access.writeUsing("delivered", "stop()");
+    final SerializableConsumer<CountTaker> third = (consumerActor) -> access.writeUsing("delivered", "take(3)");
+
+    mailbox.send(new LocalMessage<>(actor, CountTaker.class, suspending, "take(1)"));
+    mailbox.send(new LocalMessage<>(actor, CountTaker.class, second, "take(2)"));
+    mailbox.send(new LocalMessage<>(actor, Stoppable.class, stopping, "stop()"));
+    mailbox.send(new LocalMessage<>(actor, CountTaker.class, third, "take(3)"));
+
+    dispatching.run();
+
+    assertEquals(Arrays.asList("take(1)", "stop()"), access.readFrom("delivered"));
+    assertEquals(2, mailbox.depth());
+
+    mailbox.resume(Paused);
+
+    final List<String> all = Arrays.asList("take(1)", "stop()", "take(2)", "take(3)");
+
+    assertEquals(all, access.readFromExpecting("delivered", all, 5000));
+  }
+
   public static interface CountTaker {
     void take(final int count);
   }
@@ -0,0 +1,100 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BlockingDispatcherTest {
+  private BlockingDispatcher dispatcher;
+  private CountDownLatch release;
+
+  @Test
+  public void testThatThreadsGrowWithBlockedDrains() throws Exception {
+    final CountDownLatch running = new CountDownLatch(2);
+
+    dispatcher.execute(new RunningMailbox(() -> block(running)));
+    dispatcher.execute(new RunningMailbox(() -> block(running)));
+
+    assertTrue(running.await(5, TimeUnit.SECONDS));
+    assertEquals(2, dispatcher.activeThreads());
+    assertEquals(2, dispatcher.poolSize());
+    assertEquals(2, dispatcher.submittedDrains());
+  }
+
+  @Test
+  public void testThatFullQueueRetriesOffSubmittingThread() throws Exception {
+    final CountDownLatch running = new CountDownLatch(2);
+
+    dispatcher.execute(new RunningMailbox(() -> block(running)));
+    dispatcher.execute(new RunningMailbox(() -> block(running)));
+    assertTrue(running.await(5, TimeUnit.SECONDS));
+
+    dispatcher.execute(new RunningMailbox(() -> { }));
+    assertEquals(1, dispatcher.queuedDrains());
+
+    final CountDownLatch ran = new CountDownLatch(1);
+    final AtomicReference<Thread> ranOn = new AtomicReference<>();
+    dispatcher.execute(new RunningMailbox(() -> { ranOn.set(Thread.currentThread()); ran.countDown(); }));
+
+    assertEquals(1, dispatcher.rejectedDrains());
+    assertEquals(1, dispatcher.retryingDrains());
+    assertNull(ranOn.get());
+
+    release.countDown();
+
+    assertTrue(ran.await(5, TimeUnit.SECONDS));
+    assertNotSame(Thread.currentThread(), ranOn.get());
+    assertEquals(0, dispatcher.retryingDrains());
+  }
+
+  @Test
+  public void testThatClosedDispatcherDoesNotExecute() throws Exception {
+    final CountDownLatch ran = new CountDownLatch(1);
+
+    dispatcher.close();
+
+    assertTrue(dispatcher.isClosed());
+
+    dispatcher.execute(new RunningMailbox(() -> ran.countDown()));
+
+    assertTrue(!ran.await(50, TimeUnit.MILLISECONDS));
+    assertEquals(0, dispatcher.submittedDrains());
+  }
+
+  @Before
+  public void setUp() {
+    dispatcher = new BlockingDispatcher(2, 1, 1_000L);
+    release = new CountDownLatch(1);
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    dispatcher.close();
+  }
+
+  private void block(final CountDownLatch running) {
+    running.countDown();
+    try {
+      release.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      // ignore
+    }
+  }
+}
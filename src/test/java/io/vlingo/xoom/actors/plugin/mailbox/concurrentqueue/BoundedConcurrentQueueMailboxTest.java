@@ -0,0 +1,263 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.Actor;
+import io.vlingo.xoom.actors.ActorsTest;
+import io.vlingo.xoom.actors.DeadLetter;
+import io.vlingo.xoom.actors.DeadLettersListener;
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.LocalMessage;
+import io.vlingo.xoom.actors.Stoppable;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.BoundedConcurrentQueueMailbox.OverflowPolicy;
+import io.vlingo.xoom.actors.testkit.AccessSafely;
+import io.vlingo.xoom.common.SerializableConsumer;
+
+public class BoundedConcurrentQueueMailboxTest extends ActorsTest {
+  private static final String Paused = "paused#";
+  private static final int Capacity = 10;
+  private static final int Overflow = 5;
+
+  private Dispatcher dispatcher;
+
+  @Test
+  public void testThatOverflowRoutesToDeadLetters() {
+    final BoundedConcurrentQueueMailbox mailbox = mailboxWith(OverflowPolicy.RouteToDeadLetters);
+    final CountTakerActor actor = new CountTakerActor(new TestResults(Capacity));
+
+    mailbox.suspendExceptFor(Paused, Stoppable.class);
+
+    sendTo(mailbox, actor, Capacity + Overflow);
+
+    assertEquals(Capacity, mailbox.pendingMessages());
+    assertEquals(Overflow, mailbox.rejectedMessages());
+  }
+
+  @Test
+  public void testThatDropNewestKeepsOldest() {
+    final BoundedConcurrentQueueMailbox mailbox = mailboxWith(OverflowPolicy.DropNewest);
+    final TestResults testResults = new TestResults(Capacity);
+    final CountTakerActor actor = new CountTakerActor(testResults);
+    final RejectedResults rejectedResults = new RejectedResults(Overflow);
+
+    world.deadLetters().registerListener(rejectedResults);
+
+    mailbox.suspendExceptFor(Paused, Stoppable.class);
+
+    sendTo(mailbox, actor, Capacity + Overflow);
+
+    assertEquals(Capacity, mailbox.pendingMessages());
+    assertEquals(Overflow, mailbox.rejectedMessages());
+
+    mailbox.resume(Paused);
+
+    for (int idx = 0; idx < Capacity; ++idx) {
+      assertEquals(idx, (int) testResults.getCount(idx));
+    }
+
+    for (int idx = 0; idx < Overflow; ++idx) {
+      assertEquals("take(" + (Capacity + idx) + ")", rejectedResults.getRepresentation(idx));
+    }
+  }
+
+  @Test
+  public void testThatDropOldestKeepsNewest() {
+    final BoundedConcurrentQueueMailbox mailbox = mailboxWith(OverflowPolicy.DropOldest);
+    final TestResults testResults = new TestResults(Capacity);
+    final CountTakerActor actor = new CountTakerActor(testResults);
+    final RejectedResults rejectedResults = new RejectedResults(Overflow);
+
+    world.deadLetters().registerListener(rejectedResults);
+
+    mailbox.suspendExceptFor(Paused, Stoppable.class);
+
+    sendTo(mailbox, actor, Capacity + Overflow);
+
+    assertEquals(Capacity, mailbox.pendingMessages());
+    assertEquals(Overflow, mailbox.rejectedMessages());
+
+    mailbox.resume(Paused);
+
+    for (int idx = 0; idx < Capacity; ++idx) {
+      assertEquals(idx + Overflow, (int) testResults.getCount(idx));
+    }
+
+    for (int idx = 0; idx < Overflow; ++idx) {
+      assertEquals("take(" + idx + ")", rejectedResults.getRepresentation(idx));
+    }
+  }
+
+  @Test
+  public void testThatBlockTimesOut() {
+    final BoundedConcurrentQueueMailbox mailbox = mailboxWith(OverflowPolicy.Block);
+    final CountTakerActor actor = new CountTakerActor(new TestResults(Capacity));
+
+    mailbox.suspendExceptFor(Paused, Stoppable.class);
+
+    sendTo(mailbox, actor, Capacity + 1);
+
+    assertEquals(Capacity, mailbox.pendingMessages());
+    assertEquals(1, mailbox.rejectedMessages());
+  }
+
+  @Test
+  public void testThatBlockedSenderIsReleasedWhenSpaceFrees() throws Exception {
+    final BoundedConcurrentQueueMailbox mailbox = new BoundedConcurrentQueueMailbox(dispatcher, 1, Capacity, OverflowPolicy.Block, 5000);
+    final TestResults testResults = new TestResults(Capacity + 1);
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    mailbox.suspendExceptFor(Paused, Stoppable.class);
+
+    sendTo(mailbox, actor, Capacity);
+
+    final Thread sender = new Thread(() -> {
+      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(Capacity);
+      mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, "take(int)"));
+    });
+
+    sender.start();
+    sender.join(100);
+
+    assertTrue(sender.isAlive());
+    assertEquals(Capacity, mailbox.pendingMessages());
+
+    mailbox.resume(Paused);
+
+    sender.join(5000);
+
+    assertFalse(sender.isAlive());
+    assertEquals(Capacity, (int) testResults.getCount(Capacity));
+    assertEquals(0, mailbox.rejectedMessages());
+  }
+
+  @Test
+  public void testThatBatchedMessagesCountAgainstCapacity() {
+    final BoundedConcurrentQueueMailbox mailbox = new BoundedConcurrentQueueMailbox(dispatcher, Capacity, Capacity, OverflowPolicy.DropNewest, 10);
+    final TestResults testResults = new TestResults(Capacity);
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    mailbox.suspendExceptFor(Paused, Stoppable.class);
+
+    // the first delivered message sends while the rest of its batch is undelivered
+    final SerializableConsumer<CountTaker> overflowing = (consumerActor) -> {
+      final SerializableConsumer<CountTaker> consumer = (otherActor) -> otherActor.take(Capacity);
+      mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, "take(int)"));
+      consumerActor.take(0);
+    };
+    mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, overflowing, "take(int)"));
+
+    for (int count = 1; count < Capacity; ++count) {
+      final int countParam = count;
+      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(countParam);
+      mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, "take(int)"));
+    }
+
+    mailbox.resume(Paused);
+
+    assertEquals(Capacity - 1, (int) testResults.getCount(Capacity - 1));
+    assertEquals(1, mailbox.rejectedMessages());
+  }
+
+  @Before
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+
+    dispatcher = new ExecutorDispatcher(1, 0, 1.0f);
+  }
+
+  @Override
+  @After
+  public void tearDown() throws Exception {
+    super.tearDown();
+
+    dispatcher.close();
+  }
+
+  private BoundedConcurrentQueueMailbox mailboxWith(final OverflowPolicy overflowPolicy) {
+    return new BoundedConcurrentQueueMailbox(dispatcher, 1, Capacity, overflowPolicy, 10);
+  }
+
+  private void sendTo(final BoundedConcurrentQueueMailbox mailbox, final CountTakerActor actor, final int total) {
+    for (int count = 0; count < total; ++count) {
+      final int countParam = count;
+      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(countParam);
+      mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, "take(" + count + ")"));
+    }
+  }
+
+  public static interface CountTaker {
+    void take(final int count);
+  }
+
+  public static class CountTakerActor extends Actor implements CountTaker {
+    private final TestResults testResults;
+
+    public CountTakerActor(final TestResults testResults) {
+      this.testResults = testResults;
+    }
+
+    @Override
+    public void take(final int count) {
+      testResults.addCount(count);
+    }
+  }
+
+  private static class TestResults {
+    private final AccessSafely accessSafely;
+
+    private TestResults(final int happenings) {
+      final ArrayList<Integer> list = new ArrayList<>();
+      this.accessSafely = AccessSafely
+              .afterCompleting(happenings)
+              .writingWith("counts", (Consumer<Integer>) list::add)
+              .readingWith("counts", (Integer index)-> list.get(index));
+    }
+
+    void addCount(Integer i){
+      this.accessSafely.writeUsing("counts", i);
+    }
+
+    Integer getCount(int index){
+      return this.accessSafely.readFrom("counts", index);
+    }
+  }
+
+  private static class RejectedResults implements DeadLettersListener {
+    private final AccessSafely accessSafely;
+
+    private RejectedResults(final int happenings) {
+      final List<String> representations = new ArrayList<>();
+      this.accessSafely = AccessSafely
+              .afterCompleting(happenings)
+              .writingWith("representations", (Consumer<String>) representations::add)
+              .readingWith("representations", (Integer index) -> representations.get(index));
+    }
+
+    @Override
+    public void handle(final DeadLetter deadLetter) {
+      this.accessSafely.writeUsing("representations", deadLetter.representation);
+    }
+
+    String getRepresentation(int index) {
+      return this.accessSafely.readFrom("representations", index);
+    }
+  }
+}
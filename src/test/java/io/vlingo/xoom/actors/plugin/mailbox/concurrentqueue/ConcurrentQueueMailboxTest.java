@@ -19,6 +19,8 @@ import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class ConcurrentQueueMailboxTest extends ActorsTest {
   private static int Total = 10_000;
@@ -44,6 +46,275 @@ public class ConcurrentQueueMailboxTest extends ActorsTest {
     }
   }
 
+  @Test
+  public void testThatDepthCountsPendingMessages() {
+    final TestResults testResults = new TestResults(Total);
+
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    mailbox.suspendExceptFor(Mailbox.Paused, Stoppable.class);
+
+    for (int count = 0; count < Total; ++count) {
+      final int countParam = count;
+      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(countParam);
+      mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, "take(int)"));
+    }
+
+    assertEquals(Total, mailbox.depth());
+    assertEquals(Total, mailbox.pendingMessages());
+
+    mailbox.resume(Mailbox.Paused);
+
+    assertEquals(Total - 1, (int) testResults.getCount(Total - 1));
+    assertEquals(0, mailbox.depth());
+  }
+
+  @Test
+  public void testThatBatchReceiveDrainsInOrder() {
+    final CountTakerActor actor = new CountTakerActor(new TestResults(Total));
+
+    mailbox.suspendExceptFor(Mailbox.Paused, Stoppable.class);
+
+    final Message[] sent = new Message[10];
+    for (int count = 0; count < sent.length; ++count) {
+      final int countParam = count;
+      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(countParam);
+      sent[count] = new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, "take(int)");
+      mailbox.send(sent[count]);
+    }
+
+    final Message[] received = new Message[8];
+
+    assertEquals(6, mailbox.receive(received, 6));
+    for (int idx = 0; idx < 6; ++idx) {
+      assertSame(sent[idx], received[idx]);
+    }
+    assertEquals(4, mailbox.depth());
+
+    assertEquals(4, mailbox.receive(received, 8));
+    for (int idx = 0; idx < 4; ++idx) {
+      assertSame(sent[6 + idx], received[idx]);
+    }
+    assertEquals(0, mailbox.depth());
+    assertEquals(0, mailbox.receive(received, 8));
+  }
+
+  @Test
+  public void testThatAdaptiveThrottlingDeliversInOrder() {
+    final Dispatcher dispatcher = new ExecutorDispatcher(1, 0, 1.0f);
+    final Mailbox mailbox = new ConcurrentQueueMailbox(dispatcher, 1_000, 100_000L);
+
+    final TestResults testResults = new TestResults(Total);
+
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    for (int count = 0; count < Total; ++count) {
+      final int countParam = count;
+      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(countParam);
+      mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, "take(int)"));
+    }
+
+    for (int idx = 0; idx < Total; ++idx) {
+      assertEquals(idx, (int) testResults.getCount(idx));
+    }
+
+    mailbox.close();
+    dispatcher.close();
+  }
+
+  @Test
+  public void testThatScheduledMailboxIsSubmittedOnce() {
+    final CountingDispatcher dispatcher = new CountingDispatcher();
+    final ConcurrentQueueMailbox mailbox = new ConcurrentQueueMailbox(dispatcher, 10);
+
+    final TestResults testResults = new TestResults(3);
+
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    for (int count = 0; count < 3; ++count) {
+      final int countParam = count;
+      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(countParam);
+      mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, "take(int)"));
+    }
+
+    assertEquals(1, dispatcher.executions);
+    assertEquals(2, mailbox.avoidedSubmissions());
+
+    mailbox.run();
+
+    assertEquals(2, (int) testResults.getCount(2));
+    assertEquals(1, dispatcher.executions);
+    assertFalse(mailbox.isDelivering());
+  }
+
+  @Test
+  public void testThatControlMessageIsDeliveredFirst() {
+    final CountingDispatcher dispatcher = new CountingDispatcher();
+    final ConcurrentQueueMailbox mailbox = new ConcurrentQueueMailbox(dispatcher, 10);
+
+    final TestResults testResults = new TestResults(4);
+
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    for (int count = 1; count <= 3; ++count) {
+      final int countParam = count;
+      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(countParam);
+      mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, "take(int)"));
+    }
+
+    final SerializableConsumer<CountTaker> control = (consumerActor) -> consumerActor.take(0);
+    mailbox.sendControl(new LocalMessage<CountTaker>(actor, CountTaker.class, control, "take(int)"));
+
+    assertEquals(4, mailbox.depth());
+
+    mailbox.run();
+
+    for (int idx = 0; idx < 4; ++idx) {
+      assertEquals(idx, (int) testResults.getCount(idx));
+    }
+    assertEquals(0, mailbox.depth());
+  }
+
+  @Test
+  public void testThatInlineDeliveryRunsOnSenderThread() {
+    final CountingDispatcher dispatcher = new CountingDispatcher();
+    final ConcurrentQueueMailbox mailbox = new ConcurrentQueueMailbox(dispatcher, 10, 0L, 2, 16);
+
+    final TestResults testResults = new TestResults(3);
+
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    for (int count = 0; count < 3; ++count) {
+      final int countParam = count;
+      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(countParam);
+      mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, "take(int)"));
+    }
+
+    for (int idx = 0; idx < 3; ++idx) {
+      assertEquals(idx, (int) testResults.getCount(idx));
+    }
+    assertEquals(0, dispatcher.executions);
+    assertFalse(mailbox.isDelivering());
+  }
+
+  @Test
+  public void testThatInlineDeliveryIsBoundedByDepth() {
+    final CountingDispatcher dispatcher = new CountingDispatcher();
+    final ConcurrentQueueMailbox first = new ConcurrentQueueMailbox(dispatcher, 10, 0L, 2, 16);
+    final ConcurrentQueueMailbox second = new ConcurrentQueueMailbox(dispatcher, 10, 0L, 2, 16);
+    final ConcurrentQueueMailbox third = new ConcurrentQueueMailbox(dispatcher, 10, 0L, 2, 16);
+
+    final TestResults testResults = new TestResults(3);
+
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    final SerializableConsumer<CountTaker> toThird = (consumerActor) -> consumerActor.take(2);
+    final SerializableConsumer<CountTaker> toSecond = (consumerActor) -> {
+      consumerActor.take(1);
+      third.send(new LocalMessage<CountTaker>(actor, CountTaker.class, toThird, "take(int)"));
+    };
+    final SerializableConsumer<CountTaker> toFirst = (consumerActor) -> {
+      consumerActor.take(0);
+      second.send(new LocalMessage<CountTaker>(actor, CountTaker.class, toSecond, "take(int)"));
+    };
+
+    first.send(new LocalMessage<CountTaker>(actor, CountTaker.class, toFirst, "take(int)"));
+
+    // the first two are nested inline and the third exceeds the depth
+    assertEquals(1, dispatcher.executions);
+
+    third.run();
+
+    for (int idx = 0; idx < 3; ++idx) {
+      assertEquals(idx, (int) testResults.getCount(idx));
+    }
+  }
+
+  @Test
+  public void testThatInlineDeliveryFallsBackWhenRunning() {
+    final CountingDispatcher dispatcher = new CountingDispatcher();
+    final ConcurrentQueueMailbox mailbox = new ConcurrentQueueMailbox(dispatcher, 10, 0L, 2, 16);
+
+    final TestResults testResults = new TestResults(2);
+
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    final SerializableConsumer<CountTaker> again = (consumerActor) -> consumerActor.take(1);
+    final SerializableConsumer<CountTaker> first = (consumerActor) -> {
+      consumerActor.take(0);
+      mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, again, "take(int)"));
+    };
+
+    mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, first, "take(int)"));
+
+    assertEquals(1, dispatcher.executions);
+
+    mailbox.run();
+
+    assertEquals(0, (int) testResults.getCount(0));
+    assertEquals(1, (int) testResults.getCount(1));
+  }
+
+  @Test
+  public void testThatBlockingMessagesAreOffloaded() {
+    final CountingDispatcher dispatcher = new CountingDispatcher();
+    final CountingDispatcher blockingDispatcher = new CountingDispatcher();
+    final ConcurrentQueueMailbox mailbox = new ConcurrentQueueMailbox(dispatcher, 10, 0L, 0, 0, blockingDispatcher);
+
+    final TestResults testResults = new TestResults(3);
+
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    for (int count = 0; count < 3; ++count) {
+      final int countParam = count;
+      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(countParam);
+      final LocalMessage<CountTaker> message = new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, "take(int)");
+      mailbox.send(count == 1 ? message.withBlocking() : message);
+    }
+
+    assertEquals(1, dispatcher.executions);
+
+    mailbox.run(); // delivers 0 and hands 1 to the blocking dispatcher
+
+    assertEquals(1, blockingDispatcher.executions);
+
+    mailbox.run(); // delivers 1 and hands 2 back
+
+    assertEquals(2, dispatcher.executions);
+
+    mailbox.run();
+
+    for (int idx = 0; idx < 3; ++idx) {
+      assertEquals(idx, (int) testResults.getCount(idx));
+    }
+    assertEquals(1, blockingDispatcher.executions);
+  }
+
+  @Test
+  public void testThatHeadEnqueueTimeIsRecordedForEarliestDeadline() {
+    final EarliestDeadlineDispatcher dispatcher = new EarliestDeadlineDispatcher(1, 1, 0);
+    final ConcurrentQueueMailbox mailbox = new ConcurrentQueueMailbox(dispatcher, 10, 0L, 0, 0, null, 5_000_000L);
+
+    final CountTakerActor actor = new CountTakerActor(new TestResults(2));
+
+    mailbox.suspendExceptFor(Mailbox.Paused, Stoppable.class);
+
+    final long before = System.nanoTime();
+    final SerializableConsumer<CountTaker> first = (consumerActor) -> consumerActor.take(0);
+    mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, first, "take(int)"));
+    final long between = System.nanoTime();
+    final SerializableConsumer<CountTaker> second = (consumerActor) -> consumerActor.take(1);
+    mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, second, "take(int)"));
+
+    final long headEnqueuedAt = mailbox.headEnqueuedAt();
+
+    assertTrue(headEnqueuedAt - before >= 0);
+    assertTrue(between - headEnqueuedAt >= 0);
+    assertEquals(5_000_000L, mailbox.latencyTarget());
+
+    dispatcher.close();
+  }
+
   @Test
   public void testThatSuspendResumes(){
       final String paused = "paused#";
@@ -81,6 +352,25 @@ public class ConcurrentQueueMailboxTest extends ActorsTest {
     dispatcher.close();
   }
 
+  private static class CountingDispatcher implements Dispatcher {
+    private int executions;
+
+    @Override
+    public void close() { }
+
+    @Override
+    public boolean isClosed() { return false; }
+
+    @Override
+    public int concurrencyCapacity() { return 1; }
+
+    @Override
+    public void execute(final Mailbox mailbox) { ++executions; }
+
+    @Override
+    public boolean requiresExecutionNotification() { return false; }
+  }
+
   public static interface CountTaker {
     void take(final int count);
   }
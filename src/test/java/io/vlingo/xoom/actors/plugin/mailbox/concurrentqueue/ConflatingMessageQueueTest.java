@@ -0,0 +1,92 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.LocalMessage;
+import io.vlingo.xoom.actors.Message;
+import io.vlingo.xoom.actors.Returns;
+import io.vlingo.xoom.common.Completes;
+
+public class ConflatingMessageQueueTest {
+  private static final String Price = "price(java.lang.String, double)";
+
+  @Test
+  public void testThatPendingMessageIsReplacedInPlace() {
+    final ConflatingMessageQueue queue = new ConflatingMessageQueue();
+
+    final Message a1 = message(Price, "A");
+    final Message b1 = message(Price, "B");
+    final Message a2 = message(Price, "A");
+    final Message halt = message("halt()", null);
+    final Message a3 = message(Price, "A");
+
+    offer(queue, a1);
+    offer(queue, b1);
+    offer(queue, a2);
+    offer(queue, halt);
+    offer(queue, a3);
+
+    assertEquals(3, queue.size());
+
+    assertSame(a3, queue.poll());
+    assertSame(b1, queue.poll());
+    assertSame(halt, queue.poll());
+    assertNull(queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testThatPolledMessageIsNotReplaced() {
+    final ConflatingMessageQueue queue = new ConflatingMessageQueue();
+
+    final Message a1 = message(Price, "A");
+    final Message a2 = message(Price, "A");
+
+    offer(queue, a1);
+
+    assertSame(a1, queue.poll());
+    assertFalse(queue.conflate(a2));
+
+    queue.offer(a2);
+
+    assertSame(a2, queue.poll());
+  }
+
+  @Test
+  public void testThatDifferentMethodsWithSameKeyAreNotConflated() {
+    final ConflatingMessageQueue queue = new ConflatingMessageQueue();
+
+    offer(queue, message(Price, "A"));
+    offer(queue, message("volume(java.lang.String, long)", "A"));
+
+    assertEquals(2, queue.size());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testThatMessageWithReturnsCannotBeConflated() {
+    new LocalMessage<Object>(null, Object.class, null, Returns.value(Completes.<Double>using(null)), Price).withConflationKey("A");
+  }
+
+  private void offer(final ConflatingMessageQueue queue, final Message message) {
+    if (!queue.conflate(message)) {
+      queue.offer(message);
+    }
+  }
+
+  private Message message(final String representation, final String key) {
+    return new LocalMessage<Object>(null, Object.class, null, representation).withConflationKey(key);
+  }
+}
@@ -0,0 +1,166 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.Definition;
+import io.vlingo.xoom.actors.plugin.PluginProperties;
+import io.vlingo.xoom.actors.plugin.completes.MockRegistrar;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.ConcurrentQueueMailboxPlugin.ConcurrentQueueMailboxPluginConfiguration;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.ConcurrentQueueMailboxPlugin.DispatcherPool;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.ConcurrentQueueMailboxPlugin.DispatcherType;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.IntrusiveQueueMailboxPlugin.IntrusiveQueueMailboxPluginConfiguration;
+
+public class DispatcherPoolTest {
+  private ConcurrentQueueMailboxPlugin plugin;
+
+  @Test
+  public void testThatPoolsAreReadFromProperties() {
+    final Properties properties = new Properties();
+    properties.setProperty("plugin.queueMailbox.dispatcherPools", "blocking, io");
+    properties.setProperty("plugin.queueMailbox.dispatcherPool.blocking.numberOfDispatchers", "4");
+    properties.setProperty("plugin.queueMailbox.dispatcherPool.blocking.queueCapacity", "100");
+    properties.setProperty("plugin.queueMailbox.dispatcherPool.blocking.idleTimeout", "60000");
+    properties.setProperty("plugin.queueMailbox.dispatcherPool.io.dispatcherType", "ForkJoin");
+    properties.setProperty("plugin.queueMailbox.dispatcherPool.io.numberOfDispatchersFactor", "0.5");
+
+    final ConcurrentQueueMailboxPluginConfiguration configuration = ConcurrentQueueMailboxPluginConfiguration.define();
+    configuration.buildWith(null, new PluginProperties("queueMailbox", properties));
+
+    assertEquals(2, configuration.dispatcherPools().size());
+
+    final DispatcherPool blocking = configuration.dispatcherPools().get(0);
+    assertEquals("blocking", blocking.name());
+    assertEquals(DispatcherType.Executor, blocking.dispatcherType());
+    assertEquals(4, blocking.numberOfDispatchers());
+    assertEquals(100, blocking.queueCapacity());
+    assertEquals(60_000L, blocking.idleTimeout());
+
+    final DispatcherPool io = configuration.dispatcherPools().get(1);
+    assertEquals("io", io.name());
+    assertEquals(DispatcherType.ForkJoin, io.dispatcherType());
+    assertEquals(0.5f, io.numberOfDispatchersFactor(), 0f);
+    assertEquals(0, io.queueCapacity());
+  }
+
+  @Test
+  public void testThatMailboxIsProvidedByNamedPool() {
+    final Definition definition = Definition.has(null, Definition.NoParameters);
+
+    assertEquals(2, plugin.provideMailboxFor(1, definition).concurrencyCapacity());
+    assertEquals(3, plugin.provideMailboxFor(1, definition, "blocking").concurrencyCapacity());
+  }
+
+  @Test
+  public void testThatOtherMailboxKindIsProvidedByNamedPool() {
+    final IntrusiveQueueMailboxPluginConfiguration configuration =
+            IntrusiveQueueMailboxPluginConfiguration
+              .define()
+              .numberOfDispatchers(2)
+              .dispatcherThrottlingCount(1)
+              .dispatcherPool(DispatcherPool.named("blocking").numberOfDispatchers(3).idleTimeout(1_000L));
+
+    final IntrusiveQueueMailboxPlugin intrusive = (IntrusiveQueueMailboxPlugin) new IntrusiveQueueMailboxPlugin().with(configuration);
+    intrusive.start(new MockRegistrar());
+
+    try {
+      final Definition definition = Definition.has(null, Definition.NoParameters);
+      assertEquals(2, intrusive.provideMailboxFor(1, definition).concurrencyCapacity());
+      assertEquals(3, intrusive.provideMailboxFor(1, definition, "blocking").concurrencyCapacity());
+    } finally {
+      intrusive.close();
+    }
+  }
+
+  @Test
+  public void testThatPoolIsSizedByItsOwnFactor() {
+    final ConcurrentQueueMailboxPlugin factored = startedWith(DispatcherPool.named("io").numberOfDispatchersFactor(2.0f));
+
+    try {
+      final int expected = (int) (Runtime.getRuntime().availableProcessors() * 2.0f);
+      assertEquals(expected, factored.provideMailboxFor(1, Definition.has(null, Definition.NoParameters), "io").concurrencyCapacity());
+    } finally {
+      factored.close();
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testThatUnsizedPoolIsRejected() {
+    startedWith(DispatcherPool.named("io"));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testThatUnknownPoolIsRejected() {
+    plugin.provideMailboxFor(1, Definition.has(null, Definition.NoParameters), "unknown");
+  }
+
+  @Test
+  public void testThatFullPoolQueueRejects() throws Exception {
+    final ExecutorDispatcher dispatcher = new ExecutorDispatcher(1, 1, 0, 1, 0L);
+    final CountDownLatch running = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+
+    try {
+      dispatcher.execute(RunningMailbox.blocking(running, release));
+      assertTrue(running.await(5, TimeUnit.SECONDS));
+      dispatcher.execute(RunningMailbox.blocking(new CountDownLatch(1), release));
+
+      boolean rejected = false;
+      try {
+        dispatcher.execute(RunningMailbox.blocking(new CountDownLatch(1), release));
+      } catch (IllegalStateException e) {
+        rejected = true;
+      }
+      assertTrue(rejected);
+    } finally {
+      release.countDown();
+      dispatcher.close();
+    }
+  }
+
+  @Before
+  public void setUp() {
+    final ConcurrentQueueMailboxPluginConfiguration configuration =
+            ConcurrentQueueMailboxPluginConfiguration
+              .define()
+              .numberOfDispatchers(2)
+              .dispatcherThrottlingCount(1)
+              .dispatcherPool(DispatcherPool.named("blocking").numberOfDispatchers(3).idleTimeout(1_000L));
+
+    plugin = (ConcurrentQueueMailboxPlugin) new ConcurrentQueueMailboxPlugin().with(configuration);
+    plugin.start(new MockRegistrar());
+  }
+
+  @After
+  public void tearDown() {
+    plugin.close();
+  }
+
+  private ConcurrentQueueMailboxPlugin startedWith(final DispatcherPool pool) {
+    final ConcurrentQueueMailboxPluginConfiguration configuration =
+            ConcurrentQueueMailboxPluginConfiguration
+              .define()
+              .numberOfDispatchers(2)
+              .dispatcherThrottlingCount(1)
+              .dispatcherPool(pool);
+
+    final ConcurrentQueueMailboxPlugin started = (ConcurrentQueueMailboxPlugin) new ConcurrentQueueMailboxPlugin().with(configuration);
+    started.start(new MockRegistrar());
+    return started;
+  }
+}
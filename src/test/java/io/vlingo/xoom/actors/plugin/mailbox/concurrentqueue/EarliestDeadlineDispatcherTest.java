@@ -0,0 +1,112 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EarliestDeadlineDispatcherTest {
+  private EarliestDeadlineDispatcher dispatcher;
+  private CountDownLatch release;
+  private CountDownLatch running;
+
+  @Test
+  public void testThatOldestHeadRunsFirst() throws Exception {
+    final List<String> order = new CopyOnWriteArrayList<>();
+    final CountDownLatch ran = new CountDownLatch(3);
+    final long now = System.nanoTime();
+
+    occupy();
+
+    dispatcher.execute(new RunningMailbox(now, 0L, () -> { order.add("fresh"); ran.countDown(); }));
+    dispatcher.execute(new RunningMailbox(now - 2_000_000L, 0L, () -> { order.add("oldest"); ran.countDown(); }));
+    dispatcher.execute(new RunningMailbox(now - 1_000_000L, 0L, () -> { order.add("older"); ran.countDown(); }));
+
+    release.countDown();
+
+    assertTrue(ran.await(5, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList("oldest", "older", "fresh"), order);
+  }
+
+  @Test
+  public void testThatLesserLatencyTargetRunsFirst() throws Exception {
+    final List<String> order = new CopyOnWriteArrayList<>();
+    final CountDownLatch ran = new CountDownLatch(2);
+    final long now = System.nanoTime();
+
+    occupy();
+
+    dispatcher.execute(new RunningMailbox(now - 5_000_000L, 100_000_000L, () -> { order.add("relaxed"); ran.countDown(); }));
+    dispatcher.execute(new RunningMailbox(now, 1_000_000L, () -> { order.add("urgent"); ran.countDown(); }));
+
+    release.countDown();
+
+    assertTrue(ran.await(5, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList("urgent", "relaxed"), order);
+  }
+
+  @Test
+  public void testThatEqualDeadlinesRunInScheduledOrder() throws Exception {
+    final List<Integer> order = new CopyOnWriteArrayList<>();
+    final CountDownLatch ran = new CountDownLatch(10);
+    final long now = System.nanoTime();
+
+    occupy();
+
+    for (int count = 0; count < 10; ++count) {
+      final int countParam = count;
+      dispatcher.execute(new RunningMailbox(now, 0L, () -> { order.add(countParam); ran.countDown(); }));
+    }
+
+    release.countDown();
+
+    assertTrue(ran.await(5, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), order);
+  }
+
+  @Test
+  public void testThatOrderingByHeadAgeIsReported() {
+    assertTrue(dispatcher.ordersByHeadAge());
+  }
+
+  @Before
+  public void setUp() {
+    dispatcher = new EarliestDeadlineDispatcher(1, 1, 0);
+    release = new CountDownLatch(1);
+    running = new CountDownLatch(1);
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    dispatcher.close();
+  }
+
+  // holds my only thread such that later mailboxes are ordered in the queue
+  private void occupy() throws InterruptedException {
+    dispatcher.execute(new RunningMailbox(Long.MIN_VALUE, 0L, () -> {
+      running.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        // ignore
+      }
+    }));
+    assertTrue(running.await(5, TimeUnit.SECONDS));
+  }
+}
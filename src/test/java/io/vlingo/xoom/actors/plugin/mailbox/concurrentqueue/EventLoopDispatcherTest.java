@@ -0,0 +1,128 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.EventLoopDispatcher.Affinity;
+
+public class EventLoopDispatcherTest {
+  private static final int Total = 10_000;
+
+  private EventLoopDispatcher dispatcher;
+
+  @Test
+  public void testThatAffinityAlwaysRunsOnSameThread() throws Exception {
+    dispatcher = new EventLoopDispatcher(1, 4, 0, 1_000L, 0);
+
+    final Affinity affinity = dispatcher.affinityFor(6, false);
+    final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    final CountDownLatch ran = new CountDownLatch(Total);
+    final RunningMailbox mailbox = new RunningMailbox(() -> {
+      threads.add(Thread.currentThread());
+      ran.countDown();
+    });
+
+    assertEquals(2, dispatcher.loopOf(affinity));
+
+    for (int count = 0; count < Total; ++count) {
+      affinity.execute(mailbox);
+    }
+
+    assertTrue(ran.await(10, TimeUnit.SECONDS));
+    assertEquals(1, threads.size());
+    assertEquals("xoom-event-loop-2", threads.iterator().next().getName());
+  }
+
+  @Test
+  public void testThatMailboxScheduledByItsLoopRuns() throws Exception {
+    dispatcher = new EventLoopDispatcher(1, 2, 0, 1_000L, 0);
+
+    final Affinity affinity = dispatcher.affinityFor(1, false);
+    final CountDownLatch ran = new CountDownLatch(Total);
+    final RunningMailbox[] mailbox = new RunningMailbox[1];
+
+    mailbox[0] = new RunningMailbox(() -> {
+      ran.countDown();
+      if (ran.getCount() > 0) {
+        affinity.execute(mailbox[0]);
+      }
+    });
+
+    affinity.execute(mailbox[0]);
+
+    assertTrue(ran.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testThatColdAffinitiesMigrateFromOverloadedLoop() throws Exception {
+    dispatcher = new EventLoopDispatcher(1, 2, 0, 20L, 1.5f);
+
+    final Affinity cold = dispatcher.affinityFor(0, false);
+    final Affinity pinned = dispatcher.affinityFor(0, true);
+    final Affinity hot = dispatcher.affinityFor(0, false);
+    final AtomicBoolean busy = new AtomicBoolean(true);
+    final RunningMailbox[] mailbox = new RunningMailbox[1];
+
+    mailbox[0] = new RunningMailbox(() -> {
+      if (busy.get()) {
+        hot.execute(mailbox[0]);
+      }
+    });
+
+    Thread.sleep(50);
+
+    hot.execute(mailbox[0]);
+
+    final long deadline = System.currentTimeMillis() + 10_000;
+    while (dispatcher.loopOf(cold) == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    busy.set(false);
+
+    assertEquals(1, dispatcher.loopOf(cold));
+    assertEquals(0, dispatcher.loopOf(pinned));
+    assertEquals(0, dispatcher.loopOf(hot));
+    assertTrue(pinned.isPinned());
+    assertFalse(cold.isPinned());
+  }
+
+  @Test
+  public void testThatClosedDispatcherDoesNotExecute() throws Exception {
+    dispatcher = new EventLoopDispatcher(1, 2, 0, 1_000L, 0);
+
+    final CountDownLatch ran = new CountDownLatch(1);
+
+    dispatcher.close();
+
+    assertTrue(dispatcher.isClosed());
+
+    dispatcher.affinityFor(0, false).execute(new RunningMailbox(() -> ran.countDown()));
+    dispatcher.execute(new RunningMailbox(() -> ran.countDown()));
+
+    assertFalse(ran.await(50, TimeUnit.MILLISECONDS));
+    assertEquals(2, dispatcher.concurrencyCapacity());
+  }
+
+  @After
+  public void tearDown() {
+    dispatcher.close();
+  }
+}
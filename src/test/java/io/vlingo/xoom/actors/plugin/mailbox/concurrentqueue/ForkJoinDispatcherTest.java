@@ -0,0 +1,96 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ForkJoinDispatcherTest {
+  private static final int Total = 10_000;
+
+  private ForkJoinDispatcher dispatcher;
+
+  @Test
+  public void testThatExternallyScheduledMailboxesRun() throws Exception {
+    final CountDownLatch ran = new CountDownLatch(Total);
+
+    for (int count = 0; count < Total; ++count) {
+      dispatcher.execute(new RunningMailbox(() -> ran.countDown()));
+    }
+
+    assertTrue(ran.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testThatMailboxesScheduledByWorkersRun() throws Exception {
+    final CountDownLatch ran = new CountDownLatch(Total);
+    final AtomicInteger onWorker = new AtomicInteger(0);
+
+    dispatcher.execute(new RunningMailbox(() -> {
+      for (int count = 0; count < Total; ++count) {
+        dispatcher.execute(new RunningMailbox(() -> {
+          if (Thread.currentThread() instanceof ForkJoinWorkerThread) {
+            onWorker.incrementAndGet();
+          }
+          ran.countDown();
+        }));
+      }
+    }));
+
+    assertTrue(ran.await(10, TimeUnit.SECONDS));
+    assertEquals(Total, onWorker.get());
+  }
+
+  @Test
+  public void testThatClosedDispatcherDoesNotExecute() throws Exception {
+    final AtomicInteger runs = new AtomicInteger(0);
+
+    dispatcher.close();
+
+    assertTrue(dispatcher.isClosed());
+
+    dispatcher.execute(new RunningMailbox(() -> runs.incrementAndGet()));
+
+    Thread.sleep(50);
+
+    assertEquals(0, runs.get());
+  }
+
+  @Test
+  public void testThatPoolSizeSet() {
+    final ForkJoinDispatcher dispatcher1 = new ForkJoinDispatcher(1, 10, 0);
+    final ForkJoinDispatcher dispatcher2 = new ForkJoinDispatcher(4, 0, 1.5f);
+
+    assertEquals(10, dispatcher1.concurrencyCapacity());
+    assertEquals(6, dispatcher2.concurrencyCapacity());
+    assertFalse(dispatcher1.requiresExecutionNotification());
+
+    dispatcher1.close();
+    dispatcher2.close();
+  }
+
+  @Before
+  public void setUp() {
+    dispatcher = new ForkJoinDispatcher(4, 0, 1.0f);
+  }
+
+  @After
+  public void tearDown() {
+    dispatcher.close();
+  }
+}
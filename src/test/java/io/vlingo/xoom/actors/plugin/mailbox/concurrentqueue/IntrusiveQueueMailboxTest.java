@@ -0,0 +1,105 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.Actor;
+import io.vlingo.xoom.actors.ActorsTest;
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.LocalMessage;
+import io.vlingo.xoom.actors.Mailbox;
+import io.vlingo.xoom.actors.testkit.AccessSafely;
+import io.vlingo.xoom.common.SerializableConsumer;
+
+public class IntrusiveQueueMailboxTest extends ActorsTest {
+  private static int Total = 10_000;
+
+  private Dispatcher dispatcher;
+  private Mailbox mailbox;
+
+  @Test
+  public void testMailboxSendReceive() {
+    final TestResults testResults = new TestResults(Total);
+
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    for (int count = 0; count < Total; ++count) {
+      final int countParam = count;
+      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(countParam);
+      final LocalMessage<CountTaker> message = new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, "take(int)");
+      mailbox.send(message);
+    }
+
+    for (int idx = 0; idx < Total; ++idx) {
+      assertEquals(idx, (int) actor.testResults.getCount(idx));
+    }
+  }
+
+  @Before
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+
+    dispatcher = new ExecutorDispatcher(1, 0, 1.0f);
+    mailbox = new IntrusiveQueueMailbox(dispatcher, 1);
+  }
+
+  @Override
+  @After
+  public void tearDown() throws Exception {
+    super.tearDown();
+
+    mailbox.close();
+    dispatcher.close();
+  }
+
+  public static interface CountTaker {
+    void take(final int count);
+  }
+
+  public static class CountTakerActor extends Actor implements CountTaker {
+    private final TestResults testResults;
+
+    public CountTakerActor(final TestResults testResults) {
+      this.testResults = testResults;
+    }
+
+    @Override
+    public void take(final int count) {
+      testResults.addCount(count);
+    }
+  }
+
+  private static class TestResults {
+    private final AccessSafely accessSafely;
+
+    private TestResults(final int happenings) {
+      final ArrayList<Integer> list = new ArrayList<>();
+      this.accessSafely = AccessSafely
+              .afterCompleting(happenings)
+              .writingWith("counts", (Consumer<Integer>) list::add)
+              .readingWith("counts", (Integer index)-> list.get(index));
+    }
+
+    void addCount(Integer i){
+      this.accessSafely.writeUsing("counts", i);
+    }
+
+    Integer getCount(int index){
+      return this.accessSafely.readFrom("counts", index);
+    }
+  }
+}
@@ -0,0 +1,264 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.Actor;
+import io.vlingo.xoom.actors.ActorsTest;
+import io.vlingo.xoom.actors.Address;
+import io.vlingo.xoom.actors.Configuration;
+import io.vlingo.xoom.actors.Definition;
+import io.vlingo.xoom.actors.LocalMessage;
+import io.vlingo.xoom.actors.Stoppable;
+import io.vlingo.xoom.actors.World;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.JournaledQueueMailboxPlugin.JournaledQueueMailboxPluginConfiguration;
+import io.vlingo.xoom.actors.testkit.AccessSafely;
+
+public class JournaledQueueMailboxTest extends ActorsTest {
+  private static final String Paused = "paused#";
+  private static final long RecorderId = 7_007L;
+
+  private File directory;
+  private ExecutorDispatcher dispatcher;
+  private CountDownLatch release;
+  private World world1;
+  private World world2;
+
+  @Test
+  public void testThatUnacknowledgedMessagesAreReplayedToRecreatedActor() {
+    final CountDownLatch holding = new CountDownLatch(1);
+    release = new CountDownLatch(1);
+
+    world1 = World.start("journal-1", configuration());
+    final Recorder recorder1 = recorderIn(world1, new RecordedValues(1), holding, release);
+
+    recorder1.record(1); // held, so that it and all following are never acknowledged
+    recorder1.record(2);
+    recorder1.record(3);
+
+    assertTrue(await(holding));
+
+    // the first world is abandoned as if it crashed
+    world2 = World.start("journal-2", configuration());
+    final RecordedValues replayed = new RecordedValues(3);
+    recorderIn(world2, replayed, new CountDownLatch(1), null);
+
+    for (int idx = 0; idx < 3; ++idx) {
+      assertEquals(idx + 1, (int) replayed.getValue(idx));
+    }
+  }
+
+  @Test
+  public void testThatDeliveredMessagesAreNotReplayedAfterIdle() throws Exception {
+    world1 = World.start("journal-1", configuration());
+    final RecordedValues delivered = new RecordedValues(3);
+    final Recorder recorder1 = recorderIn(world1, delivered, null, null);
+
+    recorder1.record(1);
+    recorder1.record(2);
+    recorder1.record(3);
+
+    for (int idx = 0; idx < 3; ++idx) {
+      assertEquals(idx + 1, (int) delivered.getValue(idx));
+    }
+
+    // the mailbox is idle while its acknowledgment is flushed, and then the world is abandoned
+    Thread.sleep(100);
+
+    world2 = World.start("journal-2", configuration());
+    final RecordedValues received = new RecordedValues(1);
+    final Recorder recorder2 = recorderIn(world2, received, null, null);
+
+    recorder2.record(4);
+
+    // a replayed message would be enqueued following start() and so ahead of this one
+    assertEquals(4, (int) received.getValue(0));
+  }
+
+  @Test
+  public void testThatCloseKeepsUndeliveredMessages() {
+    final JournaledQueueMailbox mailbox = journaledMailbox();
+    final RecorderActor actor = new RecorderActor(new RecordedValues(0), null, null);
+
+    mailbox.suspendExceptFor(Paused, Stoppable.class);
+
+    recordTo(mailbox, actor, 1);
+    recordTo(mailbox, actor, 2);
+
+    final File journalDirectory = mailbox.journal().directory();
+
+    mailbox.close();
+
+    final MessageJournal reopened = new MessageJournal(journalDirectory, 4_096);
+    assertEquals(2, reopened.recovered().size());
+    reopened.close(true);
+  }
+
+  @Test
+  public void testThatCloseDeletesDeliveredMessages() throws Exception {
+    final JournaledQueueMailbox mailbox = journaledMailbox();
+    final RecordedValues values = new RecordedValues(2);
+    final RecorderActor actor = new RecorderActor(values, null, null);
+
+    recordTo(mailbox, actor, 1);
+    recordTo(mailbox, actor, 2);
+
+    assertEquals(2, (int) values.getValue(1));
+
+    // the run acknowledges its messages only after delivering the last
+    final long deadline = System.currentTimeMillis() + 5_000L;
+    while (mailbox.journal().hasUnacknowledged() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(1);
+    }
+
+    final File journalDirectory = mailbox.journal().directory();
+
+    mailbox.close();
+
+    assertFalse(journalDirectory.exists());
+  }
+
+  @Before
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+
+    directory = Files.createTempDirectory("journaled-mailbox-test").toFile();
+  }
+
+  @After
+  @Override
+  public void tearDown() throws Exception {
+    super.tearDown();
+
+    if (dispatcher != null) {
+      dispatcher.close();
+    }
+    if (world2 != null) {
+      world2.terminate();
+    }
+    if (release != null) {
+      release.countDown();
+    }
+    if (world1 != null) {
+      world1.terminate();
+    }
+    delete(directory);
+  }
+
+  private boolean await(final CountDownLatch latch) {
+    try {
+      return latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      return false;
+    }
+  }
+
+  private Configuration configuration() {
+    return Configuration
+            .define()
+            .with(JournaledQueueMailboxPluginConfiguration
+                    .define()
+                    .numberOfDispatchers(1)
+                    .dispatcherThrottlingCount(1)
+                    .flushInterval(5L)
+                    .groupCommit(false)
+                    .segmentSize(4_096)
+                    .journalDirectory(directory.getPath()));
+  }
+
+  private JournaledQueueMailbox journaledMailbox() {
+    dispatcher = new ExecutorDispatcher(1, 1, 0);
+    return new JournaledQueueMailbox(dispatcher, 1, 0L, address -> new MessageJournal(new File(directory, address.idString()), 4_096), false, world.stage());
+  }
+
+  private void recordTo(final JournaledQueueMailbox mailbox, final RecorderActor actor, final int value) {
+    mailbox.send(new LocalMessage<Recorder>(actor, Recorder.class, (recorder) -> recorder.record(value), "record(int)"));
+  }
+
+  private void delete(final File file) {
+    final File[] files = file.listFiles();
+    if (files != null) {
+      for (final File child : files) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+
+  private Recorder recorderIn(final World world, final RecordedValues values, final CountDownLatch holding, final CountDownLatch release) {
+    final Address address = world.addressFactory().from(RecorderId, "recorder");
+    final Definition definition = Definition.has(RecorderActor.class, Definition.parameters(values, holding, release), "journaledQueueMailbox", "recorder");
+    return world.stage().actorFor(Recorder.class, definition, address);
+  }
+
+  public static interface Recorder {
+    void record(final int value);
+  }
+
+  public static class RecorderActor extends Actor implements Recorder {
+    private final CountDownLatch holding;
+    private final CountDownLatch release;
+    private final RecordedValues values;
+
+    public RecorderActor(final RecordedValues values, final CountDownLatch holding, final CountDownLatch release) {
+      this.holding = holding;
+      this.release = release;
+      this.values = values;
+    }
+
+    @Override
+    public void record(final int value) {
+      if (release != null) {
+        holding.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          // the world is terminating
+        }
+        return;
+      }
+      values.add(value);
+    }
+  }
+
+  private static class RecordedValues {
+    private final AccessSafely accessSafely;
+
+    private RecordedValues(final int happenings) {
+      final List<Integer> values = new ArrayList<>();
+      this.accessSafely = AccessSafely
+              .afterCompleting(happenings)
+              .writingWith("values", (Consumer<Integer>) values::add)
+              .readingWith("values", (Integer index) -> values.get(index));
+    }
+
+    void add(final int value) {
+      accessSafely.writeUsing("values", value);
+    }
+
+    Integer getValue(final int index) {
+      return accessSafely.readFrom("values", index);
+    }
+  }
+}
@@ -0,0 +1,186 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MessageJournalTest {
+  private File directory;
+
+  @Test
+  public void testThatUnacknowledgedEntriesAreRecovered() {
+    final MessageJournal journal = new MessageJournal(directory, 4_096);
+
+    journal.append(payload(1));
+    journal.append(null);
+    journal.append(payload(3));
+    journal.append(payload(4));
+    journal.acknowledge(2);
+    journal.flush();
+
+    assertEquals(0, journal.bufferedBytes());
+
+    final List<byte[]> recovered = new MessageJournal(directory, 4_096).recovered();
+
+    assertEquals(2, recovered.size());
+    assertEquals(3, recovered.get(0)[0]);
+    assertEquals(4, recovered.get(1)[0]);
+  }
+
+  @Test
+  public void testThatUnflushedEntriesAreNotRecovered() {
+    final MessageJournal journal = new MessageJournal(directory, 4_096);
+
+    journal.append(payload(1));
+    journal.flush();
+    journal.append(payload(2));
+
+    assertTrue(journal.bufferedBytes() > 0);
+
+    assertEquals(1, new MessageJournal(directory, 4_096).recovered().size());
+  }
+
+  @Test
+  public void testThatTornWriteIsIgnored() throws IOException {
+    final MessageJournal journal = new MessageJournal(directory, 4_096);
+
+    journal.append(payload(1));
+    journal.append(payload(2));
+    journal.flush();
+
+    final File segment = directory.listFiles()[0];
+    try (final RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      file.setLength(file.length() - 3);
+    }
+
+    final List<byte[]> recovered = new MessageJournal(directory, 4_096).recovered();
+
+    assertEquals(1, recovered.size());
+    assertEquals(1, recovered.get(0)[0]);
+  }
+
+  @Test
+  public void testThatAcknowledgedSegmentsAreDeleted() {
+    final MessageJournal journal = new MessageJournal(directory, 32);
+
+    for (int count = 1; count <= 10; ++count) {
+      journal.append(payload(count));
+      journal.flush();
+    }
+
+    assertEquals(10, directory.list().length);
+
+    journal.acknowledge(9);
+    journal.flush();
+
+    final List<byte[]> recovered = new MessageJournal(directory, 32).recovered();
+
+    assertTrue(directory.list().length <= 2);
+    assertEquals(1, recovered.size());
+    assertEquals(10, recovered.get(0)[0]);
+  }
+
+  @Test
+  public void testThatCompletedRecoveryDeletesRecoveredSegments() {
+    final MessageJournal journal = new MessageJournal(directory, 4_096);
+
+    journal.append(payload(1));
+    journal.append(payload(2));
+    journal.close(false);
+
+    final MessageJournal reopened = new MessageJournal(directory, 4_096);
+
+    assertEquals(2, reopened.recovered().size());
+
+    for (final byte[] payload : reopened.recovered()) {
+      reopened.append(payload);
+    }
+    reopened.recoveryCompleted();
+
+    assertTrue(reopened.recovered().isEmpty());
+    assertEquals(1, directory.list().length);
+    assertEquals(2, new MessageJournal(directory, 4_096).recovered().size());
+  }
+
+  @Test
+  public void testThatFailedFlushRetainsEntries() {
+    final MessageJournal journal = new MessageJournal(directory, 4_096);
+
+    journal.append(payload(1));
+    journal.append(payload(2));
+
+    // the segment file cannot be created without its directory
+    directory.delete();
+
+    boolean failed = false;
+    try {
+      journal.flush();
+    } catch (IllegalStateException e) {
+      failed = true;
+    }
+
+    assertTrue(failed);
+    assertTrue(journal.bufferedBytes() > 0);
+
+    directory.mkdirs();
+    journal.append(payload(3));
+    journal.flush();
+
+    assertEquals(0, journal.bufferedBytes());
+
+    final List<byte[]> recovered = new MessageJournal(directory, 4_096).recovered();
+
+    assertEquals(3, recovered.size());
+    for (int idx = 0; idx < 3; ++idx) {
+      assertEquals(idx + 1, recovered.get(idx)[0]);
+    }
+  }
+
+  @Test
+  public void testThatDeletingCloseRemovesDirectory() {
+    final MessageJournal journal = new MessageJournal(directory, 4_096);
+
+    journal.append(payload(1));
+    journal.close(true);
+
+    assertTrue(journal.isClosed());
+    assertFalse(directory.exists());
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("journal-test").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    final File[] files = directory.listFiles();
+    if (files != null) {
+      for (final File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  private byte[] payload(final int value) {
+    return new byte[] { (byte) value, 0, 0, 0 };
+  }
+}
@@ -0,0 +1,157 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NextSlotDispatcherTest {
+  private ExecutorDispatcher dispatcher;
+
+  @Test
+  public void testThatMailboxScheduledByWorkerRunsNextOnSameWorker() throws Exception {
+    final CountDownLatch ran = new CountDownLatch(1);
+    final AtomicReference<Thread> sender = new AtomicReference<>();
+    final AtomicReference<Thread> receiver = new AtomicReference<>();
+
+    dispatcher.execute(new RunningMailbox(() -> {
+      sender.set(Thread.currentThread());
+      dispatcher.execute(new RunningMailbox(() -> {
+        receiver.set(Thread.currentThread());
+        ran.countDown();
+      }));
+    }));
+
+    assertTrue(ran.await(5, TimeUnit.SECONDS));
+    assertSame(sender.get(), receiver.get());
+  }
+
+  @Test
+  public void testThatNextRunsAfterCurrentTurnInLifoOrder() throws Exception {
+    final CountDownLatch ran = new CountDownLatch(3);
+    final List<String> order = new CopyOnWriteArrayList<>();
+
+    dispatcher.execute(new RunningMailbox(() -> {
+      dispatcher.execute(new RunningMailbox(() -> { order.add("displaced"); ran.countDown(); }));
+      dispatcher.execute(new RunningMailbox(() -> { order.add("next"); ran.countDown(); }));
+      order.add("turn");
+      ran.countDown();
+    }));
+
+    assertTrue(ran.await(5, TimeUnit.SECONDS));
+    assertEquals(3, order.size());
+    assertTrue(order.indexOf("turn") < order.indexOf("next"));
+  }
+
+  @Test
+  public void testThatNextSlotIsStolenDuringLongTurn() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch ran = new CountDownLatch(1);
+    final AtomicReference<Thread> sender = new AtomicReference<>();
+    final AtomicReference<Thread> receiver = new AtomicReference<>();
+
+    dispatcher.execute(new RunningMailbox(() -> {
+      sender.set(Thread.currentThread());
+      dispatcher.execute(new RunningMailbox(() -> {
+        receiver.set(Thread.currentThread());
+        ran.countDown();
+      }));
+      await(release);
+    }));
+
+    try {
+      assertTrue(ran.await(5, TimeUnit.SECONDS));
+      assertNotSame(sender.get(), receiver.get());
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void testThatPingPongYieldsToSharedQueue() throws Exception {
+    final CountDownLatch queued = new CountDownLatch(1);
+    final CountDownLatch ran = new CountDownLatch(2);
+    final AtomicInteger pings = new AtomicInteger(0);
+    final AtomicInteger pingsBeforeOther = new AtomicInteger(-1);
+
+    final ExecutorDispatcher single = new ExecutorDispatcher(1, 1, 0, 0, 0L, true);
+
+    try {
+      single.execute(new RunningMailbox(new Runnable() {
+        @Override
+        public void run() {
+          if (pings.incrementAndGet() == 1) {
+            await(queued);
+          }
+          if (pings.get() < 100) {
+            single.execute(new RunningMailbox(this));
+          } else {
+            ran.countDown();
+          }
+        }
+      }));
+
+      single.execute(new RunningMailbox(() -> {
+        pingsBeforeOther.set(pings.get());
+        ran.countDown();
+      }));
+      queued.countDown();
+
+      assertTrue(ran.await(5, TimeUnit.SECONDS));
+      assertEquals(100, pings.get());
+      assertTrue(pingsBeforeOther.get() < 100);
+    } finally {
+      single.close();
+    }
+  }
+
+  @Test
+  public void testThatExternalSendersUseSharedQueue() throws Exception {
+    final CountDownLatch ran = new CountDownLatch(1);
+    final AtomicReference<Thread> receiver = new AtomicReference<>();
+
+    dispatcher.execute(new RunningMailbox(() -> {
+      receiver.set(Thread.currentThread());
+      ran.countDown();
+    }));
+
+    assertTrue(ran.await(5, TimeUnit.SECONDS));
+    assertTrue(receiver.get().getName().startsWith("xoom-executor-"));
+  }
+
+  @Before
+  public void setUp() {
+    dispatcher = new ExecutorDispatcher(2, 2, 0, 0, 0L, true);
+  }
+
+  @After
+  public void tearDown() {
+    dispatcher.close();
+  }
+
+  private static void await(final CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      // ignore
+    }
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.LocalMessage;
+import io.vlingo.xoom.actors.Message;
+import io.vlingo.xoom.actors.Priority;
+
+public class PriorityLanesQueueTest {
+
+  @Test
+  public void testThatStrictPollingDrainsMostUrgentFirst() {
+    final PriorityLanesQueue queue = new PriorityLanesQueue(3);
+
+    queue.add(message("low-1", Priority.Lowest));
+    queue.add(message("middle-1", 1));
+    queue.add(message("low-2", Priority.Lowest));
+    queue.add(message("high-1", Priority.Highest));
+    queue.add(message("middle-2", 1));
+
+    assertEquals(5, queue.size());
+    assertEquals("high-1", queue.peek().representation());
+
+    assertEquals("high-1", queue.poll().representation());
+    assertEquals("middle-1", queue.poll().representation());
+    assertEquals("middle-2", queue.poll().representation());
+    assertEquals("low-1", queue.poll().representation());
+    assertEquals("low-2", queue.poll().representation());
+    assertNull(queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testThatWeightedPollingDoesNotStarveLeastUrgent() {
+    final PriorityLanesQueue queue = new PriorityLanesQueue(new int[] { 2, 1 });
+
+    for (int count = 1; count <= 4; ++count) {
+      queue.add(message("high-" + count, Priority.Highest));
+      queue.add(message("low-" + count, Priority.Lowest));
+    }
+
+    assertEquals("high-1", queue.poll().representation());
+    assertEquals("high-2", queue.poll().representation());
+    assertEquals("low-1", queue.poll().representation());
+    assertEquals("high-3", queue.poll().representation());
+    assertEquals("high-4", queue.poll().representation());
+    assertEquals("low-2", queue.poll().representation());
+    assertEquals("low-3", queue.poll().representation());
+    assertEquals("low-4", queue.poll().representation());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void testThatPriorityBeyondLanesUsesLastLane() {
+    final PriorityLanesQueue queue = new PriorityLanesQueue(2);
+
+    assertEquals(0, queue.laneOf(message("high", Priority.Highest)));
+    assertEquals(1, queue.laneOf(message("beyond", 7)));
+    assertEquals(1, queue.laneOf(new LocalMessage<Object>(null, Object.class, null, "none")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatLaneWeightsMustBePositive() {
+    new PriorityLanesQueue(new int[] { 1, 0 });
+  }
+
+  private Message message(final String representation, final int priority) {
+    return new LocalMessage<Object>(null, Object.class, null, representation).withPriority(priority);
+  }
+}
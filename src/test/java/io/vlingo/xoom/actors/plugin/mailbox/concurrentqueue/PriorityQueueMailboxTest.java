@@ -0,0 +1,116 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.Actor;
+import io.vlingo.xoom.actors.ActorsTest;
+import io.vlingo.xoom.actors.Dispatcher;
+import io.vlingo.xoom.actors.LocalMessage;
+import io.vlingo.xoom.actors.Priority;
+import io.vlingo.xoom.actors.Stoppable;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.PriorityQueueMailbox.DrainPolicy;
+import io.vlingo.xoom.actors.testkit.AccessSafely;
+import io.vlingo.xoom.common.SerializableConsumer;
+
+public class PriorityQueueMailboxTest extends ActorsTest {
+  private static final String Paused = "paused#";
+  private static final int Total = 10;
+
+  private Dispatcher dispatcher;
+
+  @Test
+  public void testThatUrgentMessagesAreDeliveredFirst() {
+    final PriorityQueueMailbox mailbox = new PriorityQueueMailbox(dispatcher, 1, 3, DrainPolicy.Strict, null);
+    final TestResults testResults = new TestResults(Total);
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    mailbox.suspendExceptFor(Paused, Stoppable.class);
+
+    for (int count = 0; count < Total; ++count) {
+      // every third count is urgent
+      sendTo(mailbox, actor, count, count % 3 == 0 ? Priority.Highest : Priority.Lowest);
+    }
+
+    assertEquals(Total, mailbox.pendingMessages());
+
+    mailbox.resume(Paused);
+
+    final int[] expected = { 0, 3, 6, 9, 1, 2, 4, 5, 7, 8 };
+
+    for (int idx = 0; idx < Total; ++idx) {
+      assertEquals(expected[idx], (int) testResults.getCount(idx));
+    }
+  }
+
+  @Before
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+
+    dispatcher = new ExecutorDispatcher(1, 0, 1.0f);
+  }
+
+  @Override
+  @After
+  public void tearDown() throws Exception {
+    super.tearDown();
+
+    dispatcher.close();
+  }
+
+  private void sendTo(final PriorityQueueMailbox mailbox, final CountTakerActor actor, final int count, final int priority) {
+    final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(count);
+    mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, "take(int)").withPriority(priority));
+  }
+
+  public static interface CountTaker {
+    void take(final int count);
+  }
+
+  public static class CountTakerActor extends Actor implements CountTaker {
+    private final TestResults testResults;
+
+    public CountTakerActor(final TestResults testResults) {
+      this.testResults = testResults;
+    }
+
+    @Override
+    public void take(final int count) {
+      testResults.addCount(count);
+    }
+  }
+
+  private static class TestResults {
+    private final AccessSafely accessSafely;
+
+    private TestResults(final int happenings) {
+      final ArrayList<Integer> list = new ArrayList<>();
+      this.accessSafely = AccessSafely
+              .afterCompleting(happenings)
+              .writingWith("counts", (Consumer<Integer>) list::add)
+              .readingWith("counts", (Integer index)-> list.get(index));
+    }
+
+    void addCount(Integer i){
+      this.accessSafely.writeUsing("counts", i);
+    }
+
+    Integer getCount(int index){
+      return this.accessSafely.readFrom("counts", index);
+    }
+  }
+}
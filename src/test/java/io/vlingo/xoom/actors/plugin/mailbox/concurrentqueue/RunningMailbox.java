@@ -0,0 +1,114 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import java.util.concurrent.CountDownLatch;
+
+import io.vlingo.xoom.actors.Mailbox;
+import io.vlingo.xoom.actors.Message;
+
+/**
+ * A {@code Mailbox} stub for dispatcher tests that only runs a given
+ * {@code Runnable} each time it is executed.
+ */
+class RunningMailbox implements Mailbox {
+  private final long headEnqueuedAt;
+  private final long latencyTarget;
+  private final Runnable runnable;
+
+  /**
+   * Answer a new {@code RunningMailbox} whose run counts down entered and then
+   * blocks until release is counted down.
+   * @param entered the CountDownLatch counted down when run is entered
+   * @param release the CountDownLatch awaited before run returns
+   * @return RunningMailbox
+   */
+  static RunningMailbox blocking(final CountDownLatch entered, final CountDownLatch release) {
+    return new RunningMailbox(() -> {
+      entered.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+  }
+
+  RunningMailbox(final Runnable runnable) {
+    this(System.nanoTime(), 0L, runnable);
+  }
+
+  RunningMailbox(final long headEnqueuedAt, final long latencyTarget, final Runnable runnable) {
+    this.headEnqueuedAt = headEnqueuedAt;
+    this.latencyTarget = latencyTarget;
+    this.runnable = runnable;
+  }
+
+  @Override
+  public long headEnqueuedAt() {
+    return headEnqueuedAt;
+  }
+
+  @Override
+  public long latencyTarget() {
+    return latencyTarget;
+  }
+
+  @Override
+  public void run() {
+    runnable.run();
+  }
+
+  @Override
+  public void close() { }
+
+  @Override
+  public boolean isClosed() {
+    return false;
+  }
+
+  @Override
+  public boolean isDelivering() {
+    return false;
+  }
+
+  @Override
+  public int concurrencyCapacity() {
+    return 1;
+  }
+
+  @Override
+  public void resume(final String name) {
+    throw new UnsupportedOperationException("RunningMailbox does not support this operation");
+  }
+
+  @Override
+  public void send(final Message message) {
+    throw new UnsupportedOperationException("RunningMailbox does not support this operation");
+  }
+
+  @Override
+  public void suspendExceptFor(final String name, final Class<?>... overrides) {
+    throw new UnsupportedOperationException("RunningMailbox does not support this operation");
+  }
+
+  @Override
+  public boolean isSuspended() {
+    return false;
+  }
+
+  @Override
+  public Message receive() {
+    return null;
+  }
+
+  @Override
+  public int pendingMessages() {
+    return 0;
+  }
+}
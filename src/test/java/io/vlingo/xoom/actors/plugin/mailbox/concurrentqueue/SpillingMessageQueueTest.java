@@ -0,0 +1,211 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.LocalMessage;
+import io.vlingo.xoom.actors.Message;
+import io.vlingo.xoom.common.SerializableConsumer;
+
+public class SpillingMessageQueueTest {
+  private File directory;
+
+  @Test
+  public void testThatSpilledMessagesAreReadInOrder() {
+    final SpillingMessageQueue queue = new SpillingMessageQueue(2, 512, directory);
+
+    for (int idx = 0; idx < 20; ++idx) {
+      queue.offer(message(idx));
+    }
+
+    assertEquals(20, queue.size());
+    assertEquals(18, queue.spilledCount());
+    assertTrue(directory.list().length > 1);
+
+    final List<Integer> delivered = new ArrayList<>();
+
+    for (int idx = 0; idx < 20; ++idx) {
+      final Message message = queue.poll();
+      assertEquals("record(" + idx + ")", message.representation());
+      assertEquals(idx % 3, message.priority());
+      accept(message, delivered);
+    }
+
+    assertNull(queue.poll());
+    assertTrue(queue.isEmpty());
+    assertEquals(0, queue.spilledCount());
+    assertEquals(18, queue.totalSpilled());
+    assertEquals(0, directory.list().length);
+
+    for (int idx = 0; idx < 20; ++idx) {
+      assertEquals(idx, (int) delivered.get(idx));
+    }
+  }
+
+  @Test
+  public void testThatUnserializableMessageIsRetainedInOrder() {
+    final SpillingMessageQueue queue = new SpillingMessageQueue(1, 4_096, directory);
+
+    final Object unserializable = new Object();
+    final Message retained = new LocalMessage<Object>(null, Object.class, (SerializableConsumer<Object>) actor -> unserializable.hashCode(), "retained()");
+
+    queue.offer(message(0));
+    queue.offer(message(1));
+    queue.offer(retained);
+    queue.offer(message(2));
+
+    assertEquals(3, queue.spilledCount());
+
+    assertEquals("record(0)", queue.poll().representation());
+    assertEquals("record(1)", queue.poll().representation());
+    assertSame(retained, queue.poll());
+    assertEquals("record(2)", queue.poll().representation());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void testThatMessagesFollowSpillAfterItIsRead() {
+    final SpillingMessageQueue queue = new SpillingMessageQueue(1, 4_096, directory);
+
+    queue.offer(message(0));
+    queue.offer(message(1));
+
+    assertEquals("record(0)", queue.poll().representation());
+    assertEquals("record(1)", queue.poll().representation());
+
+    queue.offer(message(2));
+
+    assertEquals(0, queue.spilledCount());
+    assertEquals("record(2)", queue.poll().representation());
+  }
+
+  @Test
+  public void testThatDeadlineAndBlockingAreSpilled() {
+    final SpillingMessageQueue queue = new SpillingMessageQueue(1, 4_096, directory);
+
+    final long deadline = System.nanoTime() + 1_000_000_000L;
+
+    queue.offer(message(0));
+    queue.offer(((LocalMessage<?>) message(1)).withDeadline(deadline).withBlocking());
+
+    assertEquals(1, queue.spilledCount());
+
+    queue.poll();
+    final Message spilled = queue.poll();
+
+    assertEquals("record(1)", spilled.representation());
+    assertEquals(deadline, spilled.deadline());
+    assertTrue(spilled.isBlocking());
+  }
+
+  @Test
+  public void testThatSegmentsAreReadableOnlyByOwner() throws IOException {
+    if (!directory.toPath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+      return; // permissions are those of the directory
+    }
+
+    final SpillingMessageQueue queue = new SpillingMessageQueue(1, 4_096, directory);
+
+    queue.offer(message(0));
+    queue.offer(message(1));
+
+    final Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory.listFiles()[0].toPath());
+
+    assertEquals(PosixFilePermissions.fromString("rw-------"), permissions);
+
+    queue.clear();
+  }
+
+  @Test
+  public void testThatUnreadableMessageIsDropped() {
+    final SpillingMessageQueue queue = new SpillingMessageQueue(1, 4_096, directory);
+    final AtomicInteger dropped = new AtomicInteger(0);
+    final Unreadable unreadable = new Unreadable();
+    final SerializableConsumer<List<Integer>> consumer = list -> list.add(unreadable.hashCode());
+
+    queue.droppedTo(dropped::addAndGet);
+
+    queue.offer(message(0));
+    queue.offer(new LocalMessage<>(null, null, consumer, "unreadable()"));
+    queue.offer(message(1));
+
+    assertEquals("record(0)", queue.poll().representation());
+    assertEquals("record(1)", queue.poll().representation());
+    assertNull(queue.poll());
+    assertEquals(1, dropped.get());
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testThatClearDeletesSegments() {
+    final SpillingMessageQueue queue = new SpillingMessageQueue(1, 4_096, directory);
+
+    for (int idx = 0; idx < 5; ++idx) {
+      queue.offer(message(idx));
+    }
+
+    assertEquals(1, directory.list().length);
+
+    queue.clear();
+
+    assertTrue(queue.isEmpty());
+    assertEquals(0, directory.list().length);
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("spilling-test").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    for (final File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  private static class Unreadable implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private void readObject(final ObjectInputStream input) throws IOException {
+      throw new InvalidObjectException("unreadable");
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void accept(final Message message, final List<Integer> delivered) {
+    ((LocalMessage<List<Integer>>) message).consumer().accept(delivered);
+  }
+
+  private Message message(final int value) {
+    final SerializableConsumer<List<Integer>> consumer = list -> list.add(value);
+    return new LocalMessage<>(null, null, consumer, "record(" + value + ")").withPriority(value % 3);
+  }
+}
@@ -0,0 +1,225 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.Actor;
+import io.vlingo.xoom.actors.ActorsTest;
+import io.vlingo.xoom.actors.DeadLetter;
+import io.vlingo.xoom.actors.DeadLettersListener;
+import io.vlingo.xoom.actors.LocalMessage;
+import io.vlingo.xoom.actors.Stoppable;
+import io.vlingo.xoom.actors.plugin.completes.MockRegistrar;
+import io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue.SpillingQueueMailboxPlugin.SpillingQueueMailboxPluginConfiguration;
+import io.vlingo.xoom.actors.testkit.AccessSafely;
+import io.vlingo.xoom.common.SerializableConsumer;
+
+public class SpillingQueueMailboxTest extends ActorsTest {
+  private static final String Paused = "paused#";
+  private static final int Total = 20;
+
+  private File directory;
+  private SpillingQueueMailboxPlugin plugin;
+
+  @Test
+  public void testThatSpilledMessagesAreDeliveredInOrder() {
+    final SpillingQueueMailbox mailbox = (SpillingQueueMailbox) plugin.provideMailboxFor(1);
+    final TestResults testResults = new TestResults(Total);
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    mailbox.suspendExceptFor(Paused, Stoppable.class);
+
+    for (int count = 0; count < Total; ++count) {
+      final int countParam = count;
+      sendTo(mailbox, actor, (consumerActor) -> consumerActor.take(countParam), "take(int)");
+    }
+
+    assertEquals(Total - 2, mailbox.spilledCount());
+    assertTrue(spillFiles() > 0);
+
+    mailbox.resume(Paused);
+
+    for (int idx = 0; idx < Total; ++idx) {
+      assertEquals(idx, (int) testResults.getCount(idx));
+    }
+    assertEquals(0, mailbox.spilledCount());
+    assertEquals(Total - 2, mailbox.spilledMessages());
+
+    mailbox.close();
+
+    assertEquals(0, spillFiles());
+  }
+
+  @Test
+  public void testThatExpiredAndUnreadableMessagesAreDeadLettered() {
+    final SpillingQueueMailbox mailbox = (SpillingQueueMailbox) plugin.provideMailboxFor(1);
+    final TestResults testResults = new TestResults(3);
+    final DeadLetterResults deadLetterResults = new DeadLetterResults(2);
+    final CountTakerActor actor = new CountTakerActor(testResults);
+
+    world.deadLetters().registerListener(deadLetterResults);
+
+    mailbox.suspendExceptFor(Paused, Stoppable.class);
+
+    final Unreadable unreadable = new Unreadable();
+
+    sendTo(mailbox, actor, (consumerActor) -> consumerActor.take(0), "take(int)");
+    sendTo(mailbox, actor, (consumerActor) -> consumerActor.take(1), "take(int)");
+    mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, (consumerActor) -> consumerActor.take(-1), "expired()").withDeadline(System.nanoTime() - 1));
+    sendTo(mailbox, actor, (consumerActor) -> consumerActor.take(unreadable.hashCode()), "unreadable()");
+    sendTo(mailbox, actor, (consumerActor) -> consumerActor.take(2), "take(int)");
+
+    assertEquals(3, mailbox.spilledCount());
+
+    mailbox.resume(Paused);
+
+    assertEquals(2, (int) deadLetterResults.getDeadLetterCount());
+    assertEquals(DeadLetter.Reason.Expired, deadLetterResults.getDeadLetter("expired()").reason);
+    assertEquals(DeadLetter.Reason.Undeliverable, deadLetterResults.getDeadLetter("unreadable()").reason);
+
+    for (int idx = 0; idx < 3; ++idx) {
+      assertEquals(idx, (int) testResults.getCount(idx));
+    }
+    assertEquals(1, world.stage().expiredMessages());
+    assertEquals(0, mailbox.pendingMessages());
+
+    mailbox.close();
+  }
+
+  @Before
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+
+    directory = Files.createTempDirectory("spilling-mailbox-test").toFile();
+
+    final SpillingQueueMailboxPluginConfiguration configuration =
+            SpillingQueueMailboxPluginConfiguration
+              .define()
+              .numberOfDispatchers(1)
+              .dispatcherThrottlingCount(1)
+              .highWaterMark(2)
+              .segmentSize(512)
+              .spillDirectory(directory.getPath());
+
+    plugin = (SpillingQueueMailboxPlugin) new SpillingQueueMailboxPlugin().with(configuration);
+    plugin.start(new MockRegistrar());
+  }
+
+  @Override
+  @After
+  public void tearDown() throws Exception {
+    super.tearDown();
+
+    plugin.close();
+
+    // the plugin deletes its own directory within the spill directory
+    assertEquals(0, directory.list().length);
+    directory.delete();
+  }
+
+  private int spillFiles() {
+    int count = 0;
+    for (final File pluginDirectory : directory.listFiles()) {
+      count += pluginDirectory.list().length;
+    }
+    return count;
+  }
+
+  private void sendTo(final SpillingQueueMailbox mailbox, final CountTakerActor actor, final SerializableConsumer<CountTaker> consumer, final String representation) {
+    mailbox.send(new LocalMessage<CountTaker>(actor, CountTaker.class, consumer, representation));
+  }
+
+  public static interface CountTaker {
+    void take(final int count);
+  }
+
+  public static class CountTakerActor extends Actor implements CountTaker {
+    private final TestResults testResults;
+
+    public CountTakerActor(final TestResults testResults) {
+      this.testResults = testResults;
+    }
+
+    @Override
+    public void take(final int count) {
+      testResults.addCount(count);
+    }
+  }
+
+  private static class Unreadable implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private void readObject(final ObjectInputStream input) throws IOException {
+      throw new InvalidObjectException("unreadable");
+    }
+  }
+
+  private static class DeadLetterResults implements DeadLettersListener {
+    private final AccessSafely accessSafely;
+
+    private DeadLetterResults(final int happenings) {
+      final List<DeadLetter> deadLetters = new ArrayList<>();
+      this.accessSafely = AccessSafely
+              .afterCompleting(happenings)
+              .writingWith("deadLetters", (Consumer<DeadLetter>) deadLetters::add)
+              .readingWith("deadLetterCount", deadLetters::size)
+              .readingWith("deadLetter", (String representation) ->
+                      deadLetters.stream().filter(deadLetter -> deadLetter.representation.equals(representation)).findFirst().orElse(null));
+    }
+
+    @Override
+    public void handle(final DeadLetter deadLetter) {
+      accessSafely.writeUsing("deadLetters", deadLetter);
+    }
+
+    private Integer getDeadLetterCount() {
+      return accessSafely.readFrom("deadLetterCount");
+    }
+
+    private DeadLetter getDeadLetter(final String representation) {
+      return accessSafely.readFrom("deadLetter", representation);
+    }
+  }
+
+  private static class TestResults {
+    private final AccessSafely accessSafely;
+
+    private TestResults(final int happenings) {
+      final List<Integer> list = new ArrayList<>();
+      this.accessSafely = AccessSafely
+              .afterCompleting(happenings)
+              .writingWith("counts", (Consumer<Integer>) list::add)
+              .readingWith("counts", (Integer index) -> list.get(index));
+    }
+
+    void addCount(final int count) {
+      accessSafely.writeUsing("counts", count);
+    }
+
+    Integer getCount(final int index) {
+      return accessSafely.readFrom("counts", index);
+    }
+  }
+}
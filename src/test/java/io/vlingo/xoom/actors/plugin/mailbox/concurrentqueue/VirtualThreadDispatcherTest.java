@@ -0,0 +1,106 @@
+// Copyright © 2012-2022 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.xoom.actors.plugin.mailbox.concurrentqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vlingo.xoom.actors.Logger;
+
+public class VirtualThreadDispatcherTest {
+  private static final int Blocked = 200;
+  private static final int FallbackThreads = 2;
+
+  private VirtualThreadDispatcher dispatcher;
+
+  @Test
+  public void testThatBlockingDrainsDoNotStarveOthers() throws Exception {
+    if (!dispatcher.usesVirtualThreads()) {
+      return; // the fallback pool is bounded
+    }
+
+    final CountDownLatch entered = new CountDownLatch(Blocked);
+    final CountDownLatch release = new CountDownLatch(1);
+
+    // far more blocked drains than processors, which would starve a fixed-size pool
+    for (int count = 0; count < Blocked; ++count) {
+      dispatcher.execute(RunningMailbox.blocking(entered, release));
+    }
+
+    assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+    release.countDown();
+  }
+
+  @Test
+  public void testThatFallbackPoolIsBounded() throws Exception {
+    if (dispatcher.usesVirtualThreads()) {
+      return; // no fallback pool
+    }
+
+    final CountDownLatch entered = new CountDownLatch(FallbackThreads + 1);
+    final CountDownLatch release = new CountDownLatch(1);
+
+    for (int count = 0; count < FallbackThreads + 1; ++count) {
+      dispatcher.execute(RunningMailbox.blocking(entered, release));
+    }
+
+    assertFalse(entered.await(100, TimeUnit.MILLISECONDS));
+    assertEquals(1, entered.getCount());
+
+    release.countDown();
+
+    assertTrue(entered.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testThatClosedDispatcherDoesNotExecute() throws Exception {
+    final AtomicInteger runs = new AtomicInteger(0);
+    final CountDownLatch entered = new CountDownLatch(1);
+
+    dispatcher.execute(new RunningMailbox(() -> { runs.incrementAndGet(); entered.countDown(); }));
+
+    assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+    dispatcher.close();
+
+    assertTrue(dispatcher.isClosed());
+
+    dispatcher.execute(new RunningMailbox(() -> runs.incrementAndGet()));
+
+    Thread.sleep(50);
+
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  public void testThatCapacityAndNotificationAreReported() {
+    assertEquals(4, dispatcher.concurrencyCapacity());
+    assertFalse(dispatcher.requiresExecutionNotification());
+    assertEquals(VirtualThreadDispatcher.isVirtualThreadSupported(), dispatcher.usesVirtualThreads());
+  }
+
+  @Before
+  public void setUp() {
+    dispatcher = new VirtualThreadDispatcher(4, FallbackThreads, "test-virtual-", Logger.noOpLogger());
+  }
+
+  @After
+  public void tearDown() {
+    dispatcher.close();
+  }
+}
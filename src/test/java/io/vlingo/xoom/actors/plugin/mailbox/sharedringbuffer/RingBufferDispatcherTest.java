@@ -8,18 +8,27 @@
 package io.vlingo.xoom.actors.plugin.mailbox.sharedringbuffer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import org.junit.Test;
 
 import io.vlingo.xoom.actors.Actor;
 import io.vlingo.xoom.actors.ActorsTest;
 import io.vlingo.xoom.actors.Mailbox;
+import io.vlingo.xoom.actors.Stoppable;
 import io.vlingo.xoom.actors.testkit.AccessSafely;
 import io.vlingo.xoom.common.SerializableConsumer;
 
 public class RingBufferDispatcherTest extends ActorsTest {
+  private static final String Paused = "paused#";
 
   @Test
   public void testClose() throws Exception {
@@ -84,7 +93,7 @@ public class RingBufferDispatcherTest extends ActorsTest {
   public void testOverflowDispatch() throws Exception {
     final int mailboxSize = 64;
     final int overflowSize = mailboxSize * 2;
-    final TestResults testResults = new TestResults(mailboxSize);
+    final TestResults testResults = new TestResults(overflowSize);
 
     final RingBufferDispatcher dispatcher = new RingBufferDispatcher(mailboxSize, 2, false, 4);
 
@@ -92,16 +101,23 @@ public class RingBufferDispatcherTest extends ActorsTest {
 
     final CountTakerActor actor = new CountTakerActor(testResults);
 
-    for (int count = 1; count <= overflowSize; ++count) {
-      final int countParam = count;
-      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(countParam);
+    // the sender parks once the ring is full until the dispatcher releases slots
+    final Thread sender = new Thread(() -> {
+      for (int count = 1; count <= overflowSize; ++count) {
+        final int countParam = count;
+        final SerializableConsumer<CountTaker> consumer = (consumerActor) -> consumerActor.take(countParam);
 
-      mailbox.send(actor, CountTaker.class, consumer, null, "take(int)");
-    }
+        mailbox.send(actor, CountTaker.class, consumer, null, "take(int)");
+      }
+    });
+
+    sender.start();
 
     dispatcher.start();
 
     assertEquals(overflowSize, testResults.getHighest());
+
+    sender.join();
   }
 
   @Test
@@ -134,6 +150,95 @@ public class RingBufferDispatcherTest extends ActorsTest {
     assertEquals(mailboxSize, testResults.getHighest());
   }
 
+  @Test
+  public void testSuspendedDeliveryStowsUntilResumed() {
+    final int mailboxSize = 64;
+    final int stowed = 10;
+
+    final RingBufferDispatcher dispatcher = new RingBufferDispatcher(mailboxSize, 2, false, 4);
+
+    final Mailbox mailbox = dispatcher.mailbox();
+
+    final CountTakerActor actor = new CountTakerActor(new TestResults(0));
+
+    mailbox.suspendExceptFor(Paused, Stoppable.class);
+
+    for (int count = 1; count <= stowed; ++count) {
+      mailbox.send(actor, CountTaker.class, null, null, "take(" + count + ")");
+    }
+
+    mailbox.send(actor, Stoppable.class, null, null, "stop()");
+
+    assertTrue(mailbox.isSuspended());
+    assertEquals("stop()", mailbox.receive().representation());
+    assertNull(mailbox.receive());
+    assertEquals(stowed, mailbox.depth());
+
+    mailbox.resume(Paused);
+
+    assertFalse(mailbox.isSuspended());
+
+    mailbox.send(actor, CountTaker.class, null, null, "take(" + (stowed + 1) + ")");
+
+    for (int count = 1; count <= stowed + 1; ++count) {
+      assertEquals("take(" + count + ")", mailbox.receive().representation());
+    }
+
+    assertNull(mailbox.receive());
+  }
+
+  @Test
+  public void testThatSuspensionWithinBatchStowsTheRest() {
+    final int mailboxSize = 64;
+
+    final RingBufferDispatcher dispatcher = new RingBufferDispatcher(mailboxSize, 2, false, 8);
+
+    final Mailbox mailbox = dispatcher.mailbox();
+
+    final List<String> delivered = new ArrayList<>();
+    final AccessSafely access = AccessSafely
+            .afterCompleting(2)
+            .writingWith("delivered", (Consumer<String>) delivered::add)
+            .readingWith("delivered", () -> new ArrayList<>(delivered));
+
+    final CountTakerActor actor = new CountTakerActor(new TestResults(0));
+
+    final SerializableConsumer<CountTaker> suspending = (consumerActor) -> {
+      access.writeUsing("delivered", "take(1)");
+      mailbox.suspendExceptFor(Paused, Stoppable.class);
+    };
+    final SerializableConsumer<CountTaker> second = (consumerActor) -> access.writeUsing("delivered", "take(2)");
+    final SerializableConsumer<Stoppable> stopping = (consumerActor) -> access.writeUsing("delivered", "stop()");
+    final SerializableConsumer<CountTaker> third = (consumerActor) -> access.writeUsing("delivered", "take(3)");
+
+    // the four messages are received as one batch, of which the first suspends the mailbox
+    mailbox.send(actor, CountTaker.class, suspending, null, "take(1)");
+    mailbox.send(actor, CountTaker.class, second, null, "take(2)");
+    mailbox.send(actor, Stoppable.class, stopping, null, "stop()");
+    mailbox.send(actor, CountTaker.class, third, null, "take(3)");
+
+    dispatcher.start();
+
+    assertEquals(Arrays.asList("take(1)", "stop()"), access.readFrom("delivered"));
+    assertEquals(2, mailbox.depth());
+
+    final List<String> all = new ArrayList<>(Arrays.asList("take(1)", "stop()", "take(2)", "take(3)"));
+
+    // the stowed copies survive the release of their slots for reuse
+    for (int count = 4; count < 4 + mailboxSize; ++count) {
+      final String representation = "take(" + count + ")";
+      final SerializableConsumer<CountTaker> consumer = (consumerActor) -> access.writeUsing("delivered", representation);
+      mailbox.send(actor, CountTaker.class, consumer, null, representation);
+      all.add(representation);
+    }
+
+    mailbox.resume(Paused);
+
+    assertEquals(all, access.readFromExpecting("delivered", all, 5000));
+
+    dispatcher.close();
+  }
+
   public static interface CountTaker {
     void take(final int count);
   }